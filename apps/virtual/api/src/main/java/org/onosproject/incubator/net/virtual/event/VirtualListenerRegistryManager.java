@@ -83,6 +83,11 @@ public final class VirtualListenerRegistryManager
         lastStart.onProcessLimit();
     }
 
+    @Override
+    public void onProcessLimit(Thread thread) {
+        lastStart.onProcessLimit(thread);
+    }
+
     /**
      * Prevents object instantiation from external.
      */
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.cli;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.apache.karaf.shell.api.action.Command;
+import org.apache.karaf.shell.api.action.lifecycle.Service;
+import org.onosproject.event.AsyncDeliveryStatistics;
+import org.onosproject.event.Event;
+import org.onosproject.event.EventDeliveryService;
+import org.onosproject.event.EventSink;
+import org.onosproject.event.ListenerRegistry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Lists the listeners receiving events asynchronously along with their lag
+ * and drop counts.
+ */
+@Service
+@Command(scope = "onos", name = "listener-queues",
+         description = "Lists listeners receiving events asynchronously, " +
+                 "along with their lag and drop counts")
+public class ListenerQueuesCommand extends AbstractShellCommand {
+
+    private static final String FMT = "listener=%s, event=%s, queued=%d, lagMillis=%d, " +
+            "delivered=%d, dropped=%d, coalesced=%d, policy=%s";
+
+    @Override
+    protected void doExecute() {
+        Map<String, List<AsyncDeliveryStatistics>> statistics = statistics(get(EventDeliveryService.class));
+        if (outputJson()) {
+            print("%s", json(statistics));
+        } else {
+            statistics.forEach((event, listeners) -> listeners.forEach(
+                    s -> print(FMT, s.listener(), event, s.queued(), s.lagMillis(),
+                               s.delivered(), s.dropped(), s.coalesced(), s.policy())));
+        }
+    }
+
+    // Collects the delivery statistics of the listener registries serving
+    // as event sinks, keyed by event class name.
+    private Map<String, List<AsyncDeliveryStatistics>> statistics(EventDeliveryService service) {
+        Map<String, List<AsyncDeliveryStatistics>> statistics = new TreeMap<>();
+        for (Class<? extends Event> eventClass : service.getSinks()) {
+            EventSink<? extends Event> sink = service.getSink(eventClass);
+            if (sink instanceof ListenerRegistry) {
+                List<AsyncDeliveryStatistics> listeners =
+                        new ArrayList<>(((ListenerRegistry<?, ?>) sink).asyncDeliveryStatistics());
+                if (!listeners.isEmpty()) {
+                    listeners.sort(Comparator.comparing(AsyncDeliveryStatistics::listener));
+                    statistics.put(eventClass.getSimpleName(), listeners);
+                }
+            }
+        }
+        return statistics;
+    }
+
+    // Produces JSON structure.
+    private JsonNode json(Map<String, List<AsyncDeliveryStatistics>> statistics) {
+        ObjectMapper mapper = new ObjectMapper();
+        ArrayNode result = mapper.createArrayNode();
+        statistics.forEach((event, listeners) -> listeners.forEach(
+                s -> result.add(mapper.createObjectNode()
+                                        .put("listener", s.listener())
+                                        .put("event", event)
+                                        .put("queued", s.queued())
+                                        .put("lagMillis", s.lagMillis())
+                                        .put("delivered", s.delivered())
+                                        .put("dropped", s.dropped())
+                                        .put("coalesced", s.coalesced())
+                                        .put("queueSize", s.policy().queueSize())
+                                        .put("overflow", s.policy().overflow().name()))));
+        return result;
+    }
+}
@@ -17,7 +17,7 @@ package org.onosproject.cli.net;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
 import org.apache.karaf.shell.api.action.Argument;
 import org.apache.karaf.shell.api.action.Command;
@@ -136,9 +136,11 @@ public class IntentsDiagnosisCommand extends AbstractShellCommand {
             // Utilizing reflection instead of adding new interface for getting intentsByLink
             Field f = objTracker.getClass().getDeclaredField(FIELD_INTENTS_BY_LINK);
             f.setAccessible(true);
-            SetMultimap<LinkKey, Key> intentsByLink = (SetMultimap<LinkKey, Key>) f.get(objTracker);
+            Map<LinkKey, Set<Key>> intentsByLink = (Map<LinkKey, Set<Key>>) f.get(objTracker);
 
-            return ImmutableSet.copyOf(intentsByLink.entries());
+            return intentsByLink.entrySet().stream()
+                    .flatMap(e -> e.getValue().stream().map(key -> Maps.immutableEntry(e.getKey(), key)))
+                    .collect(ImmutableSet.toImmutableSet());
         } catch (NoSuchFieldException | IllegalAccessException ex) {
             error("error: " + ex);
             return ImmutableSet.of();
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.cli.net;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.apache.karaf.shell.api.action.Command;
+import org.apache.karaf.shell.api.action.lifecycle.Service;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.net.packet.PacketAdmissionStatistics;
+import org.onosproject.net.packet.PacketService;
+
+import java.util.List;
+
+/**
+ * Lists the per-device packet admission statistics.
+ */
+@Service
+@Command(scope = "onos", name = "packet-admission",
+        description = "Lists the packets admitted and dropped by the packet-in rate limits")
+public class PacketAdmissionCommand extends AbstractShellCommand {
+
+    private static final String FMT =
+            "deviceId=%s, admitted=%d, dropped=%d, byDevice=%d, byPort=%d, byEtherType=%d";
+
+    @Override
+    protected void doExecute() {
+        PacketService service = get(PacketService.class);
+        if (outputJson()) {
+            print("%s", json(service.getAdmissionStatistics()));
+        } else {
+            service.getAdmissionStatistics().forEach(this::print);
+        }
+    }
+
+    private JsonNode json(List<PacketAdmissionStatistics> statistics) {
+        ObjectMapper mapper = new ObjectMapper();
+        ArrayNode result = mapper.createArrayNode();
+
+        for (PacketAdmissionStatistics s : statistics) {
+            result.add(mapper.createObjectNode()
+                    .put("deviceId", s.deviceId().toString())
+                    .put("admitted", s.admitted())
+                    .put("droppedByDevice", s.droppedByDevice())
+                    .put("droppedByPort", s.droppedByPort())
+                    .put("droppedByEtherType", s.droppedByEtherType()));
+        }
+
+        return result;
+    }
+
+    private void print(PacketAdmissionStatistics s) {
+        print(FMT, s.deviceId(), s.admitted(), s.dropped(),
+              s.droppedByDevice(), s.droppedByPort(), s.droppedByEtherType());
+    }
+
+}
@@ -34,6 +34,11 @@ public abstract class AbstractListenerManager<E extends Event, L extends EventLi
         listenerRegistry.addListener(listener);
     }
 
+    @Override
+    public void addListener(L listener, AsyncDeliveryPolicy policy) {
+        listenerRegistry.addListener(listener, policy);
+    }
+
     @Override
     public void removeListener(L listener) {
         listenerRegistry.removeListener(listener);
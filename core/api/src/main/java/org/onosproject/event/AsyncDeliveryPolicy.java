@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.event;
+
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Policy of asynchronous event delivery to a listener.
+ * <p>
+ * Events are queued for the listener and delivered to it by a thread of its
+ * own, so that a slow listener delays only its own events. The policy bounds
+ * the number of queued events and defines how events are handled when the
+ * listener falls that far behind.
+ */
+public final class AsyncDeliveryPolicy {
+
+    /**
+     * Handling of events posted while the listener queue is full.
+     */
+    public enum Overflow {
+        /**
+         * Holds back the event dispatcher until the listener catches up or
+         * the blocking timeout expires, then drops the event.
+         */
+        BLOCK,
+
+        /**
+         * Drops the posted event.
+         */
+        DROP_NEWEST,
+
+        /**
+         * Drops the oldest queued event to make room for the posted one.
+         */
+        DROP_OLDEST,
+
+        /**
+         * Replaces the queued event of the same class, type and subject with
+         * the posted one; drops the oldest queued event if there is none.
+         */
+        COALESCE
+    }
+
+    /**
+     * Default number of millis the dispatcher may be held back by a listener.
+     */
+    public static final long DEFAULT_BLOCK_MILLIS = 100;
+
+    private final int queueSize;
+    private final Overflow overflow;
+    private final long blockMillis;
+
+    private AsyncDeliveryPolicy(int queueSize, Overflow overflow, long blockMillis) {
+        checkArgument(queueSize > 0, "Queue size must be positive");
+        checkArgument(blockMillis >= 0, "Blocking timeout cannot be negative");
+        this.queueSize = queueSize;
+        this.overflow = checkNotNull(overflow, "Overflow policy cannot be null");
+        this.blockMillis = blockMillis;
+    }
+
+    /**
+     * Returns a policy with the given queue size and overflow handling.
+     *
+     * @param queueSize maximum number of queued events
+     * @param overflow  handling of events posted while the queue is full
+     * @return asynchronous delivery policy
+     */
+    public static AsyncDeliveryPolicy of(int queueSize, Overflow overflow) {
+        return new AsyncDeliveryPolicy(queueSize, overflow, DEFAULT_BLOCK_MILLIS);
+    }
+
+    /**
+     * Returns a policy holding back the dispatcher while the queue is full,
+     * for at most the given time per event.
+     *
+     * @param queueSize   maximum number of queued events
+     * @param blockMillis maximum number of millis to hold back the dispatcher
+     * @return asynchronous delivery policy
+     */
+    public static AsyncDeliveryPolicy blocking(int queueSize, long blockMillis) {
+        return new AsyncDeliveryPolicy(queueSize, Overflow.BLOCK, blockMillis);
+    }
+
+    /**
+     * Returns the maximum number of queued events.
+     *
+     * @return queue size
+     */
+    public int queueSize() {
+        return queueSize;
+    }
+
+    /**
+     * Returns the handling of events posted while the queue is full.
+     *
+     * @return overflow policy
+     */
+    public Overflow overflow() {
+        return overflow;
+    }
+
+    /**
+     * Returns the maximum number of millis the dispatcher is held back per
+     * event under the {@link Overflow#BLOCK} policy.
+     *
+     * @return blocking timeout in millis
+     */
+    public long blockMillis() {
+        return blockMillis;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(queueSize, overflow, blockMillis);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof AsyncDeliveryPolicy) {
+            AsyncDeliveryPolicy that = (AsyncDeliveryPolicy) obj;
+            return queueSize == that.queueSize && overflow == that.overflow &&
+                    blockMillis == that.blockMillis;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("queueSize", queueSize)
+                .add("overflow", overflow)
+                .add("blockMillis", blockMillis)
+                .toString();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.event;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Snapshot of the asynchronous event delivery to a listener.
+ */
+public final class AsyncDeliveryStatistics {
+
+    private final String listener;
+    private final AsyncDeliveryPolicy policy;
+    private final int queued;
+    private final long lagMillis;
+    private final long delivered;
+    private final long dropped;
+    private final long coalesced;
+
+    /**
+     * Creates a new snapshot of the asynchronous delivery to a listener.
+     *
+     * @param listener  listener name
+     * @param policy    delivery policy
+     * @param queued    number of queued events
+     * @param lagMillis age of the oldest queued event in millis
+     * @param delivered number of events delivered
+     * @param dropped   number of events dropped
+     * @param coalesced number of events superseded by newer events
+     */
+    public AsyncDeliveryStatistics(String listener, AsyncDeliveryPolicy policy, int queued,
+                                   long lagMillis, long delivered, long dropped, long coalesced) {
+        this.listener = listener;
+        this.policy = policy;
+        this.queued = queued;
+        this.lagMillis = lagMillis;
+        this.delivered = delivered;
+        this.dropped = dropped;
+        this.coalesced = coalesced;
+    }
+
+    /**
+     * Returns the name of the listener.
+     *
+     * @return listener name
+     */
+    public String listener() {
+        return listener;
+    }
+
+    /**
+     * Returns the delivery policy of the listener.
+     *
+     * @return delivery policy
+     */
+    public AsyncDeliveryPolicy policy() {
+        return policy;
+    }
+
+    /**
+     * Returns the number of events queued for the listener.
+     *
+     * @return number of queued events
+     */
+    public int queued() {
+        return queued;
+    }
+
+    /**
+     * Returns how far behind the listener is, as the age of the oldest
+     * event queued for it.
+     *
+     * @return lag in millis; 0 if no events are queued
+     */
+    public long lagMillis() {
+        return lagMillis;
+    }
+
+    /**
+     * Returns the number of events delivered to the listener.
+     *
+     * @return number of delivered events
+     */
+    public long delivered() {
+        return delivered;
+    }
+
+    /**
+     * Returns the number of events dropped because the listener queue was
+     * full.
+     *
+     * @return number of dropped events
+     */
+    public long dropped() {
+        return dropped;
+    }
+
+    /**
+     * Returns the number of queued events superseded by newer events of the
+     * same subject.
+     *
+     * @return number of coalesced events
+     */
+    public long coalesced() {
+        return coalesced;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("listener", listener)
+                .add("policy", policy)
+                .add("queued", queued)
+                .add("lagMillis", lagMillis)
+                .add("delivered", delivered)
+                .add("dropped", dropped)
+                .add("coalesced", coalesced)
+                .toString();
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.event;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Queue of the events pending asynchronous delivery to a listener.
+ * <p>
+ * Events are delivered in order, in batches run on the given executor, so
+ * that the listener is never invoked concurrently and a listener that keeps
+ * up does not hold a thread while idle.
+ *
+ * @param <E> type of events
+ * @param <L> type of listener
+ */
+final class AsyncListenerQueue<E extends Event, L extends EventListener<E>> implements Runnable {
+
+    // Maximum number of events delivered before yielding the thread.
+    private static final int BATCH_SIZE = 256;
+
+    private final L listener;
+    private final AsyncDeliveryPolicy policy;
+    private final Executor executor;
+    private final BiConsumer<E, Throwable> problemReporter;
+
+    private final ArrayDeque<Queued<E>> queue = new ArrayDeque<>();
+    private boolean scheduled;
+    private boolean closed;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Creates a new queue for asynchronous delivery to a listener.
+     *
+     * @param listener        listener
+     * @param policy          delivery policy
+     * @param executor        executor running the deliveries
+     * @param problemReporter reporter of errors raised by the listener
+     */
+    AsyncListenerQueue(L listener, AsyncDeliveryPolicy policy, Executor executor,
+                       BiConsumer<E, Throwable> problemReporter) {
+        this.listener = listener;
+        this.policy = policy;
+        this.executor = executor;
+        this.problemReporter = problemReporter;
+    }
+
+    /**
+     * Queues the given event for delivery, applying the overflow policy if
+     * the queue is full.
+     *
+     * @param event event to be delivered
+     */
+    synchronized void enqueue(E event) {
+        if (closed) {
+            return;
+        }
+        if (queue.size() >= policy.queueSize() && !makeRoom(event)) {
+            return;
+        }
+        queue.addLast(new Queued<>(event, System.currentTimeMillis()));
+        if (!scheduled) {
+            scheduled = true;
+            executor.execute(this);
+        }
+    }
+
+    // Applies the overflow policy; returns true if the event is to be queued.
+    private boolean makeRoom(E event) {
+        switch (policy.overflow()) {
+            case BLOCK:
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(policy.blockMillis());
+                try {
+                    long remaining = deadline - System.nanoTime();
+                    while (!closed && queue.size() >= policy.queueSize() && remaining > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                        remaining = deadline - System.nanoTime();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (closed || queue.size() >= policy.queueSize()) {
+                    dropped.increment();
+                    return false;
+                }
+                return true;
+            case DROP_NEWEST:
+                dropped.increment();
+                return false;
+            case COALESCE:
+                if (supersede(event)) {
+                    coalesced.increment();
+                    return false;
+                }
+                queue.pollFirst();
+                dropped.increment();
+                return true;
+            case DROP_OLDEST:
+            default:
+                queue.pollFirst();
+                dropped.increment();
+                return true;
+        }
+    }
+
+    // Replaces the queued event of the same class, type and subject, if any.
+    private boolean supersede(E event) {
+        Iterator<Queued<E>> it = queue.descendingIterator();
+        while (it.hasNext()) {
+            Queued<E> queued = it.next();
+            if (queued.event.getClass() == event.getClass() &&
+                    Objects.equals(queued.event.type(), event.type()) &&
+                    Objects.equals(queued.event.subject(), event.subject())) {
+                queued.event = event;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            E event;
+            synchronized (this) {
+                Queued<E> next = queue.pollFirst();
+                if (next == null) {
+                    scheduled = false;
+                    return;
+                }
+                event = next.event;
+                notifyAll();
+            }
+            deliver(event);
+        }
+
+        // Yield the thread to other listeners before resuming.
+        synchronized (this) {
+            if (queue.isEmpty()) {
+                scheduled = false;
+                return;
+            }
+        }
+        executor.execute(this);
+    }
+
+    private void deliver(E event) {
+        try {
+            if (listener.isRelevant(event)) {
+                listener.event(event);
+            }
+        } catch (Exception error) {
+            problemReporter.accept(event, error);
+        }
+        delivered.increment();
+    }
+
+    /**
+     * Discards the queued events and stops accepting new ones.
+     */
+    synchronized void close() {
+        closed = true;
+        queue.clear();
+        notifyAll();
+    }
+
+    /**
+     * Returns a snapshot of the delivery statistics.
+     *
+     * @return delivery statistics
+     */
+    synchronized AsyncDeliveryStatistics statistics() {
+        Queued<E> oldest = queue.peekFirst();
+        long lag = oldest == null ? 0 : System.currentTimeMillis() - oldest.time;
+        return new AsyncDeliveryStatistics(listener.getClass().getName(), policy, queue.size(), lag,
+                                           delivered.sum(), dropped.sum(), coalesced.sum());
+    }
+
+    // Queued event along with the time it was queued at.
+    private static final class Queued<E> {
+        private E event;
+        private final long time;
+
+        private Queued(E event, long time) {
+            this.event = event;
+            this.time = time;
+        }
+    }
+}
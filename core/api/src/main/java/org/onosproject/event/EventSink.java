@@ -33,4 +33,15 @@ public interface EventSink<E extends Event> {
     default void onProcessLimit() {
     }
 
+    /**
+     * Handles notification that event processing time limit has been exceeded
+     * by the given thread, when events are processed by several threads.
+     * By default, this is handled as by {@link #onProcessLimit()}.
+     *
+     * @param thread thread which exceeded the time limit
+     */
+    default void onProcessLimit(Thread thread) {
+        onProcessLimit();
+    }
+
 }
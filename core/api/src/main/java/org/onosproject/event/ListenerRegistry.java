@@ -15,12 +15,19 @@
  */
 package org.onosproject.event;
 
+import com.google.common.collect.ImmutableList;
 import org.slf4j.Logger;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.onlab.util.Tools.groupedThreads;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -32,57 +39,105 @@ public class ListenerRegistry<E extends Event, L extends EventListener<E>>
 
     private static final long LIMIT = 1_800; // ms
 
+    // Threads delivering events to listeners registered for asynchronous
+    // delivery; a thread is only held while a listener has queued events.
+    private static final ExecutorService ASYNC_DELIVERY =
+            newCachedThreadPool(groupedThreads("onos/event", "async-listener-%d"));
+
     private final Logger log = getLogger(getClass());
 
-    private long lastStart;
-    private L lastListener;
+    // Listeners being run by each of the threads processing events; events
+    // may be processed by several threads at once.
+    private final Map<Thread, Running<L>> running = new ConcurrentHashMap<>();
 
     /**
      * Set of listeners that have registered.
      */
     protected final Set<L> listeners = new CopyOnWriteArraySet<>();
 
+    /**
+     * Event queues of the listeners registered for asynchronous delivery.
+     */
+    private final Map<L, AsyncListenerQueue<E, L>> asyncListeners = new ConcurrentHashMap<>();
+
     @Override
     public void addListener(L listener) {
         checkNotNull(listener, "Listener cannot be null");
         listeners.add(listener);
     }
 
+    @Override
+    public void addListener(L listener, AsyncDeliveryPolicy policy) {
+        checkNotNull(listener, "Listener cannot be null");
+        checkNotNull(policy, "Delivery policy cannot be null");
+        AsyncListenerQueue<E, L> queue =
+                new AsyncListenerQueue<>(listener, policy, ASYNC_DELIVERY, this::reportProblem);
+        AsyncListenerQueue<E, L> previous = asyncListeners.put(listener, queue);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
     @Override
     public void removeListener(L listener) {
         checkNotNull(listener, "Listener cannot be null");
-        if (!listeners.remove(listener)) {
+        AsyncListenerQueue<E, L> queue = asyncListeners.remove(listener);
+        if (queue != null) {
+            queue.close();
+        } else if (!listeners.remove(listener)) {
             log.warn("Listener {} not registered", listener);
         }
     }
 
+    /**
+     * Returns the delivery statistics of the listeners registered for
+     * asynchronous delivery.
+     *
+     * @return list of delivery statistics
+     */
+    public List<AsyncDeliveryStatistics> asyncDeliveryStatistics() {
+        ImmutableList.Builder<AsyncDeliveryStatistics> builder = ImmutableList.builder();
+        asyncListeners.values().forEach(queue -> builder.add(queue.statistics()));
+        return builder.build();
+    }
+
     @Override
     public void process(E event) {
+        Thread thread = Thread.currentThread();
         for (L listener : listeners) {
             try {
-                lastListener = listener;
-                lastStart = System.currentTimeMillis();
+                running.put(thread, new Running<>(listener, System.currentTimeMillis()));
                 if (listener.isRelevant(event)) {
                     listener.event(event);
                 }
-                lastStart = 0;
             } catch (Exception error) {
                 reportProblem(event, error);
+            } finally {
+                running.remove(thread);
             }
         }
+        if (!asyncListeners.isEmpty()) {
+            asyncListeners.values().forEach(queue -> queue.enqueue(event));
+        }
     }
 
     @Override
     public void onProcessLimit() {
-        if (lastStart > 0) {
-            long duration = System.currentTimeMillis() - lastStart;
+        running.keySet().forEach(this::onProcessLimit);
+    }
+
+    @Override
+    public void onProcessLimit(Thread thread) {
+        Running<L> current = running.get(thread);
+        if (current != null) {
+            long duration = System.currentTimeMillis() - current.start;
             if (duration > LIMIT) {
                 log.error("Listener {} exceeded execution time limit: {} ms; ejected",
-                          lastListener.getClass().getName(),
+                          current.listener.getClass().getName(),
                           duration);
-                removeListener(lastListener);
+                removeListener(current.listener);
             }
-            lastStart = 0;
+            running.remove(thread, current);
         }
     }
 
@@ -96,4 +151,15 @@ public class ListenerRegistry<E extends Event, L extends EventListener<E>>
         log.warn("Exception encountered while processing event " + event, error);
     }
 
+    // Listener being run by a thread and the time it started running.
+    private static final class Running<L> {
+        private final L listener;
+        private final long start;
+
+        private Running(L listener, long start) {
+            this.listener = listener;
+            this.start = start;
+        }
+    }
+
 }
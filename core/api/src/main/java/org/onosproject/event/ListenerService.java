@@ -27,6 +27,21 @@ public interface ListenerService<E extends Event, L extends EventListener<E>> {
      */
     void addListener(L listener);
 
+    /**
+     * Adds the specified listener, delivering events to it asynchronously
+     * according to the given policy, so that a slow listener does not hold
+     * back the delivery of events to other listeners.
+     * <p>
+     * Services which do not support asynchronous delivery add the listener
+     * for regular delivery.
+     *
+     * @param listener listener to be added
+     * @param policy   asynchronous delivery policy
+     */
+    default void addListener(L listener, AsyncDeliveryPolicy policy) {
+        addListener(listener);
+    }
+
     /**
      * Removes the specified listener.
      *
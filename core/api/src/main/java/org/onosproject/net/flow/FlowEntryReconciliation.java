@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.flow;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of reconciling the flow entries reported by a device with the flow entries in the store.
+ */
+public final class FlowEntryReconciliation {
+
+    private final Map<FlowEntry, FlowEntry> matched;
+    private final Map<FlowEntry, FlowEntry> mismatched;
+    private final List<FlowEntry> extraneous;
+    private final List<FlowEntry> missing;
+
+    /**
+     * Creates a new flow entry reconciliation result.
+     *
+     * @param matched    reported entries that exactly match a stored entry, mapped to the stored entry
+     * @param mismatched reported entries that match a stored rule but differ from it, mapped to the stored entry
+     * @param extraneous reported entries that are not in the store
+     * @param missing    stored entries that were not reported by the device
+     */
+    public FlowEntryReconciliation(Map<FlowEntry, FlowEntry> matched,
+                                   Map<FlowEntry, FlowEntry> mismatched,
+                                   Collection<FlowEntry> extraneous,
+                                   Collection<FlowEntry> missing) {
+        this.matched = ImmutableMap.copyOf(matched);
+        this.mismatched = ImmutableMap.copyOf(mismatched);
+        this.extraneous = ImmutableList.copyOf(extraneous);
+        this.missing = ImmutableList.copyOf(missing);
+    }
+
+    /**
+     * Returns the reported entries that exactly match a stored entry.
+     *
+     * @return map of reported entries to the matching stored entries
+     */
+    public Map<FlowEntry, FlowEntry> matched() {
+        return matched;
+    }
+
+    /**
+     * Returns the reported entries that match a stored rule but not its exact content.
+     *
+     * @return map of reported entries to the differing stored entries
+     */
+    public Map<FlowEntry, FlowEntry> mismatched() {
+        return mismatched;
+    }
+
+    /**
+     * Returns the reported entries that are not in the store.
+     *
+     * @return list of extraneous entries
+     */
+    public List<FlowEntry> extraneous() {
+        return extraneous;
+    }
+
+    /**
+     * Returns the stored entries that were not reported by the device.
+     *
+     * @return list of missing entries
+     */
+    public List<FlowEntry> missing() {
+        return missing;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("matched", matched.size())
+                .add("mismatched", mismatched.size())
+                .add("extraneous", extraneous.size())
+                .add("missing", missing.size())
+                .toString();
+    }
+}
@@ -15,12 +15,15 @@
  */
 package org.onosproject.net.flow;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.flow.oldbatch.FlowRuleBatchEvent;
 import org.onosproject.net.flow.oldbatch.FlowRuleBatchOperation;
 import org.onosproject.store.Store;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Manages inventory of flow rules; not intended for direct use.
@@ -60,6 +63,38 @@ public interface FlowRuleStore extends Store<FlowRuleBatchEvent, FlowRuleStoreDe
      */
     Iterable<FlowEntry> getFlowEntries(DeviceId deviceId);
 
+    /**
+     * Reconciles the flow entries reported by a device with the flow entries
+     * in the store for the device.
+     * <p>
+     * Implementations are encouraged to perform the reconciliation in a single
+     * pass over their internal representation of the device flow table.
+     *
+     * @param deviceId the device ID
+     * @param reportedEntries the flow entries reported by the device
+     * @return the reconciliation result
+     */
+    default FlowEntryReconciliation reconcileFlowEntries(DeviceId deviceId,
+                                                         Iterable<FlowEntry> reportedEntries) {
+        Map<FlowEntry, FlowEntry> storedEntries = Maps.newHashMap();
+        getFlowEntries(deviceId).forEach(f -> storedEntries.put(f, f));
+
+        Map<FlowEntry, FlowEntry> matched = Maps.newHashMap();
+        Map<FlowEntry, FlowEntry> mismatched = Maps.newHashMap();
+        List<FlowEntry> extraneous = Lists.newArrayList();
+        for (FlowEntry reportedEntry : reportedEntries) {
+            FlowEntry storedEntry = storedEntries.remove(reportedEntry);
+            if (storedEntry == null) {
+                extraneous.add(reportedEntry);
+            } else if (storedEntry.exactMatch(reportedEntry)) {
+                matched.put(reportedEntry, storedEntry);
+            } else {
+                mismatched.put(reportedEntry, storedEntry);
+            }
+        }
+        return new FlowEntryReconciliation(matched, mismatched, extraneous, storedEntries.keySet());
+    }
+
     /**
      * // TODO: Better description of method behavior.
      * Stores a new flow rule without generating events.
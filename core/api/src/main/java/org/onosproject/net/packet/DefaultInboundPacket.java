@@ -16,7 +16,9 @@
 package org.onosproject.net.packet;
 
 import org.onosproject.net.ConnectPoint;
+import org.onlab.packet.DeserializationException;
 import org.onlab.packet.Ethernet;
+import org.onlab.packet.EthernetView;
 
 import java.nio.ByteBuffer;
 import java.util.Objects;
@@ -30,10 +32,14 @@ import static com.google.common.base.MoreObjects.toStringHelper;
 public final class DefaultInboundPacket implements InboundPacket {
 
     private final ConnectPoint receivedFrom;
-    private final Ethernet parsed;
     private final ByteBuffer unparsed;
     private final Optional<Long> cookie;
 
+    // Parsed lazily, on first use, unless given at construction.
+    private volatile Ethernet parsed;
+    private volatile boolean isParsed;
+    private volatile EthernetView headers;
+
     /**
      * Creates an immutable inbound packet.
      *
@@ -58,6 +64,22 @@ public final class DefaultInboundPacket implements InboundPacket {
             ByteBuffer unparsed, Optional<Long> cookie) {
         this.receivedFrom = receivedFrom;
         this.parsed = parsed;
+        this.isParsed = true;
+        this.unparsed = unparsed;
+        this.cookie = cookie;
+    }
+
+    /**
+     * Creates an immutable inbound packet with cookie, parsed only when
+     * the parsed form is first asked for.
+     *
+     * @param receivedFrom connection point where received
+     * @param unparsed     unparsed raw bytes
+     * @param cookie       cookie
+     */
+    public DefaultInboundPacket(ConnectPoint receivedFrom, ByteBuffer unparsed,
+                                Optional<Long> cookie) {
+        this.receivedFrom = receivedFrom;
         this.unparsed = unparsed;
         this.cookie = cookie;
     }
@@ -69,15 +91,49 @@ public final class DefaultInboundPacket implements InboundPacket {
 
     @Override
     public Ethernet parsed() {
+        if (!isParsed) {
+            synchronized (this) {
+                if (!isParsed) {
+                    parsed = parse(unparsed);
+                    isParsed = true;
+                }
+            }
+        }
         return parsed;
     }
 
+    // Parses the frame without disturbing the position of the buffer.
+    private static Ethernet parse(ByteBuffer unparsed) {
+        if (unparsed == null) {
+            return null;
+        }
+        try {
+            if (unparsed.hasArray()) {
+                return Ethernet.deserializer().deserialize(
+                        unparsed.array(), unparsed.arrayOffset() + unparsed.position(), unparsed.remaining());
+            }
+            byte[] data = new byte[unparsed.remaining()];
+            unparsed.duplicate().get(data);
+            return Ethernet.deserializer().deserialize(data, 0, data.length);
+        } catch (DeserializationException | RuntimeException e) {
+            return null;
+        }
+    }
+
     @Override
     public ByteBuffer unparsed() {
         // FIXME: figure out immutability here
         return unparsed;
     }
 
+    @Override
+    public EthernetView headers() {
+        if (headers == null && unparsed != null) {
+            headers = EthernetView.of(unparsed);
+        }
+        return headers;
+    }
+
     @Override
     public Optional<Long> cookie() {
         return cookie;
@@ -85,7 +141,7 @@ public final class DefaultInboundPacket implements InboundPacket {
 
     @Override
     public int hashCode() {
-        return Objects.hash(receivedFrom, parsed, unparsed);
+        return Objects.hash(receivedFrom, parsed(), unparsed);
     }
 
     @Override
@@ -96,7 +152,7 @@ public final class DefaultInboundPacket implements InboundPacket {
         if (obj instanceof InboundPacket) {
             final DefaultInboundPacket other = (DefaultInboundPacket) obj;
             return Objects.equals(this.receivedFrom, other.receivedFrom) &&
-                    Objects.equals(this.parsed, other.parsed) &&
+                    Objects.equals(this.parsed(), other.parsed()) &&
                     Objects.equals(this.unparsed, other.unparsed);
         }
         return false;
@@ -106,7 +162,7 @@ public final class DefaultInboundPacket implements InboundPacket {
     public String toString() {
         return toStringHelper(this)
                 .add("receivedFrom", receivedFrom)
-                .add("parsed", parsed)
+                .add("parsed", parsed())
                 .toString();
     }
 }
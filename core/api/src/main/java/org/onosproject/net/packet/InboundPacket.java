@@ -17,6 +17,7 @@ package org.onosproject.net.packet;
 
 import org.onosproject.net.ConnectPoint;
 import org.onlab.packet.Ethernet;
+import org.onlab.packet.EthernetView;
 
 import java.nio.ByteBuffer;
 import java.util.Optional;
@@ -48,6 +49,18 @@ public interface InboundPacket {
      */
     ByteBuffer unparsed();
 
+    /**
+     * Returns a view of the packet headers read directly from the raw
+     * packet data, without parsing the whole packet.
+     *
+     * @return view of the Ethernet frame headers; null if there is no raw
+     * packet data
+     */
+    default EthernetView headers() {
+        ByteBuffer data = unparsed();
+        return data != null ? EthernetView.of(data) : null;
+    }
+
     /**
      * Returns the cookie in the packet in message.
      *
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.packet;
+
+import org.onosproject.net.DeviceId;
+
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Counts of the packets received from a device which were admitted for
+ * processing or dropped for exceeding the packet-in rate limits.
+ */
+public final class PacketAdmissionStatistics {
+
+    private final DeviceId deviceId;
+    private final long admitted;
+    private final long droppedByDevice;
+    private final long droppedByPort;
+    private final long droppedByEtherType;
+
+    /**
+     * Creates new packet admission statistics.
+     *
+     * @param deviceId           device identifier
+     * @param admitted           number of packets admitted
+     * @param droppedByDevice    number of packets dropped by the device limit
+     * @param droppedByPort      number of packets dropped by the port limit
+     * @param droppedByEtherType number of packets dropped by ether type limits
+     */
+    public PacketAdmissionStatistics(DeviceId deviceId, long admitted, long droppedByDevice,
+                                     long droppedByPort, long droppedByEtherType) {
+        this.deviceId = checkNotNull(deviceId, "Device ID cannot be null");
+        this.admitted = admitted;
+        this.droppedByDevice = droppedByDevice;
+        this.droppedByPort = droppedByPort;
+        this.droppedByEtherType = droppedByEtherType;
+    }
+
+    /**
+     * Returns the device the packets were received from.
+     *
+     * @return device identifier
+     */
+    public DeviceId deviceId() {
+        return deviceId;
+    }
+
+    /**
+     * Returns the number of packets admitted for processing.
+     *
+     * @return number of admitted packets
+     */
+    public long admitted() {
+        return admitted;
+    }
+
+    /**
+     * Returns the number of packets dropped for exceeding the rate limit of
+     * the device.
+     *
+     * @return number of dropped packets
+     */
+    public long droppedByDevice() {
+        return droppedByDevice;
+    }
+
+    /**
+     * Returns the number of packets dropped for exceeding the rate limit of
+     * their ingress port.
+     *
+     * @return number of dropped packets
+     */
+    public long droppedByPort() {
+        return droppedByPort;
+    }
+
+    /**
+     * Returns the number of packets dropped for exceeding the rate limit of
+     * their ether type.
+     *
+     * @return number of dropped packets
+     */
+    public long droppedByEtherType() {
+        return droppedByEtherType;
+    }
+
+    /**
+     * Returns the total number of packets dropped.
+     *
+     * @return number of dropped packets
+     */
+    public long dropped() {
+        return droppedByDevice + droppedByPort + droppedByEtherType;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(deviceId, admitted, droppedByDevice, droppedByPort, droppedByEtherType);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof PacketAdmissionStatistics) {
+            PacketAdmissionStatistics that = (PacketAdmissionStatistics) obj;
+            return deviceId.equals(that.deviceId) && admitted == that.admitted &&
+                    droppedByDevice == that.droppedByDevice && droppedByPort == that.droppedByPort &&
+                    droppedByEtherType == that.droppedByEtherType;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("deviceId", deviceId)
+                .add("admitted", admitted)
+                .add("droppedByDevice", droppedByDevice)
+                .add("droppedByPort", droppedByPort)
+                .add("droppedByEtherType", droppedByEtherType)
+                .toString();
+    }
+}
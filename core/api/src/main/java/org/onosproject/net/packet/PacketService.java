@@ -15,6 +15,7 @@
  */
 package org.onosproject.net.packet;
 
+import com.google.common.collect.ImmutableList;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.flow.TrafficSelector;
@@ -42,7 +43,24 @@ public interface PacketService {
      */
     void addProcessor(PacketProcessor processor, int priority);
 
-    // TODO allow processors to register for particular types of packets
+    /**
+     * Adds the specified processor to the list of packet processors, to be
+     * given only the packets matching the specified selector.
+     * <p>
+     * The selector is a hint allowing the packet service to skip the
+     * processor for irrelevant packets; the processor may still be given
+     * packets not matching all its criteria and should not rely on the
+     * selector alone.
+     *
+     * @param processor processor to be added
+     * @param priority  priority in the reverse natural order
+     * @param selector  selector of the packets of interest to the processor
+     * @throws java.lang.IllegalArgumentException if a processor with the
+     *                                            given priority already exists
+     */
+    default void addProcessor(PacketProcessor processor, int priority, TrafficSelector selector) {
+        addProcessor(processor, priority);
+    }
 
     /**
      * Removes the specified processor from the processing pipeline.
@@ -58,6 +76,16 @@ public interface PacketService {
      */
     List<PacketProcessorEntry> getProcessors();
 
+    /**
+     * Returns the per-device counts of the packets admitted for processing
+     * or dropped for exceeding the packet-in rate limits.
+     *
+     * @return list of packet admission statistics
+     */
+    default List<PacketAdmissionStatistics> getAdmissionStatistics() {
+        return ImmutableList.of();
+    }
+
     /**
      * Requests that packets matching the given selector are punted from the
      * dataplane to the controller.
@@ -121,17 +121,43 @@ public class ClusterMessage {
      * @return bytes
      */
     public byte[] getBytes() {
+        return toBytes(header(sender, subject), payload);
+    }
+
+    /**
+     * Encodes the header of the messages sent by the given node on the given
+     * subject, for use with {@link #toBytes(byte[], byte[])}.
+     *
+     * @param sender  message sender
+     * @param subject message subject
+     * @return header bytes
+     */
+    public static byte[] header(NodeId sender, MessageSubject subject) {
         byte[] senderBytes = sender.toString().getBytes(Charsets.UTF_8);
         byte[] subjectBytes = subject.value().getBytes(Charsets.UTF_8);
-        int capacity = 12 + senderBytes.length + subjectBytes.length + payload.length;
-        ByteBuffer buffer = ByteBuffer.allocate(capacity);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + senderBytes.length + subjectBytes.length);
         buffer.putInt(senderBytes.length);
         buffer.put(senderBytes);
         buffer.putInt(subjectBytes.length);
         buffer.put(subjectBytes);
+        return buffer.array();
+    }
+
+    /**
+     * Serializes a message made of the given pre-encoded header and payload,
+     * copying each of them only once.
+     *
+     * @param header  message header, as returned by {@link #header(NodeId, MessageSubject)}
+     * @param payload message payload
+     * @return bytes
+     */
+    public static byte[] toBytes(byte[] header, byte[] payload) {
+        byte[] bytes = new byte[header.length + 4 + payload.length];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.put(header);
         buffer.putInt(payload.length);
         buffer.put(payload);
-        return buffer.array();
+        return bytes;
     }
 
     /**
@@ -153,6 +179,21 @@ public class ClusterMessage {
                 payloadBytes);
     }
 
+    /**
+     * Decodes the payload of a ClusterMessage from raw bytes, skipping over
+     * the sender and subject rather than decoding them.
+     *
+     * @param bytes raw bytes
+     * @return message payload
+     */
+    public static byte[] payloadFromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.position(buffer.getInt() + 4);
+        buffer.position(buffer.getInt() + buffer.position());
+        int length = buffer.getInt();
+        return Arrays.copyOfRange(bytes, buffer.position(), buffer.position() + length);
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(sender, subject, Arrays.hashCode(payload));
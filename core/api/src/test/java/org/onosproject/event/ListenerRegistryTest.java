@@ -15,11 +15,19 @@
  */
 package org.onosproject.event;
 
+import com.google.common.collect.ImmutableList;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.onosproject.event.AsyncDeliveryPolicy.Overflow.COALESCE;
+import static org.onosproject.event.AsyncDeliveryPolicy.Overflow.DROP_NEWEST;
+import static org.onosproject.event.AsyncDeliveryPolicy.Overflow.DROP_OLDEST;
 
 /**
  * Unit tests for {@link ListenerRegistry}.
@@ -31,6 +39,11 @@ public class ListenerRegistryTest {
     private static final TestEvent BAR_EVENT =
             new TestEvent(TestEvent.Type.BAR, "bar");
 
+    private static final TestEvent E1 = new TestEvent(TestEvent.Type.FOO, "a");
+    private static final TestEvent E2 = new TestEvent(TestEvent.Type.FOO, "b");
+    private static final TestEvent E3 = new TestEvent(TestEvent.Type.BAR, "b");
+    private static final TestEvent E4 = new TestEvent(TestEvent.Type.FOO, "b");
+
     private TestListener listener;
     private TestListener secondListener;
     private TestListenerRegistry manager;
@@ -71,4 +84,149 @@ public class ListenerRegistryTest {
         assertTrue("BAR not processed", secondListener.events.contains(BAR_EVENT));
     }
 
+    @Test
+    public void processLimitPerThread() throws Exception {
+        // Each listener holds on to the events of its own thread.
+        SubjectGatedListener first = new SubjectGatedListener("a");
+        SubjectGatedListener second = new SubjectGatedListener("b");
+        manager.addListener(first);
+        manager.addListener(second);
+
+        Thread firstThread = new Thread(() -> manager.process(E1));
+        Thread secondThread = new Thread(() -> manager.process(E2));
+        firstThread.start();
+        secondThread.start();
+        assertTrue("first listener not entered", first.entered.await(1, TimeUnit.SECONDS));
+        assertTrue("second listener not entered", second.entered.await(1, TimeUnit.SECONDS));
+
+        Thread.sleep(2_000);
+        manager.onProcessLimit(secondThread);
+        first.gate.countDown();
+        second.gate.countDown();
+        firstThread.join();
+        secondThread.join();
+
+        manager.process(E3);
+        assertTrue("first listener ejected", first.events.contains(E3));
+        assertFalse("second listener not ejected", second.events.contains(E3));
+    }
+
+    @Test
+    public void asyncListenerIsolated() throws Exception {
+        GatedListener slowListener = new GatedListener(2);
+        manager.addListener(slowListener, AsyncDeliveryPolicy.of(10, DROP_NEWEST));
+        manager.addListener(secondListener);
+
+        manager.process(FOO_EVENT);
+        assertTrue("FOO not delivered", slowListener.entered.await(1, TimeUnit.SECONDS));
+        manager.process(BAR_EVENT);
+        assertTrue("BAR not processed", secondListener.events.contains(BAR_EVENT));
+
+        AsyncDeliveryStatistics statistics = manager.asyncDeliveryStatistics().get(0);
+        assertEquals("incorrect queued count", 1, statistics.queued());
+
+        slowListener.release(2);
+        assertEquals("incorrect events", ImmutableList.of(FOO_EVENT, BAR_EVENT), slowListener.events);
+
+        manager.removeListener(slowListener);
+        assertTrue("statistics not removed", manager.asyncDeliveryStatistics().isEmpty());
+    }
+
+    @Test
+    public void asyncDropNewest() throws Exception {
+        GatedListener slowListener = overflow(AsyncDeliveryPolicy.of(2, DROP_NEWEST), 3);
+        assertEquals("incorrect events", ImmutableList.of(E1, E2, E3), slowListener.events);
+        assertEquals("incorrect drop count", 1, manager.asyncDeliveryStatistics().get(0).dropped());
+    }
+
+    @Test
+    public void asyncDropOldest() throws Exception {
+        GatedListener slowListener = overflow(AsyncDeliveryPolicy.of(2, DROP_OLDEST), 3);
+        assertEquals("incorrect events", ImmutableList.of(E1, E3, E4), slowListener.events);
+        assertEquals("incorrect drop count", 1, manager.asyncDeliveryStatistics().get(0).dropped());
+    }
+
+    @Test
+    public void asyncCoalesce() throws Exception {
+        GatedListener slowListener = overflow(AsyncDeliveryPolicy.of(2, COALESCE), 3);
+        assertEquals("incorrect events", ImmutableList.of(E1, E4, E3), slowListener.events);
+        AsyncDeliveryStatistics statistics = manager.asyncDeliveryStatistics().get(0);
+        assertEquals("incorrect coalesce count", 1, statistics.coalesced());
+        assertEquals("incorrect drop count", 0, statistics.dropped());
+    }
+
+    @Test
+    public void asyncBlock() throws Exception {
+        GatedListener slowListener = overflow(AsyncDeliveryPolicy.blocking(2, 50), 3);
+        assertEquals("incorrect events", ImmutableList.of(E1, E2, E3), slowListener.events);
+        assertEquals("incorrect drop count", 1, manager.asyncDeliveryStatistics().get(0).dropped());
+    }
+
+    // Posts four events to a listener stuck on the first one, then lets
+    // the listener resume and waits for the given number of deliveries.
+    private GatedListener overflow(AsyncDeliveryPolicy policy, int deliveries) throws Exception {
+        GatedListener slowListener = new GatedListener(deliveries);
+        manager.addListener(slowListener, policy);
+        manager.process(E1);
+        assertTrue("first event not delivered", slowListener.entered.await(1, TimeUnit.SECONDS));
+        manager.process(E2);
+        manager.process(E3);
+        manager.process(E4);
+        assertEquals("incorrect queued count", 2, manager.asyncDeliveryStatistics().get(0).queued());
+        slowListener.release(deliveries);
+        return slowListener;
+    }
+
+    // Listener which holds on to the events of the given subject until released.
+    private static class SubjectGatedListener extends TestListener {
+        final String subject;
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+
+        SubjectGatedListener(String subject) {
+            this.subject = subject;
+        }
+
+        @Override
+        public void event(TestEvent event) {
+            if (subject.equals(event.subject())) {
+                entered.countDown();
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            events.add(event);
+        }
+    }
+
+    // Listener which holds on to the first event until released.
+    private static class GatedListener extends TestListener {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final CountDownLatch delivered;
+
+        GatedListener(int deliveries) {
+            delivered = new CountDownLatch(deliveries);
+        }
+
+        @Override
+        public void event(TestEvent event) {
+            entered.countDown();
+            try {
+                gate.await(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(event);
+            delivered.countDown();
+        }
+
+        void release(int deliveries) throws InterruptedException {
+            gate.countDown();
+            assertTrue("events not delivered", delivered.await(1, TimeUnit.SECONDS));
+            assertEquals("incorrect delivery count", deliveries, events.size());
+        }
+    }
 }
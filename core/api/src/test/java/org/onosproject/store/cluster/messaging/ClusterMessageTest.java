@@ -79,4 +79,15 @@ public class ClusterMessageTest {
         ClusterMessage message = ClusterMessage.fromBytes(fromBytes);
         assertThat(message, is(message3));
     }
+
+    /**
+     * Tests serializing with a pre-encoded header and decoding the payload
+     * alone.
+     */
+    @Test
+    public void testHeaderMethods() {
+        byte[] bytes = ClusterMessage.toBytes(ClusterMessage.header(nodeId, subject2), payload1);
+        assertThat(bytes, is(message3.getBytes()));
+        assertThat(ClusterMessage.payloadFromBytes(bytes), is(payload1));
+    }
 }
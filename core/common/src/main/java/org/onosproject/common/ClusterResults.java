@@ -0,0 +1,442 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.common;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.onlab.graph.TarjanGraphSearch;
+import org.onlab.graph.TarjanGraphSearch.SccResult;
+import org.onosproject.net.topology.LinkWeigher;
+import org.onosproject.net.topology.TopologyEdge;
+import org.onosproject.net.topology.TopologyGraph;
+import org.onosproject.net.topology.TopologyVertex;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.onosproject.net.Link.State.INACTIVE;
+import static org.onosproject.net.Link.Type.INDIRECT;
+
+/**
+ * Strongly connected component decomposition of a topology graph into
+ * clusters; the cluster vertex and edge lists form pairs along the same index.
+ * <p>
+ * Results may be derived from the results computed for a previous graph, in
+ * which case the clusters are searched anew only for the vertexes affected by
+ * the vertex and edge changes between the two graphs. Unaffected clusters
+ * retain their vertexes and, where possible, their index.
+ * <p>
+ * The results also hold the condensation of the graph, that is the viable
+ * edges between the clusters, so that the clusters joined together by new
+ * edges are found by searching the condensation rather than the graph.
+ */
+final class ClusterResults {
+
+    private static final TarjanGraphSearch<TopologyVertex, TopologyEdge> TARJAN =
+            new TarjanGraphSearch<>();
+
+    private final List<Set<TopologyVertex>> clusterVertexes;
+    private final List<Set<TopologyEdge>> clusterEdges;
+    private final Map<TopologyVertex, Integer> clusterIndexes;
+    private final List<Set<Integer>> successors;
+    private final List<Set<Integer>> predecessors;
+    private final int[] origins;
+    private final int searchedVertexCount;
+    private final int searchedClusterCount;
+
+    private ClusterResults(List<Set<TopologyVertex>> clusterVertexes,
+                           Map<TopologyVertex, Integer> clusterIndexes,
+                           List<Set<TopologyEdge>> clusterEdges,
+                           TopologyGraph graph, int[] origins,
+                           int searchedVertexCount, int searchedClusterCount) {
+        this.clusterVertexes = clusterVertexes;
+        this.clusterIndexes = clusterIndexes;
+        this.clusterEdges = clusterEdges;
+        this.successors = Lists.newArrayListWithCapacity(clusterVertexes.size());
+        this.predecessors = Lists.newArrayListWithCapacity(clusterVertexes.size());
+        for (int i = 0; i < clusterVertexes.size(); i++) {
+            successors.add(Sets.newHashSet());
+            predecessors.add(Sets.newHashSet());
+        }
+        for (TopologyEdge edge : graph.getEdges()) {
+            int src = clusterIndexes.get(edge.src());
+            int dst = clusterIndexes.get(edge.dst());
+            if (src != dst && isViable(edge)) {
+                successors.get(src).add(dst);
+                predecessors.get(dst).add(src);
+            }
+        }
+        this.origins = origins;
+        this.searchedVertexCount = searchedVertexCount;
+        this.searchedClusterCount = searchedClusterCount;
+    }
+
+    /**
+     * Searches the given graph for clusters.
+     *
+     * @param graph   topology graph
+     * @param weigher link weigher used to exclude non-viable links
+     * @return cluster results
+     */
+    static ClusterResults search(TopologyGraph graph, LinkWeigher weigher) {
+        SccResult<TopologyVertex, TopologyEdge> result = TARJAN.search(graph, weigher);
+        List<Set<TopologyVertex>> vertexes = Lists.newArrayList(result.clusterVertexes());
+        int[] origins = new int[vertexes.size()];
+        Arrays.fill(origins, -1);
+        return new ClusterResults(vertexes, indexVertexes(vertexes),
+                                  Lists.newArrayList(result.clusterEdges()),
+                                  graph, origins, graph.getVertexes().size(), 0);
+    }
+
+    /**
+     * Derives the clusters of the given graph from the clusters previously
+     * computed for an older version of the graph.
+     * <p>
+     * Only new vertexes, the clusters which lost vertexes or which are split
+     * by the loss of viable edges and the clusters which are joined together
+     * by new viable edges are searched anew. If the affected vertexes make up
+     * the majority of the graph, the whole graph is searched instead.
+     * <p>
+     * The clusters joined together by new edges are found over the
+     * condensation of the previous graph, extended with the new vertexes and
+     * edges, so that each new edge costs in the order of the number of
+     * clusters rather than the size of the graph. Deriving the delta and the
+     * cluster edges still takes a pass over the edges of both graphs.
+     *
+     * @param previous previous cluster results
+     * @param delta    changes between the previous and the new graph
+     * @param graph    new topology graph
+     * @param weigher  link weigher used to exclude non-viable links
+     * @return cluster results
+     */
+    static ClusterResults update(ClusterResults previous, TopologyGraphDelta delta,
+                                 TopologyGraph graph, LinkWeigher weigher) {
+        Set<Integer> dirty = Sets.newHashSet();
+        Set<Integer> touched = Sets.newHashSet();
+        Set<TopologyVertex> pending = Sets.newHashSet(delta.addedVertexes());
+        List<TopologyEdge> splitting = Lists.newArrayList();
+        List<TopologyEdge> joining = Lists.newArrayList();
+
+        // Removed vertexes split their clusters; new vertexes may extend them.
+        for (TopologyVertex vertex : delta.removedVertexes()) {
+            dirty.add(previous.clusterIndexes.get(vertex));
+        }
+        for (TopologyEdge edge : delta.removedEdges()) {
+            removeEdge(previous, edge, touched, splitting);
+        }
+        for (TopologyEdge edge : delta.addedEdges()) {
+            addEdge(previous, edge, touched, joining);
+        }
+
+        // A cluster survives the loss of a viable edge as long as the edge
+        // source still reaches the edge destination within the cluster.
+        for (TopologyEdge edge : splitting) {
+            int index = previous.clusterIndexes.get(edge.src());
+            if (!dirty.contains(index) &&
+                    !reaches(edge.src(), edge.dst(), previous.clusterVertexes.get(index), graph)) {
+                dirty.add(index);
+            }
+        }
+
+        // New viable edges between clusters join together all clusters lying
+        // along a cycle through the edge. The previous condensation may still
+        // hold edges which are gone by now, which at worst causes clusters to
+        // be searched needlessly.
+        Condensation condensation = new Condensation(previous, joining);
+        for (TopologyEdge edge : joining) {
+            int src = condensation.node(edge.src());
+            Set<Integer> forward = condensation.reach(condensation.node(edge.dst()), true);
+            if (!forward.contains(src)) {
+                continue;
+            }
+            for (int node : Sets.intersection(forward, condensation.reach(src, false))) {
+                if (node < previous.clusterCount()) {
+                    dirty.add(node);
+                } else {
+                    pending.add(condensation.vertex(node));
+                }
+            }
+        }
+
+        for (int index : dirty) {
+            for (TopologyVertex vertex : previous.clusterVertexes.get(index)) {
+                if (graph.getVertexes().contains(vertex)) {
+                    pending.add(vertex);
+                }
+            }
+        }
+        if (pending.size() > graph.getVertexes().size() / 2) {
+            return search(graph, weigher);
+        }
+
+        // Search the affected vertexes only.
+        Set<TopologyEdge> pendingEdges = Sets.newHashSet();
+        for (TopologyVertex vertex : pending) {
+            for (TopologyEdge edge : graph.getEdgesFrom(vertex)) {
+                if (pending.contains(edge.dst())) {
+                    pendingEdges.add(edge);
+                }
+            }
+        }
+        SccResult<TopologyVertex, TopologyEdge> result =
+                TARJAN.search(new DefaultTopologyGraph(pending, pendingEdges), weigher);
+
+        // Unaffected clusters keep their index; new clusters fill the holes
+        // left by the affected ones and are appended past the end.
+        List<Set<TopologyVertex>> vertexes = Lists.newArrayList(previous.clusterVertexes);
+        List<Integer> origins = Lists.newArrayListWithCapacity(vertexes.size());
+        for (int i = 0; i < vertexes.size(); i++) {
+            origins.add(touched.contains(i) ? -1 : i);
+        }
+        Deque<Integer> holes = new ArrayDeque<>();
+        for (int index : Sets.newTreeSet(dirty)) {
+            vertexes.set(index, null);
+            origins.set(index, -1);
+            holes.add(index);
+        }
+        for (Set<TopologyVertex> cluster : result.clusterVertexes()) {
+            if (holes.isEmpty()) {
+                vertexes.add(cluster);
+                origins.add(-1);
+            } else {
+                vertexes.set(holes.poll(), cluster);
+            }
+        }
+
+        // Keep the cluster indexes contiguous by moving the trailing clusters
+        // into any remaining holes.
+        while (!holes.isEmpty()) {
+            int last = vertexes.size() - 1;
+            if (vertexes.get(last) != null) {
+                int hole = holes.poll();
+                vertexes.set(hole, vertexes.get(last));
+                origins.set(hole, origins.get(last));
+            }
+            holes.remove(last);
+            vertexes.remove(last);
+            origins.remove(last);
+        }
+
+        Map<TopologyVertex, Integer> indexes = indexVertexes(vertexes);
+        List<Set<TopologyEdge>> clusterEdges = Lists.newArrayListWithCapacity(vertexes.size());
+        for (int i = 0; i < vertexes.size(); i++) {
+            clusterEdges.add(Sets.newHashSet());
+        }
+        for (TopologyEdge edge : graph.getEdges()) {
+            int index = indexes.get(edge.src());
+            if (index == indexes.get(edge.dst())) {
+                clusterEdges.get(index).add(edge);
+            }
+        }
+        return new ClusterResults(vertexes, indexes, clusterEdges, graph,
+                                  origins.stream().mapToInt(Integer::intValue).toArray(),
+                                  pending.size(), condensation.reachedCount);
+    }
+
+    // Accounts for an edge which is no longer present or viable.
+    private static void removeEdge(ClusterResults previous, TopologyEdge edge,
+                                   Set<Integer> touched, List<TopologyEdge> splitting) {
+        Integer index = previous.clusterIndexes.get(edge.src());
+        if (index != null && index.equals(previous.clusterIndexes.get(edge.dst()))) {
+            touched.add(index);
+            if (isViable(edge)) {
+                splitting.add(edge);
+            }
+        }
+    }
+
+    // Accounts for an edge which is newly present or viable.
+    private static void addEdge(ClusterResults previous, TopologyEdge edge,
+                                Set<Integer> touched, List<TopologyEdge> joining) {
+        Integer index = previous.clusterIndexes.get(edge.src());
+        if (index != null && index.equals(previous.clusterIndexes.get(edge.dst()))) {
+            touched.add(index);
+        } else if (isViable(edge)) {
+            joining.add(edge);
+        }
+    }
+
+    // Indicates whether the destination is reachable from the source over
+    // viable edges without leaving the given set of vertexes.
+    private static boolean reaches(TopologyVertex src, TopologyVertex dst,
+                                   Set<TopologyVertex> within, TopologyGraph graph) {
+        if (!graph.getVertexes().contains(src)) {
+            return false;
+        }
+        Set<TopologyVertex> reached = Sets.newHashSet(src);
+        Deque<TopologyVertex> queue = new ArrayDeque<>(Collections.singleton(src));
+        while (!queue.isEmpty()) {
+            for (TopologyEdge edge : graph.getEdgesFrom(queue.poll())) {
+                TopologyVertex vertex = edge.dst();
+                if (vertex.equals(dst) && isViable(edge)) {
+                    return true;
+                }
+                if (isViable(edge) && within.contains(vertex) && reached.add(vertex)) {
+                    queue.add(vertex);
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Map<TopologyVertex, Integer> indexVertexes(List<Set<TopologyVertex>> vertexes) {
+        Map<TopologyVertex, Integer> indexes = Maps.newHashMap();
+        for (int i = 0; i < vertexes.size(); i++) {
+            for (TopologyVertex vertex : vertexes.get(i)) {
+                indexes.put(vertex, i);
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * Indicates whether the given edge may be traversed when searching for
+     * clusters; inactive and indirect links are not viable.
+     *
+     * @param edge topology edge
+     * @return true if the edge is viable
+     */
+    static boolean isViable(TopologyEdge edge) {
+        return edge.link().state() != INACTIVE && edge.link().type() != INDIRECT;
+    }
+
+    /**
+     * Returns the number of clusters.
+     *
+     * @return number of clusters
+     */
+    int clusterCount() {
+        return clusterVertexes.size();
+    }
+
+    /**
+     * Returns the list of cluster vertex sets.
+     *
+     * @return cluster vertexes
+     */
+    List<Set<TopologyVertex>> clusterVertexes() {
+        return clusterVertexes;
+    }
+
+    /**
+     * Returns the list of cluster edge sets.
+     *
+     * @return cluster edges
+     */
+    List<Set<TopologyEdge>> clusterEdges() {
+        return clusterEdges;
+    }
+
+    /**
+     * Returns the index which the given cluster had in the previous results,
+     * provided neither its vertexes nor its edges changed since.
+     *
+     * @param index cluster index
+     * @return previous cluster index or -1 if the cluster changed
+     */
+    int origin(int index) {
+        return origins[index];
+    }
+
+    /**
+     * Returns the number of clusters and new vertexes which were visited in
+     * order to find the clusters joined together by new edges.
+     *
+     * @return number of visited condensation nodes
+     */
+    int searchedClusterCount() {
+        return searchedClusterCount;
+    }
+
+    /**
+     * Returns the number of vertexes which were searched for clusters in
+     * order to produce these results.
+     *
+     * @return number of searched vertexes
+     */
+    int searchedVertexCount() {
+        return searchedVertexCount;
+    }
+
+    // Condensation of the previous graph extended with the new vertexes and
+    // the new edges between clusters; the clusters are numbered by their
+    // index and the new vertexes past the last cluster.
+    private static final class Condensation {
+        private final ClusterResults previous;
+        private final Map<TopologyVertex, Integer> nodes = Maps.newHashMap();
+        private final List<TopologyVertex> vertexes = Lists.newArrayList();
+        private final Map<Integer, Set<Integer>> successors = Maps.newHashMap();
+        private final Map<Integer, Set<Integer>> predecessors = Maps.newHashMap();
+        private int reachedCount;
+
+        private Condensation(ClusterResults previous, List<TopologyEdge> joining) {
+            this.previous = previous;
+            for (TopologyEdge edge : joining) {
+                int src = node(edge.src());
+                int dst = node(edge.dst());
+                successors.computeIfAbsent(src, n -> Sets.newHashSet()).add(dst);
+                predecessors.computeIfAbsent(dst, n -> Sets.newHashSet()).add(src);
+            }
+        }
+
+        private int node(TopologyVertex vertex) {
+            Integer index = previous.clusterIndexes.get(vertex);
+            if (index != null) {
+                return index;
+            }
+            return nodes.computeIfAbsent(vertex, v -> {
+                vertexes.add(v);
+                return previous.clusterCount() + vertexes.size() - 1;
+            });
+        }
+
+        private TopologyVertex vertex(int node) {
+            return vertexes.get(node - previous.clusterCount());
+        }
+
+        // Returns all nodes reachable from the given node, following the
+        // edges either forward or backward.
+        private Set<Integer> reach(int start, boolean forward) {
+            Set<Integer> reached = Sets.newHashSet(start);
+            Deque<Integer> queue = new ArrayDeque<>(Collections.singleton(start));
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                reachedCount++;
+                if (node < previous.clusterCount()) {
+                    List<Set<Integer>> edges = forward ? previous.successors : previous.predecessors;
+                    enqueue(edges.get(node), reached, queue);
+                }
+                Map<Integer, Set<Integer>> edges = forward ? successors : predecessors;
+                enqueue(edges.getOrDefault(node, Collections.emptySet()), reached, queue);
+            }
+            return reached;
+        }
+
+        private static void enqueue(Set<Integer> next, Set<Integer> reached, Deque<Integer> queue) {
+            for (int node : next) {
+                if (reached.add(node)) {
+                    queue.add(node);
+                }
+            }
+        }
+    }
+}
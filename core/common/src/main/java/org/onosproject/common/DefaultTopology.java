@@ -22,6 +22,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.ImmutableSetMultimap.Builder;
+import org.onlab.graph.CompactDijkstraGraphSearch;
 import org.onlab.graph.DefaultEdgeWeigher;
 import org.onlab.graph.DijkstraGraphSearch;
 import org.onlab.graph.DisjointPathPair;
@@ -32,9 +33,8 @@ import org.onlab.graph.LazyKShortestPathsSearch;
 import org.onlab.graph.ScalarWeight;
 import org.onlab.graph.SrlgGraphSearch;
 import org.onlab.graph.SuurballeGraphSearch;
-import org.onlab.graph.TarjanGraphSearch;
-import org.onlab.graph.TarjanGraphSearch.SccResult;
 import org.onlab.graph.Weight;
+import org.onlab.util.SharedExecutors;
 import org.onosproject.net.AbstractModel;
 import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.DefaultDisjointPath;
@@ -63,6 +63,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -71,8 +72,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static org.onlab.graph.GraphPathSearch.ALL_PATHS;
 import static org.onlab.util.Tools.isNullOrEmpty;
 import static org.onosproject.core.CoreService.CORE_PROVIDER_ID;
-import static org.onosproject.net.Link.State.INACTIVE;
-import static org.onosproject.net.Link.Type.INDIRECT;
+import static org.onosproject.net.topology.HopCountLinkWeigher.DEFAULT_HOP_COUNT_WEIGHER;
 
 /**
  * Default implementation of the topology descriptor. This carries the backing
@@ -84,18 +84,37 @@ public class DefaultTopology extends AbstractModel implements Topology {
 
     private static final DijkstraGraphSearch<TopologyVertex, TopologyEdge> DIJKSTRA =
             new DijkstraGraphSearch<>();
-    private static final TarjanGraphSearch<TopologyVertex, TopologyEdge> TARJAN =
-            new TarjanGraphSearch<>();
+    private static final DijkstraGraphSearch<TopologyVertex, TopologyEdge> COMPACT_DIJKSTRA =
+            new CompactDijkstraGraphSearch<>();
     private static final SuurballeGraphSearch<TopologyVertex, TopologyEdge> SUURBALLE =
             new SuurballeGraphSearch<>();
     private static final KShortestPathsSearch<TopologyVertex, TopologyEdge> KSHORTEST =
             new KShortestPathsSearch<>();
     private static final LazyKShortestPathsSearch<TopologyVertex, TopologyEdge> LAZY_KSHORTEST =
             new LazyKShortestPathsSearch<>();
+    private static final LinkWeigher NO_INDIRECT_LINKS_WEIGHER = new NoIndirectLinksWeigher();
 
 
+    private static final PathCacheStatistics PATH_CACHE_STATISTICS = new PathCacheStatistics();
+
+    /**
+     * Default maximum number of cached shortest path sets per topology; paths
+     * are not cached unless a cache size is set.
+     */
+    public static final int DEFAULT_PATH_CACHE_SIZE = 0;
+
+    /**
+     * Maximum number of devices up to which the hop-count shortest paths
+     * between all pairs of devices may be precomputed; the distance tables
+     * grow with the square of the number of devices.
+     */
+    public static final int MAX_ALL_PAIRS_PATHS_DEVICES = 10000;
+
     private static LinkWeigher defaultLinkWeigher = null;
     private static GraphPathSearch<TopologyVertex, TopologyEdge> defaultGraphPathSearch = null;
+    private static volatile boolean compactGraphSearch = false;
+    private static volatile int pathCacheSize = DEFAULT_PATH_CACHE_SIZE;
+    private static volatile int allPairsPathsMaxDevices = 0;
 
     private final long time;
     private final long creationTime;
@@ -104,12 +123,19 @@ public class DefaultTopology extends AbstractModel implements Topology {
 
     private final LinkWeigher hopCountWeigher;
 
-    private final Supplier<SccResult<TopologyVertex, TopologyEdge>> clusterResults;
+    private final Supplier<ClusterResults> clusterResults;
     private final Supplier<ImmutableMap<ClusterId, TopologyCluster>> clusters;
     private final Supplier<ImmutableSet<ConnectPoint>> infrastructurePoints;
     private final Supplier<ImmutableSetMultimap<ClusterId, ConnectPoint>> broadcastSets;
     private final Function<ConnectPoint, Boolean> broadcastFunction;
     private final Supplier<ClusterIndexes> clusterIndexes;
+    private final PathCache pathCache;
+    private final CompletableFuture<HopCountPaths> hopCountPaths;
+
+    // Broadcast sets of the previous topology, from which the broadcast sets
+    // of the clusters carried over unchanged are reused.
+    private volatile ImmutableSetMultimap<ClusterId, ConnectPoint> previousBroadcastSets;
+    private volatile ImmutableSetMultimap<ClusterId, ConnectPoint> computedBroadcastSets;
 
     /**
      * Sets the default link-weight to be used when computing paths. If null is
@@ -135,6 +161,65 @@ public class DefaultTopology extends AbstractModel implements Topology {
         defaultGraphPathSearch = graphPathSearch;
     }
 
+    /**
+     * Sets whether the builtin default Dijkstra search runs over the compact,
+     * int-indexed snapshot of the topology graph rather than over the graph
+     * objects. Unlike the object-based search, the compact search keeps at
+     * most {@code maxPaths} parent links per device, so fewer equal-cost paths
+     * may be explored when the number of paths is bounded. The object-based
+     * search is used by default.
+     *
+     * @param enabled true to use the compact search
+     */
+    public static void setCompactGraphSearch(boolean enabled) {
+        log.info("Setting compact graph search to {}", enabled);
+        compactGraphSearch = enabled;
+    }
+
+
+    /**
+     * Sets the maximum number of shortest path sets cached per topology. Only
+     * the paths weighed by the shared link weighers, namely the hop-count
+     * weighers and the default link weigher, are cached; the link weighers
+     * must therefore weigh links solely based on the links themselves. Paths
+     * weighed by any other weigher are computed on each request. If 0 is
+     * specified, paths will not be cached.
+     *
+     * @param size maximum number of cached path sets
+     */
+    public static void setPathCacheSize(int size) {
+        checkArgument(size >= 0, "Path cache size must not be negative");
+        log.info("Setting path cache size to {}", size);
+        pathCacheSize = size;
+    }
+
+    /**
+     * Sets the maximum number of devices up to which the hop-count shortest
+     * paths between all pairs of devices are precomputed in the background
+     * once the topology is created. Larger topologies, path requests using
+     * other link weigher or path search algorithms and path requests made
+     * before the precomputation completes are served by on-demand search.
+     * If 0 is specified, paths will not be precomputed.
+     *
+     * @param maxDevices maximum number of devices, at most
+     *                   {@link #MAX_ALL_PAIRS_PATHS_DEVICES}
+     */
+    public static void setAllPairsPathsMaxDevices(int maxDevices) {
+        checkArgument(maxDevices >= 0, "Maximum number of devices must not be negative");
+        checkArgument(maxDevices <= MAX_ALL_PAIRS_PATHS_DEVICES,
+                      "Maximum number of devices must not exceed %s", MAX_ALL_PAIRS_PATHS_DEVICES);
+        log.info("Setting all-pairs paths maximum number of devices to {}", maxDevices);
+        allPairsPathsMaxDevices = maxDevices;
+    }
+
+    /**
+     * Returns the cumulative statistics of the shortest path cache.
+     *
+     * @return path cache statistics
+     */
+    public static PathCacheStatistics pathCacheStatistics() {
+        return PATH_CACHE_STATISTICS;
+    }
 
     /**
      * Creates a topology descriptor attributed to the specified provider.
@@ -145,6 +230,25 @@ public class DefaultTopology extends AbstractModel implements Topology {
      */
     public DefaultTopology(ProviderId providerId, GraphDescription description,
                            Function<ConnectPoint, Boolean> broadcastFunction) {
+        this(providerId, description, broadcastFunction, null);
+    }
+
+    /**
+     * Creates a topology descriptor attributed to the specified provider,
+     * deriving its clusters from the given previous topology.
+     * <p>
+     * Only the clusters affected by the device and link changes between the
+     * previous and the new topology are searched anew; the broadcast sets of
+     * the clusters that remain unchanged are carried over as well.
+     *
+     * @param providerId        identity of the provider
+     * @param description       data describing the new topology
+     * @param broadcastFunction broadcast point function
+     * @param previous          previous topology; null to compute from scratch
+     */
+    public DefaultTopology(ProviderId providerId, GraphDescription description,
+                           Function<ConnectPoint, Boolean> broadcastFunction,
+                           DefaultTopology previous) {
         super(providerId);
         this.broadcastFunction = broadcastFunction;
         this.time = description.timestamp();
@@ -154,7 +258,17 @@ public class DefaultTopology extends AbstractModel implements Topology {
         this.graph = new DefaultTopologyGraph(description.vertexes(),
                 description.edges());
 
-        this.clusterResults = Suppliers.memoize(this::searchForClusters);
+        if (previous == null) {
+            this.clusterResults = Suppliers.memoize(this::searchForClusters);
+            this.pathCache = new PathCache(pathCacheSize, PATH_CACHE_STATISTICS);
+        } else {
+            TopologyGraphDelta delta = TopologyGraphDelta.between(previous.graph, graph);
+            this.clusterResults = Suppliers.ofInstance(
+                    ClusterResults.update(previous.clusterResults.get(), delta,
+                                          graph, NO_INDIRECT_LINKS_WEIGHER));
+            this.pathCache = previous.pathCache.derive(delta, pathCacheSize);
+            this.previousBroadcastSets = previous.computedBroadcastSets;
+        }
         this.clusters = Suppliers.memoize(this::buildTopologyClusters);
 
         this.clusterIndexes = Suppliers.memoize(this::buildIndexes);
@@ -162,6 +276,10 @@ public class DefaultTopology extends AbstractModel implements Topology {
         this.hopCountWeigher = new HopCountLinkWeigher(graph.getVertexes().size());
         this.broadcastSets = Suppliers.memoize(this::buildBroadcastSets);
         this.infrastructurePoints = Suppliers.memoize(this::findInfrastructurePoints);
+
+        int maxDevices = allPairsPathsMaxDevices;
+        this.hopCountPaths = maxDevices > 0 && graph.getVertexes().size() <= maxDevices ?
+                computeAllPairsPaths(graph) : null;
         this.computeCost = Math.max(0, System.nanoTime() - time);
     }
 
@@ -226,6 +344,26 @@ public class DefaultTopology extends AbstractModel implements Topology {
         return graph;
     }
 
+    /**
+     * Returns the number of devices which were searched in order to compute
+     * the topology clusters.
+     *
+     * @return number of searched devices
+     */
+    int searchedDeviceCount() {
+        return clusterResults.get().searchedVertexCount();
+    }
+
+    /**
+     * Returns the number of clusters and new devices which were visited in
+     * order to find the clusters joined together by new links.
+     *
+     * @return number of visited clusters and devices
+     */
+    int searchedClusterCount() {
+        return clusterResults.get().searchedClusterCount();
+    }
+
     /**
      * Returns the set of topology clusters.
      *
@@ -384,13 +522,66 @@ public class DefaultTopology extends AbstractModel implements Topology {
             return ImmutableSet.of();
         }
 
-        GraphPathSearch.Result<TopologyVertex, TopologyEdge> result =
-                graphPathSearch().search(graph, srcV, dstV, weigher, maxPaths);
-        ImmutableSet.Builder<Path> builder = ImmutableSet.builder();
-        for (org.onlab.graph.Path<TopologyVertex, TopologyEdge> path : result.paths()) {
-            builder.add(networkPath(path));
+        GraphPathSearch<TopologyVertex, TopologyEdge> search = graphPathSearch();
+        Supplier<Set<Path>> paths = () -> {
+            HopCountPaths allPairsPaths = hopCountPaths != null ? hopCountPaths.getNow(null) : null;
+            if (allPairsPaths != null && weigher == hopCountWeigher &&
+                    (search == DIJKSTRA || search == COMPACT_DIJKSTRA) && !src.equals(dst)) {
+                return allPairsPaths.getPaths(srcV, dstV, maxPaths);
+            }
+            GraphPathSearch.Result<TopologyVertex, TopologyEdge> result =
+                    search.search(graph, srcV, dstV, weigher, maxPaths);
+            ImmutableSet.Builder<Path> builder = ImmutableSet.builder();
+            for (org.onlab.graph.Path<TopologyVertex, TopologyEdge> path : result.paths()) {
+                builder.add(networkPath(path));
+            }
+            return builder.build();
+        };
+        if (!isSharedWeigher(weigher)) {
+            // Weighers created per request would never be hit again.
+            return paths.get();
         }
-        return builder.build();
+        return pathCache.getPaths(src, dst, weigher == hopCountWeigher ? PathCache.HOP_COUNT : weigher,
+                                  search, maxPaths, paths);
+    }
+
+    // Indicates whether the given weigher is one of the shared instances
+    // whose paths are worth caching.
+    private boolean isSharedWeigher(LinkWeigher weigher) {
+        return weigher == hopCountWeigher || weigher == DEFAULT_HOP_COUNT_WEIGHER ||
+                weigher == defaultLinkWeigher;
+    }
+
+    /**
+     * Indicates whether the hop-count shortest paths between all pairs of
+     * devices are precomputed for this topology, waiting for the precomputation
+     * to complete if it is still running.
+     *
+     * @return true if the paths were precomputed
+     */
+    boolean hasAllPairsPaths() {
+        return hopCountPaths != null && hopCountPaths.join() != null;
+    }
+
+    // Precomputes the all-pairs hop-count paths in the background, so that
+    // creating the topology is not held up; paths are searched on demand
+    // until the precomputation completes.
+    private static CompletableFuture<HopCountPaths> computeAllPairsPaths(TopologyGraph graph) {
+        return CompletableFuture.supplyAsync(() -> HopCountPaths.compute(graph),
+                                             SharedExecutors.getPoolThreadExecutor())
+                .exceptionally(e -> {
+                    log.warn("Unable to precompute all-pairs paths", e);
+                    return null;
+                });
+    }
+
+    /**
+     * Returns the number of shortest path sets cached for this topology.
+     *
+     * @return number of cached path sets
+     */
+    long cachedPathCount() {
+        return pathCache.size();
     }
 
     /**
@@ -629,15 +820,15 @@ public class DefaultTopology extends AbstractModel implements Topology {
 
     // Searches for SCC clusters in the network topology graph using Tarjan
     // algorithm.
-    private SccResult<TopologyVertex, TopologyEdge> searchForClusters() {
-        return TARJAN.search(graph, new NoIndirectLinksWeigher());
+    private ClusterResults searchForClusters() {
+        return ClusterResults.search(graph, NO_INDIRECT_LINKS_WEIGHER);
     }
 
     // Builds the topology clusters and returns the id-cluster bindings.
     private ImmutableMap<ClusterId, TopologyCluster> buildTopologyClusters() {
         ImmutableMap.Builder<ClusterId, TopologyCluster> clusterBuilder =
                 ImmutableMap.builder();
-        SccResult<TopologyVertex, TopologyEdge> results = clusterResults.get();
+        ClusterResults results = clusterResults.get();
 
         // Extract both vertexes and edges from the results; the lists form
         // pairs along the same index.
@@ -674,11 +865,19 @@ public class DefaultTopology extends AbstractModel implements Topology {
 
     // Processes a map of broadcast sets for each cluster.
     private ImmutableSetMultimap<ClusterId, ConnectPoint> buildBroadcastSets() {
+        ImmutableSetMultimap<ClusterId, ConnectPoint> previousSets = previousBroadcastSets;
         Builder<ClusterId, ConnectPoint> builder = ImmutableSetMultimap.builder();
         for (TopologyCluster cluster : clusters.get().values()) {
-            addClusterBroadcastSet(cluster, builder);
+            int origin = clusterResults.get().origin(cluster.id().index());
+            if (previousSets != null && origin >= 0) {
+                builder.putAll(cluster.id(), previousSets.get(ClusterId.clusterId(origin)));
+            } else {
+                addClusterBroadcastSet(cluster, builder);
+            }
         }
-        return builder.build();
+        previousBroadcastSets = null;
+        computedBroadcastSets = builder.build();
+        return computedBroadcastSets;
     }
 
     // Finds all broadcast points for the cluster. These are those connection
@@ -686,9 +885,11 @@ public class DefaultTopology extends AbstractModel implements Topology {
     // all other devices within the cluster.
     private void addClusterBroadcastSet(TopologyCluster cluster,
                                         Builder<ClusterId, ConnectPoint> builder) {
-        // Use the graph root search results to build the broadcast set.
+        // Use the graph root search results to build the broadcast set; only
+        // a single parent of each device is used, so the compact search is
+        // used regardless of the search configured for path computation.
         Result<TopologyVertex, TopologyEdge> result =
-                DIJKSTRA.search(graph, cluster.root(), null, hopCountWeigher, 1);
+                COMPACT_DIJKSTRA.search(graph, cluster.root(), null, hopCountWeigher, 1);
         for (Map.Entry<TopologyVertex, Set<TopologyEdge>> entry :
                 result.parents().entrySet()) {
             TopologyVertex vertex = entry.getKey();
@@ -761,7 +962,10 @@ public class DefaultTopology extends AbstractModel implements Topology {
     }
 
     private GraphPathSearch<TopologyVertex, TopologyEdge> graphPathSearch() {
-        return defaultGraphPathSearch != null ? defaultGraphPathSearch : DIJKSTRA;
+        if (defaultGraphPathSearch != null) {
+            return defaultGraphPathSearch;
+        }
+        return compactGraphSearch ? COMPACT_DIJKSTRA : DIJKSTRA;
     }
 
     private LinkWeigher linkWeight() {
@@ -774,9 +978,8 @@ public class DefaultTopology extends AbstractModel implements Topology {
             implements LinkWeigher {
         @Override
         public Weight weight(TopologyEdge edge) {
-            return (edge.link().state() == INACTIVE) ||
-                    (edge.link().type() == INDIRECT) ?
-                    getNonViableWeight() : new ScalarWeight(HOP_WEIGHT_VALUE);
+            return ClusterResults.isViable(edge) ?
+                    new ScalarWeight(HOP_WEIGHT_VALUE) : getNonViableWeight();
         }
     }
 
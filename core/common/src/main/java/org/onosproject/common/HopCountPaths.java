@@ -0,0 +1,194 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.common;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import org.onlab.graph.ScalarWeight;
+import org.onosproject.net.DefaultPath;
+import org.onosproject.net.Link;
+import org.onosproject.net.Path;
+import org.onosproject.net.topology.TopologyEdge;
+import org.onosproject.net.topology.TopologyGraph;
+import org.onosproject.net.topology.TopologyVertex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.onosproject.core.CoreService.CORE_PROVIDER_ID;
+import static org.onosproject.net.Link.State.ACTIVE;
+import static org.onosproject.net.Link.Type.INDIRECT;
+
+/**
+ * All-pairs hop-count distance tables of a topology graph, from which the
+ * shortest paths between any two devices are produced by walking the next
+ * hops whose distance to the destination decreases by one.
+ * <p>
+ * Distances are computed by a breadth-first search over the incoming links
+ * of every destination; the searches run in parallel on the common fork-join
+ * pool. Only active links are traversed, each counting as a single hop.
+ */
+final class HopCountPaths {
+
+    private static final short UNREACHABLE = -1;
+
+    // Hop counts are below the number of devices and must fit in a short.
+    private static final int MAX_DEVICES = Short.MAX_VALUE;
+
+    private final Map<TopologyVertex, Integer> indexes;
+    private final Link[] links;
+    private final int[] linkDsts;
+    private final int[][] outLinks;
+    private final short[][] distances;
+
+    private HopCountPaths(Map<TopologyVertex, Integer> indexes, Link[] links, int[] linkDsts,
+                          int[][] outLinks, short[][] distances) {
+        this.indexes = indexes;
+        this.links = links;
+        this.linkDsts = linkDsts;
+        this.outLinks = outLinks;
+        this.distances = distances;
+    }
+
+    /**
+     * Computes the distance tables of the given graph.
+     * <p>
+     * Under the hop-count link weigher, indirect links cost as many hops as
+     * there are devices, so graphs containing active indirect links cannot be
+     * handled by plain breadth-first search.
+     *
+     * @param graph topology graph
+     * @return distance tables or null if the graph contains active indirect
+     * links or has too many devices for the hop counts to fit in a short
+     */
+    static HopCountPaths compute(TopologyGraph graph) {
+        if (graph.getVertexes().size() > MAX_DEVICES) {
+            return null;
+        }
+        Map<TopologyVertex, Integer> indexes = Maps.newHashMapWithExpectedSize(graph.getVertexes().size());
+        for (TopologyVertex vertex : graph.getVertexes()) {
+            indexes.put(vertex, indexes.size());
+        }
+        int n = indexes.size();
+
+        List<TopologyEdge> edges = new ArrayList<>(graph.getEdges().size());
+        int[] outDegrees = new int[n];
+        int[] inDegrees = new int[n];
+        for (TopologyEdge edge : graph.getEdges()) {
+            if (edge.link().state() != ACTIVE) {
+                continue;
+            }
+            if (edge.link().type() == INDIRECT) {
+                return null;
+            }
+            edges.add(edge);
+            outDegrees[indexes.get(edge.src())]++;
+            inDegrees[indexes.get(edge.dst())]++;
+        }
+
+        Link[] links = new Link[edges.size()];
+        int[] linkSrcs = new int[edges.size()];
+        int[] linkDsts = new int[edges.size()];
+        int[][] outLinks = new int[n][];
+        int[][] inLinks = new int[n][];
+        for (int i = 0; i < n; i++) {
+            outLinks[i] = new int[outDegrees[i]];
+            inLinks[i] = new int[inDegrees[i]];
+        }
+        Arrays.fill(outDegrees, 0);
+        Arrays.fill(inDegrees, 0);
+        for (int e = 0; e < links.length; e++) {
+            TopologyEdge edge = edges.get(e);
+            links[e] = edge.link();
+            linkSrcs[e] = indexes.get(edge.src());
+            linkDsts[e] = indexes.get(edge.dst());
+            outLinks[linkSrcs[e]][outDegrees[linkSrcs[e]]++] = e;
+            inLinks[linkDsts[e]][inDegrees[linkDsts[e]]++] = e;
+        }
+
+        short[][] distances = new short[n][];
+        IntStream.range(0, n).parallel()
+                .forEach(dst -> distances[dst] = distancesTo(dst, inLinks, linkSrcs));
+        return new HopCountPaths(indexes, links, linkDsts, outLinks, distances);
+    }
+
+    // Computes the hop count from every vertex to the given destination.
+    private static short[] distancesTo(int dst, int[][] inLinks, int[] linkSrcs) {
+        short[] distance = new short[inLinks.length];
+        Arrays.fill(distance, UNREACHABLE);
+        int[] queue = new int[inLinks.length];
+        int head = 0;
+        int tail = 0;
+        distance[dst] = 0;
+        queue[tail++] = dst;
+        while (head < tail) {
+            int vertex = queue[head++];
+            for (int link : inLinks[vertex]) {
+                int src = linkSrcs[link];
+                if (distance[src] == UNREACHABLE) {
+                    distance[src] = (short) (distance[vertex] + 1);
+                    queue[tail++] = src;
+                }
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Returns the shortest paths between the given distinct devices.
+     *
+     * @param src      source vertex
+     * @param dst      destination vertex
+     * @param maxPaths maximum number of paths or a negative number for all
+     * @return set of shortest paths; empty if there is no path
+     */
+    ImmutableSet<Path> getPaths(TopologyVertex src, TopologyVertex dst, int maxPaths) {
+        ImmutableSet.Builder<Path> builder = ImmutableSet.builder();
+        Integer srcIndex = indexes.get(src);
+        Integer dstIndex = indexes.get(dst);
+        if (srcIndex != null && dstIndex != null && maxPaths != 0 && distances[dstIndex][srcIndex] > 0) {
+            int hops = distances[dstIndex][srcIndex];
+            walk(srcIndex, distances[dstIndex], new Link[hops], 0,
+                 maxPaths < 0 ? Integer.MAX_VALUE : maxPaths, builder);
+        }
+        return builder.build();
+    }
+
+    // Adds the paths following the next hops from the given vertex; returns
+    // the number of paths still to be added.
+    private int walk(int vertex, short[] distance, Link[] path, int hop,
+                     int remaining, ImmutableSet.Builder<Path> builder) {
+        if (hop == path.length) {
+            builder.add(new DefaultPath(CORE_PROVIDER_ID, Arrays.asList(path.clone()),
+                                        new ScalarWeight(path.length)));
+            return remaining - 1;
+        }
+        for (int link : outLinks[vertex]) {
+            int next = linkDsts[link];
+            if (distance[next] == distance[vertex] - 1) {
+                path[hop] = links[link];
+                remaining = walk(next, distance, path, hop + 1, remaining, builder);
+                if (remaining == 0) {
+                    break;
+                }
+            }
+        }
+        return remaining;
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.common;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.Path;
+import org.onosproject.net.topology.TopologyEdge;
+
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the shortest paths computed over a topology snapshot.
+ * <p>
+ * Paths are keyed by their source and destination devices along with the
+ * identity of the link weigher and of the path search algorithm used; link
+ * weighers are therefore expected to weigh links solely based on the links
+ * themselves. The keys refer to the weighers and search algorithms weakly,
+ * so caching paths does not keep them from being collected; the entries of
+ * collected weighers are never hit again and are dropped at the latest when
+ * the cache is carried over. When the topology advances, the cache is
+ * carried over to the new snapshot minus the entries invalidated by the
+ * topology changes.
+ */
+final class PathCache {
+
+    /**
+     * Cache key standing for the hop-count link weigher of the snapshot.
+     */
+    static final Object HOP_COUNT = new Object();
+
+    private final Cache<Key, CachedPaths> cache;
+    private final int maxSize;
+    private final PathCacheStatistics statistics;
+
+    /**
+     * Creates a new path cache.
+     *
+     * @param maxSize    maximum number of cached path sets; 0 to disable caching
+     * @param statistics statistics to which cache lookups are recorded
+     */
+    PathCache(int maxSize, PathCacheStatistics statistics) {
+        this.maxSize = maxSize;
+        this.statistics = statistics;
+        this.cache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    }
+
+    /**
+     * Returns the cached paths between the given devices, computing and
+     * caching them if necessary. While caching is disabled, the paths are
+     * computed without the lookup being recorded to the statistics.
+     *
+     * @param src      source device
+     * @param dst      destination device
+     * @param weigher  link weigher or {@link #HOP_COUNT}
+     * @param search   path search algorithm
+     * @param maxPaths maximum number of paths
+     * @param paths    supplier computing the paths
+     * @return set of shortest paths
+     */
+    Set<Path> getPaths(DeviceId src, DeviceId dst, Object weigher, Object search,
+                       int maxPaths, Supplier<Set<Path>> paths) {
+        if (maxSize == 0) {
+            return paths.get();
+        }
+
+        Key key = new Key(src, dst, weigher, search, maxPaths);
+        CachedPaths cached = cache.getIfPresent(key);
+        if (cached != null) {
+            statistics.recordHit(cached.cost);
+            return cached.paths;
+        }
+
+        long start = System.nanoTime();
+        Set<Path> computed = paths.get();
+        long cost = System.nanoTime() - start;
+        statistics.recordMiss(cost);
+        cache.put(key, new CachedPaths(computed, cost));
+        return computed;
+    }
+
+    /**
+     * Returns the number of cached path sets.
+     *
+     * @return number of cached path sets
+     */
+    long size() {
+        return cache.size();
+    }
+
+    /**
+     * Derives the path cache of the next topology snapshot.
+     * <p>
+     * Removing links can only invalidate the paths which traverse them, so
+     * all other entries are retained. New, re-activated or re-annotated links
+     * may yield shorter paths between any devices, in which case no entries
+     * are retained. Entries weighed by hop count are dropped whenever the
+     * number of devices changes, as it determines the cost of indirect links.
+     *
+     * @param delta   changes between the current and the next snapshot
+     * @param maxSize maximum number of cached path sets of the new cache
+     * @return path cache for the next snapshot
+     */
+    PathCache derive(TopologyGraphDelta delta, int maxSize) {
+        PathCache derived = new PathCache(maxSize, statistics);
+        if (maxSize == 0 || !delta.addedEdges().isEmpty() || !delta.updatedEdges().isEmpty()) {
+            return derived;
+        }
+
+        boolean deviceCountChanged = !delta.removedVertexes().isEmpty() ||
+                !delta.addedVertexes().isEmpty();
+        ImmutableSet.Builder<Link> builder = ImmutableSet.builder();
+        for (TopologyEdge edge : delta.removedEdges()) {
+            builder.add(edge.link());
+        }
+        Set<Link> removedLinks = builder.build();
+        cache.asMap().forEach((key, cached) -> {
+            if (!key.isStale() && !(deviceCountChanged && key.weigher.get() == HOP_COUNT) &&
+                    !cached.traverses(removedLinks)) {
+                derived.cache.put(key, cached);
+            }
+        });
+        return derived;
+    }
+
+    // Paths computed between a pair of devices and the cost of computing them.
+    private static final class CachedPaths {
+        private final Set<Path> paths;
+        private final long cost;
+
+        private CachedPaths(Set<Path> paths, long cost) {
+            this.paths = paths;
+            this.cost = cost;
+        }
+
+        private boolean traverses(Set<Link> links) {
+            if (links.isEmpty()) {
+                return false;
+            }
+            for (Path path : paths) {
+                for (Link link : path.links()) {
+                    if (links.contains(link)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    // Path cache key; weighers and search algorithms are weakly referenced
+    // and compared by identity. Keys whose weigher or search algorithm was
+    // collected no longer equal any other key.
+    private static final class Key {
+        private final DeviceId src;
+        private final DeviceId dst;
+        private final WeakReference<Object> weigher;
+        private final WeakReference<Object> search;
+        private final int maxPaths;
+        private final int hash;
+
+        private Key(DeviceId src, DeviceId dst, Object weigher, Object search, int maxPaths) {
+            this.src = src;
+            this.dst = dst;
+            this.weigher = new WeakReference<>(weigher);
+            this.search = new WeakReference<>(search);
+            this.maxPaths = maxPaths;
+            this.hash = Objects.hash(src, dst, System.identityHashCode(weigher),
+                                     System.identityHashCode(search), maxPaths);
+        }
+
+        private boolean isStale() {
+            return weigher.get() == null || search.get() == null;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof Key) {
+                Key that = (Key) obj;
+                return !isStale() &&
+                        Objects.equals(this.src, that.src) &&
+                        Objects.equals(this.dst, that.dst) &&
+                        this.weigher.get() == that.weigher.get() &&
+                        this.search.get() == that.search.get() &&
+                        this.maxPaths == that.maxPaths;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.common;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Cumulative statistics of the shortest path cache shared by the topology
+ * snapshots.
+ */
+public final class PathCacheStatistics {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder computeTime = new LongAdder();
+    private final LongAdder savedTime = new LongAdder();
+
+    PathCacheStatistics() {
+    }
+
+    /**
+     * Records a path lookup answered from the cache.
+     *
+     * @param cost time in nanos originally spent computing the paths
+     */
+    void recordHit(long cost) {
+        hits.increment();
+        savedTime.add(cost);
+    }
+
+    /**
+     * Records a path lookup which required the paths to be computed.
+     *
+     * @param cost time in nanos spent computing the paths
+     */
+    void recordMiss(long cost) {
+        misses.increment();
+        computeTime.add(cost);
+    }
+
+    /**
+     * Returns the number of path lookups answered from the cache.
+     *
+     * @return number of cache hits
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of path lookups which required the paths to be
+     * computed.
+     *
+     * @return number of cache misses
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the ratio of path lookups answered from the cache.
+     *
+     * @return cache hit ratio between 0 and 1
+     */
+    public double hitRatio() {
+        long hitCount = hitCount();
+        long total = hitCount + missCount();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * Returns the time spent computing paths on cache misses.
+     *
+     * @return compute time in nanos
+     */
+    public long computeTimeNanos() {
+        return computeTime.sum();
+    }
+
+    /**
+     * Returns the compute time saved by answering path lookups from the
+     * cache.
+     *
+     * @return saved compute time in nanos
+     */
+    public long savedTimeNanos() {
+        return savedTime.sum();
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("hits", hitCount())
+                .add("misses", missCount())
+                .add("computeTimeNanos", computeTimeNanos())
+                .add("savedTimeNanos", savedTimeNanos())
+                .toString();
+    }
+}
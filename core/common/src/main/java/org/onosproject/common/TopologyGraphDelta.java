@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.common;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import org.onosproject.net.topology.TopologyEdge;
+import org.onosproject.net.topology.TopologyGraph;
+import org.onosproject.net.topology.TopologyVertex;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Vertex and edge changes between two versions of a topology graph.
+ * <p>
+ * Links compare equal regardless of their state, so a link changing its state
+ * is reported as the removal of the old edge and the addition of the new one.
+ * Links changing only their annotations are reported as updated edges.
+ */
+final class TopologyGraphDelta {
+
+    private final Set<TopologyVertex> removedVertexes;
+    private final Set<TopologyVertex> addedVertexes;
+    private final Set<TopologyEdge> removedEdges;
+    private final Set<TopologyEdge> addedEdges;
+    private final Set<TopologyEdge> updatedEdges;
+
+    private TopologyGraphDelta(Set<TopologyVertex> removedVertexes, Set<TopologyVertex> addedVertexes,
+                               Set<TopologyEdge> removedEdges, Set<TopologyEdge> addedEdges,
+                               Set<TopologyEdge> updatedEdges) {
+        this.removedVertexes = removedVertexes;
+        this.addedVertexes = addedVertexes;
+        this.removedEdges = removedEdges;
+        this.addedEdges = addedEdges;
+        this.updatedEdges = updatedEdges;
+    }
+
+    /**
+     * Computes the changes between the given graphs.
+     *
+     * @param oldGraph previous topology graph
+     * @param graph    new topology graph
+     * @return graph delta
+     */
+    static TopologyGraphDelta between(TopologyGraph oldGraph, TopologyGraph graph) {
+        ImmutableSet.Builder<TopologyVertex> removedVertexes = ImmutableSet.builder();
+        ImmutableSet.Builder<TopologyVertex> addedVertexes = ImmutableSet.builder();
+        for (TopologyVertex vertex : oldGraph.getVertexes()) {
+            if (!graph.getVertexes().contains(vertex)) {
+                removedVertexes.add(vertex);
+            }
+        }
+        for (TopologyVertex vertex : graph.getVertexes()) {
+            if (!oldGraph.getVertexes().contains(vertex)) {
+                addedVertexes.add(vertex);
+            }
+        }
+
+        ImmutableSet.Builder<TopologyEdge> removedEdges = ImmutableSet.builder();
+        ImmutableSet.Builder<TopologyEdge> addedEdges = ImmutableSet.builder();
+        ImmutableSet.Builder<TopologyEdge> updatedEdges = ImmutableSet.builder();
+        Map<TopologyEdge, TopologyEdge> edges = Maps.newHashMapWithExpectedSize(graph.getEdges().size());
+        graph.getEdges().forEach(edge -> edges.put(edge, edge));
+        for (TopologyEdge oldEdge : oldGraph.getEdges()) {
+            TopologyEdge edge = edges.get(oldEdge);
+            if (edge == null) {
+                removedEdges.add(oldEdge);
+            } else if (edge.link().state() != oldEdge.link().state()) {
+                removedEdges.add(oldEdge);
+                addedEdges.add(edge);
+            } else if (!Objects.equals(edge.link().annotations(), oldEdge.link().annotations())) {
+                updatedEdges.add(edge);
+            }
+        }
+        for (TopologyEdge edge : graph.getEdges()) {
+            if (!oldGraph.getEdges().contains(edge)) {
+                addedEdges.add(edge);
+            }
+        }
+        return new TopologyGraphDelta(removedVertexes.build(), addedVertexes.build(),
+                                      removedEdges.build(), addedEdges.build(),
+                                      updatedEdges.build());
+    }
+
+    /**
+     * Returns the vertexes no longer present in the new graph.
+     *
+     * @return removed vertexes
+     */
+    Set<TopologyVertex> removedVertexes() {
+        return removedVertexes;
+    }
+
+    /**
+     * Returns the vertexes not present in the previous graph.
+     *
+     * @return added vertexes
+     */
+    Set<TopologyVertex> addedVertexes() {
+        return addedVertexes;
+    }
+
+    /**
+     * Returns the edges of the previous graph which are no longer present
+     * in the new graph or whose link changed its state.
+     *
+     * @return removed edges
+     */
+    Set<TopologyEdge> removedEdges() {
+        return removedEdges;
+    }
+
+    /**
+     * Returns the edges of the new graph which were not present in the
+     * previous graph or whose link changed its state.
+     *
+     * @return added edges
+     */
+    Set<TopologyEdge> addedEdges() {
+        return addedEdges;
+    }
+
+    /**
+     * Returns the edges of the new graph whose link changed its annotations
+     * only.
+     *
+     * @return updated edges
+     */
+    Set<TopologyEdge> updatedEdges() {
+        return updatedEdges;
+    }
+}
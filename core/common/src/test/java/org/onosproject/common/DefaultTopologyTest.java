@@ -15,6 +15,7 @@
  */
 package org.onosproject.common;
 
+import com.google.common.collect.Sets;
 import org.junit.Before;
 import org.junit.Test;
 import org.onlab.graph.DefaultEdgeWeigher;
@@ -34,6 +35,7 @@ import org.onosproject.net.topology.ClusterId;
 import org.onosproject.net.topology.DefaultGraphDescription;
 import org.onosproject.net.topology.DefaultTopologyVertex;
 import org.onosproject.net.topology.GraphDescription;
+import org.onosproject.net.topology.HopCountLinkWeigher;
 import org.onosproject.net.topology.LinkWeigher;
 import org.onosproject.net.topology.TopologyCluster;
 import org.onosproject.net.topology.TopologyEdge;
@@ -41,6 +43,7 @@ import org.onosproject.net.topology.TopologyVertex;
 
 import java.util.Set;
 import static com.google.common.collect.ImmutableSet.of;
+import static java.util.stream.Collectors.toSet;
 import static org.junit.Assert.*;
 import static org.onosproject.net.DeviceId.deviceId;
 import static org.onosproject.net.PortNumber.portNumber;
@@ -148,6 +151,249 @@ public class DefaultTopologyTest {
         assertFalse("cluster should not contain D5", devs.contains(D5));
     }
 
+    @Test
+    public void incrementalClusters() {
+        Set<Device> devices = Sets.newHashSet();
+        Set<Link> links = Sets.newHashSet();
+        addRings(4, devices, links);
+        DefaultTopology topology = new DefaultTopology(PID, description(devices, links));
+        topology.getClusters().forEach(c -> topology.broadcastPoints(c.id()));
+        assertEquals("incorrect cluster count", 4, topology.clusterCount());
+
+        // Losing one link pair leaves the ring intact.
+        links.remove(link("1", 1, "2", 2));
+        links.remove(link("2", 2, "1", 1));
+        DefaultTopology updated = update(topology, devices, links);
+        assertEquals("incorrect cluster count", 4, updated.clusterCount());
+        assertEquals("incorrect searched device count", 0, updated.searchedDeviceCount());
+
+        // Losing the other link pair splits the device off its ring.
+        links.remove(link("4", 1, "1", 2));
+        links.remove(link("1", 2, "4", 1));
+        updated = update(updated, devices, links);
+        assertEquals("incorrect cluster count", 5, updated.clusterCount());
+        assertEquals("incorrect searched device count", 4, updated.searchedDeviceCount());
+
+        // Joining two rings merges their clusters.
+        links.add(link("3", 3, "5", 3));
+        links.add(link("5", 3, "3", 3));
+        updated = update(updated, devices, links);
+        assertEquals("incorrect cluster count", 4, updated.clusterCount());
+        assertEquals("incorrect searched device count", 7, updated.searchedDeviceCount());
+
+        // Deactivating a link splits the merged cluster again.
+        links.remove(link("3", 3, "5", 3));
+        links.add(DefaultLink.builder().providerId(PID)
+                          .src(new ConnectPoint(did("3"), portNumber(3)))
+                          .dst(new ConnectPoint(did("5"), portNumber(3)))
+                          .type(Link.Type.DIRECT)
+                          .state(Link.State.INACTIVE)
+                          .build());
+        updated = update(updated, devices, links);
+        assertEquals("incorrect cluster count", 5, updated.clusterCount());
+        assertEquals("incorrect searched device count", 7, updated.searchedDeviceCount());
+
+        // New devices join the clusters they form cycles with.
+        devices.add(device("17"));
+        links.add(link("17", 1, "9", 3));
+        links.add(link("9", 3, "17", 1));
+        updated = update(updated, devices, links);
+        assertEquals("incorrect cluster count", 5, updated.clusterCount());
+        assertEquals("incorrect searched device count", 5, updated.searchedDeviceCount());
+
+        devices.remove(device("17"));
+        links.remove(link("17", 1, "9", 3));
+        links.remove(link("9", 3, "17", 1));
+        updated = update(updated, devices, links);
+        assertEquals("incorrect cluster count", 5, updated.clusterCount());
+        assertEquals("incorrect searched device count", 4, updated.searchedDeviceCount());
+    }
+
+    @Test
+    public void incrementalClustersCost() {
+        // The cost of a single link change is bound by the size of the
+        // affected cluster rather than the size of the topology.
+        for (int count : new int[]{10, 100, 1000}) {
+            Set<Device> devices = Sets.newHashSet();
+            Set<Link> links = Sets.newHashSet();
+            addRings(count, devices, links);
+            DefaultTopology topology = new DefaultTopology(PID, description(devices, links));
+            topology.getClusters().forEach(c -> topology.broadcastPoints(c.id()));
+            assertEquals("incorrect searched device count", 4 * count, topology.searchedDeviceCount());
+
+            links.remove(link("4", 1, "1", 2));
+            DefaultTopology updated = update(topology, devices, links);
+            assertEquals("incorrect searched device count", 0, updated.searchedDeviceCount());
+
+            links.remove(link("2", 2, "1", 1));
+            updated = update(updated, devices, links);
+            assertEquals("incorrect cluster count", count + 1, updated.clusterCount());
+            assertEquals("incorrect searched device count", 4, updated.searchedDeviceCount());
+
+            // Finding the clusters joined by new links visits the clusters
+            // along the cycles through the links only.
+            links.add(link("3", 3, "5", 3));
+            links.add(link("5", 3, "3", 3));
+            updated = update(updated, devices, links);
+            assertEquals("incorrect cluster count", count, updated.clusterCount());
+            assertEquals("incorrect searched device count", 7, updated.searchedDeviceCount());
+            assertEquals("incorrect searched cluster count", 10, updated.searchedClusterCount());
+        }
+    }
+
+    @Test
+    public void pathCache() {
+        Set<Device> devices = Sets.newHashSet();
+        Set<Link> links = Sets.newHashSet();
+        addRings(2, devices, links);
+        DefaultTopology uncached = new DefaultTopology(PID, description(devices, links));
+        long misses = DefaultTopology.pathCacheStatistics().missCount();
+        uncached.getPaths(did("1"), did("2"));
+        assertEquals("paths should not be cached by default", 0, uncached.cachedPathCount());
+        assertEquals("misses should not be recorded by default", misses,
+                     DefaultTopology.pathCacheStatistics().missCount());
+
+        DefaultTopology.setPathCacheSize(100);
+        try {
+            DefaultTopology topology = new DefaultTopology(PID, description(devices, links));
+            PathCacheStatistics statistics = DefaultTopology.pathCacheStatistics();
+            long hits = statistics.hitCount();
+
+            Set<Path> paths = topology.getPaths(did("1"), did("2"));
+            assertEquals("incorrect path count", 1, paths.size());
+            assertSame("paths should be cached", paths, topology.getPaths(did("1"), did("2")));
+            assertEquals("incorrect hit count", hits + 1, statistics.hitCount());
+            topology.getPaths(did("5"), did("6"));
+            assertEquals("incorrect cached path count", 2, topology.cachedPathCount());
+
+            // Paths weighed by weighers created per request are not cached.
+            topology.getPaths(did("5"), did("6"), new HopCountLinkWeigher());
+            assertEquals("incorrect cached path count", 2, topology.cachedPathCount());
+
+            // Losing a link invalidates only the paths traversing it.
+            links.remove(link("1", 1, "2", 2));
+            DefaultTopology updated = new DefaultTopology(PID, description(devices, links), null, topology);
+            assertEquals("incorrect cached path count", 1, updated.cachedPathCount());
+            assertEquals("incorrect path length", 3,
+                         updated.getPaths(did("1"), did("2")).iterator().next().links().size());
+
+            // New links may shorten any path.
+            links.add(link("1", 1, "2", 2));
+            updated = new DefaultTopology(PID, description(devices, links), null, updated);
+            assertEquals("incorrect cached path count", 0, updated.cachedPathCount());
+        } finally {
+            DefaultTopology.setPathCacheSize(DefaultTopology.DEFAULT_PATH_CACHE_SIZE);
+        }
+    }
+
+    @Test
+    public void allPairsPaths() {
+        // Leaf-spine fabric of two spines and four leaves.
+        Set<Device> devices = Sets.newHashSet();
+        Set<Link> links = Sets.newHashSet();
+        for (int spine = 1; spine <= 2; spine++) {
+            devices.add(device(String.valueOf(spine)));
+            for (int leaf = 11; leaf <= 14; leaf++) {
+                devices.add(device(String.valueOf(leaf)));
+                links.add(link(String.valueOf(spine), leaf, String.valueOf(leaf), spine));
+                links.add(link(String.valueOf(leaf), spine, String.valueOf(spine), leaf));
+            }
+        }
+        GraphDescription description = description(devices, links);
+        DefaultTopology onDemand = new DefaultTopology(PID, description);
+        assertFalse("paths should not be precomputed", onDemand.hasAllPairsPaths());
+
+        DefaultTopology.setAllPairsPathsMaxDevices(devices.size());
+        try {
+            // Paths are searched on demand until the precomputation completes.
+            DefaultTopology precomputed = new DefaultTopology(PID, description);
+            assertEquals("incorrect paths", onDemand.getPaths(did("11"), did("12")),
+                         precomputed.getPaths(did("11"), did("12")));
+            assertTrue("paths should be precomputed", precomputed.hasAllPairsPaths());
+            for (Device src : devices) {
+                for (Device dst : devices) {
+                    if (!src.equals(dst)) {
+                        assertEquals("incorrect paths", onDemand.getPaths(src.id(), dst.id()),
+                                     precomputed.getPaths(src.id(), dst.id()));
+                    }
+                }
+            }
+            assertEquals("incorrect path count", 2, precomputed.getPaths(did("11"), did("12")).size());
+
+            devices.add(device("15"));
+            assertFalse("paths should not be precomputed beyond the maximum size",
+                        new DefaultTopology(PID, description(devices, links)).hasAllPairsPaths());
+        } finally {
+            DefaultTopology.setAllPairsPathsMaxDevices(0);
+        }
+    }
+
+    @Test
+    public void compactGraphSearch() {
+        Set<Device> devices = Sets.newHashSet();
+        Set<Link> links = Sets.newHashSet();
+        addRings(2, devices, links);
+        DefaultTopology topology = new DefaultTopology(PID, description(devices, links));
+        Set<Path> paths = topology.getPaths(did("1"), did("3"));
+
+        DefaultTopology.setCompactGraphSearch(true);
+        try {
+            assertEquals("incorrect paths", paths, topology.getPaths(did("1"), did("3")));
+        } finally {
+            DefaultTopology.setCompactGraphSearch(false);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void allPairsPathsMaxDevicesBound() {
+        DefaultTopology.setAllPairsPathsMaxDevices(DefaultTopology.MAX_ALL_PAIRS_PATHS_DEVICES + 1);
+    }
+
+    // Derives a topology from the previous one and validates it against a
+    // topology computed from scratch.
+    private static DefaultTopology update(DefaultTopology previous, Set<Device> devices, Set<Link> links) {
+        GraphDescription description = description(devices, links);
+        DefaultTopology topology = new DefaultTopology(PID, description, null, previous);
+        DefaultTopology expected = new DefaultTopology(PID, description);
+        assertEquals("incorrect clusters", clusterDevices(expected), clusterDevices(topology));
+        assertEquals("incorrect cluster links", clusterLinks(expected), clusterLinks(topology));
+        for (int i = 0; i < topology.clusterCount(); i++) {
+            TopologyCluster cluster = topology.getCluster(ClusterId.clusterId(i));
+            assertNotNull("cluster ids should be contiguous", cluster);
+            TopologyCluster expectedCluster = expected.getCluster(cluster.root().deviceId());
+            assertEquals("incorrect root node", expectedCluster.root(), cluster.root());
+            assertEquals("incorrect broadcast set size",
+                         expected.broadcastSetSize(expectedCluster.id()),
+                         topology.broadcastSetSize(cluster.id()));
+        }
+        return topology;
+    }
+
+    private static Set<Set<DeviceId>> clusterDevices(DefaultTopology topology) {
+        return topology.getClusters().stream().map(topology::getClusterDevices).collect(toSet());
+    }
+
+    private static Set<Set<Link>> clusterLinks(DefaultTopology topology) {
+        return topology.getClusters().stream().map(topology::getClusterLinks).collect(toSet());
+    }
+
+    // Adds the given number of bidirectional rings of four devices each.
+    private static void addRings(int count, Set<Device> devices, Set<Link> links) {
+        for (int r = 0; r < count; r++) {
+            for (int i = 0; i < 4; i++) {
+                String src = String.valueOf(r * 4 + i + 1);
+                String dst = String.valueOf(r * 4 + (i + 1) % 4 + 1);
+                devices.add(device(src));
+                links.add(link(src, 1, dst, 2));
+                links.add(link(dst, 2, src, 1));
+            }
+        }
+    }
+
+    private static GraphDescription description(Set<Device> devices, Set<Link> links) {
+        return new DefaultGraphDescription(System.nanoTime(), System.currentTimeMillis(), devices, links);
+    }
+
     // Short-hand for creating a link.
     public static Link link(String src, int sp, String dst, int dp) {
         return DefaultLink.builder().providerId(PID)
@@ -15,103 +15,191 @@
  */
 package org.onosproject.event.impl;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Timer;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.SharedExecutors;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.event.AbstractEvent;
 import org.onosproject.event.DefaultEventSinkRegistry;
 import org.onosproject.event.Event;
 import org.onosproject.event.EventDeliveryService;
 import org.onosproject.event.EventSink;
+import org.onosproject.net.Element;
+import org.onosproject.net.Link;
+import org.onosproject.net.Port;
 import org.onosproject.net.device.DeviceEvent;
+import org.onosproject.net.flow.FlowRule;
 import org.onosproject.net.flow.FlowRuleEvent;
 import org.onosproject.net.host.HostEvent;
+import org.onosproject.net.intent.Intent;
 import org.onosproject.net.intent.IntentEvent;
 import org.onosproject.net.link.LinkEvent;
 import org.onosproject.net.topology.TopologyEvent;
+import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 
+import java.util.Dictionary;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TimerTask;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.onlab.util.Tools.get;
 import static org.onlab.util.Tools.groupedThreads;
+import static org.onosproject.net.OsgiPropertyConstants.CED_COALESCED_EVENT_TYPES;
+import static org.onosproject.net.OsgiPropertyConstants.CED_COALESCED_EVENT_TYPES_DEFAULT;
+import static org.onosproject.net.OsgiPropertyConstants.CED_DISPATCH_LANES;
+import static org.onosproject.net.OsgiPropertyConstants.CED_DISPATCH_LANES_DEFAULT;
+import static org.onosproject.net.OsgiPropertyConstants.CED_DISPATCH_QUEUE_SIZE;
+import static org.onosproject.net.OsgiPropertyConstants.CED_DISPATCH_QUEUE_SIZE_DEFAULT;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.EVENT_READ;
 import static org.onosproject.security.AppPermission.Type.EVENT_WRITE;
 import static org.slf4j.LoggerFactory.getLogger;
 /**
  * Simple implementation of an event dispatching service.
+ * <p>
+ * Events are dispatched by category (topology, programming and default),
+ * each served by its own dispatch loops. A category may be partitioned into
+ * several ordered lanes, in which case events are assigned to lanes by their
+ * subject, preserving the delivery order of the events of any one subject
+ * while letting different subjects be delivered in parallel. Event sinks
+ * are then invoked concurrently from the lanes of their category; a sink
+ * exceeding its time limit is notified of the lane thread which exceeded it.
+ * <p>
+ * Events of the declared coalesced types supersede any queued event of the
+ * same type and subject (and port, for device events), so that only the
+ * latest of them is delivered when events are posted faster than they are
+ * processed.
  */
-@Component(immediate = true, service = EventDeliveryService.class)
+@Component(
+    immediate = true,
+    service = EventDeliveryService.class,
+    property = {
+        CED_DISPATCH_LANES + ":Integer=" + CED_DISPATCH_LANES_DEFAULT,
+        CED_DISPATCH_QUEUE_SIZE + ":Integer=" + CED_DISPATCH_QUEUE_SIZE_DEFAULT,
+        CED_COALESCED_EVENT_TYPES + "=" + CED_COALESCED_EVENT_TYPES_DEFAULT
+    }
+)
 public class CoreEventDispatcher extends DefaultEventSinkRegistry
         implements EventDeliveryService {
 
     private final Logger log = getLogger(getClass());
 
-
-    private DispatchLoop topologyDispatcher = new DispatchLoop("topology");
-    private DispatchLoop programmingDispatcher = new DispatchLoop("programming");
-    private DispatchLoop defaultDispatcher = new DispatchLoop("default");
-
-    private Map<Class, DispatchLoop> dispatcherMap =
-            new ImmutableMap.Builder<Class, DispatchLoop>()
-                .put(TopologyEvent.class, topologyDispatcher)
-                .put(DeviceEvent.class, topologyDispatcher)
-                .put(LinkEvent.class, topologyDispatcher)
-                .put(HostEvent.class, topologyDispatcher)
-                .put(FlowRuleEvent.class, programmingDispatcher)
-                .put(IntentEvent.class, programmingDispatcher)
+    private static final String TOPOLOGY = "topology";
+    private static final String PROGRAMMING = "programming";
+    private static final String DEFAULT = "default";
+
+    private static final Map<Class, String> CATEGORIES =
+            new ImmutableMap.Builder<Class, String>()
+                .put(TopologyEvent.class, TOPOLOGY)
+                .put(DeviceEvent.class, TOPOLOGY)
+                .put(LinkEvent.class, TOPOLOGY)
+                .put(HostEvent.class, TOPOLOGY)
+                .put(FlowRuleEvent.class, PROGRAMMING)
+                .put(IntentEvent.class, PROGRAMMING)
                 .build();
 
-    private Set<DispatchLoop> dispatchers =
-            new ImmutableSet.Builder<DispatchLoop>()
-                .addAll(dispatcherMap.values())
-                .add(defaultDispatcher)
-                .build();
+    private static final String FORMAT = "Settings: dispatchLanes={}, dispatchQueueSize={}, " +
+            "coalescedEventTypes={}";
+
+    private static final String METRICS_COMPONENT = "EventDispatcher";
+    private static final String QUEUE_DEPTH = "queueDepth";
+    private static final String DROPPED_EVENTS = "droppedEvents";
+    private static final String LATENCY = "latency";
+    private static final String COALESCING = "coalescing";
 
     // Default number of millis a sink can take to process an event.
     private static final long DEFAULT_EXECUTE_MS = 5_000; // ms
     private static final long WATCHDOG_MS = 250; // ms
+    // Number of millis to wait for retired lanes to deliver their events.
+    private static final long DRAIN_MS = 5_000; // ms
+
+    // Indicates whether the instances of a class define their own hash code.
+    private static final ClassValue<Boolean> VALUE_HASHED = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("hashCode").getDeclaringClass() != Object.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
 
     @SuppressWarnings("unchecked")
     private static final Event KILL_PILL = new AbstractEvent(null, 0) {
     };
 
-    private long maxProcessMillis = DEFAULT_EXECUTE_MS;
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected ComponentConfigService cfgService;
 
-    private DispatchLoop getDispatcher(Event event) {
-        DispatchLoop dispatcher = dispatcherMap.get(event.getClass());
-        if (dispatcher == null) {
-            dispatcher = defaultDispatcher;
-        }
-        return dispatcher;
-    }
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL)
+    protected MetricsService metricsService;
+
+    /** Number of ordered dispatch lanes of each event category; above 1, listeners are invoked concurrently. */
+    private int dispatchLanes = CED_DISPATCH_LANES_DEFAULT;
+
+    /** Maximum number of events queued per dispatch lane; 0 for unbounded. */
+    private int dispatchQueueSize = CED_DISPATCH_QUEUE_SIZE_DEFAULT;
+
+    /** Comma-separated event types to coalesce, e.g. DeviceEvent.PORT_UPDATED. */
+    private String coalescedEventTypes = CED_COALESCED_EVENT_TYPES_DEFAULT;
+
+    private volatile Set<Enum<?>> coalescedTypes = ImmutableSet.of();
+    private final Map<Enum<?>, LongAdder> coalescedCounts = new ConcurrentHashMap<>();
+
+    private volatile Lanes lanes = new Lanes(dispatchLanes, dispatchQueueSize);
+    private boolean started;
+    // Completes once the lanes retired last have delivered their events.
+    private CompletableFuture<Void> retiredLanes = CompletableFuture.completedFuture(null);
+
+    private long maxProcessMillis = DEFAULT_EXECUTE_MS;
 
     @Override
     public void post(Event event) {
-
-        if (!getDispatcher(event).add(event)) {
-            log.error("Unable to post event {}", event);
-        }
+        lanes.get(event).add(event);
     }
 
     @Activate
-    public void activate() {
+    public void activate(ComponentContext context) {
+        if (cfgService != null) {
+            cfgService.registerProperties(getClass());
+        }
+        modified(context);
 
-        if (maxProcessMillis != 0) {
-            dispatchers.forEach(DispatchLoop::start);
+        synchronized (this) {
+            registerMetrics(lanes);
+            registerCoalescingMetrics(coalescedTypes);
+            if (maxProcessMillis != 0) {
+                lanes.dispatchers.forEach(DispatchLoop::start);
+            }
+            started = true;
         }
 
         log.info("Started");
@@ -119,11 +207,174 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
 
     @Deactivate
     public void deactivate() {
-        dispatchers.forEach(DispatchLoop::stop);
+        if (cfgService != null) {
+            cfgService.unregisterProperties(getClass(), false);
+        }
+
+        synchronized (this) {
+            started = false;
+            lanes.dispatchers.forEach(DispatchLoop::stop);
+            unregisterMetrics(lanes);
+            unregisterCoalescingMetrics(coalescedTypes);
+        }
 
         log.info("Stopped");
     }
 
+    @Modified
+    public void modified(ComponentContext context) {
+        if (context == null) {
+            log.info(FORMAT, dispatchLanes, dispatchQueueSize, coalescedEventTypes);
+            return;
+        }
+
+        Dictionary<?, ?> properties = context.getProperties();
+        int newDispatchLanes, newDispatchQueueSize;
+        try {
+            String s = get(properties, CED_DISPATCH_LANES);
+            newDispatchLanes = isNullOrEmpty(s) ? dispatchLanes : Integer.parseInt(s.trim());
+
+            s = get(properties, CED_DISPATCH_QUEUE_SIZE);
+            newDispatchQueueSize = isNullOrEmpty(s) ? dispatchQueueSize : Integer.parseInt(s.trim());
+        } catch (NumberFormatException | ClassCastException e) {
+            newDispatchLanes = CED_DISPATCH_LANES_DEFAULT;
+            newDispatchQueueSize = CED_DISPATCH_QUEUE_SIZE_DEFAULT;
+        }
+
+        if (newDispatchLanes < 1 || newDispatchQueueSize < 0) {
+            log.warn("Invalid dispatch lanes {} or queue size {}; using defaults",
+                     newDispatchLanes, newDispatchQueueSize);
+            newDispatchLanes = CED_DISPATCH_LANES_DEFAULT;
+            newDispatchQueueSize = CED_DISPATCH_QUEUE_SIZE_DEFAULT;
+        }
+
+        if (newDispatchLanes != dispatchLanes || newDispatchQueueSize != dispatchQueueSize) {
+            dispatchLanes = newDispatchLanes;
+            dispatchQueueSize = newDispatchQueueSize;
+            replaceLanes(new Lanes(dispatchLanes, dispatchQueueSize));
+        }
+
+        String newCoalescedEventTypes = get(properties, CED_COALESCED_EVENT_TYPES);
+        newCoalescedEventTypes = newCoalescedEventTypes == null ?
+                coalescedEventTypes : newCoalescedEventTypes.trim();
+        if (!newCoalescedEventTypes.equals(coalescedEventTypes)) {
+            coalescedEventTypes = newCoalescedEventTypes;
+            replaceCoalescedTypes(parseEventTypes(coalescedEventTypes));
+        }
+        log.info(FORMAT, dispatchLanes, dispatchQueueSize, coalescedEventTypes);
+    }
+
+    private synchronized void replaceCoalescedTypes(Set<Enum<?>> types) {
+        if (started) {
+            unregisterCoalescingMetrics(coalescedTypes);
+            registerCoalescingMetrics(types);
+        }
+        coalescedTypes = types;
+    }
+
+    // Resolves the event types given as a comma-separated list of event
+    // class simple names and type names, e.g. DeviceEvent.PORT_UPDATED;
+    // only the event classes with a dedicated dispatch category are known.
+    private Set<Enum<?>> parseEventTypes(String value) {
+        ImmutableSet.Builder<Enum<?>> builder = ImmutableSet.builder();
+        for (String name : value.split(",")) {
+            name = name.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            int dot = name.lastIndexOf('.');
+            Enum<?> type = dot < 0 ? null : eventType(name.substring(0, dot), name.substring(dot + 1));
+            if (type != null) {
+                builder.add(type);
+            } else {
+                log.warn("Unknown event type {}; not coalesced", name);
+            }
+        }
+        return builder.build();
+    }
+
+    private static Enum<?> eventType(String eventClassName, String typeName) {
+        for (Class<?> eventClass : CATEGORIES.keySet()) {
+            if (!eventClass.getSimpleName().equals(eventClassName)) {
+                continue;
+            }
+            for (Class<?> nested : eventClass.getDeclaredClasses()) {
+                if (nested.isEnum()) {
+                    for (Object constant : nested.getEnumConstants()) {
+                        if (((Enum<?>) constant).name().equals(typeName)) {
+                            return (Enum<?>) constant;
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of events of the given type superseded by later
+     * events before being delivered.
+     *
+     * @param type event type
+     * @return number of coalesced events
+     */
+    long coalescedCount(Enum<?> type) {
+        LongAdder count = coalescedCounts.get(type);
+        return count == null ? 0 : count.sum();
+    }
+
+    private void countCoalesced(Event event) {
+        coalescedCounts.computeIfAbsent((Enum<?>) event.type(), t -> new LongAdder()).increment();
+    }
+
+    // Swaps in the new lanes; if dispatching has started, the new lanes only
+    // start once the old ones have delivered all their queued events, thus
+    // preserving the order of delivery. The old lanes are drained in the
+    // background and in parallel, so as not to hold up the reconfiguration.
+    private synchronized void replaceLanes(Lanes newLanes) {
+        Lanes oldLanes = lanes;
+        lanes = newLanes;
+        if (!started) {
+            oldLanes.dispatchers.forEach(DispatchLoop::shutdown);
+            return;
+        }
+
+        retiredLanes = retiredLanes
+                .thenCompose(v -> CompletableFuture.allOf(oldLanes.dispatchers.stream()
+                        .map(d -> CompletableFuture.runAsync(d::drain, SharedExecutors.getPoolThreadExecutor()))
+                        .toArray(CompletableFuture[]::new)))
+                .thenRun(() -> startLanes(oldLanes, newLanes))
+                .exceptionally(e -> {
+                    log.warn("Unable to replace dispatch lanes", e);
+                    return null;
+                });
+    }
+
+    // Starts the lanes which replaced the given drained lanes, unless the
+    // dispatcher was stopped meanwhile; lanes replaced again meanwhile are
+    // started as well, to deliver the events queued on them before being
+    // drained in turn.
+    private synchronized void startLanes(Lanes oldLanes, Lanes newLanes) {
+        unregisterMetrics(oldLanes);
+        if (!started) {
+            return;
+        }
+        registerMetrics(newLanes);
+        if (maxProcessMillis != 0) {
+            newLanes.dispatchers.forEach(DispatchLoop::start);
+        }
+    }
+
+    /**
+     * Returns a future completing once the lanes replaced last have
+     * delivered their queued events and the lanes replacing them started.
+     *
+     * @return future of the lane replacement
+     */
+    synchronized CompletableFuture<Void> lanesReplaced() {
+        return retiredLanes;
+    }
+
     @Override
     public void setDispatchTimeLimit(long millis) {
         checkPermission(EVENT_WRITE);
@@ -133,9 +384,9 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
         maxProcessMillis = millis;
 
         if (millis == 0 && oldMillis != 0) {
-            dispatchers.forEach(DispatchLoop::stopWatchdog);
+            lanes.dispatchers.forEach(DispatchLoop::stopWatchdog);
         } else if (millis != 0 && oldMillis == 0) {
-            dispatchers.forEach(DispatchLoop::startWatchdog);
+            lanes.dispatchers.forEach(DispatchLoop::startWatchdog);
         }
     }
 
@@ -145,28 +396,261 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
         return maxProcessMillis;
     }
 
+    // Publishes the queue depth, dropped events and delivery latency of
+    // each dispatch loop through the metrics service.
+    private void registerMetrics(Lanes target) {
+        if (metricsService == null) {
+            return;
+        }
+        MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+        for (DispatchLoop dispatcher : target.dispatchers) {
+            MetricsFeature feature = component.registerFeature(dispatcher.name);
+            metricsService.registerMetric(component, feature, QUEUE_DEPTH,
+                                          (Gauge<Integer>) dispatcher.eventsQueue::size);
+            metricsService.registerMetric(component, feature, DROPPED_EVENTS,
+                                          (Gauge<Long>) dispatcher.droppedEvents::sum);
+            dispatcher.latency = metricsService.createTimer(component, feature, LATENCY);
+        }
+    }
+
+    private void unregisterMetrics(Lanes target) {
+        if (metricsService == null) {
+            return;
+        }
+        MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+        for (DispatchLoop dispatcher : target.dispatchers) {
+            MetricsFeature feature = component.registerFeature(dispatcher.name);
+            for (String name : new String[]{QUEUE_DEPTH, DROPPED_EVENTS, LATENCY}) {
+                metricsService.removeMetric(component, feature, name);
+            }
+        }
+    }
+
+    // Publishes the number of coalesced events of each declared type.
+    private void registerCoalescingMetrics(Set<Enum<?>> types) {
+        if (metricsService == null) {
+            return;
+        }
+        MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+        MetricsFeature feature = component.registerFeature(COALESCING);
+        for (Enum<?> type : types) {
+            metricsService.registerMetric(component, feature, metricName(type),
+                                          (Gauge<Long>) () -> coalescedCount(type));
+        }
+    }
+
+    private void unregisterCoalescingMetrics(Set<Enum<?>> types) {
+        if (metricsService == null) {
+            return;
+        }
+        MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+        MetricsFeature feature = component.registerFeature(COALESCING);
+        for (Enum<?> type : types) {
+            metricsService.removeMetric(component, feature, metricName(type));
+        }
+    }
+
+    private static String metricName(Enum<?> type) {
+        return type.getDeclaringClass().getEnclosingClass().getSimpleName() + "." + type.name();
+    }
+
+    // Returns the key by which events are assigned to the lanes of their
+    // category; events pertaining to the same device share the same key.
+    // Subjects hashed by identity, such as topology snapshots, would spread
+    // the events of the same kind over random lanes; such events share the
+    // key of their event class instead.
+    private static Object partitionKey(Event event) {
+        Object subject = event.subject();
+        if (subject instanceof Element) {
+            return ((Element) subject).id();
+        } else if (subject instanceof Link) {
+            return ((Link) subject).src().elementId();
+        } else if (subject instanceof FlowRule) {
+            return ((FlowRule) subject).deviceId();
+        } else if (subject instanceof Intent) {
+            return ((Intent) subject).key();
+        } else if (subject != null && VALUE_HASHED.get(subject.getClass())) {
+            return subject;
+        }
+        return event.getClass();
+    }
+
+    // Key identifying the events superseding one another when coalesced.
+    private static final class CoalescingKey {
+        private final Object type;
+        private final Object subject;
+        private final Object port;
+
+        private CoalescingKey(Event event) {
+            this.type = event.type();
+            Object eventSubject = event.subject();
+            this.subject = eventSubject instanceof Element ? ((Element) eventSubject).id() : eventSubject;
+            Port eventPort = event instanceof DeviceEvent ? ((DeviceEvent) event).port() : null;
+            this.port = eventPort != null ? eventPort.number() : null;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, subject, port);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof CoalescingKey) {
+                CoalescingKey that = (CoalescingKey) obj;
+                return Objects.equals(type, that.type) && Objects.equals(subject, that.subject) &&
+                        Objects.equals(port, that.port);
+            }
+            return false;
+        }
+    }
+
+    // Queued event of a coalesced type, which may be superseded by a later
+    // event of the same key until it is taken for delivery.
+    private static final class Pending {
+        private final CoalescingKey key;
+        private Event event;
+        private boolean taken;
+
+        private Pending(CoalescingKey key, Event event) {
+            this.key = key;
+            this.event = event;
+        }
+
+        // Marks the event as superseded; returns false if already taken.
+        private synchronized boolean supersede() {
+            if (taken) {
+                return false;
+            }
+            taken = true;
+            event = null;
+            return true;
+        }
+
+        // Replaces the event in place; returns false if already taken.
+        private synchronized boolean replace(Event newEvent) {
+            if (taken) {
+                return false;
+            }
+            event = newEvent;
+            return true;
+        }
+
+        // Takes the event for delivery; returns null if it was superseded.
+        private synchronized Event take() {
+            Event pendingEvent = event;
+            taken = true;
+            event = null;
+            return pendingEvent;
+        }
+    }
+
+    // Dispatch loops of each event category, partitioned into lanes.
+    private final class Lanes {
+        private final Map<String, DispatchLoop[]> categories;
+        private final Set<DispatchLoop> dispatchers;
+
+        private Lanes(int count, int queueSize) {
+            ImmutableMap.Builder<String, DispatchLoop[]> builder = ImmutableMap.builder();
+            ImmutableSet.Builder<DispatchLoop> all = ImmutableSet.builder();
+            for (String category : new String[]{TOPOLOGY, PROGRAMMING, DEFAULT}) {
+                DispatchLoop[] loops = new DispatchLoop[count];
+                for (int i = 0; i < count; i++) {
+                    loops[i] = new DispatchLoop(count == 1 ? category : category + "-" + i, queueSize);
+                    all.add(loops[i]);
+                }
+                builder.put(category, loops);
+            }
+            categories = builder.build();
+            dispatchers = all.build();
+        }
+
+        private DispatchLoop get(Event event) {
+            DispatchLoop[] loops = categories.get(CATEGORIES.getOrDefault(event.getClass(), DEFAULT));
+            if (loops.length == 1) {
+                return loops[0];
+            }
+            return loops[Math.floorMod(Objects.hashCode(partitionKey(event)), loops.length)];
+        }
+    }
+
     // Auxiliary event dispatching loop that feeds off the events queue.
     private class DispatchLoop implements Runnable {
         private final String name;
         private volatile boolean stopped;
+        private volatile boolean draining;
         private volatile EventSink lastSink;
+        private volatile Thread lastThread;
         // Means to detect long-running sinks
         private final Stopwatch stopwatch = Stopwatch.createUnstarted();
         private TimerTask watchdog;
         private volatile Future<?> dispatchFuture;
-        private final BlockingQueue<Event> eventsQueue;
+        // Queued events, or pending events of coalesced types
+        private final BlockingQueue<Object> eventsQueue;
+        private final Map<CoalescingKey, Pending> pending = new ConcurrentHashMap<>();
         private final ExecutorService executor;
+        private final CountDownLatch drained = new CountDownLatch(1);
+        // Events dropped in total and since the queue last accepted an event
+        private final LongAdder droppedEvents = new LongAdder();
+        private final AtomicLong overflow = new AtomicLong();
+        private volatile Timer latency;
 
-        DispatchLoop(String name) {
+        DispatchLoop(String name, int queueSize) {
             this.name = name;
             executor = newSingleThreadExecutor(
                     groupedThreads("onos/event",
                     "dispatch-" + name + "%d", log));
-            eventsQueue = new LinkedBlockingQueue<>();
+            eventsQueue = queueSize > 0 ? new LinkedBlockingQueue<>(queueSize) :
+                    new LinkedBlockingQueue<>();
         }
 
         public boolean add(Event event) {
-            return eventsQueue.add(event);
+            if (coalescedTypes.contains(event.type())) {
+                return coalesce(event);
+            }
+            return enqueue(event);
+        }
+
+        // Queues the event behind a pending entry superseding the pending
+        // entry of the same key; if the queue is full, the latter is updated
+        // in place instead.
+        private boolean coalesce(Event event) {
+            CoalescingKey key = new CoalescingKey(event);
+            boolean[] queued = {true};
+            pending.compute(key, (k, previous) -> {
+                if (previous != null && eventsQueue.remainingCapacity() == 0 && previous.replace(event)) {
+                    countCoalesced(event);
+                    return previous;
+                }
+                Pending next = new Pending(k, event);
+                if (!enqueue(next)) {
+                    queued[0] = false;
+                    return previous;
+                }
+                if (previous != null && previous.supersede()) {
+                    countCoalesced(event);
+                }
+                return next;
+            });
+            return queued[0];
+        }
+
+        private boolean enqueue(Object item) {
+            if (!eventsQueue.offer(item)) {
+                droppedEvents.increment();
+                if (overflow.getAndIncrement() == 0) {
+                    log.error("Dispatch loop({}) queue is full; dropping events", name);
+                }
+                return false;
+            }
+            if (overflow.get() != 0) {
+                log.warn("Dispatch loop({}) dropped {} events while its queue was full",
+                         name, overflow.getAndSet(0));
+            }
+            return true;
         }
 
         @Override
@@ -175,9 +659,19 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
             while (!stopped) {
                 try {
                     // Fetch the next event and if it is the kill-pill, bail
-                    Event event = eventsQueue.take();
-                    if (event != KILL_PILL) {
-                        process(event);
+                    Object item = eventsQueue.take();
+                    if (item instanceof Pending) {
+                        Pending entry = (Pending) item;
+                        Event event = entry.take();
+                        pending.remove(entry.key, entry);
+                        if (event != null) {
+                            process(event);
+                        }
+                    } else if (item != KILL_PILL) {
+                        process((Event) item);
+                    } else if (draining) {
+                        drained.countDown();
+                        break;
                     }
                 } catch (InterruptedException e) {
                     log.warn("Dispatch loop interrupted");
@@ -191,9 +685,14 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
         // Locate the sink for the event class and use it to process the event
         @SuppressWarnings("unchecked")
         private void process(Event event) {
+            Timer timer = latency;
+            if (timer != null) {
+                timer.update(System.currentTimeMillis() - event.time(), TimeUnit.MILLISECONDS);
+            }
             EventSink sink = getSink(event.getClass());
             if (sink != null) {
                 lastSink = sink;
+                lastThread = Thread.currentThread();
                 stopwatch.start();
                 sink.process(event);
                 stopwatch.reset();
@@ -205,7 +704,7 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
 
         void stop() {
             stopped = true;
-            add(KILL_PILL);
+            eventsQueue.offer(KILL_PILL);
             if (null != dispatchFuture) {
                 dispatchFuture.cancel(true);
             }
@@ -218,6 +717,31 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
             startWatchdog();
         }
 
+        // Delivers the events queued so far, then stops the loop for good.
+        void drain() {
+            if (dispatchFuture == null) {
+                shutdown();
+                return;
+            }
+            draining = true;
+            try {
+                if (!eventsQueue.offer(KILL_PILL, DRAIN_MS, TimeUnit.MILLISECONDS) ||
+                        !drained.await(DRAIN_MS, TimeUnit.MILLISECONDS)) {
+                    log.warn("Dispatch loop({}) did not drain in time; {} events pending",
+                             name, eventsQueue.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            shutdown();
+        }
+
+        // Stops the loop for good.
+        void shutdown() {
+            stop();
+            executor.shutdownNow();
+        }
+
         // Monitors event sinks to make sure none take too long to execute.
         private class Watchdog extends TimerTask {
             @Override
@@ -229,8 +753,9 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
                              "spawning new dispatch loop",
                              lastSink.getClass().getName(), elapsedTimeMillis);
 
-                    // Notify the sink that it has exceeded its time limit.
-                    lastSink.onProcessLimit();
+                    // Notify the sink that this loop has exceeded its time
+                    // limit; the sink may be processing other lanes' events.
+                    lastSink.onProcessLimit(lastThread);
 
                     // Cancel the old dispatch loop and submit a new one.
 
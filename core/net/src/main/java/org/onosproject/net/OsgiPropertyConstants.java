@@ -98,6 +98,9 @@ public final class OsgiPropertyConstants {
     public static final String IM_NUM_THREADS = "numThreads";
     public static final int IM_NUM_THREADS_DEFAULT = 12;
 
+    public static final String IM_PIPELINED_BATCHES = "pipelinedBatches";
+    public static final boolean IM_PIPELINED_BATCHES_DEFAULT = false;
+
     public static final String MM_NUM_THREADS = "numThreads";
     public static final int MM_NUM_THREADS_DEFAULT = 12;
 
@@ -124,4 +127,28 @@ public final class OsgiPropertyConstants {
 
     public static final String DTP_MAX_BATCH_MS = "maxBatchMs";
     public static final int DTP_MAX_BATCH_MS_DEFAULT = 50;
+
+    public static final String CED_DISPATCH_LANES = "dispatchLanes";
+    public static final int CED_DISPATCH_LANES_DEFAULT = 1;
+
+    public static final String CED_DISPATCH_QUEUE_SIZE = "dispatchQueueSize";
+    public static final int CED_DISPATCH_QUEUE_SIZE_DEFAULT = 0;
+
+    public static final String CED_COALESCED_EVENT_TYPES = "coalescedEventTypes";
+    public static final String CED_COALESCED_EVENT_TYPES_DEFAULT = "";
+
+    public static final String PM_PACKET_WORKERS = "packetWorkers";
+    public static final int PM_PACKET_WORKERS_DEFAULT = 0;
+
+    public static final String PM_PACKET_QUEUE_SIZE = "packetQueueSize";
+    public static final int PM_PACKET_QUEUE_SIZE_DEFAULT = 1024;
+
+    public static final String PM_DEVICE_PACKET_RATE = "devicePacketRate";
+    public static final int PM_DEVICE_PACKET_RATE_DEFAULT = 0;
+
+    public static final String PM_PORT_PACKET_RATE = "portPacketRate";
+    public static final int PM_PORT_PACKET_RATE_DEFAULT = 0;
+
+    public static final String PM_ETHER_TYPE_PACKET_RATES = "etherTypePacketRates";
+    public static final String PM_ETHER_TYPE_PACKET_RATES_DEFAULT = "";
 }
@@ -36,6 +36,7 @@ import org.onosproject.net.driver.DriverService;
 import org.onosproject.net.flow.CompletedBatchOperation;
 import org.onosproject.net.flow.DefaultFlowEntry;
 import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowEntryReconciliation;
 import org.onosproject.net.flow.FlowRule;
 import org.onosproject.net.flow.FlowRuleEvent;
 import org.onosproject.net.flow.FlowRuleListener;
@@ -476,11 +477,11 @@ public class FlowRuleManager
             log.debug("Flow {} is on switch but not in store.", flowRule);
         }
 
-        private void flowAdded(FlowEntry flowEntry) {
+        private void flowAdded(FlowEntry flowEntry, FlowEntry storedEntry) {
             checkNotNull(flowEntry, FLOW_RULE_NULL);
             checkValidity();
 
-            if (checkRuleLiveness(flowEntry, store.getFlowEntry(flowEntry))) {
+            if (checkRuleLiveness(flowEntry, storedEntry)) {
                 FlowRuleEvent event = store.addOrUpdateFlowRule(flowEntry);
                 if (event == null) {
                     log.debug("No flow store event generated.");
@@ -547,37 +548,46 @@ public class FlowRuleManager
 
         private void pushFlowMetricsInternal(DeviceId deviceId, Iterable<FlowEntry> flowEntries,
                                              boolean useMissingFlow) {
-            Map<FlowEntry, FlowEntry> storedRules = Maps.newHashMap();
-            store.getFlowEntries(deviceId).forEach(f -> storedRules.put(f, f));
+            // Diff the whole stats reply against the store in one pass
+            FlowEntryReconciliation reconciliation = store.reconcileFlowEntries(deviceId, flowEntries);
 
-            for (FlowEntry rule : flowEntries) {
+            reconciliation.matched().forEach((rule, storedRule) -> {
                 try {
-                    FlowEntry storedRule = storedRules.remove(rule);
-                    if (storedRule != null) {
-                        if (storedRule.exactMatch(rule)) {
-                            // we both have the rule, let's update some info then.
-                            flowAdded(rule);
-                        } else {
-                            // the two rules are not an exact match - remove the
-                            // switch's rule and install our rule
-                            extraneousFlow(rule);
-                            flowMissing(storedRule, false);
-                        }
-                    } else {
-                        // the device has a rule the store does not have
-                        if (!allowExtraneousRules) {
-                            extraneousFlow(rule);
-                        }
-                    }
+                    // we both have the rule, let's update some info then.
+                    flowAdded(rule, storedRule);
                 } catch (Exception e) {
-                    log.warn("Can't process added or extra rule {} for device {}:{}",
+                    log.warn("Can't process added rule {} for device {}:{}",
                              rule, deviceId, e);
                 }
+            });
+
+            reconciliation.mismatched().forEach((rule, storedRule) -> {
+                try {
+                    // the two rules are not an exact match - remove the
+                    // switch's rule and install our rule
+                    extraneousFlow(rule);
+                    flowMissing(storedRule, false);
+                } catch (Exception e) {
+                    log.warn("Can't process mismatched rule {} for device {}:{}",
+                             rule, deviceId, e);
+                }
+            });
+
+            // the device has rules the store does not have
+            if (!allowExtraneousRules) {
+                for (FlowEntry rule : reconciliation.extraneous()) {
+                    try {
+                        extraneousFlow(rule);
+                    } catch (Exception e) {
+                        log.warn("Can't process extra rule {} for device {}:{}",
+                                 rule, deviceId, e);
+                    }
+                }
             }
 
             // DO NOT reinstall
             if (useMissingFlow) {
-                for (FlowEntry rule : storedRules.keySet()) {
+                for (FlowEntry rule : reconciliation.missing()) {
                     try {
                         // there are rules in the store that aren't on the switch
                         log.debug("Adding the rule that is present in store but not on switch : {}", rule);
@@ -15,6 +15,9 @@
  */
 package org.onosproject.net.intent.impl;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.onlab.util.Tools;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.core.CoreService;
@@ -66,8 +69,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -77,6 +82,8 @@ import static java.util.concurrent.Executors.newSingleThreadExecutor;
 import static org.onlab.util.Tools.groupedThreads;
 import static org.onosproject.net.OsgiPropertyConstants.IM_NUM_THREADS;
 import static org.onosproject.net.OsgiPropertyConstants.IM_NUM_THREADS_DEFAULT;
+import static org.onosproject.net.OsgiPropertyConstants.IM_PIPELINED_BATCHES;
+import static org.onosproject.net.OsgiPropertyConstants.IM_PIPELINED_BATCHES_DEFAULT;
 import static org.onosproject.net.OsgiPropertyConstants.IM_SKIP_RELEASE_RESOURCES_ON_WITHDRAWAL;
 import static org.onosproject.net.OsgiPropertyConstants.IM_SKIP_RELEASE_RESOURCES_ON_WITHDRAWAL_DEFAULT;
 import static org.onosproject.net.intent.IntentState.FAILED;
@@ -103,7 +110,8 @@ import static org.slf4j.LoggerFactory.getLogger;
     },
     property = {
         IM_SKIP_RELEASE_RESOURCES_ON_WITHDRAWAL + ":Boolean=" + IM_SKIP_RELEASE_RESOURCES_ON_WITHDRAWAL_DEFAULT,
-        IM_NUM_THREADS + ":Integer=" + IM_NUM_THREADS_DEFAULT
+        IM_NUM_THREADS + ":Integer=" + IM_NUM_THREADS_DEFAULT,
+        IM_PIPELINED_BATCHES + ":Boolean=" + IM_PIPELINED_BATCHES_DEFAULT
     }
 )
 public class IntentManager
@@ -120,12 +128,18 @@ public class IntentManager
     private static final EnumSet<IntentState> WITHDRAW
             = EnumSet.of(WITHDRAW_REQ, WITHDRAWING, WITHDRAWN);
 
+    // Maximum number of intents processed at once by pipelined batches
+    private static final int MAX_PIPELINED_INTENTS = 5000;
+
     /** Indicates whether skipping resource releases on withdrawal is enabled or not. */
     private boolean skipReleaseResourcesOnWithdrawal = IM_SKIP_RELEASE_RESOURCES_ON_WITHDRAWAL_DEFAULT;
 
     /** Number of worker threads. */
     private int numThreads = IM_NUM_THREADS_DEFAULT;
 
+    /** Indicates whether intents are written to the store as each is processed, up to 5000 intents in flight. */
+    private volatile boolean pipelinedBatches = IM_PIPELINED_BATCHES_DEFAULT;
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected CoreService coreService;
 
@@ -171,6 +185,13 @@ public class IntentManager
 
     private final IntentAccumulator accumulator = new IntentAccumulator(batchDelegate);
 
+    // Permits of the intents processed by pipelined batches
+    private final Semaphore pipelinedIntents = new Semaphore(MAX_PIPELINED_INTENTS);
+
+    // Keys of the intents being processed and operations held back for them
+    private final Set<Key> inFlightKeys = Sets.newHashSet();
+    private final Map<Key, IntentData> deferredOperations = Maps.newHashMap();
+
     @Activate
     public void activate() {
         configService.registerProperties(getClass());
@@ -239,10 +260,18 @@ public class IntentManager
             }
             logConfig("Reconfigured number of worker threads");
         }
+
+        s = Tools.get(context.getProperties(), IM_PIPELINED_BATCHES);
+        boolean newPipelinedBatches = isNullOrEmpty(s) ? pipelinedBatches : Boolean.parseBoolean(s.trim());
+        if (newPipelinedBatches != pipelinedBatches) {
+            pipelinedBatches = newPipelinedBatches;
+            logConfig("Reconfigured pipelined batches");
+        }
     }
 
     private void logConfig(String prefix) {
-        log.info("{} with skipReleaseResourcesOnWithdrawal = {}", prefix, skipReleaseResourcesOnWithdrawal);
+        log.info("{} with skipReleaseResourcesOnWithdrawal = {}, pipelinedBatches = {}", prefix,
+                 skipReleaseResourcesOnWithdrawal, pipelinedBatches);
     }
 
     @Override
@@ -523,43 +552,31 @@ public class IntentManager
             log.debug("Execute {} operation(s).", operations.size());
             log.trace("Execute operations: {}", operations);
 
-            // batchExecutor is single-threaded, so only one batch is in flight at a time
+            // batchExecutor is single-threaded, so only one batch is started at a time;
+            // unless pipelined, the batch is also completed before the next one starts.
+            // Pipelined batches are started until the maximum number of intents are
+            // being processed, after which the next batch waits for them to complete
+            boolean pipelined = pipelinedBatches;
             CompletableFuture.runAsync(() -> {
-                // process intent until the phase reaches one of the final phases
-                List<CompletableFuture<IntentData>> futures = operations.stream()
-                        .map(data -> {
-                            log.debug("Start processing of {} {}@{}", data.request(), data.key(), data.version());
-                            return data;
-                        })
-                        .map(x -> CompletableFuture.completedFuture(x)
-                                .thenApply(IntentManager.this::createInitialPhase)
-                                .thenApplyAsync(IntentProcessPhase::process, workerExecutor)
-                                .thenApply(FinalIntentProcessPhase::data)
-                                .exceptionally(e -> {
-                                    // When the future fails, we update the Intent to simulate the failure of
-                                    // the installation/withdrawal phase and we save in the current map. In
-                                    // the next round the CleanUp Thread will pick this Intent again.
-                                    log.warn("Future failed", e);
-                                    log.warn("Intent {} - state {} - request {}",
-                                             x.key(), x.state(), x.request());
-                                    switch (x.state()) {
-                                        case INSTALL_REQ:
-                                        case INSTALLING:
-                                        case WITHDRAW_REQ:
-                                        case WITHDRAWING:
-                                            // TODO should we swtich based on current
-                                            IntentData current = store.getIntentData(x.key());
-                                            return IntentData.nextState(current, FAILED);
-                                        default:
-                                            return null;
-                                    }
-                                }))
-                        .collect(Collectors.toList());
-
-                // write multiple data to store in order
-                store.batchWrite(Tools.allOf(futures).join().stream()
-                                         .filter(Objects::nonNull)
-                                         .collect(Collectors.toList()));
+                List<IntentData> admitted = admit(operations);
+                if (pipelined) {
+                    processPipelined(admitted);
+                    return;
+                }
+
+                try {
+                    // process intent until the phase reaches one of the final phases
+                    List<CompletableFuture<IntentData>> futures = admitted.stream()
+                            .map(IntentManager.this::process)
+                            .collect(Collectors.toList());
+
+                    // write multiple data to store in order
+                    store.batchWrite(Tools.allOf(futures).join().stream()
+                                             .filter(Objects::nonNull)
+                                             .collect(Collectors.toList()));
+                } finally {
+                    admitted.forEach(data -> release(data.key()));
+                }
             }, batchExecutor).exceptionally(e -> {
                 log.error("Error submitting batches:", e);
                 // FIXME incomplete Intents should be cleaned up
@@ -574,6 +591,112 @@ public class IntentManager
         }
     }
 
+    /**
+     * Processes the given intent operations, writing each intent to the store
+     * as soon as it is processed. Blocks while the maximum number of intents
+     * are being processed.
+     *
+     * @param admitted intent operations
+     */
+    private void processPipelined(List<IntentData> admitted) {
+        for (int i = 0; i < admitted.size(); i++) {
+            IntentData data = admitted.get(i);
+            try {
+                pipelinedIntents.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                admitted.subList(i, admitted.size()).forEach(d -> release(d.key()));
+                return;
+            }
+            process(data)
+                    .thenAccept(result -> {
+                        if (result != null) {
+                            store.write(result);
+                        }
+                    })
+                    .whenComplete((r, e) -> {
+                        pipelinedIntents.release();
+                        if (e != null) {
+                            log.warn("Unable to write intent {}", data.key(), e);
+                        }
+                        release(data.key());
+                    });
+        }
+    }
+
+    /**
+     * Processes the given intent operation until the phase reaches one of
+     * the final phases.
+     *
+     * @param x intent operation
+     * @return future of the resulting intent data; null if there is nothing to write
+     */
+    private CompletableFuture<IntentData> process(IntentData x) {
+        log.debug("Start processing of {} {}@{}", x.request(), x.key(), x.version());
+        return CompletableFuture.completedFuture(x)
+                .thenApply(IntentManager.this::createInitialPhase)
+                .thenApplyAsync(IntentProcessPhase::process, workerExecutor)
+                .thenApply(FinalIntentProcessPhase::data)
+                .exceptionally(e -> {
+                    // When the future fails, we update the Intent to simulate the failure of
+                    // the installation/withdrawal phase and we save in the current map. In
+                    // the next round the CleanUp Thread will pick this Intent again.
+                    log.warn("Future failed", e);
+                    log.warn("Intent {} - state {} - request {}",
+                             x.key(), x.state(), x.request());
+                    switch (x.state()) {
+                        case INSTALL_REQ:
+                        case INSTALLING:
+                        case WITHDRAW_REQ:
+                        case WITHDRAWING:
+                            // TODO should we swtich based on current
+                            IntentData current = store.getIntentData(x.key());
+                            return IntentData.nextState(current, FAILED);
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    /**
+     * Marks the keys of the given operations as in flight. Operations on
+     * keys which are already in flight are held back until those complete.
+     *
+     * @param operations intent operations
+     * @return operations which may be processed right away
+     */
+    private List<IntentData> admit(Collection<IntentData> operations) {
+        List<IntentData> admitted = Lists.newArrayListWithCapacity(operations.size());
+        synchronized (inFlightKeys) {
+            for (IntentData data : operations) {
+                if (inFlightKeys.add(data.key())) {
+                    admitted.add(data);
+                } else {
+                    deferredOperations.merge(data.key(), data, (old, newer) ->
+                            newer.version().isNewerThan(old.version()) ? newer : old);
+                }
+            }
+        }
+        return admitted;
+    }
+
+    /**
+     * Marks the given key as no longer in flight, resubmitting the operation
+     * held back for it, if any.
+     *
+     * @param key intent key
+     */
+    private void release(Key key) {
+        IntentData deferred;
+        synchronized (inFlightKeys) {
+            inFlightKeys.remove(key);
+            deferred = deferredOperations.remove(key);
+        }
+        if (deferred != null) {
+            accumulator.add(deferred);
+        }
+    }
+
     private IntentProcessPhase createInitialPhase(IntentData data) {
         IntentData pending = store.getPendingData(data.key());
         if (pending == null || pending.version().isNewerThan(data.version())) {
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.packet.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.packet.InboundPacket;
+import org.onosproject.net.packet.PacketAdmissionStatistics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Admission control of the packets received from the devices, limiting the
+ * rate at which packets are admitted for processing per device, per ingress
+ * port and per ether type, using token buckets.
+ * <p>
+ * Each limit is a number of packets per second, with bursts of up to one
+ * second worth of packets; 0 disables the limit. The ether type limits apply
+ * to the packets of the given ether type received from each device.
+ */
+final class PacketAdmission {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final int deviceRate;
+    private final int portRate;
+    private final Map<Integer, Integer> etherTypeRates;
+    private final LongSupplier clock;
+
+    private final Map<DeviceId, DeviceAdmission> devices = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new packet admission control.
+     *
+     * @param deviceRate     maximum packets per second per device; 0 if unlimited
+     * @param portRate       maximum packets per second per port; 0 if unlimited
+     * @param etherTypeRates maximum packets per second per device, by ether type
+     */
+    PacketAdmission(int deviceRate, int portRate, Map<Integer, Integer> etherTypeRates) {
+        this(deviceRate, portRate, etherTypeRates, System::nanoTime);
+    }
+
+    /**
+     * Creates a new packet admission control using the given clock.
+     *
+     * @param deviceRate     maximum packets per second per device; 0 if unlimited
+     * @param portRate       maximum packets per second per port; 0 if unlimited
+     * @param etherTypeRates maximum packets per second per device, by ether type
+     * @param clock          source of the current time in nanos
+     */
+    PacketAdmission(int deviceRate, int portRate, Map<Integer, Integer> etherTypeRates,
+                    LongSupplier clock) {
+        this.deviceRate = deviceRate;
+        this.portRate = portRate;
+        this.etherTypeRates = ImmutableMap.copyOf(etherTypeRates);
+        this.clock = clock;
+    }
+
+    /**
+     * Indicates whether any limit is in force.
+     *
+     * @return true if packets may be dropped
+     */
+    boolean isEnabled() {
+        return deviceRate > 0 || portRate > 0 || !etherTypeRates.isEmpty();
+    }
+
+    /**
+     * Accounts for the given packet against the limits of its device, port
+     * and ether type.
+     *
+     * @param packet inbound packet
+     * @return true if the packet is admitted for processing
+     */
+    boolean admit(InboundPacket packet) {
+        ConnectPoint cp = packet.receivedFrom();
+        if (cp == null || cp.deviceId() == null) {
+            return true;
+        }
+        DeviceAdmission device = devices.computeIfAbsent(cp.deviceId(), DeviceAdmission::new);
+        long now = clock.getAsLong();
+
+        // The most specific limits are checked first, so that a flooding
+        // port or protocol does not use up the budget of the whole device.
+        if (portRate > 0 && !device.ports.computeIfAbsent(cp.port(), p -> new TokenBucket(portRate, now))
+                .tryAcquire(now)) {
+            device.droppedByPort.increment();
+            return false;
+        }
+        if (!etherTypeRates.isEmpty()) {
+            int etherType = PacketFilter.etherType(packet);
+            Integer rate = etherTypeRates.get(etherType);
+            if (rate != null && !device.etherTypes.computeIfAbsent(etherType, t -> new TokenBucket(rate, now))
+                    .tryAcquire(now)) {
+                device.droppedByEtherType.increment();
+                return false;
+            }
+        }
+        if (device.bucket != null && !device.bucket.tryAcquire(now)) {
+            device.droppedByDevice.increment();
+            return false;
+        }
+        device.admitted.increment();
+        return true;
+    }
+
+    /**
+     * Returns the admission statistics of the devices packets were received
+     * from.
+     *
+     * @return list of admission statistics, ordered by device
+     */
+    List<PacketAdmissionStatistics> statistics() {
+        return devices.values().stream()
+                .map(DeviceAdmission::statistics)
+                .sorted(Comparator.comparing(s -> s.deviceId().toString()))
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Parses ether type rate limits given as a comma-separated list of
+     * ether type and rate pairs, e.g. "0x0806=1000,0x88cc=100".
+     *
+     * @param spec ether type rate limits
+     * @return rate limits by ether type
+     * @throws IllegalArgumentException if the limits are malformed
+     */
+    static Map<Integer, Integer> parseEtherTypeRates(String spec) {
+        ImmutableMap.Builder<Integer, Integer> rates = ImmutableMap.builder();
+        if (spec == null || spec.trim().isEmpty()) {
+            return rates.build();
+        }
+        for (String entry : spec.split(",")) {
+            String[] pair = entry.trim().split("=");
+            checkArgument(pair.length == 2, "Malformed ether type rate %s", entry);
+            int etherType = Integer.decode(pair[0].trim());
+            int rate = Integer.parseInt(pair[1].trim());
+            checkArgument(etherType >= 0 && etherType <= 0xffff, "Invalid ether type %s", pair[0]);
+            checkArgument(rate > 0, "Invalid rate %s", pair[1]);
+            rates.put(etherType, rate);
+        }
+        return rates.build();
+    }
+
+    /**
+     * Admission state and counters of a device.
+     */
+    private final class DeviceAdmission {
+        private final DeviceId deviceId;
+        private final TokenBucket bucket;
+        private final Map<PortNumber, TokenBucket> ports = new ConcurrentHashMap<>();
+        private final Map<Integer, TokenBucket> etherTypes = new ConcurrentHashMap<>();
+
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder droppedByDevice = new LongAdder();
+        private final LongAdder droppedByPort = new LongAdder();
+        private final LongAdder droppedByEtherType = new LongAdder();
+
+        private DeviceAdmission(DeviceId deviceId) {
+            this.deviceId = deviceId;
+            this.bucket = deviceRate > 0 ? new TokenBucket(deviceRate, clock.getAsLong()) : null;
+        }
+
+        private PacketAdmissionStatistics statistics() {
+            return new PacketAdmissionStatistics(deviceId, admitted.sum(), droppedByDevice.sum(),
+                                                 droppedByPort.sum(), droppedByEtherType.sum());
+        }
+    }
+
+    /**
+     * Token bucket refilled at a fixed rate, holding up to one second worth
+     * of tokens.
+     */
+    static final class TokenBucket {
+        private final long rate;
+        private long tokens;
+        private long lastNanos;
+        // Fraction of a token accrued since the last whole one, scaled by
+        // the number of nanos per second.
+        private long credit;
+
+        /**
+         * Creates a new full token bucket.
+         *
+         * @param rate number of tokens per second
+         * @param now  current time in nanos
+         */
+        TokenBucket(long rate, long now) {
+            this.rate = rate;
+            this.tokens = rate;
+            this.lastNanos = now;
+        }
+
+        /**
+         * Takes a token from the bucket, if there is any.
+         *
+         * @param now current time in nanos
+         * @return true if a token was taken
+         */
+        synchronized boolean tryAcquire(long now) {
+            long elapsed = now - lastNanos;
+            if (elapsed > 0) {
+                lastNanos = now;
+                if (elapsed >= NANOS_PER_SECOND) {
+                    tokens = rate;
+                    credit = 0;
+                } else {
+                    credit += elapsed * rate;
+                    tokens += credit / NANOS_PER_SECOND;
+                    credit %= NANOS_PER_SECOND;
+                    if (tokens >= rate) {
+                        tokens = rate;
+                        credit = 0;
+                    }
+                }
+            }
+            if (tokens == 0) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
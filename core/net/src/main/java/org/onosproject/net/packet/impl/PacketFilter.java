@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.packet.impl;
+
+import org.onlab.packet.EthernetView;
+import org.onlab.packet.IPv4;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.TrafficSelector;
+import org.onosproject.net.flow.criteria.Criterion;
+import org.onosproject.net.flow.criteria.EthTypeCriterion;
+import org.onosproject.net.flow.criteria.IPProtocolCriterion;
+import org.onosproject.net.flow.criteria.PortCriterion;
+import org.onosproject.net.flow.criteria.TcpPortCriterion;
+import org.onosproject.net.flow.criteria.UdpPortCriterion;
+import org.onosproject.net.packet.InboundPacket;
+
+/**
+ * Filter of the packets a processor is interested in, derived from the
+ * selector given at registration.
+ * <p>
+ * Only the ether type, IP protocol, TCP and UDP port and ingress port
+ * criteria are used for filtering; other criteria are ignored, so that the
+ * processor is given every packet they may apply to. Header fields are read
+ * from the raw frame, without parsing it; a packet without raw data is given
+ * to the processor.
+ */
+final class PacketFilter {
+
+    /**
+     * Filter admitting all packets.
+     */
+    static final PacketFilter ALL = new PacketFilter();
+
+    private static final int ANY = -1;
+
+    private int etherType = ANY;
+    private int ipProtocol = ANY;
+    private int tcpSrc = ANY;
+    private int tcpDst = ANY;
+    private int udpSrc = ANY;
+    private int udpDst = ANY;
+    private PortNumber inPort;
+
+    private PacketFilter() {
+    }
+
+    /**
+     * Returns the filter for the given selector.
+     *
+     * @param selector traffic selector; null for all packets
+     * @return packet filter
+     */
+    static PacketFilter of(TrafficSelector selector) {
+        if (selector == null || selector.criteria().isEmpty()) {
+            return ALL;
+        }
+        PacketFilter filter = new PacketFilter();
+        for (Criterion criterion : selector.criteria()) {
+            switch (criterion.type()) {
+                case ETH_TYPE:
+                    filter.etherType = ((EthTypeCriterion) criterion).ethType().toShort() & 0xffff;
+                    break;
+                case IP_PROTO:
+                    filter.ipProtocol = ((IPProtocolCriterion) criterion).protocol();
+                    break;
+                case TCP_SRC:
+                    filter.tcpSrc = ((TcpPortCriterion) criterion).tcpPort().toInt();
+                    break;
+                case TCP_DST:
+                    filter.tcpDst = ((TcpPortCriterion) criterion).tcpPort().toInt();
+                    break;
+                case UDP_SRC:
+                    filter.udpSrc = ((UdpPortCriterion) criterion).udpPort().toInt();
+                    break;
+                case UDP_DST:
+                    filter.udpDst = ((UdpPortCriterion) criterion).udpPort().toInt();
+                    break;
+                case IN_PORT:
+                    filter.inPort = ((PortCriterion) criterion).port();
+                    break;
+                default:
+                    break;
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * Returns the ether type the filter is restricted to.
+     *
+     * @return ether type; -1 if any
+     */
+    int etherType() {
+        return etherType;
+    }
+
+    /**
+     * Indicates whether the given packet passes the filter, other than for
+     * its ether type, which is matched by the processor index.
+     *
+     * @param packet inbound packet
+     * @return true if the packet passes the filter
+     */
+    boolean matches(InboundPacket packet) {
+        if (inPort != null && packet.receivedFrom() != null &&
+                !inPort.equals(packet.receivedFrom().port())) {
+            return false;
+        }
+        if (ipProtocol == ANY && tcpSrc == ANY && tcpDst == ANY && udpSrc == ANY && udpDst == ANY) {
+            return true;
+        }
+
+        EthernetView headers = packet.headers();
+        if (headers == null) {
+            return true;
+        }
+        int protocol = headers.ipProtocol();
+        if (protocol == ANY) {
+            return false;
+        }
+        if (ipProtocol != ANY && ipProtocol != protocol) {
+            return false;
+        }
+        if ((tcpSrc != ANY || tcpDst != ANY) &&
+                !matchesPorts(headers, IPv4.PROTOCOL_TCP, tcpSrc, tcpDst)) {
+            return false;
+        }
+        return (udpSrc == ANY && udpDst == ANY) ||
+                matchesPorts(headers, IPv4.PROTOCOL_UDP, udpSrc, udpDst);
+    }
+
+    private static boolean matchesPorts(EthernetView headers, byte protocol, int src, int dst) {
+        return headers.ipProtocol() == protocol &&
+                (src == ANY || src == headers.sourcePort()) &&
+                (dst == ANY || dst == headers.destinationPort());
+    }
+
+    /**
+     * Returns the ether type of the given packet, past any VLAN tags, read
+     * from the raw frame when available.
+     *
+     * @param packet inbound packet
+     * @return ether type; -1 if it cannot be determined
+     */
+    static int etherType(InboundPacket packet) {
+        EthernetView headers = packet.headers();
+        if (headers != null) {
+            return headers.etherType() != 0 ? headers.etherType() & 0xffff : ANY;
+        }
+        return packet.parsed() != null ? packet.parsed().getEtherType() & 0xffff : ANY;
+    }
+}
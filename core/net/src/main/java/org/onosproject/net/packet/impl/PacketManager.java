@@ -16,7 +16,9 @@
 package org.onosproject.net.packet.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.core.ApplicationId;
@@ -28,6 +30,7 @@ import org.onosproject.net.device.DeviceListener;
 import org.onosproject.net.device.DeviceService;
 import org.onosproject.net.driver.Driver;
 import org.onosproject.net.driver.DriverService;
+import org.onosproject.net.flow.DefaultTrafficSelector;
 import org.onosproject.net.flow.DefaultTrafficTreatment;
 import org.onosproject.net.flow.TrafficSelector;
 import org.onosproject.net.flow.TrafficTreatment;
@@ -38,6 +41,8 @@ import org.onosproject.net.flowobjective.Objective;
 import org.onosproject.net.flowobjective.ObjectiveContext;
 import org.onosproject.net.flowobjective.ObjectiveError;
 import org.onosproject.net.packet.DefaultPacketRequest;
+import org.onosproject.net.packet.InboundPacket;
+import org.onosproject.net.packet.PacketAdmissionStatistics;
 import org.onosproject.net.packet.OutboundPacket;
 import org.onosproject.net.packet.PacketContext;
 import org.onosproject.net.packet.PacketEvent;
@@ -53,20 +58,38 @@ import org.onosproject.net.packet.PacketStore;
 import org.onosproject.net.packet.PacketStoreDelegate;
 import org.onosproject.net.provider.AbstractProviderRegistry;
 import org.onosproject.net.provider.AbstractProviderService;
+import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 
+import java.util.Dictionary;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static org.onlab.util.Tools.get;
 import static org.onlab.util.Tools.groupedThreads;
+import static org.onosproject.net.OsgiPropertyConstants.PM_DEVICE_PACKET_RATE;
+import static org.onosproject.net.OsgiPropertyConstants.PM_DEVICE_PACKET_RATE_DEFAULT;
+import static org.onosproject.net.OsgiPropertyConstants.PM_ETHER_TYPE_PACKET_RATES;
+import static org.onosproject.net.OsgiPropertyConstants.PM_ETHER_TYPE_PACKET_RATES_DEFAULT;
+import static org.onosproject.net.OsgiPropertyConstants.PM_PACKET_QUEUE_SIZE;
+import static org.onosproject.net.OsgiPropertyConstants.PM_PACKET_QUEUE_SIZE_DEFAULT;
+import static org.onosproject.net.OsgiPropertyConstants.PM_PACKET_WORKERS;
+import static org.onosproject.net.OsgiPropertyConstants.PM_PACKET_WORKERS_DEFAULT;
+import static org.onosproject.net.OsgiPropertyConstants.PM_PORT_PACKET_RATE;
+import static org.onosproject.net.OsgiPropertyConstants.PM_PORT_PACKET_RATE_DEFAULT;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.PACKET_EVENT;
 import static org.onosproject.security.AppPermission.Type.PACKET_READ;
@@ -75,8 +98,27 @@ import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Provides a basic implementation of the packet SB &amp; NB APIs.
+ * <p>
+ * By default packets are run through the processors on the thread of the
+ * provider that received them. If packet workers are configured, packets are
+ * instead hashed by flow onto a pool of workers, which preserves the order of
+ * the packets of each flow while spreading the processing across cores.
+ * <p>
+ * Packets may also be subjected to admission control, which drops the packets
+ * received in excess of the configured per device, per port and per ether
+ * type rates before they reach the processors.
  */
-@Component(immediate = true, service = { PacketService.class, PacketProviderRegistry.class })
+@Component(
+    immediate = true,
+    service = { PacketService.class, PacketProviderRegistry.class },
+    property = {
+        PM_PACKET_WORKERS + ":Integer=" + PM_PACKET_WORKERS_DEFAULT,
+        PM_PACKET_QUEUE_SIZE + ":Integer=" + PM_PACKET_QUEUE_SIZE_DEFAULT,
+        PM_DEVICE_PACKET_RATE + ":Integer=" + PM_DEVICE_PACKET_RATE_DEFAULT,
+        PM_PORT_PACKET_RATE + ":Integer=" + PM_PORT_PACKET_RATE_DEFAULT,
+        PM_ETHER_TYPE_PACKET_RATES + "=" + PM_ETHER_TYPE_PACKET_RATES_DEFAULT
+    }
+)
 public class PacketManager
         extends AbstractProviderRegistry<PacketProvider, PacketProviderService>
         implements PacketService, PacketProviderRegistry {
@@ -89,6 +131,24 @@ public class PacketManager
     private static final String ERROR_NULL_DEVICE_ID = "Device ID cannot be null";
     private static final String SUPPORT_PACKET_REQUEST_PROPERTY = "supportPacketRequest";
 
+    private static final String FORMAT = "Settings: packetWorkers={}, packetQueueSize={}, " +
+            "devicePacketRate={}, portPacketRate={}, etherTypePacketRates={}";
+
+    /** Number of workers processing packets; 0 to process them on the receiving thread. */
+    private int packetWorkers = PM_PACKET_WORKERS_DEFAULT;
+
+    /** Maximum number of packets queued per worker and priority band. */
+    private int packetQueueSize = PM_PACKET_QUEUE_SIZE_DEFAULT;
+
+    /** Maximum packets per second admitted from each device; 0 if unlimited. */
+    private int devicePacketRate = PM_DEVICE_PACKET_RATE_DEFAULT;
+
+    /** Maximum packets per second admitted from each device port; 0 if unlimited. */
+    private int portPacketRate = PM_PORT_PACKET_RATE_DEFAULT;
+
+    /** Maximum packets per second admitted from each device by ether type, e.g. 0x0806=1000,0x88cc=100. */
+    private String etherTypePacketRates = PM_ETHER_TYPE_PACKET_RATES_DEFAULT;
+
     private final PacketStoreDelegate delegate = new InternalStoreDelegate();
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
@@ -109,19 +169,32 @@ public class PacketManager
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected FlowObjectiveService objectiveService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected ComponentConfigService cfgService;
+
     private ExecutorService eventHandlingExecutor;
 
+    private volatile PacketPipeline pipeline;
+
+    private volatile PacketAdmission admission = new PacketAdmission(0, 0, ImmutableMap.of());
+
     private final DeviceListener deviceListener = new InternalDeviceListener();
 
     private final List<ProcessorEntry> processors = Lists.newCopyOnWriteArrayList();
 
+    private volatile ProcessorIndex processorIndex = new ProcessorIndex(ImmutableList.of());
+
+    private final LongAdder packetCount = new LongAdder();
+
     private final PacketDriverProvider defaultProvider = new PacketDriverProvider();
 
     private ApplicationId appId;
     private NodeId localNodeId;
 
     @Activate
-    public void activate() {
+    public void activate(ComponentContext context) {
+        cfgService.registerProperties(getClass());
+        modified(context);
         eventHandlingExecutor = Executors.newSingleThreadExecutor(
                 groupedThreads("onos/net/packet", "event-handler", log));
         localNodeId = clusterService.getLocalNode().id();
@@ -146,12 +219,118 @@ public class PacketManager
 
     @Deactivate
     public void deactivate() {
+        cfgService.unregisterProperties(getClass(), false);
         store.unsetDelegate(delegate);
         deviceService.removeListener(deviceListener);
         eventHandlingExecutor.shutdown();
+        replacePipeline(null);
         log.info("Stopped");
     }
 
+    @Modified
+    public void modified(ComponentContext context) {
+        if (context == null) {
+            log.info(FORMAT, packetWorkers, packetQueueSize,
+                     devicePacketRate, portPacketRate, etherTypePacketRates);
+            return;
+        }
+
+        Dictionary<?, ?> properties = context.getProperties();
+        int newPacketWorkers, newPacketQueueSize;
+        try {
+            String s = get(properties, PM_PACKET_WORKERS);
+            newPacketWorkers = isNullOrEmpty(s) ? packetWorkers : Integer.parseInt(s.trim());
+
+            s = get(properties, PM_PACKET_QUEUE_SIZE);
+            newPacketQueueSize = isNullOrEmpty(s) ? packetQueueSize : Integer.parseInt(s.trim());
+        } catch (NumberFormatException | ClassCastException e) {
+            newPacketWorkers = PM_PACKET_WORKERS_DEFAULT;
+            newPacketQueueSize = PM_PACKET_QUEUE_SIZE_DEFAULT;
+        }
+
+        if (newPacketWorkers < 0 || newPacketQueueSize < 1) {
+            log.warn("Invalid packet workers {} or queue size {}; using defaults",
+                     newPacketWorkers, newPacketQueueSize);
+            newPacketWorkers = PM_PACKET_WORKERS_DEFAULT;
+            newPacketQueueSize = PM_PACKET_QUEUE_SIZE_DEFAULT;
+        }
+
+        if (newPacketWorkers != packetWorkers || newPacketQueueSize != packetQueueSize) {
+            packetWorkers = newPacketWorkers;
+            packetQueueSize = newPacketQueueSize;
+            replacePipeline(packetWorkers > 0 ?
+                                    new PacketPipeline(packetWorkers, packetQueueSize, this::processLocally) : null);
+        }
+
+        readAdmissionConfiguration(properties);
+        log.info(FORMAT, packetWorkers, packetQueueSize,
+                 devicePacketRate, portPacketRate, etherTypePacketRates);
+    }
+
+    // Reads the packet rate limits, restarting the admission control and its
+    // counters if they have changed.
+    private void readAdmissionConfiguration(Dictionary<?, ?> properties) {
+        int newDeviceRate, newPortRate;
+        try {
+            String s = get(properties, PM_DEVICE_PACKET_RATE);
+            newDeviceRate = isNullOrEmpty(s) ? devicePacketRate : Integer.parseInt(s.trim());
+
+            s = get(properties, PM_PORT_PACKET_RATE);
+            newPortRate = isNullOrEmpty(s) ? portPacketRate : Integer.parseInt(s.trim());
+        } catch (NumberFormatException | ClassCastException e) {
+            newDeviceRate = PM_DEVICE_PACKET_RATE_DEFAULT;
+            newPortRate = PM_PORT_PACKET_RATE_DEFAULT;
+        }
+
+        if (newDeviceRate < 0 || newPortRate < 0) {
+            log.warn("Invalid device packet rate {} or port packet rate {}; using defaults",
+                     newDeviceRate, newPortRate);
+            newDeviceRate = PM_DEVICE_PACKET_RATE_DEFAULT;
+            newPortRate = PM_PORT_PACKET_RATE_DEFAULT;
+        }
+
+        String newEtherTypeRates = get(properties, PM_ETHER_TYPE_PACKET_RATES);
+        newEtherTypeRates = newEtherTypeRates == null ? etherTypePacketRates : newEtherTypeRates.trim();
+        Map<Integer, Integer> etherTypeRates;
+        try {
+            etherTypeRates = PacketAdmission.parseEtherTypeRates(newEtherTypeRates);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid ether type packet rates {}; using defaults", newEtherTypeRates);
+            newEtherTypeRates = PM_ETHER_TYPE_PACKET_RATES_DEFAULT;
+            etherTypeRates = ImmutableMap.of();
+        }
+
+        if (newDeviceRate != devicePacketRate || newPortRate != portPacketRate ||
+                !newEtherTypeRates.equals(etherTypePacketRates)) {
+            devicePacketRate = newDeviceRate;
+            portPacketRate = newPortRate;
+            etherTypePacketRates = newEtherTypeRates;
+            admission = new PacketAdmission(devicePacketRate, portPacketRate, etherTypeRates);
+        }
+    }
+
+    // Swaps in the given pipeline; the previous one, if any, finishes
+    // processing the packets it has already queued.
+    private void replacePipeline(PacketPipeline newPipeline) {
+        PacketPipeline oldPipeline = pipeline;
+        pipeline = newPipeline;
+        if (oldPipeline != null) {
+            oldPipeline.shutdown();
+        }
+    }
+
+    /**
+     * Returns the number of packets of the given band dropped because the
+     * packet workers were overloaded.
+     *
+     * @param band priority band
+     * @return number of dropped packets
+     */
+    long droppedPackets(PacketPipeline.Band band) {
+        PacketPipeline current = pipeline;
+        return current != null ? current.droppedPackets(band) : 0;
+    }
+
     @Override
     protected PacketProvider defaultProvider() {
         return defaultProvider;
@@ -159,9 +338,16 @@ public class PacketManager
 
     @Override
     public void addProcessor(PacketProcessor processor, int priority) {
+        addProcessor(processor, priority, DefaultTrafficSelector.emptySelector());
+    }
+
+    @Override
+    public synchronized void addProcessor(PacketProcessor processor, int priority,
+                                          TrafficSelector selector) {
         checkPermission(PACKET_EVENT);
         checkNotNull(processor, ERROR_NULL_PROCESSOR);
-        ProcessorEntry entry = new ProcessorEntry(processor, priority);
+        checkNotNull(selector, ERROR_NULL_SELECTOR);
+        ProcessorEntry entry = new ProcessorEntry(processor, priority, selector);
 
         // Insert the new processor according to its priority.
         int i = 0;
@@ -171,10 +357,11 @@ public class PacketManager
             }
         }
         processors.add(i, entry);
+        processorIndex = new ProcessorIndex(processors);
     }
 
     @Override
-    public void removeProcessor(PacketProcessor processor) {
+    public synchronized void removeProcessor(PacketProcessor processor) {
         checkPermission(PACKET_EVENT);
         checkNotNull(processor, ERROR_NULL_PROCESSOR);
 
@@ -185,6 +372,7 @@ public class PacketManager
                 break;
             }
         }
+        processorIndex = new ProcessorIndex(processors);
     }
 
     @Override
@@ -193,6 +381,12 @@ public class PacketManager
         return ImmutableList.copyOf(processors);
     }
 
+    @Override
+    public List<PacketAdmissionStatistics> getAdmissionStatistics() {
+        checkPermission(PACKET_READ);
+        return admission.statistics();
+    }
+
     @Override
     public void requestPackets(TrafficSelector selector, PacketPriority priority,
                                ApplicationId appId) {
@@ -395,28 +589,51 @@ public class PacketManager
 
         @Override
         public void processPacket(PacketContext context) {
-            // TODO filter packets sent to processors based on registrations
-            for (ProcessorEntry entry : processors) {
-                try {
-                    if (log.isTraceEnabled()) {
-                        log.trace("Starting packet processing by {}",
-                                entry.processor().getClass().getName());
-                    }
+            PacketAdmission currentAdmission = admission;
+            if (currentAdmission.isEnabled() && !currentAdmission.admit(context.inPacket())) {
+                return;
+            }
+            PacketPipeline current = pipeline;
+            if (current != null) {
+                current.process(context);
+            } else {
+                processLocally(context);
+            }
+        }
 
-                    long start = System.nanoTime();
-                    entry.processor().process(context);
-                    entry.addNanos(System.nanoTime() - start);
+    }
 
-                    if (log.isTraceEnabled()) {
-                        log.trace("Finished packet processing by {}",
-                                entry.processor().getClass().getName());
-                    }
-                } catch (Exception e) {
-                    log.warn("Packet processor {} threw an exception", entry.processor(), e);
+    /**
+     * Runs the given packet context through the processors on the calling
+     * thread.
+     *
+     * @param context packet context
+     */
+    private void processLocally(PacketContext context) {
+        packetCount.increment();
+        InboundPacket packet = context.inPacket();
+        for (ProcessorEntry entry : processorIndex.candidates(PacketFilter.etherType(packet))) {
+            if (!entry.filter.matches(packet)) {
+                continue;
+            }
+            try {
+                if (log.isTraceEnabled()) {
+                    log.trace("Starting packet processing by {}",
+                            entry.processor().getClass().getName());
+                }
+
+                long start = System.nanoTime();
+                entry.processor().process(context);
+                entry.addNanos(System.nanoTime() - start);
+
+                if (log.isTraceEnabled()) {
+                    log.trace("Finished packet processing by {}",
+                            entry.processor().getClass().getName());
                 }
+            } catch (Exception e) {
+                log.warn("Packet processor {} threw an exception", entry.processor(), e);
             }
         }
-
     }
 
 
@@ -498,18 +715,58 @@ public class PacketManager
         }
     }
 
+    /**
+     * Index of the packet processors by the ether type they are restricted
+     * to, so that each packet is given only to the processors it may match.
+     */
+    private static final class ProcessorIndex {
+        private final List<ProcessorEntry> unrestricted;
+        private final Map<Integer, List<ProcessorEntry>> byEtherType;
+
+        private ProcessorIndex(List<ProcessorEntry> processors) {
+            unrestricted = processors.stream()
+                    .filter(entry -> entry.filter.etherType() < 0)
+                    .collect(ImmutableList.toImmutableList());
+
+            // Each list holds the processors restricted to its ether type
+            // along with the unrestricted ones, in priority order.
+            Map<Integer, List<ProcessorEntry>> index = new HashMap<>();
+            processors.stream()
+                    .map(entry -> entry.filter.etherType())
+                    .filter(etherType -> etherType >= 0)
+                    .distinct()
+                    .forEach(etherType -> index.put(etherType, processors.stream()
+                            .filter(entry -> entry.filter.etherType() < 0 ||
+                                    entry.filter.etherType() == etherType)
+                            .collect(ImmutableList.toImmutableList())));
+            byEtherType = ImmutableMap.copyOf(index);
+        }
+
+        // Returns the processors which may match packets of the given ether type.
+        private List<ProcessorEntry> candidates(int etherType) {
+            return byEtherType.getOrDefault(etherType, unrestricted);
+        }
+    }
+
     /**
      * Entity for tracking stats for a packet processor.
      */
     private class ProcessorEntry implements PacketProcessorEntry {
         private final PacketProcessor processor;
         private final int priority;
-        private long invocations = 0;
-        private long nanos = 0;
-
-        public ProcessorEntry(PacketProcessor processor, int priority) {
+        private final TrafficSelector selector;
+        private final PacketFilter filter;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        // Number of packets received before the processor was added.
+        private final long packetsBefore;
+
+        public ProcessorEntry(PacketProcessor processor, int priority, TrafficSelector selector) {
             this.processor = processor;
             this.priority = priority;
+            this.selector = selector;
+            this.filter = PacketFilter.of(selector);
+            this.packetsBefore = packetCount.sum();
         }
 
         @Override
@@ -522,24 +779,37 @@ public class PacketManager
             return priority;
         }
 
+        @Override
+        public TrafficSelector selector() {
+            return selector;
+        }
+
         @Override
         public long invocations() {
-            return invocations;
+            return invocations.sum();
         }
 
         @Override
         public long totalNanos() {
-            return nanos;
+            return nanos.sum();
         }
 
         @Override
         public long averageNanos() {
-            return invocations > 0 ? nanos / invocations : 0;
+            long count = invocations.sum();
+            return count > 0 ? nanos.sum() / count : 0;
+        }
+
+        @Override
+        public long skipped() {
+            // Skipped packets are derived rather than counted, sparing the
+            // processors filtered out by the index any per-packet work.
+            return Math.max(0, packetCount.sum() - packetsBefore - invocations.sum());
         }
 
         void addNanos(long nanos) {
-            this.nanos += nanos;
-            this.invocations++;
+            this.nanos.add(nanos);
+            this.invocations.increment();
         }
     }
 }
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.packet.impl;
+
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.EthernetView;
+import org.onosproject.net.packet.InboundPacket;
+import org.onosproject.net.packet.PacketContext;
+import org.slf4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static org.onlab.util.Tools.groupedThreads;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Pool of workers processing packet contexts off the thread that received
+ * them.
+ * <p>
+ * Packets are hashed by their flow key, i.e. the receiving device and the
+ * Ethernet and IP addresses, onto the workers, so that packets of the same
+ * flow are processed in order by the same worker. Each worker queues packets
+ * in per-band bounded queues and serves the bands in priority order, so that
+ * a storm of data packets cannot starve topology discovery or address
+ * resolution.
+ */
+final class PacketPipeline {
+
+    private final Logger log = getLogger(getClass());
+
+    /**
+     * Priority bands of the queued packets, from the highest to the lowest.
+     */
+    enum Band {
+        /**
+         * Topology discovery packets; the oldest queued packet is dropped
+         * when the queue is full, as fresher probes supersede older ones.
+         */
+        CONTROL(true),
+
+        /**
+         * Address resolution packets; the newest packet is dropped when the
+         * queue is full.
+         */
+        RESOLUTION(false),
+
+        /**
+         * All other packets; the newest packet is dropped when the queue is
+         * full.
+         */
+        DATA(false);
+
+        private final boolean dropOldest;
+
+        Band(boolean dropOldest) {
+            this.dropOldest = dropOldest;
+        }
+    }
+
+    private static final Band[] BANDS = Band.values();
+
+    private static final int MAC_ADDRESSES_LENGTH = 12;
+    private static final int IPV4_ADDRESSES_OFFSET = 12;
+    private static final int IPV4_ADDRESSES_LENGTH = 8;
+    private static final int IPV6_ADDRESSES_OFFSET = 8;
+    private static final int IPV6_ADDRESSES_LENGTH = 32;
+
+    private final Worker[] workers;
+    private final int queueSize;
+    private final Consumer<PacketContext> processor;
+    private final ExecutorService executor;
+
+    private final LongAdder[] dropped = new LongAdder[BANDS.length];
+
+    /**
+     * Creates and starts a new packet pipeline.
+     *
+     * @param workers   number of workers
+     * @param queueSize maximum number of packets queued per worker and band
+     * @param processor processor of the packet contexts
+     */
+    PacketPipeline(int workers, int queueSize, Consumer<PacketContext> processor) {
+        this.workers = new Worker[workers];
+        this.queueSize = queueSize;
+        this.processor = processor;
+        for (int i = 0; i < BANDS.length; i++) {
+            dropped[i] = new LongAdder();
+        }
+        executor = Executors.newFixedThreadPool(workers, groupedThreads("onos/net/packet", "packet-worker-%d", log));
+        for (int i = 0; i < workers; i++) {
+            this.workers[i] = new Worker();
+            executor.execute(this.workers[i]);
+        }
+    }
+
+    /**
+     * Queues the given packet context for processing by the worker owning
+     * its flow.
+     *
+     * @param context packet context
+     */
+    void process(PacketContext context) {
+        InboundPacket packet = context.inPacket();
+        Band band = band(packet);
+        int worker = Math.floorMod(flowHash(packet), workers.length);
+        workers[worker].add(band, context);
+    }
+
+    /**
+     * Stops accepting packets; the workers stop once they have processed
+     * the packets already queued.
+     */
+    void shutdown() {
+        for (Worker worker : workers) {
+            worker.close();
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the number of packets of the given band dropped because the
+     * queue of their worker was full.
+     *
+     * @param band priority band
+     * @return number of dropped packets
+     */
+    long droppedPackets(Band band) {
+        return dropped[band.ordinal()].sum();
+    }
+
+    /**
+     * Returns the priority band of the given packet.
+     *
+     * @param packet inbound packet
+     * @return priority band
+     */
+    static Band band(InboundPacket packet) {
+        short etherType = (short) PacketFilter.etherType(packet);
+        if (etherType == Ethernet.TYPE_LLDP || etherType == Ethernet.TYPE_BSN) {
+            return Band.CONTROL;
+        } else if (etherType == Ethernet.TYPE_ARP || etherType == Ethernet.TYPE_RARP) {
+            return Band.RESOLUTION;
+        }
+        return Band.DATA;
+    }
+
+    /**
+     * Returns the hash of the flow key of the given packet, i.e. of its
+     * receiving device along with its Ethernet addresses and, for IP
+     * packets, its IP addresses.
+     *
+     * @param packet inbound packet
+     * @return flow key hash
+     */
+    static int flowHash(InboundPacket packet) {
+        int hash = packet.receivedFrom() != null ? packet.receivedFrom().elementId().hashCode() : 0;
+        ByteBuffer data = packet.unparsed();
+        EthernetView headers = packet.headers();
+        if (data != null && headers != null) {
+            int start = data.position();
+            hash = hash(data, start, start + MAC_ADDRESSES_LENGTH, hash);
+            int l3 = start + headers.networkHeaderOffset();
+            if (headers.isIpv4()) {
+                hash = hash(data, l3 + IPV4_ADDRESSES_OFFSET,
+                            l3 + IPV4_ADDRESSES_OFFSET + IPV4_ADDRESSES_LENGTH, hash);
+            } else if (headers.isIpv6()) {
+                hash = hash(data, l3 + IPV6_ADDRESSES_OFFSET,
+                            l3 + IPV6_ADDRESSES_OFFSET + IPV6_ADDRESSES_LENGTH, hash);
+            }
+        } else if (packet.parsed() != null) {
+            Ethernet eth = packet.parsed();
+            hash = 31 * hash + Objects.hash(eth.getSourceMAC(), eth.getDestinationMAC());
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    // Folds the bytes in the given range, if present, into the hash.
+    private static int hash(ByteBuffer data, int from, int to, int hash) {
+        if (to > data.limit()) {
+            return hash;
+        }
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + data.get(i);
+        }
+        return hash;
+    }
+
+    /**
+     * Worker processing the packets of the flows hashed onto it.
+     */
+    private final class Worker implements Runnable {
+
+        @SuppressWarnings("unchecked")
+        private final ArrayDeque<PacketContext>[] queues = new ArrayDeque[BANDS.length];
+        private final boolean[] overflowing = new boolean[BANDS.length];
+        private int queued;
+        private boolean closed;
+
+        private Worker() {
+            for (int i = 0; i < BANDS.length; i++) {
+                queues[i] = new ArrayDeque<>();
+            }
+        }
+
+        private void add(Band band, PacketContext context) {
+            boolean overflow;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                ArrayDeque<PacketContext> queue = queues[band.ordinal()];
+                if (queue.size() < queueSize) {
+                    queue.addLast(context);
+                    queued++;
+                    notifyAll();
+                    return;
+                }
+                if (band.dropOldest) {
+                    queue.pollFirst();
+                    queue.addLast(context);
+                }
+                overflow = !overflowing[band.ordinal()];
+                overflowing[band.ordinal()] = true;
+            }
+            dropped[band.ordinal()].increment();
+            if (overflow) {
+                log.warn("Packet queue for {} packets is full; dropping packets", band);
+            }
+        }
+
+        // Takes the next packet by band priority, waiting for one if none
+        // is queued; returns null once closed and drained.
+        private PacketContext take() throws InterruptedException {
+            Band recovered = null;
+            PacketContext context = null;
+            synchronized (this) {
+                while (queued == 0) {
+                    if (closed) {
+                        return null;
+                    }
+                    wait();
+                }
+                for (Band band : BANDS) {
+                    context = queues[band.ordinal()].pollFirst();
+                    if (context != null) {
+                        queued--;
+                        if (overflowing[band.ordinal()] && queues[band.ordinal()].isEmpty()) {
+                            overflowing[band.ordinal()] = false;
+                            recovered = band;
+                        }
+                        break;
+                    }
+                }
+            }
+            if (recovered != null) {
+                log.info("Packet queue for {} packets recovered; {} packets dropped so far",
+                         recovered, droppedPackets(recovered));
+            }
+            return context;
+        }
+
+        private synchronized void close() {
+            closed = true;
+            notifyAll();
+        }
+
+        @Override
+        public void run() {
+            try {
+                PacketContext context;
+                while ((context = take()) != null) {
+                    processor.accept(context);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
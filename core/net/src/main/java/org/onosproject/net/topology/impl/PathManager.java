@@ -15,6 +15,12 @@
  */
 package org.onosproject.net.topology.impl;
 
+import com.codahale.metrics.Gauge;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
+import org.onosproject.common.DefaultTopology;
+import org.onosproject.common.PathCacheStatistics;
 import org.onosproject.net.DisjointPath;
 import org.onosproject.net.ElementId;
 import org.onosproject.net.Link;
@@ -33,6 +39,7 @@ import org.slf4j.Logger;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import static org.onosproject.security.AppGuard.checkPermission;
@@ -49,25 +56,72 @@ public class PathManager extends AbstractPathService implements PathService {
 
     private final Logger log = getLogger(getClass());
 
+    private static final String METRICS_COMPONENT = "Topology";
+    private static final String METRICS_FEATURE = "pathCache";
+    private static final String HIT_COUNT = "hitCount";
+    private static final String MISS_COUNT = "missCount";
+    private static final String HIT_RATIO = "hitRatio";
+    private static final String COMPUTE_TIME = "computeTimeMillis";
+    private static final String SAVED_TIME = "savedTimeMillis";
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected TopologyService topologyService;
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected HostService hostService;
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL)
+    protected MetricsService metricsService;
+
+    private MetricsComponent metricsComponent;
+    private MetricsFeature metricsFeature;
+
     @Activate
     public void activate() {
         // initialize AbstractPathService
         super.topologyService = this.topologyService;
         super.hostService = this.hostService;
+        registerMetrics();
         log.info("Started");
     }
 
     @Deactivate
     public void deactivate() {
+        unregisterMetrics();
         log.info("Stopped");
     }
 
+    // Publishes the path cache statistics through the metrics service.
+    private void registerMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        PathCacheStatistics statistics = DefaultTopology.pathCacheStatistics();
+        metricsComponent = metricsService.registerComponent(METRICS_COMPONENT);
+        metricsFeature = metricsComponent.registerFeature(METRICS_FEATURE);
+        metricsService.registerMetric(metricsComponent, metricsFeature, HIT_COUNT,
+                                      (Gauge<Long>) statistics::hitCount);
+        metricsService.registerMetric(metricsComponent, metricsFeature, MISS_COUNT,
+                                      (Gauge<Long>) statistics::missCount);
+        metricsService.registerMetric(metricsComponent, metricsFeature, HIT_RATIO,
+                                      (Gauge<Double>) statistics::hitRatio);
+        metricsService.registerMetric(metricsComponent, metricsFeature, COMPUTE_TIME,
+                                      (Gauge<Long>) () -> TimeUnit.NANOSECONDS.toMillis(
+                                              statistics.computeTimeNanos()));
+        metricsService.registerMetric(metricsComponent, metricsFeature, SAVED_TIME,
+                                      (Gauge<Long>) () -> TimeUnit.NANOSECONDS.toMillis(
+                                              statistics.savedTimeNanos()));
+    }
+
+    private void unregisterMetrics() {
+        if (metricsService == null || metricsComponent == null) {
+            return;
+        }
+        for (String name : new String[]{HIT_COUNT, MISS_COUNT, HIT_RATIO, COMPUTE_TIME, SAVED_TIME}) {
+            metricsService.removeMetric(metricsComponent, metricsFeature, name);
+        }
+    }
+
     @Override
     public Set<Path> getPaths(ElementId src, ElementId dst) {
         checkPermission(TOPOLOGY_READ);
@@ -15,32 +15,59 @@
  */
 package org.onosproject.event.impl;
 
+import com.google.common.collect.ImmutableList;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.onlab.osgi.ComponentContextAdapter;
+import org.onlab.packet.ChassisId;
+import org.onosproject.cfg.ComponentConfigAdapter;
+import org.onosproject.common.DefaultTopology;
 import org.onosproject.event.AbstractEvent;
 import org.onosproject.event.EventSink;
+import org.onosproject.net.DefaultDevice;
+import org.onosproject.net.DefaultPort;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.device.DeviceEvent;
+import org.onosproject.net.provider.ProviderId;
+import org.onosproject.net.topology.DefaultGraphDescription;
+import org.onosproject.net.topology.Topology;
+import org.onosproject.net.topology.TopologyEvent;
 
 import java.util.ArrayList;
+import java.util.Dictionary;
+import java.util.Hashtable;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.device.DeviceEvent.Type.DEVICE_UPDATED;
+import static org.onosproject.net.device.DeviceEvent.Type.PORT_UPDATED;
+import static org.onosproject.net.topology.TopologyEvent.Type.TOPOLOGY_CHANGED;
 
 /**
  * Test of the event dispatcher mechanism.
  */
 public class CoreEventDispatcherTest {
 
+    private static final ProviderId PID = new ProviderId("of", "foo");
+
     private final CoreEventDispatcher dispatcher = new CoreEventDispatcher();
     private final PrickleSink prickleSink = new PrickleSink();
     private final GooSink gooSink = new GooSink();
 
     @Before
     public void setUp() {
-        dispatcher.activate();
+        dispatcher.cfgService = new ComponentConfigAdapter();
+        dispatcher.activate(null);
         dispatcher.addSink(Prickle.class, prickleSink);
         dispatcher.addSink(Goo.class, gooSink);
     }
@@ -88,6 +115,149 @@ public class CoreEventDispatcherTest {
         assertTrue(takesTooLong.interrupted);
     }
 
+    @Test
+    public void postToLanes() throws Exception {
+        configure(context(4, 0));
+        SequenceSink sink = flood(64, 500);
+        sink.sequences.values().forEach(sequences -> {
+            for (int i = 0; i < sequences.size(); i++) {
+                assertEquals("events of a subject should be delivered in order", i, (int) sequences.get(i));
+            }
+        });
+        assertTrue("events should be delivered by several lanes", sink.threads.size() > 1);
+    }
+
+    @Test
+    public void postTopologyEventsToLanes() throws Exception {
+        configure(context(4, 0));
+        TopologyEventSink sink = new TopologyEventSink(100);
+        dispatcher.addSink(TopologyEvent.class, sink);
+        List<Topology> topologies = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Topology topology = new DefaultTopology(PID, new DefaultGraphDescription(
+                    i, i, ImmutableList.of(), ImmutableList.of()));
+            topologies.add(topology);
+            dispatcher.post(new TopologyEvent(TOPOLOGY_CHANGED, topology, ImmutableList.of()));
+        }
+        assertTrue("events should all be delivered", sink.latch.await(10, TimeUnit.SECONDS));
+        dispatcher.removeSink(TopologyEvent.class);
+        assertEquals("topology events should be delivered in order", topologies, sink.topologies);
+    }
+
+    @Test
+    public void replaceLanesWhileBusy() throws Exception {
+        // Events queued on the retired lanes are delivered before those
+        // posted to the new lanes, even if the lanes are replaced again.
+        SequenceSink sink = new SequenceSink(300);
+        dispatcher.addSink(Sequenced.class, sink);
+        for (int i = 0; i < 300; i++) {
+            dispatcher.post(new Sequenced("subject", i));
+            if (i % 100 == 99) {
+                dispatcher.modified(context(i / 100 + 2, 0));
+            }
+        }
+        assertTrue("events should all be delivered", sink.latch.await(10, TimeUnit.SECONDS));
+        dispatcher.removeSink(Sequenced.class);
+        List<Integer> sequences = sink.sequences.get("subject");
+        for (int i = 0; i < sequences.size(); i++) {
+            assertEquals("events of a subject should be delivered in order", i, (int) sequences.get(i));
+        }
+    }
+
+    @Test
+    public void postToSingleLane() throws Exception {
+        SequenceSink sink = flood(64, 500);
+        assertEquals("events should be delivered by a single lane", 1, sink.threads.size());
+    }
+
+    @Test
+    public void postToFullQueue() throws Exception {
+        configure(context(1, 2));
+        BlockingSink sink = new BlockingSink();
+        dispatcher.addSink(Blocker.class, sink);
+        dispatcher.post(new Blocker("first"));
+        assertTrue(sink.entered.await(1000, TimeUnit.MILLISECONDS));
+        for (int i = 0; i < 9; i++) {
+            dispatcher.post(new Blocker("next"));
+        }
+        sink.release.countDown();
+        sink.latch.await(1000, TimeUnit.MILLISECONDS);
+        dispatcher.removeSink(Blocker.class);
+        assertEquals("events overflowing the queue should be dropped", 3, sink.subjects.size());
+    }
+
+    @Test
+    public void coalesceEvents() throws Exception {
+        configure(context(1, 0, "DeviceEvent.PORT_UPDATED, DeviceEvent.NO_SUCH_TYPE"));
+        DeviceEventSink sink = new DeviceEventSink(3);
+        dispatcher.addSink(DeviceEvent.class, sink);
+
+        Device device = new DefaultDevice(PID, DeviceId.deviceId("of:foo"),
+                                          Device.Type.SWITCH, "mfr", "hw", "sw", "serial", new ChassisId());
+        DeviceEvent first = new DeviceEvent(DEVICE_UPDATED, device);
+        dispatcher.post(first);
+        assertTrue(sink.entered.await(1000, TimeUnit.MILLISECONDS));
+
+        DeviceEvent last1 = null;
+        DeviceEvent last2 = null;
+        for (int i = 0; i < 10; i++) {
+            last1 = new DeviceEvent(PORT_UPDATED, device,
+                                    new DefaultPort(device, PortNumber.portNumber(1), i % 2 == 0));
+            dispatcher.post(last1);
+            last2 = new DeviceEvent(PORT_UPDATED, device,
+                                    new DefaultPort(device, PortNumber.portNumber(2), i % 2 == 0));
+            dispatcher.post(last2);
+        }
+        sink.release.countDown();
+        assertTrue(sink.latch.await(1000, TimeUnit.MILLISECONDS));
+        dispatcher.removeSink(DeviceEvent.class);
+
+        assertEquals("incorrect event count", 3, sink.events.size());
+        assertSame("incorrect event", first, sink.events.get(0));
+        assertSame("incorrect event", last1, sink.events.get(1));
+        assertSame("incorrect event", last2, sink.events.get(2));
+        assertEquals("incorrect coalesced count", 18, dispatcher.coalescedCount(PORT_UPDATED));
+        assertEquals("incorrect coalesced count", 0, dispatcher.coalescedCount(DEVICE_UPDATED));
+    }
+
+    // Floods the dispatcher with sequenced events of several subjects and
+    // waits for their delivery.
+    private SequenceSink flood(int subjects, int eventsPerSubject) throws Exception {
+        SequenceSink sink = new SequenceSink(subjects * eventsPerSubject);
+        dispatcher.addSink(Sequenced.class, sink);
+        for (int i = 0; i < eventsPerSubject; i++) {
+            for (int subject = 0; subject < subjects; subject++) {
+                dispatcher.post(new Sequenced("subject" + subject, i));
+            }
+        }
+        assertTrue("events should all be delivered", sink.latch.await(10, TimeUnit.SECONDS));
+        dispatcher.removeSink(Sequenced.class);
+        return sink;
+    }
+
+    // Reconfigures the dispatcher and waits for the new lanes to start.
+    private void configure(ComponentContextAdapter context) {
+        dispatcher.modified(context);
+        dispatcher.lanesReplaced().join();
+    }
+
+    private static ComponentContextAdapter context(int lanes, int queueSize) {
+        return context(lanes, queueSize, "");
+    }
+
+    private static ComponentContextAdapter context(int lanes, int queueSize, String coalescedTypes) {
+        return new ComponentContextAdapter() {
+            @Override
+            public Dictionary getProperties() {
+                Hashtable<String, String> props = new Hashtable<>();
+                props.put("dispatchLanes", String.valueOf(lanes));
+                props.put("dispatchQueueSize", String.valueOf(queueSize));
+                props.put("coalescedEventTypes", coalescedTypes);
+                return props;
+            }
+        };
+    }
+
     private void validate(Sink sink, String... strings) {
         int i = 0;
         assertEquals("incorrect event count", strings.length, sink.subjects.size());
@@ -141,6 +311,97 @@ public class CoreEventDispatcherTest {
         }
     }
 
+    private static class Sequenced extends Thing {
+        private final int sequence;
+
+        protected Sequenced(String subject, int sequence) {
+            super(subject);
+            this.sequence = sequence;
+        }
+    }
+
+    private static class SequenceSink implements EventSink<Sequenced> {
+        final Map<String, List<Integer>> sequences = new ConcurrentHashMap<>();
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        final CountDownLatch latch;
+
+        SequenceSink(int count) {
+            latch = new CountDownLatch(count);
+        }
+
+        @Override
+        public void process(Sequenced event) {
+            // Events of a subject are delivered by a single lane
+            sequences.computeIfAbsent(event.subject(), k -> new ArrayList<>()).add(event.sequence);
+            threads.add(Thread.currentThread());
+            latch.countDown();
+        }
+    }
+
+    private static class Blocker extends Thing {
+        protected Blocker(String subject) {
+            super(subject);
+        }
+    }
+
+    private static class BlockingSink extends Sink implements EventSink<Blocker> {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        BlockingSink() {
+            latch = new CountDownLatch(3);
+        }
+
+        @Override
+        public void process(Blocker event) {
+            entered.countDown();
+            try {
+                release.await(1000, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            process(event.subject());
+        }
+    }
+
+    private static class DeviceEventSink implements EventSink<DeviceEvent> {
+        final List<DeviceEvent> events = new ArrayList<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch latch;
+
+        DeviceEventSink(int count) {
+            latch = new CountDownLatch(count);
+        }
+
+        @Override
+        public void process(DeviceEvent event) {
+            entered.countDown();
+            try {
+                release.await(1000, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(event);
+            latch.countDown();
+        }
+    }
+
+    private static class TopologyEventSink implements EventSink<TopologyEvent> {
+        final List<Topology> topologies = new ArrayList<>();
+        final CountDownLatch latch;
+
+        TopologyEventSink(int count) {
+            latch = new CountDownLatch(count);
+        }
+
+        @Override
+        public void process(TopologyEvent event) {
+            topologies.add(event.subject());
+            latch.countDown();
+        }
+    }
+
     private static class TooLongEvent extends AbstractEvent<Type, String> {
         protected TooLongEvent(String subject) {
             super(Type.FOO, subject);
@@ -26,6 +26,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.onlab.osgi.ComponentContextAdapter;
 import org.onosproject.TestApplicationId;
 import org.onosproject.cfg.ComponentConfigAdapter;
 import org.onosproject.cfg.ComponentConfigService;
@@ -59,6 +60,8 @@ import org.onosproject.store.trivial.SimpleIntentStore;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Dictionary;
+import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -75,6 +78,7 @@ import static org.junit.Assert.*;
 import static org.onlab.junit.TestTools.assertAfter;
 import static org.onlab.util.Tools.delay;
 import static org.onosproject.net.NetTestTools.injectEventDispatcher;
+import static org.onosproject.net.OsgiPropertyConstants.IM_PIPELINED_BATCHES;
 import static org.onosproject.net.intent.IntentState.*;
 import static org.onosproject.net.intent.IntentTestsMocks.MockFlowRule;
 import static org.onosproject.net.intent.IntentTestsMocks.MockIntent;
@@ -378,6 +382,38 @@ public class IntentManagerTest {
         verifyState();
     }
 
+    /**
+     * Tests installing and withdrawing intents with pipelined batches.
+     */
+    @Test
+    public void pipelinedBatches() {
+        Dictionary<String, Object> properties = new Hashtable<>();
+        properties.put(IM_PIPELINED_BATCHES, "true");
+        manager.modified(new ComponentContextAdapter() {
+            @Override
+            public Dictionary getProperties() {
+                return properties;
+            }
+        });
+        flowRuleService.setFuture(true);
+
+        int count = 20;
+        List<Intent> intents = IntStream.range(0, count)
+                .mapToObj(i -> new MockIntent(MockIntent.nextId()))
+                .collect(Collectors.toList());
+        listener.setLatch(count, Type.INSTALLED);
+        intents.forEach(service::submit);
+        listener.await(Type.INSTALLED);
+        assertEquals(count, service.getIntentCount());
+        assertEquals(count, flowRuleService.getFlowRuleCount());
+
+        listener.setLatch(count, Type.WITHDRAWN);
+        intents.forEach(service::withdraw);
+        listener.await(Type.WITHDRAWN);
+        assertEquals(0L, flowRuleService.getFlowRuleCount());
+        verifyState();
+    }
+
     @Test
     @Ignore("This is disabled because we are seeing intermittent failures on Jenkins")
     public void stressSubmitWithdrawUnique() {
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.packet.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.MacAddress;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.packet.DefaultInboundPacket;
+import org.onosproject.net.packet.InboundPacket;
+import org.onosproject.net.packet.PacketAdmissionStatistics;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for the packet admission control.
+ */
+public class PacketAdmissionTest {
+
+    private static final DeviceId DID1 = DeviceId.deviceId("of:1");
+    private static final DeviceId DID2 = DeviceId.deviceId("of:2");
+
+    private final AtomicLong clock = new AtomicLong();
+
+    /**
+     * Tests that each device is limited to its own rate.
+     */
+    @Test
+    public void deviceLimit() {
+        PacketAdmission admission = new PacketAdmission(3, 0, ImmutableMap.of(), clock::get);
+        assertEquals("Incorrect admitted packets", 3, admit(admission, DID1, 1, Ethernet.TYPE_IPV4, 5));
+        assertEquals("Incorrect admitted packets", 3, admit(admission, DID2, 1, Ethernet.TYPE_IPV4, 5));
+        assertEquals("Incorrect statistics",
+                     ImmutableList.of(new PacketAdmissionStatistics(DID1, 3, 2, 0, 0),
+                                      new PacketAdmissionStatistics(DID2, 3, 2, 0, 0)),
+                     admission.statistics());
+    }
+
+    /**
+     * Tests that a flooding port does not use up the budget of the device.
+     */
+    @Test
+    public void portLimit() {
+        PacketAdmission admission = new PacketAdmission(10, 4, ImmutableMap.of(), clock::get);
+        assertEquals("Incorrect admitted packets", 4, admit(admission, DID1, 1, Ethernet.TYPE_IPV4, 20));
+        assertEquals("Incorrect admitted packets", 4, admit(admission, DID1, 2, Ethernet.TYPE_IPV4, 4));
+        assertEquals("Incorrect statistics",
+                     ImmutableList.of(new PacketAdmissionStatistics(DID1, 8, 0, 16, 0)),
+                     admission.statistics());
+    }
+
+    /**
+     * Tests that ether type limits apply only to the given ether types.
+     */
+    @Test
+    public void etherTypeLimit() {
+        PacketAdmission admission = new PacketAdmission(0, 0, ImmutableMap.of(0x88cc, 2), clock::get);
+        assertEquals("Incorrect admitted packets", 2, admit(admission, DID1, 1, Ethernet.TYPE_LLDP, 5));
+        assertEquals("Incorrect admitted packets", 5, admit(admission, DID1, 1, Ethernet.TYPE_ARP, 5));
+        assertEquals("Incorrect statistics",
+                     ImmutableList.of(new PacketAdmissionStatistics(DID1, 7, 0, 0, 3)),
+                     admission.statistics());
+    }
+
+    /**
+     * Tests that tokens are refilled at the configured rate, up to one
+     * second worth of them.
+     */
+    @Test
+    public void refill() {
+        PacketAdmission admission = new PacketAdmission(10, 0, ImmutableMap.of(), clock::get);
+        assertEquals("Incorrect admitted packets", 10, admit(admission, DID1, 1, Ethernet.TYPE_IPV4, 20));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(250));
+        assertEquals("Incorrect admitted packets", 2, admit(admission, DID1, 1, Ethernet.TYPE_IPV4, 20));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals("Incorrect admitted packets", 1, admit(admission, DID1, 1, Ethernet.TYPE_IPV4, 20));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertEquals("Incorrect admitted packets", 10, admit(admission, DID1, 1, Ethernet.TYPE_IPV4, 20));
+    }
+
+    /**
+     * Tests parsing of the ether type limits.
+     */
+    @Test
+    public void parseEtherTypeRates() {
+        assertEquals(ImmutableMap.of(0x0806, 1000, 0x88cc, 100),
+                     PacketAdmission.parseEtherTypeRates(" 0x0806=1000, 0x88cc = 100"));
+        assertTrue(PacketAdmission.parseEtherTypeRates("").isEmpty());
+        assertFalse(new PacketAdmission(0, 0, PacketAdmission.parseEtherTypeRates(null)).isEnabled());
+        for (String spec : new String[]{"0x0806", "arp=10", "0x0806=0", "0x10000=1"}) {
+            try {
+                PacketAdmission.parseEtherTypeRates(spec);
+                fail("Malformed limits accepted: " + spec);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    private static int admit(PacketAdmission admission, DeviceId deviceId, long port,
+                             short etherType, int count) {
+        Ethernet eth = new Ethernet().setSourceMACAddress(MacAddress.valueOf(1L))
+                .setDestinationMACAddress(MacAddress.BROADCAST).setEtherType(etherType);
+        InboundPacket packet = new DefaultInboundPacket(
+                new ConnectPoint(deviceId, PortNumber.portNumber(port)), eth, ByteBuffer.wrap(eth.serialize()));
+        int admitted = 0;
+        for (int i = 0; i < count; i++) {
+            admitted += admission.admit(packet) ? 1 : 0;
+        }
+        return admitted;
+    }
+}
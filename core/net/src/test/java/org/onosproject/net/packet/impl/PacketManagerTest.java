@@ -18,18 +18,28 @@ package org.onosproject.net.packet.impl;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.onlab.osgi.ComponentContextAdapter;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.IPv4;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.TpPort;
+import org.onlab.packet.UDP;
+import org.onosproject.cfg.ComponentConfigAdapter;
 import org.onosproject.cluster.ClusterServiceAdapter;
 import org.onosproject.common.event.impl.TestEventDispatcher;
 import org.onosproject.core.CoreServiceAdapter;
 import org.onosproject.core.IdGenerator;
 import org.onosproject.event.TestListener;
 import org.onosproject.net.AnnotationKeys;
+import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.DefaultAnnotations;
 import org.onosproject.net.DefaultDevice;
 import org.onosproject.net.Device;
 import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
 import org.onosproject.net.config.NetworkConfigServiceAdapter;
 import org.onosproject.net.device.DeviceServiceAdapter;
 import org.onosproject.net.driver.AbstractHandlerBehaviour;
@@ -37,20 +47,45 @@ import org.onosproject.net.driver.DefaultDriver;
 import org.onosproject.net.driver.DriverRegistry;
 import org.onosproject.net.driver.impl.DriverManager;
 import org.onosproject.net.driver.impl.DriverRegistryManager;
+import org.onosproject.net.flow.DefaultTrafficSelector;
 import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.packet.DefaultInboundPacket;
 import org.onosproject.net.packet.DefaultOutboundPacket;
+import org.onosproject.net.packet.InboundPacket;
 import org.onosproject.net.packet.OutboundPacket;
+import org.onosproject.net.packet.PacketAdmissionStatistics;
+import org.onosproject.net.packet.PacketContext;
+import org.onosproject.net.packet.PacketContextAdapter;
+import org.onosproject.net.packet.PacketProcessor;
+import org.onosproject.net.packet.PacketProcessorEntry;
 import org.onosproject.net.packet.PacketProgrammable;
+import org.onosproject.net.packet.PacketProvider;
 import org.onosproject.net.packet.PacketProviderRegistry;
+import org.onosproject.net.packet.PacketProviderService;
 import org.onosproject.net.pi.PiPipeconfServiceAdapter;
 import org.onosproject.net.provider.ProviderId;
 import org.onosproject.net.provider.TestProvider;
 import org.onosproject.store.trivial.SimplePacketStore;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Dictionary;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.OsgiPropertyConstants.PM_DEVICE_PACKET_RATE;
+import static org.onosproject.net.OsgiPropertyConstants.PM_ETHER_TYPE_PACKET_RATES;
+import static org.onosproject.net.OsgiPropertyConstants.PM_PACKET_QUEUE_SIZE;
+import static org.onosproject.net.OsgiPropertyConstants.PM_PACKET_WORKERS;
+import static org.onosproject.net.OsgiPropertyConstants.PM_PORT_PACKET_RATE;
 import static org.onosproject.net.NetTestTools.injectEventDispatcher;
 
 /**
@@ -86,8 +121,9 @@ public class PacketManagerTest {
         mgr.deviceService = new TestDeviceService();
         mgr.deviceService = new TestDeviceService();
         mgr.coreService = new TestCoreService();
+        mgr.cfgService = new ComponentConfigAdapter();
         providerRegistry = mgr;
-        mgr.activate();
+        mgr.activate(null);
 
         DriverRegistryManager driverRegistry = new DriverRegistryManager();
         driverService = new TestDriverManager(driverRegistry);
@@ -108,6 +144,238 @@ public class PacketManagerTest {
         assertEquals("Packet not emitted correctly", packet, emittedPacket);
     }
 
+    @After
+    public void tearDown() {
+        mgr.deactivate();
+    }
+
+    /**
+     * Tests the classification of packets into priority bands.
+     */
+    @Test
+    public void packetBands() {
+        assertEquals(PacketPipeline.Band.CONTROL, PacketPipeline.band(inbound(frame(Ethernet.TYPE_LLDP, 1))));
+        assertEquals(PacketPipeline.Band.CONTROL, PacketPipeline.band(inbound(frame(Ethernet.TYPE_BSN, 1))));
+        assertEquals(PacketPipeline.Band.RESOLUTION, PacketPipeline.band(inbound(frame(Ethernet.TYPE_ARP, 1))));
+        assertEquals(PacketPipeline.Band.DATA, PacketPipeline.band(inbound(frame(Ethernet.TYPE_IPV4, 1))));
+
+        Ethernet tagged = frame(Ethernet.TYPE_ARP, 1);
+        tagged.setVlanID((short) 10);
+        assertEquals(PacketPipeline.Band.RESOLUTION, PacketPipeline.band(inbound(tagged)));
+        assertEquals(PacketPipeline.Band.RESOLUTION,
+                     PacketPipeline.band(new DefaultInboundPacket(CP, frame(Ethernet.TYPE_ARP, 1), null)));
+    }
+
+    /**
+     * Tests that packets processed by workers are delivered in order per flow.
+     */
+    @Test
+    public void pipelinePreservesFlowOrder() throws InterruptedException {
+        mgr.modified(context(4, 1024));
+
+        int flows = 16, packets = 200;
+        CountDownLatch done = new CountDownLatch(flows * packets);
+        Map<Integer, List<Integer>> received = new HashMap<>();
+        mgr.addProcessor(context -> {
+            Ethernet eth = context.inPacket().parsed();
+            IPv4 ip = (IPv4) eth.getPayload();
+            synchronized (received) {
+                received.computeIfAbsent(ip.getSourceAddress(), k -> new ArrayList<>())
+                        .add((int) ip.getIdentification());
+            }
+            done.countDown();
+        }, PacketProcessor.director(1));
+
+        PacketProviderService providerService = providerRegistry.register(new TestPacketProvider());
+        for (int i = 0; i < packets; i++) {
+            for (int flow = 1; flow <= flows; flow++) {
+                Ethernet eth = frame(Ethernet.TYPE_IPV4, flow);
+                ((IPv4) eth.getPayload()).setIdentification((short) i);
+                providerService.processPacket(packetContext(eth));
+            }
+        }
+
+        assertTrue("Packets not processed", done.await(5, TimeUnit.SECONDS));
+        assertEquals("Incorrect number of flows", flows, received.size());
+        received.values().forEach(ids -> {
+            List<Integer> sorted = new ArrayList<>(ids);
+            Collections.sort(sorted);
+            assertEquals("Flow packets reordered", sorted, ids);
+        });
+    }
+
+    /**
+     * Tests that an overloaded worker drops data packets while still serving
+     * control packets first.
+     */
+    @Test
+    public void pipelineDropsOnOverload() throws InterruptedException {
+        mgr.modified(context(1, 4));
+
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Short> processed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(9);
+        mgr.addProcessor(context -> {
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            processed.add(context.inPacket().parsed().getEtherType());
+            done.countDown();
+        }, PacketProcessor.director(1));
+
+        PacketProviderService providerService = providerRegistry.register(new TestPacketProvider());
+        // The first packet holds up the worker while the rest are queued.
+        providerService.processPacket(packetContext(frame(Ethernet.TYPE_IPV4, 1)));
+        Thread.sleep(100);
+        for (int i = 0; i < 10; i++) {
+            providerService.processPacket(packetContext(frame(Ethernet.TYPE_IPV4, 1)));
+        }
+        for (int i = 0; i < 4; i++) {
+            providerService.processPacket(packetContext(frame(Ethernet.TYPE_LLDP, 1)));
+        }
+        gate.countDown();
+
+        assertTrue("Packets not processed", done.await(5, TimeUnit.SECONDS));
+        assertEquals("Incorrect number of dropped packets",
+                     6, mgr.droppedPackets(PacketPipeline.Band.DATA));
+        assertEquals("Incorrect number of dropped packets",
+                     0, mgr.droppedPackets(PacketPipeline.Band.CONTROL));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals("Control packets not served first", Ethernet.TYPE_LLDP, (short) processed.get(i));
+        }
+    }
+
+    /**
+     * Tests that processors are given only the packets matching their
+     * selectors.
+     */
+    @Test
+    public void processorSelectors() {
+        List<Short> arp = new ArrayList<>();
+        List<Short> dhcp = new ArrayList<>();
+        List<Short> all = new ArrayList<>();
+        mgr.addProcessor(context -> arp.add(context.inPacket().parsed().getEtherType()),
+                         PacketProcessor.advisor(1),
+                         DefaultTrafficSelector.builder().matchEthType(Ethernet.TYPE_ARP).build());
+        mgr.addProcessor(context -> dhcp.add(context.inPacket().parsed().getEtherType()),
+                         PacketProcessor.director(1),
+                         DefaultTrafficSelector.builder().matchEthType(Ethernet.TYPE_IPV4)
+                                 .matchIPProtocol(IPv4.PROTOCOL_UDP)
+                                 .matchUdpDst(TpPort.tpPort(UDP.DHCP_SERVER_PORT)).build());
+        mgr.addProcessor(context -> all.add(context.inPacket().parsed().getEtherType()),
+                         PacketProcessor.observer(1));
+
+        PacketProviderService providerService = providerRegistry.register(new TestPacketProvider());
+        providerService.processPacket(packetContext(frame(Ethernet.TYPE_ARP, 1)));
+        Ethernet request = frame(Ethernet.TYPE_IPV4, 1);
+        ((IPv4) request.getPayload()).setProtocol(IPv4.PROTOCOL_UDP)
+                .setPayload(new UDP().setSourcePort(UDP.DHCP_CLIENT_PORT).setDestinationPort(UDP.DHCP_SERVER_PORT));
+        providerService.processPacket(packetContext(request));
+        Ethernet other = frame(Ethernet.TYPE_IPV4, 1);
+        ((IPv4) other.getPayload()).setProtocol(IPv4.PROTOCOL_UDP)
+                .setPayload(new UDP().setSourcePort(1234).setDestinationPort(5678));
+        providerService.processPacket(packetContext(other));
+        providerService.processPacket(packetContext(frame(Ethernet.TYPE_LLDP, 1)));
+
+        assertEquals("Incorrect ARP packets", ImmutableList.of(Ethernet.TYPE_ARP), arp);
+        assertEquals("Incorrect DHCP packets", ImmutableList.of(Ethernet.TYPE_IPV4), dhcp);
+        assertEquals("Incorrect packets", 4, all.size());
+
+        List<PacketProcessorEntry> entries = mgr.getProcessors();
+        assertEquals("Incorrect skipped packets", 3, entries.get(0).skipped());
+        assertEquals("Incorrect skipped packets", 3, entries.get(1).skipped());
+        assertEquals("Incorrect skipped packets", 0, entries.get(2).skipped());
+        assertEquals("Incorrect invocations", 1, entries.get(1).invocations());
+    }
+
+    /**
+     * Tests that packets in excess of the configured rates are dropped
+     * before reaching the processors.
+     */
+    @Test
+    public void admissionControl() {
+        mgr.modified(admissionContext(0, 0, "0x88cc=2"));
+        List<Short> processed = new ArrayList<>();
+        mgr.addProcessor(context -> processed.add(context.inPacket().parsed().getEtherType()),
+                         PacketProcessor.director(1));
+
+        PacketProviderService providerService = providerRegistry.register(new TestPacketProvider());
+        for (int i = 0; i < 5; i++) {
+            providerService.processPacket(packetContext(frame(Ethernet.TYPE_LLDP, 1)));
+            providerService.processPacket(packetContext(frame(Ethernet.TYPE_ARP, 1)));
+        }
+
+        assertEquals("Incorrect packets", 7, processed.size());
+        assertEquals("Incorrect admission statistics",
+                     ImmutableList.of(new PacketAdmissionStatistics(FOO_DID, 7, 0, 0, 3)),
+                     mgr.getAdmissionStatistics());
+
+        // Malformed limits are ignored, which lifts the ether type limit.
+        mgr.modified(admissionContext(0, 0, "lldp"));
+        providerService.processPacket(packetContext(frame(Ethernet.TYPE_LLDP, 1)));
+        assertEquals("Incorrect packets", 8, processed.size());
+        assertTrue("Statistics not reset", mgr.getAdmissionStatistics().isEmpty());
+    }
+
+    private static final ConnectPoint CP = new ConnectPoint(FOO_DID, PortNumber.portNumber(1));
+
+    private static Ethernet frame(short etherType, int flow) {
+        Ethernet eth = new Ethernet();
+        eth.setSourceMACAddress(MacAddress.valueOf(flow))
+                .setDestinationMACAddress(MacAddress.BROADCAST)
+                .setEtherType(etherType);
+        if (etherType == Ethernet.TYPE_IPV4) {
+            eth.setPayload(new IPv4().setSourceAddress(flow).setDestinationAddress(1));
+        }
+        return eth;
+    }
+
+    private static InboundPacket inbound(Ethernet eth) {
+        return new DefaultInboundPacket(CP, eth, ByteBuffer.wrap(eth.serialize()));
+    }
+
+    private static PacketContext packetContext(Ethernet eth) {
+        return new PacketContextAdapter(0, inbound(eth), null, false);
+    }
+
+    private static ComponentContextAdapter context(int workers, int queueSize) {
+        Dictionary<String, Object> properties = new Hashtable<>();
+        properties.put(PM_PACKET_WORKERS, String.valueOf(workers));
+        properties.put(PM_PACKET_QUEUE_SIZE, String.valueOf(queueSize));
+        return new ComponentContextAdapter() {
+            @Override
+            public Dictionary getProperties() {
+                return properties;
+            }
+        };
+    }
+
+    private static ComponentContextAdapter admissionContext(int deviceRate, int portRate,
+                                                            String etherTypeRates) {
+        Dictionary<String, Object> properties = new Hashtable<>();
+        properties.put(PM_DEVICE_PACKET_RATE, String.valueOf(deviceRate));
+        properties.put(PM_PORT_PACKET_RATE, String.valueOf(portRate));
+        properties.put(PM_ETHER_TYPE_PACKET_RATES, etherTypeRates);
+        return new ComponentContextAdapter() {
+            @Override
+            public Dictionary getProperties() {
+                return properties;
+            }
+        };
+    }
+
+    private static class TestPacketProvider extends TestProvider implements PacketProvider {
+        TestPacketProvider() {
+            super(FOO_PID);
+        }
+
+        @Override
+        public void emit(OutboundPacket packet) {
+        }
+    }
+
     private static class TestDeviceService extends DeviceServiceAdapter {
         @Override
         public int getDeviceCount() {
@@ -29,6 +29,9 @@ public final class OsgiPropertyConstants {
     public static final String BACKUP_PERIOD_MILLIS = "backupPeriod";
     public static final int BACKUP_PERIOD_MILLIS_DEFAULT = 2000;
 
+    public static final String STATS_BACKUP_PERIOD_MILLIS = "statsBackupPeriod";
+    public static final int STATS_BACKUP_PERIOD_MILLIS_DEFAULT = 30000;
+
     public static final String ANTI_ENTROPY_PERIOD_MILLIS = "antiEntropyPeriod";
     public static final int ANTI_ENTROPY_PERIOD_MILLIS_DEFAULT = 5000;
 
@@ -38,6 +41,12 @@ public final class OsgiPropertyConstants {
     public static final String MAX_BACKUP_COUNT = "backupCount";
     public static final int MAX_BACKUP_COUNT_DEFAULT = 2;
 
+    public static final String EC_FLOW_RULE_STORE_COMPACT_STORAGE_ENABLED = "compactFlowStorageEnabled";
+    public static final boolean EC_FLOW_RULE_STORE_COMPACT_STORAGE_ENABLED_DEFAULT = false;
+
+    public static final String EC_FLOW_RULE_STORE_DELTA_BACKUP_ENABLED = "deltaFlowBackupEnabled";
+    public static final boolean EC_FLOW_RULE_STORE_DELTA_BACKUP_ENABLED_DEFAULT = false;
+
     public static final String ELECTION_TIMEOUT_MILLIS = "electionTimeoutMillis";
     public static final long ELECTION_TIMEOUT_MILLIS_DEFAULT = 2500;
 
@@ -64,4 +73,13 @@ public final class OsgiPropertyConstants {
 
     public static final String LINK_WEIGHT_FUNCTION = "linkWeightFunction";
     public static final String LINK_WEIGHT_FUNCTION_DEFAULT = "hopCount";
+
+    public static final String PATH_CACHE_SIZE = "pathCacheSize";
+    public static final int PATH_CACHE_SIZE_DEFAULT = 0;
+
+    public static final String ALL_PAIRS_PATHS_MAX_DEVICES = "allPairsPathsMaxDevices";
+    public static final int ALL_PAIRS_PATHS_MAX_DEVICES_DEFAULT = 0;
+
+    public static final String COMPACT_GRAPH_SEARCH = "compactGraphSearch";
+    public static final boolean COMPACT_GRAPH_SEARCH_DEFAULT = false;
 }
@@ -36,8 +36,10 @@ import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.function.BiConsumer;
@@ -77,6 +79,9 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
 
     private NodeId localNodeId;
 
+    // Encoded headers of the messages sent by this node, by subject
+    private final Map<MessageSubject, byte[]> headers = new ConcurrentHashMap<>();
+
     @Activate
     public void activate() {
         localNodeId = clusterService.getLocalNode().id();
@@ -124,11 +129,8 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
                                                NodeId toNodeId) {
         checkPermission(CLUSTER_WRITE);
         try {
-            byte[] payload = new ClusterMessage(
-                    localNodeId,
-                    subject,
-                    timeFunction(encoder, subjectMeteringAgent, SERIALIZING).apply(message)
-                    ).getBytes();
+            byte[] payload = envelope(subject,
+                    timeFunction(encoder, subjectMeteringAgent, SERIALIZING).apply(message));
             return doUnicast(subject, payload, toNodeId);
         } catch (Exception e) {
             return Tools.exceptionalFuture(e);
@@ -141,11 +143,8 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
                               Function<M, byte[]> encoder,
                               Set<NodeId> nodes) {
         checkPermission(CLUSTER_WRITE);
-        byte[] payload = new ClusterMessage(
-                localNodeId,
-                subject,
-                timeFunction(encoder, subjectMeteringAgent, SERIALIZING).apply(message))
-                .getBytes();
+        byte[] payload = envelope(subject,
+                timeFunction(encoder, subjectMeteringAgent, SERIALIZING).apply(message));
         nodes.forEach(nodeId -> doUnicast(subject, payload, nodeId));
     }
 
@@ -157,18 +156,28 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
                                                       NodeId toNodeId) {
         checkPermission(CLUSTER_WRITE);
         try {
-            ClusterMessage envelope = new ClusterMessage(
-                    clusterService.getLocalNode().id(),
-                    subject,
-                    timeFunction(encoder, subjectMeteringAgent, SERIALIZING).
-                            apply(message));
-            return sendAndReceive(subject, envelope.getBytes(), toNodeId).
+            byte[] payload = envelope(subject,
+                    timeFunction(encoder, subjectMeteringAgent, SERIALIZING).apply(message));
+            return sendAndReceive(subject, payload, toNodeId).
                     thenApply(bytes -> timeFunction(decoder, subjectMeteringAgent, DESERIALIZING).apply(bytes));
         } catch (Exception e) {
             return Tools.exceptionalFuture(e);
         }
     }
 
+    /**
+     * Wraps the given payload in a cluster message sent by this node, reusing
+     * the encoded header of the subject rather than encoding it on each send.
+     *
+     * @param subject message subject
+     * @param payload message payload
+     * @return cluster message bytes
+     */
+    private byte[] envelope(MessageSubject subject, byte[] payload) {
+        byte[] header = headers.computeIfAbsent(subject, s -> ClusterMessage.header(localNodeId, s));
+        return ClusterMessage.toBytes(header, payload);
+    }
+
     private CompletableFuture<Void> doUnicast(MessageSubject subject, byte[] payload, NodeId toNodeId) {
         ControllerNode node = clusterService.getNode(toNodeId);
         checkArgument(node != null, "Unknown nodeId: %s", toNodeId);
@@ -315,7 +324,7 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
         @Override
         public CompletableFuture<byte[]> apply(Endpoint sender, byte[] bytes) {
             return handler.apply(timeFunction(decoder, subjectMeteringAgent, DESERIALIZING).
-                    apply(ClusterMessage.fromBytes(bytes).payload())).
+                    apply(ClusterMessage.payloadFromBytes(bytes))).
                     thenApply(m -> timeFunction(encoder, subjectMeteringAgent, SERIALIZING).apply(m));
         }
     }
@@ -332,7 +341,7 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
         @Override
         public void accept(Endpoint sender, byte[] bytes) {
             consumer.accept(timeFunction(decoder, subjectMeteringAgent, DESERIALIZING).
-                    apply(ClusterMessage.fromBytes(bytes).payload()));
+                    apply(ClusterMessage.payloadFromBytes(bytes)));
         }
     }
 }
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import org.onlab.util.KryoNamespace;
+import org.onosproject.net.flow.StoredFlowEntry;
+import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.Serializer;
+
+/**
+ * Compact storage for the flow entries sharing a single flow identifier.
+ * <p>
+ * Rather than retaining the full {@link StoredFlowEntry} object graph on the heap, entries are kept in their
+ * serialized form alongside their hash codes. Entries are materialized lazily on read, and updates made through
+ * {@link #computeIfPresent(Object, BiFunction)} or {@link #put(StoredFlowEntry, StoredFlowEntry)} are serialized
+ * back into the arena. Entries returned by read operations are copies; changes to them must be written back.
+ * <p>
+ * Most flow identifiers map to a single entry, so entries are kept in small parallel arrays rather than a map.
+ */
+final class CompactFlowEntries extends AbstractMap<StoredFlowEntry, StoredFlowEntry> {
+    private static final Serializer SERIALIZER = Serializer.using(KryoNamespace.newBuilder()
+        .register(KryoNamespaces.API)
+        .build());
+
+    private static final int[] EMPTY_HASHES = new int[0];
+    private static final byte[][] EMPTY_ENTRIES = new byte[0][];
+
+    private int[] hashes = EMPTY_HASHES;
+    private byte[][] entries = EMPTY_ENTRIES;
+
+    /**
+     * Returns the index of the entry matching the given key.
+     *
+     * @param key the key for which to search
+     * @return the index of the matching entry or {@code -1} if no entry matches
+     */
+    private int indexOf(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        int hash = key.hashCode();
+        for (int i = 0; i < hashes.length; i++) {
+            if (hashes[i] == hash && key.equals(decode(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Materializes the entry at the given index.
+     *
+     * @param index the entry index
+     * @return the materialized flow entry
+     */
+    private StoredFlowEntry decode(int index) {
+        return SERIALIZER.decode(entries[index]);
+    }
+
+    /**
+     * Writes the given entry at the given index, growing the arena if necessary.
+     *
+     * @param index the index at which to write the entry
+     * @param entry the entry to write
+     */
+    private void write(int index, StoredFlowEntry entry) {
+        if (index == hashes.length) {
+            hashes = Arrays.copyOf(hashes, index + 1);
+            entries = Arrays.copyOf(entries, index + 1);
+        }
+        hashes[index] = entry.hashCode();
+        entries[index] = SERIALIZER.encode(entry);
+    }
+
+    /**
+     * Removes the entry at the given index, shrinking the arena.
+     *
+     * @param index the index of the entry to remove
+     */
+    private void delete(int index) {
+        int last = hashes.length - 1;
+        if (last == 0) {
+            hashes = EMPTY_HASHES;
+            entries = EMPTY_ENTRIES;
+            return;
+        }
+        int[] newHashes = new int[last];
+        byte[][] newEntries = new byte[last][];
+        System.arraycopy(hashes, 0, newHashes, 0, index);
+        System.arraycopy(hashes, index + 1, newHashes, index, last - index);
+        System.arraycopy(entries, 0, newEntries, 0, index);
+        System.arraycopy(entries, index + 1, newEntries, index, last - index);
+        hashes = newHashes;
+        entries = newEntries;
+    }
+
+    /**
+     * Returns the number of serialized bytes held by this arena.
+     *
+     * @return the number of serialized bytes held by this arena
+     */
+    synchronized int bytes() {
+        int bytes = 0;
+        for (byte[] entry : entries) {
+            bytes += entry.length;
+        }
+        return bytes;
+    }
+
+    @Override
+    public synchronized int size() {
+        return hashes.length;
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return hashes.length == 0;
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public synchronized StoredFlowEntry get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? decode(index) : null;
+    }
+
+    @Override
+    public synchronized StoredFlowEntry put(StoredFlowEntry key, StoredFlowEntry value) {
+        int index = indexOf(key);
+        StoredFlowEntry previous = index >= 0 ? decode(index) : null;
+        write(index >= 0 ? index : hashes.length, value);
+        return previous;
+    }
+
+    @Override
+    public synchronized StoredFlowEntry remove(Object key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        StoredFlowEntry previous = decode(index);
+        delete(index);
+        return previous;
+    }
+
+    @Override
+    public synchronized StoredFlowEntry computeIfPresent(
+        StoredFlowEntry key,
+        BiFunction<? super StoredFlowEntry, ? super StoredFlowEntry, ? extends StoredFlowEntry> function) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        StoredFlowEntry value = function.apply(key, decode(index));
+        if (value == null) {
+            delete(index);
+        } else {
+            write(index, value);
+        }
+        return value;
+    }
+
+    @Override
+    public synchronized void clear() {
+        hashes = EMPTY_HASHES;
+        entries = EMPTY_ENTRIES;
+    }
+
+    @Override
+    public Collection<StoredFlowEntry> values() {
+        return materialize().values();
+    }
+
+    @Override
+    public Set<Entry<StoredFlowEntry, StoredFlowEntry>> entrySet() {
+        return materialize().entrySet();
+    }
+
+    /**
+     * Materializes a point-in-time copy of all entries in the arena.
+     *
+     * @return a map of materialized flow entries
+     */
+    private synchronized Map<StoredFlowEntry, StoredFlowEntry> materialize() {
+        Map<StoredFlowEntry, StoredFlowEntry> map = new LinkedHashMap<>(hashes.length);
+        for (int i = 0; i < hashes.length; i++) {
+            StoredFlowEntry entry = decode(i);
+            map.put(entry, entry);
+        }
+        return map;
+    }
+}
@@ -25,10 +25,15 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.onlab.util.KryoNamespace;
@@ -37,6 +42,7 @@ import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowEntryReconciliation;
 import org.onosproject.net.flow.FlowId;
 import org.onosproject.net.flow.FlowRule;
 import org.onosproject.net.flow.StoredFlowEntry;
@@ -59,9 +65,40 @@ import org.slf4j.LoggerFactory;
  * anti-entropy protocol is used to detect missing flows on backups (e.g. due to a node restart). Finally, when a
  * device mastership change occurs, the new master synchronizes flows with the prior master and/or backups for the
  * device, allowing mastership to be reassigned to non-backup nodes.
+ * <p>
+ * Anti-entropy and synchronization are driven by content hashes. Buckets are grouped into a two level hash tree so
+ * that a single exchange of group hashes identifies the groups that have diverged. Only the digests of diverged
+ * groups are exchanged, and diverged buckets are repaired by shipping only the flows whose content hashes differ.
+ * The hash tree protocol and delta backups use their own message subjects. The original digest, bucket and backup
+ * subjects and their message formats are unchanged, and peers that do not answer on the hash tree subjects are
+ * synchronized, repaired and backed up through them instead.
+ * <p>
+ * Patches carry the entries of at most {@code MAX_PATCH_FLOWS} flows, and buckets holding more flows are backed up
+ * to peers supporting the hash tree protocol by successive patches rather than in a single message. This bounds the
+ * size of the messages exchanged for hot buckets, which are not split further since bucket numbers are part of the
+ * replication protocol. Peers that do not support the hash tree protocol still receive complete buckets.
+ * <p>
+ * Buckets are materialized on demand when flows are first written to them and are released again once they have
+ * been drained and the change has been replicated, so the memory and digest work for a device scale with the number
+ * of occupied buckets rather than the size of the bucket space. The term and timestamp of released buckets are
+ * retained, so the digests exchanged with peers are identical whether or not a bucket is materialized.
+ * <p>
+ * Changes on the master are backed up either by shipping complete copies of modified buckets or, when delta backups
+ * are enabled, by shipping only the flows changed since the last acknowledged backup. Changed flows are tracked in a
+ * per-bucket {@link FlowChangeLog}, and the deltas for all buckets are sent to each backup in a single batch per
+ * backup period. A bucket falls back to a complete backup whenever its change log cannot cover the gap since the
+ * last acknowledged backup or the backup rejects the delta.
+ * <p>
+ * Statistics-only updates are kept off the replication path: they do not advance the bucket timestamp and are
+ * published for backup only once per statistics backup period. Changes to the state of a flow are always
+ * replicated on the next backup.
  */
 public class DeviceFlowTable {
     private static final int NUM_BUCKETS = 1024;
+    private static final int TREE_FANOUT = 32;
+    private static final int NUM_GROUPS = NUM_BUCKETS / TREE_FANOUT;
+    private static final int MAX_CHANGE_LOG_SIZE = 128;
+    private static final int MAX_PATCH_FLOWS = 1000;
     private static final Serializer SERIALIZER = Serializer.using(KryoNamespace.newBuilder()
         .register(KryoNamespaces.API)
         .register(BucketId.class)
@@ -69,6 +106,10 @@ public class DeviceFlowTable {
         .register(FlowBucketDigest.class)
         .register(LogicalTimestamp.class)
         .register(Timestamped.class)
+        .register(FlowBucketContentDigest.class)
+        .register(FlowBucketPatch.class)
+        .register(FlowBucketDelta.class)
+        .register(FlowBucketHashDigest.class)
         .build());
 
     private final Logger log = LoggerFactory.getLogger(getClass());
@@ -76,17 +117,25 @@ public class DeviceFlowTable {
     private final MessageSubject getDigestsSubject;
     private final MessageSubject getBucketSubject;
     private final MessageSubject backupSubject;
+    private final MessageSubject getTreeSubject;
+    private final MessageSubject getGroupDigestsSubject;
+    private final MessageSubject getContentDigestSubject;
+    private final MessageSubject getPatchSubject;
+    private final MessageSubject patchSubject;
+    private final MessageSubject deltaBackupSubject;
 
     private final DeviceId deviceId;
     private final ClusterCommunicationService clusterCommunicator;
     private final LifecycleManager lifecycleManager;
     private final ScheduledExecutorService executorService;
     private final NodeId localNodeId;
+    private final boolean compactStorage;
 
     private final LogicalClock clock = new LogicalClock();
 
     private volatile DeviceReplicaInfo replicaInfo;
     private volatile long activeTerm;
+    private volatile boolean deltaBackupEnabled;
 
     private final LifecycleEventListener lifecycleEventListener = new LifecycleEventListener() {
         @Override
@@ -97,12 +146,24 @@ public class DeviceFlowTable {
 
     private ScheduledFuture<?> backupFuture;
     private ScheduledFuture<?> antiEntropyFuture;
+    private ScheduledFuture<?> statsBackupFuture;
 
     private final Map<Integer, Queue<Runnable>> flowTasks = Maps.newConcurrentMap();
     private final Map<Integer, FlowBucket> flowBuckets = Maps.newConcurrentMap();
+    private final AtomicLongArray releasedTerms = new AtomicLongArray(NUM_BUCKETS);
+    private final AtomicLongArray releasedTimestamps = new AtomicLongArray(NUM_BUCKETS);
+    private final Map<Integer, FlowChangeLog> changeLogs = Maps.newConcurrentMap();
 
     private final Map<BackupOperation, LogicalTimestamp> lastBackupTimes = Maps.newConcurrentMap();
     private final Set<BackupOperation> inFlightUpdates = Sets.newConcurrentHashSet();
+    private final Set<NodeId> legacyNodes = Sets.newConcurrentHashSet();
+
+    private final AtomicLong backupBytes = new AtomicLong();
+    private final AtomicLong antiEntropyBytes = new AtomicLong();
+    private final AtomicLong syncBytes = new AtomicLong();
+    private volatile long lastAntiEntropyRoundBytes;
+    private final AtomicLong backupLag = new AtomicLong();
+    private volatile long lastBackupRoundLag;
 
     DeviceFlowTable(
         DeviceId deviceId,
@@ -111,25 +172,33 @@ public class DeviceFlowTable {
         LifecycleManager lifecycleManager,
         ScheduledExecutorService executorService,
         long backupPeriod,
-        long antiEntropyPeriod) {
+        long antiEntropyPeriod,
+        long statsBackupPeriod,
+        boolean compactStorage,
+        boolean deltaBackupEnabled) {
         this.deviceId = deviceId;
         this.clusterCommunicator = clusterCommunicator;
         this.lifecycleManager = lifecycleManager;
         this.executorService = executorService;
         this.localNodeId = clusterService.getLocalNode().id();
+        this.compactStorage = compactStorage;
+        this.deltaBackupEnabled = deltaBackupEnabled;
 
         addListeners();
 
-        for (int i = 0; i < NUM_BUCKETS; i++) {
-            flowBuckets.put(i, new FlowBucket(new BucketId(deviceId, i)));
-        }
-
         getDigestsSubject = new MessageSubject(String.format("flow-store-%s-digests", deviceId));
         getBucketSubject = new MessageSubject(String.format("flow-store-%s-bucket", deviceId));
         backupSubject = new MessageSubject(String.format("flow-store-%s-backup", deviceId));
+        getTreeSubject = new MessageSubject(String.format("flow-store-%s-tree", deviceId));
+        getGroupDigestsSubject = new MessageSubject(String.format("flow-store-%s-group-digests", deviceId));
+        getContentDigestSubject = new MessageSubject(String.format("flow-store-%s-content-digest", deviceId));
+        getPatchSubject = new MessageSubject(String.format("flow-store-%s-get-patch", deviceId));
+        patchSubject = new MessageSubject(String.format("flow-store-%s-patch", deviceId));
+        deltaBackupSubject = new MessageSubject(String.format("flow-store-%s-delta-backup", deviceId));
 
         setBackupPeriod(backupPeriod);
         setAntiEntropyPeriod(antiEntropyPeriod);
+        setStatsBackupPeriod(statsBackupPeriod);
         registerSubscribers();
 
         startTerm(lifecycleManager.getReplicaInfo());
@@ -163,6 +232,42 @@ public class DeviceFlowTable {
             this::runAntiEntropy, antiEntropyPeriod, antiEntropyPeriod, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Sets the flow statistics backup period.
+     *
+     * @param statsBackupPeriod the flow statistics backup period in milliseconds
+     */
+    synchronized void setStatsBackupPeriod(long statsBackupPeriod) {
+        ScheduledFuture<?> statsBackupFuture = this.statsBackupFuture;
+        if (statsBackupFuture != null) {
+            statsBackupFuture.cancel(false);
+        }
+        this.statsBackupFuture = executorService.scheduleAtFixedRate(
+            this::flushStatistics, statsBackupPeriod, statsBackupPeriod, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sets whether changes are backed up as deltas rather than complete buckets.
+     *
+     * @param deltaBackupEnabled whether to back up changes as deltas
+     */
+    void setDeltaBackupEnabled(boolean deltaBackupEnabled) {
+        this.deltaBackupEnabled = deltaBackupEnabled;
+    }
+
+    /**
+     * Converts a bucket received from a peer into the local storage mode.
+     * <p>
+     * Buckets are always replicated in materialized form, so the storage mode is a purely local concern. The content
+     * hash of the bucket is not replicated and is recomputed.
+     *
+     * @param bucket the bucket to convert
+     * @return the bucket in the local storage mode
+     */
+    private FlowBucket toLocalStorage(FlowBucket bucket) {
+        return bucket.rehash().withStorage(compactStorage);
+    }
+
     /**
      * Counts the flows in the table.
      *
@@ -174,6 +279,66 @@ public class DeviceFlowTable {
             .sum();
     }
 
+    /**
+     * Returns the number of serialized bytes held by the buckets stored in compact form.
+     *
+     * @return the number of serialized flow entry bytes held by the table
+     */
+    public long compactBytes() {
+        return flowBuckets.values().stream()
+            .mapToLong(FlowBucket::compactBytes)
+            .sum();
+    }
+
+    /**
+     * Returns the total number of bytes shipped by bucket and delta backups.
+     *
+     * @return the total number of bytes shipped by backups
+     */
+    public long backupBytes() {
+        return backupBytes.get();
+    }
+
+    /**
+     * Returns the maximum backup lag observed during the last backup period.
+     * <p>
+     * The lag of a backup is the time between the oldest change it carried being made on the master and the backup
+     * acknowledging the change.
+     *
+     * @return the maximum backup lag in milliseconds observed during the last backup period
+     */
+    public long backupLag() {
+        return lastBackupRoundLag;
+    }
+
+    /**
+     * Returns the number of bytes exchanged during the last completed anti-entropy round.
+     *
+     * @return the number of bytes exchanged during the last completed anti-entropy round
+     */
+    public long antiEntropyRoundBytes() {
+        return lastAntiEntropyRoundBytes;
+    }
+
+    /**
+     * Returns the total number of bytes received while synchronizing flows on mastership changes.
+     *
+     * @return the total number of bytes received while synchronizing flows
+     */
+    public long syncBytes() {
+        return syncBytes.get();
+    }
+
+    /**
+     * Returns the number of flows in each materialized bucket.
+     *
+     * @return the number of flows in each materialized bucket, keyed by bucket number
+     */
+    public Map<Integer, Integer> getBucketOccupancy() {
+        return flowBuckets.entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().count()));
+    }
+
     /**
      * Returns the flow entry for the given rule.
      *
@@ -181,9 +346,12 @@ public class DeviceFlowTable {
      * @return the flow entry for the given rule
      */
     public StoredFlowEntry getFlowEntry(FlowRule rule) {
-        return getBucket(rule.id())
-            .getFlowEntries(rule.id())
-            .get(rule);
+        FlowBucket bucket = flowBuckets.get(bucket(rule.id()));
+        if (bucket == null) {
+            return null;
+        }
+        Map<StoredFlowEntry, StoredFlowEntry> flowEntries = bucket.getFlowBucket().get(rule.id());
+        return flowEntries != null ? flowEntries.get(rule) : null;
     }
 
     /**
@@ -199,23 +367,170 @@ public class DeviceFlowTable {
     }
 
     /**
-     * Returns the bucket for the given flow identifier.
+     * Reconciles the given flow entries reported by the device with the flow entries in the table.
+     * <p>
+     * Reported entries are grouped by bucket so that the table is walked only once, and entries are looked up
+     * directly in their bucket rather than through a device-wide index of stored entries.
      *
-     * @param flowId the flow identifier
-     * @return the bucket for the given flow identifier
+     * @param reportedEntries the flow entries reported by the device
+     * @return the reconciliation result
      */
-    private FlowBucket getBucket(FlowId flowId) {
-        return getBucket(bucket(flowId));
+    public FlowEntryReconciliation reconcile(Iterable<FlowEntry> reportedEntries) {
+        Map<Integer, List<FlowEntry>> reportedBuckets = Maps.newHashMap();
+        for (FlowEntry reportedEntry : reportedEntries) {
+            reportedBuckets.computeIfAbsent(bucket(reportedEntry.id()), b -> Lists.newArrayList()).add(reportedEntry);
+        }
+
+        Map<FlowEntry, FlowEntry> matched = Maps.newHashMap();
+        Map<FlowEntry, FlowEntry> mismatched = Maps.newHashMap();
+        List<FlowEntry> extraneous = Lists.newArrayList();
+        List<FlowEntry> missing = Lists.newArrayList();
+        flowBuckets.forEach((bucketId, bucket) -> {
+            List<FlowEntry> bucketEntries = reportedBuckets.remove(bucketId);
+            Set<FlowEntry> reported = Sets.newHashSet();
+            if (bucketEntries != null) {
+                for (FlowEntry reportedEntry : bucketEntries) {
+                    Map<StoredFlowEntry, StoredFlowEntry> flowEntries = bucket.getFlowBucket().get(reportedEntry.id());
+                    StoredFlowEntry storedEntry = flowEntries != null ? flowEntries.get(reportedEntry) : null;
+                    if (storedEntry == null || !reported.add(storedEntry)) {
+                        extraneous.add(reportedEntry);
+                    } else if (storedEntry.exactMatch(reportedEntry)) {
+                        matched.put(reportedEntry, storedEntry);
+                    } else {
+                        mismatched.put(reportedEntry, storedEntry);
+                    }
+                }
+            }
+            for (Map<StoredFlowEntry, StoredFlowEntry> flowEntries : bucket.getFlowBucket().values()) {
+                for (StoredFlowEntry storedEntry : flowEntries.values()) {
+                    if (!reported.contains(storedEntry)) {
+                        missing.add(storedEntry);
+                    }
+                }
+            }
+        });
+
+        // Entries reported in buckets that are not materialized are not in the table.
+        reportedBuckets.values().forEach(extraneous::addAll);
+        return new FlowEntryReconciliation(matched, mismatched, extraneous, missing);
     }
 
     /**
-     * Returns the bucket with the given identifier.
+     * Returns the bucket with the given identifier without materializing it.
+     * <p>
+     * If the bucket is not materialized, an empty detached bucket carrying the retained term and timestamp is
+     * returned. Changes to a detached bucket are not retained.
      *
      * @param bucketId the bucket identifier
      * @return the bucket with the given identifier
      */
-    private FlowBucket getBucket(int bucketId) {
-        return flowBuckets.get(bucketId);
+    private FlowBucket peekBucket(int bucketId) {
+        FlowBucket bucket = flowBuckets.get(bucketId);
+        return bucket != null ? bucket : newBucket(bucketId);
+    }
+
+    /**
+     * Creates a new empty bucket carrying the retained term and timestamp for the given bucket identifier.
+     *
+     * @param bucketId the bucket identifier
+     * @return a new empty bucket
+     */
+    private FlowBucket newBucket(int bucketId) {
+        return new FlowBucket(
+            new BucketId(deviceId, bucketId),
+            releasedTerms.get(bucketId),
+            new LogicalTimestamp(releasedTimestamps.get(bucketId)),
+            compactStorage);
+    }
+
+    /**
+     * Applies the given function to the bucket with the given identifier, materializing the bucket if necessary.
+     * <p>
+     * The function is applied atomically with respect to the bucket being released. If the function changes the
+     * bucket, the change to the given flow is recorded in the bucket's change log.
+     *
+     * @param bucketId the bucket identifier
+     * @param flowId   the identifier of the flow to which the function applies
+     * @param function the function to apply
+     * @param term     the term in which the function is applied
+     * @param <T>      the function result type
+     * @return the function result
+     */
+    private <T> T applyInBucket(
+        int bucketId, FlowId flowId, BiFunction<FlowBucket, Long, T> function, long term) {
+        AtomicReference<T> result = new AtomicReference<>();
+        flowBuckets.compute(bucketId, (id, bucket) -> {
+            FlowBucket localBucket = bucket != null ? bucket : newBucket(id);
+            LogicalTimestamp timestamp = localBucket.timestamp();
+            result.set(function.apply(localBucket, term));
+            if (!localBucket.timestamp().equals(timestamp)) {
+                changeLogs.computeIfAbsent(id, i -> new FlowChangeLog(timestamp, MAX_CHANGE_LOG_SIZE))
+                    .record(flowId, localBucket.timestamp());
+            }
+            return localBucket;
+        });
+        return result.get();
+    }
+
+    /**
+     * Replaces the local bucket with the given bucket received from a peer if the received bucket is newer.
+     * <p>
+     * Replacing the bucket invalidates its change log, so subsequent backups of the bucket are complete backups.
+     *
+     * @param flowBucket the bucket received from a peer
+     */
+    private void acceptBucket(FlowBucket flowBucket) {
+        flowBuckets.compute(flowBucket.bucketId().bucket(), (id, bucket) -> {
+            FlowBucket localBucket = bucket != null ? bucket : newBucket(id);
+            if (flowBucket.getDigest().isNewerThan(localBucket.getDigest())) {
+                changeLogs.remove(id);
+                return toLocalStorage(flowBucket);
+            }
+            return bucket;
+        });
+    }
+
+    /**
+     * Releases materialized buckets that have been drained.
+     * <p>
+     * On the master, a drained bucket is only released once the change that drained it has been replicated to all
+     * backups. The term and timestamp of released buckets are retained for digests.
+     */
+    private void releaseBuckets() {
+        DeviceReplicaInfo replicaInfo = lifecycleManager.getReplicaInfo();
+        for (Integer bucketId : flowBuckets.keySet()) {
+            flowBuckets.computeIfPresent(bucketId, (id, bucket) -> {
+                if (bucket.count() > 0 || !isReplicated(bucket, replicaInfo) || flowTasks.containsKey(id)) {
+                    return bucket;
+                }
+                releasedTerms.set(id, bucket.term());
+                releasedTimestamps.set(id, bucket.timestamp().value());
+                changeLogs.remove(id);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Returns a boolean indicating whether the current state of the given bucket has been replicated to backups.
+     *
+     * @param bucket      the bucket to check
+     * @param replicaInfo the current replica info
+     * @return indicates whether the bucket has been replicated to all backups
+     */
+    private boolean isReplicated(FlowBucket bucket, DeviceReplicaInfo replicaInfo) {
+        if (!replicaInfo.isMaster(localNodeId)) {
+            return true;
+        }
+        for (NodeId nodeId : replicaInfo.backups()) {
+            BackupOperation operation = new BackupOperation(nodeId, bucket.bucketId().bucket());
+            LogicalTimestamp lastBackupTime = lastBackupTimes.get(operation);
+            if (lastBackupTime == null || lastBackupTime.isOlderThan(bucket.timestamp())
+                || inFlightUpdates.contains(operation)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -234,12 +549,38 @@ public class DeviceFlowTable {
      * @return the set of digests for all buckets for the device
      */
     private Set<FlowBucketDigest> getDigests() {
-        return flowBuckets.values()
-            .stream()
-            .map(bucket -> bucket.getDigest())
+        return IntStream.range(0, NUM_BUCKETS)
+            .mapToObj(this::getDigest)
             .collect(Collectors.toSet());
     }
 
+    /**
+     * Returns the digests for all buckets in the given group.
+     *
+     * @param group the group for which to return digests
+     * @return the set of digests for all buckets in the given group
+     */
+    private Set<FlowBucketHashDigest> getGroupDigests(int group) {
+        Set<FlowBucketHashDigest> digests = Sets.newHashSet();
+        for (int i = group * TREE_FANOUT; i < (group + 1) * TREE_FANOUT; i++) {
+            digests.add(getHashDigest(i));
+        }
+        return digests;
+    }
+
+    /**
+     * Returns the hash tree for the device.
+     * <p>
+     * Each element of the returned array is the combined content hash of a group of {@code TREE_FANOUT} buckets.
+     *
+     * @return the group hashes for the device
+     */
+    private long[] getTree() {
+        long[] tree = new long[NUM_GROUPS];
+        flowBuckets.forEach((bucketId, bucket) -> tree[bucketId / TREE_FANOUT] ^= bucket.hash());
+        return tree;
+    }
+
     /**
      * Returns the digest for the given bucket.
      *
@@ -247,7 +588,27 @@ public class DeviceFlowTable {
      * @return the digest for the given bucket
      */
     private FlowBucketDigest getDigest(int bucket) {
-        return flowBuckets.get(bucket).getDigest();
+        FlowBucket flowBucket = flowBuckets.get(bucket);
+        if (flowBucket != null) {
+            return flowBucket.getDigest();
+        }
+        return new FlowBucketDigest(
+            bucket, releasedTerms.get(bucket), new LogicalTimestamp(releasedTimestamps.get(bucket)));
+    }
+
+    /**
+     * Returns the hash digest for the given bucket.
+     *
+     * @param bucket the bucket for which to return the digest
+     * @return the hash digest for the given bucket
+     */
+    private FlowBucketHashDigest getHashDigest(int bucket) {
+        FlowBucket flowBucket = flowBuckets.get(bucket);
+        if (flowBucket != null) {
+            return flowBucket.getHashDigest();
+        }
+        return new FlowBucketHashDigest(
+            bucket, releasedTerms.get(bucket), new LogicalTimestamp(releasedTimestamps.get(bucket)), 0);
     }
 
     /**
@@ -288,6 +649,21 @@ public class DeviceFlowTable {
         return runInTerm(rule.id(), (bucket, term) -> bucket.update(rule, function, term, clock));
     }
 
+    /**
+     * Applies the given statistics update function to the rule.
+     * <p>
+     * Unlike {@link #update(FlowRule, Function)}, changes made only to the statistics of the entry are not replicated
+     * until the next statistics backup period. Changes to the state of the entry are replicated as usual.
+     *
+     * @param rule     the rule to update
+     * @param function the update function to apply
+     * @param <T>      the result type
+     * @return a future to be completed with the update result or {@code null} if the rule was not updated
+     */
+    public <T> CompletableFuture<T> updateStatistics(FlowRule rule, Function<StoredFlowEntry, T> function) {
+        return runInTerm(rule.id(), (bucket, term) -> bucket.updateStatistics(rule, function, term, clock));
+    }
+
     /**
      * Removes an entry from the table.
      *
@@ -312,7 +688,7 @@ public class DeviceFlowTable {
             return Tools.exceptionalFuture(new IllegalStateException());
         }
 
-        FlowBucket bucket = getBucket(flowId);
+        final int bucket = bucket(flowId);
 
         // If the master's term is not currently active (has not been synchronized with prior replicas), enqueue
         // the change to be executed once the master has been synchronized.
@@ -323,26 +699,60 @@ public class DeviceFlowTable {
                 // Double checked lock on the active term.
                 if (activeTerm < term) {
                     CompletableFuture<T> future = new CompletableFuture<>();
-                    flowTasks.computeIfAbsent(bucket.bucketId().bucket(), b -> new LinkedList<>())
-                        .add(() -> future.complete(function.apply(bucket, term)));
+                    flowTasks.computeIfAbsent(bucket, b -> new LinkedList<>())
+                        .add(() -> future.complete(applyInBucket(bucket, flowId, function, term)));
                     return future;
                 }
             }
         }
-        return CompletableFuture.completedFuture(function.apply(bucket, term));
+        return CompletableFuture.completedFuture(applyInBucket(bucket, flowId, function, term));
+    }
+
+    /**
+     * Publishes unreplicated flow statistics for backup.
+     * <p>
+     * The flows whose statistics are published are recorded in the change log of their bucket, so that they are
+     * backed up as deltas when delta backups are enabled.
+     */
+    private void flushStatistics() {
+        DeviceReplicaInfo replicaInfo = lifecycleManager.getReplicaInfo();
+        if (!replicaInfo.isMaster(localNodeId) || activeTerm < replicaInfo.term()) {
+            return;
+        }
+
+        long term = replicaInfo.term();
+        for (Integer bucketId : flowBuckets.keySet()) {
+            flowBuckets.computeIfPresent(bucketId, (id, bucket) -> {
+                LogicalTimestamp timestamp = bucket.timestamp();
+                Set<FlowId> flowIds = bucket.flushStatistics(term, clock);
+                if (!flowIds.isEmpty()) {
+                    FlowChangeLog changeLog = changeLogs.computeIfAbsent(
+                        id, i -> new FlowChangeLog(timestamp, MAX_CHANGE_LOG_SIZE));
+                    flowIds.forEach(flowId -> changeLog.record(flowId, bucket.timestamp()));
+                }
+                return bucket;
+            });
+        }
     }
 
     /**
      * Backs up all buckets in the given device to the given node.
      */
     private void backup() {
+        releaseBuckets();
+
         DeviceReplicaInfo replicaInfo = lifecycleManager.getReplicaInfo();
 
+        lastBackupRoundLag = backupLag.getAndSet(0);
+
         // If the local node is not currently the master, skip the backup.
         if (!replicaInfo.isMaster(localNodeId)) {
+            changeLogs.clear();
             return;
         }
 
+        trimChangeLogs(replicaInfo);
+
         // Otherwise, iterate through backup nodes and backup the device.
         for (NodeId nodeId : replicaInfo.backups()) {
             try {
@@ -360,6 +770,7 @@ public class DeviceFlowTable {
      * @param term   the term for which to backup to the node
      */
     private void backup(NodeId nodeId, long term) {
+        List<FlowBucketDelta> deltas = Lists.newArrayList();
         for (FlowBucket bucket : flowBuckets.values()) {
             // If the bucket is not in the current term, skip it. This forces synchronization of the bucket
             // to occur prior to the new master replicating changes in the bucket to backups.
@@ -372,13 +783,31 @@ public class DeviceFlowTable {
 
             // If the backup can be run (no concurrent backup to the node in progress) then run it.
             BackupOperation operation = new BackupOperation(nodeId, bucket.bucketId().bucket());
+            LogicalTimestamp lastBackupTime = lastBackupTimes.get(operation);
             if (startBackup(operation, timestamp)) {
+                // If delta backups are enabled and the change log covers all changes since the last backup,
+                // add the changes to the batch of deltas for the node. Otherwise, back up the complete bucket.
+                FlowBucketDelta delta = deltaBackupEnabled && !legacyNodes.contains(nodeId)
+                    ? getDelta(operation.bucket(), lastBackupTime) : null;
+                if (delta != null) {
+                    deltas.add(delta);
+                    continue;
+                }
+
+                // Buckets too large to be backed up in a single message are backed up by successive patches.
+                if (bucket.count() > MAX_PATCH_FLOWS && !legacyNodes.contains(nodeId)) {
+                    repairBucket(operation, maxPatchRounds(bucket));
+                    continue;
+                }
+
+                long changeTime = getChangeTime(operation.bucket(), lastBackupTime);
                 backup(bucket.copy(), nodeId).whenCompleteAsync((succeeded, error) -> {
                     if (error != null) {
                         log.debug("Backup operation {} failed", operation, error);
                         failBackup(operation);
                     } else if (succeeded) {
                         succeedBackup(operation, timestamp);
+                        recordBackupLag(changeTime);
                         backup(nodeId, term);
                     } else {
                         log.debug("Backup operation {} failed: term mismatch", operation);
@@ -387,6 +816,79 @@ public class DeviceFlowTable {
                 }, executorService);
             }
         }
+
+        if (!deltas.isEmpty()) {
+            backup(deltas, nodeId);
+        }
+    }
+
+    /**
+     * Returns the delta for the given bucket since the given time.
+     *
+     * @param bucketId       the bucket for which to return the delta
+     * @param lastBackupTime the last time at which the bucket was backed up
+     * @return the delta since the given time or {@code null} if the change log does not cover all changes
+     */
+    private FlowBucketDelta getDelta(int bucketId, LogicalTimestamp lastBackupTime) {
+        FlowChangeLog changeLog = changeLogs.get(bucketId);
+        if (changeLog == null || !changeLog.covers(lastBackupTime)) {
+            return null;
+        }
+
+        // Compute the patch atomically with respect to writes to the bucket.
+        AtomicReference<FlowBucketPatch> patch = new AtomicReference<>();
+        flowBuckets.computeIfPresent(bucketId, (id, bucket) -> {
+            patch.set(bucket.changes(changeLog.changedSince(lastBackupTime)));
+            return bucket;
+        });
+        return patch.get() != null ? new FlowBucketDelta(lastBackupTime, patch.get()) : null;
+    }
+
+    /**
+     * Returns the wall clock time of the oldest change to the given bucket since the given time.
+     *
+     * @param bucketId       the bucket for which to return the change time
+     * @param lastBackupTime the last time at which the bucket was backed up
+     * @return the wall clock time of the oldest change or {@code 0} if it is unknown
+     */
+    private long getChangeTime(int bucketId, LogicalTimestamp lastBackupTime) {
+        FlowChangeLog changeLog = changeLogs.get(bucketId);
+        return changeLog != null
+            ? changeLog.oldestChangeSince(lastBackupTime != null ? lastBackupTime : new LogicalTimestamp(0))
+            : 0;
+    }
+
+    /**
+     * Records the lag of a completed backup.
+     *
+     * @param changeTime the wall clock time of the oldest change carried by the backup
+     */
+    private void recordBackupLag(long changeTime) {
+        if (changeTime > 0) {
+            long lag = System.currentTimeMillis() - changeTime;
+            backupLag.accumulateAndGet(lag, Math::max);
+        }
+    }
+
+    /**
+     * Discards changes that have been backed up to all backups from the change logs.
+     *
+     * @param replicaInfo the current replica info
+     */
+    private void trimChangeLogs(DeviceReplicaInfo replicaInfo) {
+        changeLogs.forEach((bucketId, changeLog) -> {
+            LogicalTimestamp timestamp = getDigest(bucketId).timestamp();
+            for (NodeId nodeId : replicaInfo.backups()) {
+                LogicalTimestamp lastBackupTime = lastBackupTimes.get(new BackupOperation(nodeId, bucketId));
+                if (lastBackupTime == null) {
+                    return;
+                }
+                if (lastBackupTime.isOlderThan(timestamp)) {
+                    timestamp = lastBackupTime;
+                }
+            }
+            changeLog.trim(timestamp);
+        });
     }
 
     /**
@@ -449,7 +951,100 @@ public class DeviceFlowTable {
         if (log.isDebugEnabled()) {
             log.debug("Backing up {} flow entries in bucket {} to {}", bucket.count(), bucket.bucketId(), nodeId);
         }
-        return sendWithTimestamp(bucket, backupSubject, nodeId);
+        return sendWithTimestamp(bucket, backupSubject, nodeId, backupBytes);
+    }
+
+    /**
+     * Backs up the given deltas to the given node in a single batch.
+     * <p>
+     * Buckets for which the node rejects the delta are reset to ensure they're backed up in full. If the node does
+     * not answer, it is backed up in full until it answers on the hash tree subjects again.
+     *
+     * @param deltas the deltas to backup
+     * @param nodeId the node to which to backup the deltas
+     */
+    private void backup(List<FlowBucketDelta> deltas, NodeId nodeId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Backing up deltas for {} buckets of device {} to {}", deltas.size(), deviceId, nodeId);
+        }
+
+        Map<Integer, Long> changeTimes = Maps.newHashMap();
+        deltas.forEach(delta -> changeTimes.put(delta.patch().digest().bucket(),
+            getChangeTime(delta.patch().digest().bucket(), delta.base())));
+
+        this.<List<FlowBucketDelta>, Set<Integer>>sendWithTimestamp(deltas, deltaBackupSubject, nodeId, backupBytes)
+            .whenCompleteAsync((rejected, error) -> {
+                for (FlowBucketDelta delta : deltas) {
+                    BackupOperation operation = new BackupOperation(nodeId, delta.patch().digest().bucket());
+                    if (error != null) {
+                        log.debug("Delta backup operation {} failed; falling back to full backup", operation, error);
+                        legacyNodes.add(nodeId);
+                        failBackup(operation);
+                        resetBackup(operation);
+                    } else if (rejected.contains(operation.bucket())) {
+                        log.debug("Delta backup operation {} rejected; falling back to full backup", operation);
+                        failBackup(operation);
+                        resetBackup(operation);
+                    } else {
+                        succeedBackup(operation, delta.patch().digest().timestamp());
+                        recordBackupLag(changeTimes.get(operation.bucket()));
+                    }
+                }
+            }, executorService);
+    }
+
+    /**
+     * Handles a batch of delta backups from the master.
+     *
+     * @param deltas the deltas to apply
+     * @return the set of buckets for which the delta could not be applied
+     */
+    private Set<Integer> onDeltaBackup(List<FlowBucketDelta> deltas) {
+        DeviceReplicaInfo replicaInfo = lifecycleManager.getReplicaInfo();
+        Set<Integer> rejected = Sets.newHashSet();
+        for (FlowBucketDelta delta : deltas) {
+            FlowBucketHashDigest digest = delta.patch().digest();
+            try {
+                // If the delta is for a different term, reject it until we learn about the new term.
+                if (digest.term() != replicaInfo.term() || !applyDelta(delta)) {
+                    rejected.add(digest.bucket());
+                }
+            } catch (Exception e) {
+                log.warn("Failure processing delta backup request", e);
+                rejected.add(digest.bucket());
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("{} - Received deltas for {} buckets to backup; rejected {}",
+                deviceId, deltas.size(), rejected);
+        }
+        return rejected;
+    }
+
+    /**
+     * Applies the given delta to the local bucket.
+     * <p>
+     * The delta is only applied if the local bucket includes all changes up to the base time of the delta.
+     *
+     * @param delta the delta to apply
+     * @return indicates whether the local bucket content matches the master's bucket after the delta
+     */
+    private boolean applyDelta(FlowBucketDelta delta) {
+        FlowBucketHashDigest digest = delta.patch().digest();
+        AtomicReference<Boolean> applied = new AtomicReference<>(false);
+        flowBuckets.compute(digest.bucket(), (id, bucket) -> {
+            FlowBucket localBucket = bucket != null ? bucket : newBucket(id);
+            if (!digest.isNewerThan(localBucket.getHashDigest())) {
+                applied.set(true);
+                return bucket;
+            }
+            if (localBucket.timestamp().isOlderThan(delta.base())) {
+                return bucket;
+            }
+            applied.set(localBucket.apply(delta.patch()));
+            return localBucket;
+        });
+        return applied.get();
     }
 
     /**
@@ -473,8 +1068,7 @@ public class DeviceFlowTable {
                 return false;
             }
 
-            flowBuckets.compute(flowBucket.bucketId().bucket(),
-                (id, bucket) -> flowBucket.getDigest().isNewerThan(bucket.getDigest()) ? flowBucket : bucket);
+            acceptBucket(flowBucket);
             return true;
         } catch (Exception e) {
             log.warn("Failure processing backup request", e);
@@ -491,6 +1085,12 @@ public class DeviceFlowTable {
             return;
         }
 
+        lastAntiEntropyRoundBytes = antiEntropyBytes.getAndSet(0);
+        if (log.isDebugEnabled() && lastAntiEntropyRoundBytes > 0) {
+            log.debug("Anti-entropy for device {} exchanged {} bytes in the last round",
+                deviceId, lastAntiEntropyRoundBytes);
+        }
+
         for (NodeId nodeId : replicaInfo.backups()) {
             runAntiEntropy(nodeId);
         }
@@ -498,15 +1098,43 @@ public class DeviceFlowTable {
 
     /**
      * Runs the anti-entropy protocol against the given peer.
+     * <p>
+     * If the peer does not answer the hash tree request, the original digest-based protocol is run instead and the
+     * peer is backed up in full until it answers again.
      *
      * @param nodeId the node with which to execute the anti-entropy protocol
      */
     private void runAntiEntropy(NodeId nodeId) {
-        requestDigests(nodeId).thenAcceptAsync((digests) -> {
-            // Compute a set of missing BucketIds based on digest times and send them back to the master.
+        requestTree(nodeId).whenCompleteAsync((remoteTree, error) -> {
+            if (error != null) {
+                log.debug("Hash tree request to {} failed; falling back to digests", nodeId, error);
+                legacyNodes.add(nodeId);
+                runLegacyAntiEntropy(nodeId);
+                return;
+            }
+            legacyNodes.remove(nodeId);
+
+            // Compare the group hashes and request bucket digests only for the groups that have diverged.
+            long[] localTree = getTree();
+            for (int group = 0; group < NUM_GROUPS; group++) {
+                if (localTree[group] != remoteTree[group]) {
+                    runAntiEntropy(nodeId, group);
+                }
+            }
+        }, executorService);
+    }
+
+    /**
+     * Runs the digest-based anti-entropy protocol against the given peer.
+     * <p>
+     * Buckets that are newer locally than on the peer are scheduled for a full backup.
+     *
+     * @param nodeId the node with which to execute the anti-entropy protocol
+     */
+    private void runLegacyAntiEntropy(NodeId nodeId) {
+        requestDigests(nodeId, antiEntropyBytes).thenAcceptAsync(digests -> {
             for (FlowBucketDigest remoteDigest : digests) {
-                FlowBucket localBucket = getBucket(remoteDigest.bucket());
-                if (localBucket.getDigest().isNewerThan(remoteDigest)) {
+                if (getDigest(remoteDigest.bucket()).isNewerThan(remoteDigest)) {
                     log.debug("Detected missing flow entries on node {} in bucket {}/{}",
                         nodeId, deviceId, remoteDigest.bucket());
                     resetBackup(new BackupOperation(nodeId, remoteDigest.bucket()));
@@ -515,14 +1143,170 @@ public class DeviceFlowTable {
         }, executorService);
     }
 
+    /**
+     * Runs the anti-entropy protocol for the given group of buckets against the given peer.
+     *
+     * @param nodeId the node with which to execute the anti-entropy protocol
+     * @param group  the group of buckets to check
+     */
+    private void runAntiEntropy(NodeId nodeId, int group) {
+        requestGroupDigests(nodeId, group).thenAcceptAsync((digests) -> {
+            // Compute a set of diverged buckets based on digest hashes and times and repair them on the backup.
+            for (FlowBucketHashDigest remoteDigest : digests) {
+                FlowBucketHashDigest localDigest = getHashDigest(remoteDigest.bucket());
+                if (!localDigest.hasSameContent(remoteDigest) && localDigest.isNewerThan(remoteDigest)) {
+                    log.debug("Detected missing flow entries on node {} in bucket {}/{}",
+                        nodeId, deviceId, remoteDigest.bucket());
+                    repairBucket(nodeId, remoteDigest.bucket());
+                }
+            }
+        }, executorService);
+    }
+
+    /**
+     * Repairs the given bucket on the given backup node by shipping only the flows that differ.
+     * <p>
+     * If the patch cannot be applied by the backup, the bucket is scheduled for a full backup instead.
+     *
+     * @param nodeId       the node on which to repair the bucket
+     * @param bucketNumber the bucket to repair
+     */
+    private void repairBucket(NodeId nodeId, int bucketNumber) {
+        BackupOperation operation = new BackupOperation(nodeId, bucketNumber);
+        if (inFlightUpdates.add(operation)) {
+            repairBucket(operation, maxPatchRounds(peekBucket(bucketNumber)));
+        }
+    }
+
+    /**
+     * Repairs the bucket of the given in-flight backup operation by shipping only the flows that differ.
+     * <p>
+     * Each patch carries the entries of at most {@code MAX_PATCH_FLOWS} flows. Partial patches are followed by
+     * further patches until the backup's bucket matches or the given number of rounds is exhausted, in which case
+     * the bucket is scheduled for a full backup.
+     *
+     * @param operation the backup operation
+     * @param rounds    the maximum number of patches to send
+     */
+    private void repairBucket(BackupOperation operation, int rounds) {
+        NodeId nodeId = operation.nodeId();
+        int bucketNumber = operation.bucket();
+        requestContentDigest(nodeId, bucketNumber)
+            .thenCompose(digest -> {
+                FlowBucketPatch patch = peekBucket(bucketNumber).diff(digest, MAX_PATCH_FLOWS);
+                log.debug("Repairing bucket {}/{} on node {} with {}", deviceId, bucketNumber, nodeId, patch);
+                return this.<FlowBucketPatch, Boolean>sendWithTimestamp(
+                    patch, patchSubject, nodeId, antiEntropyBytes)
+                    .thenApply(succeeded -> succeeded || patch.isPartial() ? patch : null);
+            })
+            .whenCompleteAsync((patch, error) -> {
+                if (error == null && patch != null && !patch.isPartial()) {
+                    succeedBackup(operation, patch.digest().timestamp());
+                } else if (error == null && patch != null && rounds > 1) {
+                    repairBucket(operation, rounds - 1);
+                } else {
+                    log.debug("Repair of bucket {}/{} on node {} failed; falling back to full backup",
+                        deviceId, bucketNumber, nodeId, error);
+                    failBackup(operation);
+                    resetBackup(operation);
+                }
+            }, executorService);
+    }
+
+    /**
+     * Returns the maximum number of patches needed to repair the given bucket on a backup.
+     *
+     * @param bucket the bucket to repair
+     * @return the maximum number of patches needed to repair the bucket
+     */
+    private static int maxPatchRounds(FlowBucket bucket) {
+        return bucket.count() / MAX_PATCH_FLOWS + 2;
+    }
+
+    /**
+     * Handles a flow bucket patch from the master.
+     *
+     * @param patch the patch to apply
+     * @return indicates whether the patch was successfully applied
+     */
+    private boolean onPatch(FlowBucketPatch patch) {
+        try {
+            DeviceReplicaInfo replicaInfo = lifecycleManager.getReplicaInfo();
+
+            // If the patch is for a different term, reject the request until we learn about the new term.
+            if (patch.digest().term() != replicaInfo.term()) {
+                log.debug("Term mismatch for device {}: {} != {}", deviceId, patch.digest().term(), replicaInfo);
+                return false;
+            }
+            return applyPatch(patch);
+        } catch (Exception e) {
+            log.warn("Failure processing patch request", e);
+            return false;
+        }
+    }
+
+    /**
+     * Applies the given patch to the local bucket if the patch is newer than the bucket.
+     *
+     * @param patch the patch to apply
+     * @return indicates whether the local bucket content matches the source bucket after the patch
+     */
+    private boolean applyPatch(FlowBucketPatch patch) {
+        AtomicReference<Boolean> applied = new AtomicReference<>(false);
+        flowBuckets.compute(patch.digest().bucket(), (id, localBucket) -> {
+            FlowBucket patchedBucket = localBucket != null ? localBucket : newBucket(id);
+            if (patch.digest().isNewerThan(patchedBucket.getHashDigest())) {
+                applied.set(patchedBucket.apply(patch));
+                changeLogs.remove(id);
+                return patchedBucket;
+            }
+            applied.set(patchedBucket.getHashDigest().hasSameContent(patch.digest()));
+            return localBucket;
+        });
+        return applied.get();
+    }
+
     /**
      * Sends a digest request to the given node.
      *
      * @param nodeId the node to which to send the request
+     * @param bytes  the counter to which to add the number of bytes exchanged
      * @return future to be completed with the set of digests for the given device on the given node
      */
-    private CompletableFuture<Set<FlowBucketDigest>> requestDigests(NodeId nodeId) {
-        return sendWithTimestamp(deviceId, getDigestsSubject, nodeId);
+    private CompletableFuture<Set<FlowBucketDigest>> requestDigests(NodeId nodeId, AtomicLong bytes) {
+        return sendWithTimestamp(deviceId, getDigestsSubject, nodeId, bytes);
+    }
+
+    /**
+     * Sends a digest request for the given group of buckets to the given node.
+     *
+     * @param nodeId the node to which to send the request
+     * @param group  the group for which to request digests
+     * @return future to be completed with the set of digests for the given group on the given node
+     */
+    private CompletableFuture<Set<FlowBucketHashDigest>> requestGroupDigests(NodeId nodeId, int group) {
+        return sendWithTimestamp(group, getGroupDigestsSubject, nodeId, antiEntropyBytes);
+    }
+
+    /**
+     * Sends a hash tree request to the given node.
+     *
+     * @param nodeId the node to which to send the request
+     * @return future to be completed with the group hashes for the device on the given node
+     */
+    private CompletableFuture<long[]> requestTree(NodeId nodeId) {
+        return sendWithTimestamp(deviceId, getTreeSubject, nodeId, antiEntropyBytes);
+    }
+
+    /**
+     * Sends a content digest request for the given bucket to the given node.
+     *
+     * @param nodeId the node to which to send the request
+     * @param bucket the bucket for which to request the content digest
+     * @return future to be completed with the content digest for the bucket on the given node
+     */
+    private CompletableFuture<FlowBucketContentDigest> requestContentDigest(NodeId nodeId, int bucket) {
+        return sendWithTimestamp(bucket, getContentDigestSubject, nodeId, antiEntropyBytes);
     }
 
     /**
@@ -601,7 +1385,7 @@ public class DeviceFlowTable {
      * @return a future to be completed once the flows have been synchronizes
      */
     private CompletableFuture<Void> syncFlowsOn(NodeId nodeId) {
-        return requestDigests(nodeId)
+        return requestDigests(nodeId, syncBytes)
             .thenCompose(digests -> Tools.allOf(digests.stream()
                 .filter(digest -> digest.isNewerThan(getDigest(digest.bucket())))
                 .map(digest -> syncBucketOn(nodeId, digest.bucket()))
@@ -611,17 +1395,60 @@ public class DeviceFlowTable {
 
     /**
      * Synchronizes the given bucket on the given node.
+     * <p>
+     * Only the flows that differ from the local bucket are requested from the node, in patches carrying at most
+     * {@code MAX_PATCH_FLOWS} flows each. If the node does not answer the patch request or the resulting bucket does
+     * not match the remote bucket, the complete bucket is requested instead.
      *
      * @param nodeId       the node on which to synchronize the bucket
      * @param bucketNumber the bucket to synchronize
      * @return a future to be completed once the bucket has been synchronizes
      */
     private CompletableFuture<Void> syncBucketOn(NodeId nodeId, int bucketNumber) {
+        if (legacyNodes.contains(nodeId)) {
+            return syncFullBucketOn(nodeId, bucketNumber);
+        }
+        return requestPatch(nodeId, peekBucket(bucketNumber).getContentDigest())
+            .handleAsync((patch, error) -> {
+                if (error != null) {
+                    log.debug("Patch request to {} failed; requesting the complete bucket", nodeId, error);
+                    legacyNodes.add(nodeId);
+                    return syncFullBucketOn(nodeId, bucketNumber);
+                }
+                long hash = peekBucket(bucketNumber).hash();
+                if (applyPatch(patch)) {
+                    return CompletableFuture.<Void>completedFuture(null);
+                }
+                // Request the next patch as long as partial patches make progress.
+                return patch.isPartial() && peekBucket(bucketNumber).hash() != hash
+                    ? syncBucketOn(nodeId, bucketNumber)
+                    : syncFullBucketOn(nodeId, bucketNumber);
+            }, executorService)
+            .thenCompose(Function.identity());
+    }
+
+    /**
+     * Requests a patch for the bucket with the given content digest from the given node.
+     *
+     * @param nodeId the node from which to request the patch
+     * @param digest the local content digest for the bucket
+     * @return a future to be completed with the patch
+     */
+    private CompletableFuture<FlowBucketPatch> requestPatch(NodeId nodeId, FlowBucketContentDigest digest) {
+        log.debug("Requesting patch for flow bucket {} from {}", digest.bucket(), nodeId);
+        return sendWithTimestamp(digest, getPatchSubject, nodeId, syncBytes);
+    }
+
+    /**
+     * Synchronizes the complete given bucket on the given node.
+     *
+     * @param nodeId       the node on which to synchronize the bucket
+     * @param bucketNumber the bucket to synchronize
+     * @return a future to be completed once the bucket has been synchronizes
+     */
+    private CompletableFuture<Void> syncFullBucketOn(NodeId nodeId, int bucketNumber) {
         return requestBucket(nodeId, bucketNumber)
-            .thenAcceptAsync(flowBucket -> {
-                flowBuckets.compute(flowBucket.bucketId().bucket(),
-                    (id, bucket) -> flowBucket.getDigest().isNewerThan(bucket.getDigest()) ? flowBucket : bucket);
-            }, executorService);
+            .thenAcceptAsync(this::acceptBucket, executorService);
     }
 
     /**
@@ -633,7 +1460,7 @@ public class DeviceFlowTable {
      */
     private CompletableFuture<FlowBucket> requestBucket(NodeId nodeId, int bucket) {
         log.debug("Requesting flow bucket {} from {}", bucket, nodeId);
-        return sendWithTimestamp(bucket, getBucketSubject, nodeId);
+        return sendWithTimestamp(bucket, getBucketSubject, nodeId, syncBytes);
     }
 
     /**
@@ -643,7 +1470,27 @@ public class DeviceFlowTable {
      * @return the flow bucket
      */
     private FlowBucket onGetBucket(int bucketId) {
-        return flowBuckets.get(bucketId).copy();
+        return peekBucket(bucketId).copy();
+    }
+
+    /**
+     * Handles a flow bucket content digest request.
+     *
+     * @param bucketId the bucket number
+     * @return the content digest for the bucket
+     */
+    private FlowBucketContentDigest onGetContentDigest(int bucketId) {
+        return peekBucket(bucketId).getContentDigest();
+    }
+
+    /**
+     * Handles a flow bucket patch request.
+     *
+     * @param digest the requester's content digest for the bucket
+     * @return the patch required to bring the requester's bucket up to date
+     */
+    private FlowBucketPatch onGetPatch(FlowBucketContentDigest digest) {
+        return peekBucket(digest.bucket()).diff(digest, MAX_PATCH_FLOWS);
     }
 
     /**
@@ -676,6 +1523,18 @@ public class DeviceFlowTable {
         }
     }
 
+    /**
+     * Clears all buckets, discarding their flows, terms and timestamps.
+     */
+    private void clearBuckets() {
+        flowBuckets.clear();
+        changeLogs.clear();
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            releasedTerms.set(i, 0);
+            releasedTimestamps.set(i, 0);
+        }
+    }
+
     /**
      * Handles a lifecycle event.
      */
@@ -721,7 +1580,7 @@ public class DeviceFlowTable {
 
         // If the local node is neither the master or a backup for the device, clear the flow table.
         if (!replicaInfo.isMaster(localNodeId) && !replicaInfo.isBackup(localNodeId)) {
-            flowBuckets.values().forEach(bucket -> bucket.clear());
+            clearBuckets();
         }
         activeTerm = replicaInfo.term();
     }
@@ -738,13 +1597,13 @@ public class DeviceFlowTable {
             if (activeTerm == replicaInfo.term()
                 && !replicaInfo.isMaster(localNodeId)
                 && !replicaInfo.isBackup(localNodeId)) {
-                flowBuckets.values().forEach(bucket -> bucket.clear());
+                clearBuckets();
             }
         }
     }
 
     /**
-     * Sends a message to the given node wrapped in a Lamport timestamp.
+     * Sends a message to the given node wrapped in a Lamport timestamp, counting the bytes exchanged.
      * <p>
      * Messages are sent in a {@link Timestamped} wrapper and are expected to be received in a {@link Timestamped}
      * wrapper. The internal {@link LogicalClock} is automatically updated on both send and receive.
@@ -752,13 +1611,26 @@ public class DeviceFlowTable {
      * @param message  the message to send
      * @param subject  the message subject
      * @param toNodeId the node to which to send the message
+     * @param bytes    the counter to which to add the number of request and response bytes
      * @param <M>      the message type
      * @param <R>      the response type
      * @return a future to be completed with the response
      */
-    private <M, R> CompletableFuture<R> sendWithTimestamp(M message, MessageSubject subject, NodeId toNodeId) {
+    private <M, R> CompletableFuture<R> sendWithTimestamp(
+        M message, MessageSubject subject, NodeId toNodeId, AtomicLong bytes) {
         return clusterCommunicator.<Timestamped<M>, Timestamped<R>>sendAndReceive(
-            clock.timestamp(message), subject, SERIALIZER::encode, SERIALIZER::decode, toNodeId)
+            clock.timestamp(message),
+            subject,
+            request -> {
+                byte[] payload = SERIALIZER.encode(request);
+                bytes.addAndGet(payload.length);
+                return payload;
+            },
+            payload -> {
+                bytes.addAndGet(payload.length);
+                return SERIALIZER.decode(payload);
+            },
+            toNodeId)
             .thenApply(response -> {
                 clock.tick(response.timestamp());
                 return response.value();
@@ -790,6 +1662,12 @@ public class DeviceFlowTable {
         receiveWithTimestamp(getDigestsSubject, v -> getDigests());
         receiveWithTimestamp(getBucketSubject, this::onGetBucket);
         receiveWithTimestamp(backupSubject, this::onBackup);
+        receiveWithTimestamp(getTreeSubject, v -> getTree());
+        receiveWithTimestamp(getGroupDigestsSubject, this::getGroupDigests);
+        receiveWithTimestamp(getContentDigestSubject, this::onGetContentDigest);
+        receiveWithTimestamp(getPatchSubject, this::onGetPatch);
+        receiveWithTimestamp(patchSubject, this::onPatch);
+        receiveWithTimestamp(deltaBackupSubject, this::onDeltaBackup);
     }
 
     /**
@@ -799,6 +1677,12 @@ public class DeviceFlowTable {
         clusterCommunicator.removeSubscriber(getDigestsSubject);
         clusterCommunicator.removeSubscriber(getBucketSubject);
         clusterCommunicator.removeSubscriber(backupSubject);
+        clusterCommunicator.removeSubscriber(getTreeSubject);
+        clusterCommunicator.removeSubscriber(getGroupDigestsSubject);
+        clusterCommunicator.removeSubscriber(getContentDigestSubject);
+        clusterCommunicator.removeSubscriber(getPatchSubject);
+        clusterCommunicator.removeSubscriber(patchSubject);
+        clusterCommunicator.removeSubscriber(deltaBackupSubject);
     }
 
     /**
@@ -828,6 +1712,11 @@ public class DeviceFlowTable {
         if (antiEntropyFuture != null) {
             antiEntropyFuture.cancel(false);
         }
+
+        ScheduledFuture<?> statsBackupFuture = this.statsBackupFuture;
+        if (statsBackupFuture != null) {
+            statsBackupFuture.cancel(false);
+        }
     }
 
     /**
@@ -836,8 +1725,10 @@ public class DeviceFlowTable {
     public void purge() {
         flowTasks.clear();
         flowBuckets.values().forEach(bucket -> bucket.purge());
+        changeLogs.clear();
         lastBackupTimes.clear();
         inFlightUpdates.clear();
+        legacyNodes.clear();
     }
 
     /**
@@ -15,9 +15,14 @@
 */
 package org.onosproject.store.flow.impl;
 
+import com.codahale.metrics.Gauge;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.KryoNamespace;
 import org.onlab.util.Tools;
 import org.onosproject.cfg.ComponentConfigService;
@@ -35,6 +40,7 @@ import org.onosproject.net.flow.CompletedBatchOperation;
 import org.onosproject.net.flow.DefaultFlowEntry;
 import org.onosproject.net.flow.FlowEntry;
 import org.onosproject.net.flow.FlowEntry.FlowEntryState;
+import org.onosproject.net.flow.FlowEntryReconciliation;
 import org.onosproject.net.flow.FlowRule;
 import org.onosproject.net.flow.FlowRuleEvent;
 import org.onosproject.net.flow.FlowRuleEvent.Type;
@@ -85,11 +91,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
@@ -116,9 +124,13 @@ import static org.onosproject.store.OsgiPropertyConstants.*;
         property = {
                 MESSAGE_HANDLER_THREAD_POOL_SIZE + ":Integer=" + MESSAGE_HANDLER_THREAD_POOL_SIZE_DEFAULT,
                 BACKUP_PERIOD_MILLIS + ":Integer=" + BACKUP_PERIOD_MILLIS_DEFAULT,
+                STATS_BACKUP_PERIOD_MILLIS + ":Integer=" + STATS_BACKUP_PERIOD_MILLIS_DEFAULT,
                 ANTI_ENTROPY_PERIOD_MILLIS + ":Integer=" + ANTI_ENTROPY_PERIOD_MILLIS_DEFAULT,
                 EC_FLOW_RULE_STORE_PERSISTENCE_ENABLED + ":Boolean=" + EC_FLOW_RULE_STORE_PERSISTENCE_ENABLED_DEFAULT,
-                MAX_BACKUP_COUNT + ":Integer=" + MAX_BACKUP_COUNT_DEFAULT
+                MAX_BACKUP_COUNT + ":Integer=" + MAX_BACKUP_COUNT_DEFAULT,
+                EC_FLOW_RULE_STORE_COMPACT_STORAGE_ENABLED + ":Boolean="
+                        + EC_FLOW_RULE_STORE_COMPACT_STORAGE_ENABLED_DEFAULT,
+                EC_FLOW_RULE_STORE_DELTA_BACKUP_ENABLED + ":Boolean=" + EC_FLOW_RULE_STORE_DELTA_BACKUP_ENABLED_DEFAULT
         }
 )
 public class ECFlowRuleStore
@@ -129,12 +141,26 @@ public class ECFlowRuleStore
 
     private static final long FLOW_RULE_STORE_TIMEOUT_MILLIS = 5000;
 
+    private static final String METRICS_COMPONENT = "FlowRuleStore";
+    private static final String METRICS_FEATURE = "flowTable";
+    private static final String COMPACT_BYTES = "compactBytes";
+    private static final String COMPACT_BYTES_PER_FLOW = "compactBytesPerFlow";
+    private static final String MATERIALIZED_BUCKETS = "materializedBuckets";
+    private static final String MAX_BUCKET_FLOWS = "maxBucketFlows";
+    private static final String BACKUP_BYTES = "backupBytes";
+    private static final String BACKUP_LAG = "backupLagMillis";
+    private static final String ANTI_ENTROPY_ROUND_BYTES = "antiEntropyRoundBytes";
+    private static final String SYNC_BYTES = "syncBytes";
+
     /** Number of threads in the message handler pool. */
     private int msgHandlerPoolSize = MESSAGE_HANDLER_THREAD_POOL_SIZE_DEFAULT;
 
     /** Delay in ms between successive backup runs. */
     private int backupPeriod = BACKUP_PERIOD_MILLIS_DEFAULT;
 
+    /** Delay in ms between successive backups of statistics-only flow changes. */
+    private int statsBackupPeriod = STATS_BACKUP_PERIOD_MILLIS_DEFAULT;
+
     /** Delay in ms between anti-entropy runs. */
     private int antiEntropyPeriod = ANTI_ENTROPY_PERIOD_MILLIS_DEFAULT;
 
@@ -144,6 +170,15 @@ public class ECFlowRuleStore
     /** Max number of backup copies for each device. */
     private volatile int backupCount = MAX_BACKUP_COUNT_DEFAULT;
 
+    /**
+     * Indicates whether flow entries should be stored in compact serialized form; applies to new device tables.
+     * Entries are deserialized on every read, so reads of whole tables cost a copy of each entry.
+     */
+    private boolean compactFlowStorageEnabled = EC_FLOW_RULE_STORE_COMPACT_STORAGE_ENABLED_DEFAULT;
+
+    /** Indicates whether changes should be backed up as per-flow deltas rather than complete buckets. */
+    private boolean deltaFlowBackupEnabled = EC_FLOW_RULE_STORE_DELTA_BACKUP_ENABLED_DEFAULT;
+
     private InternalFlowTable flowTable = new InternalFlowTable();
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
@@ -170,6 +205,13 @@ public class ECFlowRuleStore
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected PersistenceService persistenceService;
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL)
+    protected MetricsService metricsService;
+
+    private MetricsComponent metricsComponent;
+    private MetricsFeature metricsFeature;
+    private final List<String> metricNames = Lists.newArrayList();
+
     private Map<Long, NodeId> pendingResponses = Maps.newConcurrentMap();
     private ExecutorService messageHandlingExecutor;
     private ExecutorService eventHandler;
@@ -232,12 +274,14 @@ public class ECFlowRuleStore
         deviceService.addListener(flowTable);
         deviceService.getDevices().forEach(device -> flowTable.addDevice(device.id()));
 
+        registerMetrics();
         logConfig("Started");
     }
 
     @Deactivate
     public void deactivate(ComponentContext context) {
         configService.unregisterProperties(getClass(), false);
+        unregisterMetrics();
         unregisterMessageHandlers();
         deviceService.removeListener(flowTable);
         deviceTableStats.removeListener(tableStatsListener);
@@ -259,8 +303,11 @@ public class ECFlowRuleStore
         Dictionary properties = context.getProperties();
         int newPoolSize;
         int newBackupPeriod;
+        int newStatsBackupPeriod;
         int newBackupCount;
         int newAntiEntropyPeriod;
+        boolean newCompactFlowStorageEnabled;
+        boolean newDeltaFlowBackupEnabled;
         try {
             String s = get(properties, "msgHandlerPoolSize");
             newPoolSize = isNullOrEmpty(s) ? msgHandlerPoolSize : Integer.parseInt(s.trim());
@@ -268,16 +315,30 @@ public class ECFlowRuleStore
             s = get(properties, BACKUP_PERIOD_MILLIS);
             newBackupPeriod = isNullOrEmpty(s) ? backupPeriod : Integer.parseInt(s.trim());
 
+            s = get(properties, STATS_BACKUP_PERIOD_MILLIS);
+            newStatsBackupPeriod = isNullOrEmpty(s) ? statsBackupPeriod : Integer.parseInt(s.trim());
+
             s = get(properties, MAX_BACKUP_COUNT);
             newBackupCount = isNullOrEmpty(s) ? backupCount : Integer.parseInt(s.trim());
 
             s = get(properties, ANTI_ENTROPY_PERIOD_MILLIS);
             newAntiEntropyPeriod = isNullOrEmpty(s) ? antiEntropyPeriod : Integer.parseInt(s.trim());
+
+            s = get(properties, EC_FLOW_RULE_STORE_COMPACT_STORAGE_ENABLED);
+            newCompactFlowStorageEnabled = isNullOrEmpty(s)
+                ? compactFlowStorageEnabled : Boolean.parseBoolean(s.trim());
+
+            s = get(properties, EC_FLOW_RULE_STORE_DELTA_BACKUP_ENABLED);
+            newDeltaFlowBackupEnabled = isNullOrEmpty(s)
+                ? deltaFlowBackupEnabled : Boolean.parseBoolean(s.trim());
         } catch (NumberFormatException | ClassCastException e) {
             newPoolSize = MESSAGE_HANDLER_THREAD_POOL_SIZE_DEFAULT;
             newBackupPeriod = BACKUP_PERIOD_MILLIS_DEFAULT;
+            newStatsBackupPeriod = STATS_BACKUP_PERIOD_MILLIS_DEFAULT;
             newBackupCount = MAX_BACKUP_COUNT_DEFAULT;
             newAntiEntropyPeriod = ANTI_ENTROPY_PERIOD_MILLIS_DEFAULT;
+            newCompactFlowStorageEnabled = EC_FLOW_RULE_STORE_COMPACT_STORAGE_ENABLED_DEFAULT;
+            newDeltaFlowBackupEnabled = EC_FLOW_RULE_STORE_DELTA_BACKUP_ENABLED_DEFAULT;
         }
 
         if (newBackupPeriod != backupPeriod) {
@@ -285,6 +346,11 @@ public class ECFlowRuleStore
             flowTable.setBackupPeriod(newBackupPeriod);
         }
 
+        if (newStatsBackupPeriod != statsBackupPeriod) {
+            statsBackupPeriod = newStatsBackupPeriod;
+            flowTable.setStatsBackupPeriod(newStatsBackupPeriod);
+        }
+
         if (newAntiEntropyPeriod != antiEntropyPeriod) {
             antiEntropyPeriod = newAntiEntropyPeriod;
             flowTable.setAntiEntropyPeriod(newAntiEntropyPeriod);
@@ -304,6 +370,15 @@ public class ECFlowRuleStore
         if (backupCount != newBackupCount) {
             backupCount = newBackupCount;
         }
+
+        if (compactFlowStorageEnabled != newCompactFlowStorageEnabled) {
+            compactFlowStorageEnabled = newCompactFlowStorageEnabled;
+        }
+
+        if (deltaFlowBackupEnabled != newDeltaFlowBackupEnabled) {
+            deltaFlowBackupEnabled = newDeltaFlowBackupEnabled;
+            flowTable.setDeltaBackupEnabled(newDeltaFlowBackupEnabled);
+        }
         logConfig("Reconfigured");
     }
 
@@ -331,9 +406,43 @@ public class ECFlowRuleStore
         clusterCommunicator.removeSubscriber(FLOW_TABLE_BACKUP);
     }
 
+    // Publishes the flow table statistics through the metrics service.
+    private void registerMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        metricsComponent = metricsService.registerComponent(METRICS_COMPONENT);
+        metricsFeature = metricsComponent.registerFeature(METRICS_FEATURE);
+        registerGauge(COMPACT_BYTES, flowTable::compactBytes);
+        registerGauge(COMPACT_BYTES_PER_FLOW, flowTable::compactBytesPerFlow);
+        registerGauge(MATERIALIZED_BUCKETS, () -> flowTable.getBucketOccupancy(Map::size));
+        registerGauge(MAX_BUCKET_FLOWS, () -> flowTable.getBucketOccupancy(
+            occupancy -> occupancy.values().stream().mapToInt(Integer::intValue).max().orElse(0)));
+        registerGauge(BACKUP_BYTES, () -> flowTable.getBackupStatistics(DeviceFlowTable::backupBytes));
+        registerGauge(BACKUP_LAG, () -> flowTable.getBackupStatistics(DeviceFlowTable::backupLag));
+        registerGauge(ANTI_ENTROPY_ROUND_BYTES,
+                      () -> flowTable.getBackupStatistics(DeviceFlowTable::antiEntropyRoundBytes));
+        registerGauge(SYNC_BYTES, () -> flowTable.getBackupStatistics(DeviceFlowTable::syncBytes));
+    }
+
+    private void registerGauge(String name, Gauge<?> gauge) {
+        metricsService.registerMetric(metricsComponent, metricsFeature, name, gauge);
+        metricNames.add(name);
+    }
+
+    private void unregisterMetrics() {
+        if (metricsService == null || metricsComponent == null) {
+            return;
+        }
+        metricNames.forEach(name -> metricsService.removeMetric(metricsComponent, metricsFeature, name));
+        metricNames.clear();
+    }
+
     private void logConfig(String prefix) {
-        log.info("{} with msgHandlerPoolSize = {}; backupPeriod = {}, backupCount = {}",
-            prefix, msgHandlerPoolSize, backupPeriod, backupCount);
+        log.info("{} with msgHandlerPoolSize = {}; backupPeriod = {}, statsBackupPeriod = {}, backupCount = {}, "
+                + "compactFlowStorageEnabled = {}, deltaFlowBackupEnabled = {}",
+            prefix, msgHandlerPoolSize, backupPeriod, statsBackupPeriod, backupCount, compactFlowStorageEnabled,
+            deltaFlowBackupEnabled);
     }
 
     @Override
@@ -367,6 +476,15 @@ public class ECFlowRuleStore
             0);
     }
 
+    @Override
+    public FlowEntryReconciliation reconcileFlowEntries(DeviceId deviceId, Iterable<FlowEntry> reportedEntries) {
+        NodeId master = mastershipService.getMasterFor(deviceId);
+        if (Objects.equals(local, master)) {
+            return flowTable.reconcile(deviceId, reportedEntries);
+        }
+        return FlowRuleStore.super.reconcileFlowEntries(deviceId, reportedEntries);
+    }
+
     @Override
     public FlowEntry getFlowEntry(FlowRule rule) {
         NodeId master = mastershipService.getMasterFor(rule.deviceId());
@@ -560,7 +678,9 @@ public class ECFlowRuleStore
     }
 
     private FlowRuleEvent addOrUpdateFlowRuleInternal(FlowEntry rule) {
-        FlowRuleEvent event = flowTable.update(rule, stored -> {
+        // Statistics are updated on the statistics path; only the PENDING_ADD -> ADDED transition is replicated
+        // immediately.
+        FlowRuleEvent event = flowTable.updateStatistics(rule, stored -> {
             stored.setBytes(rule.bytes());
             stored.setLife(rule.life(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
             stored.setLiveType(rule.liveType());
@@ -693,7 +813,10 @@ public class ECFlowRuleStore
                 new InternalLifecycleManager(id),
                 backupSenderExecutor,
                 backupPeriod,
-                antiEntropyPeriod));
+                antiEntropyPeriod,
+                statsBackupPeriod,
+                compactFlowStorageEnabled,
+                deltaFlowBackupEnabled));
         }
 
         /**
@@ -705,6 +828,24 @@ public class ECFlowRuleStore
             flowTables.values().forEach(flowTable -> flowTable.setBackupPeriod(backupPeriod));
         }
 
+        /**
+         * Sets the flow statistics backup period.
+         *
+         * @param statsBackupPeriod the flow statistics backup period
+         */
+        void setStatsBackupPeriod(int statsBackupPeriod) {
+            flowTables.values().forEach(flowTable -> flowTable.setStatsBackupPeriod(statsBackupPeriod));
+        }
+
+        /**
+         * Sets whether flow table changes are backed up as deltas.
+         *
+         * @param deltaBackupEnabled whether to back up changes as deltas
+         */
+        void setDeltaBackupEnabled(boolean deltaBackupEnabled) {
+            flowTables.values().forEach(flowTable -> flowTable.setDeltaBackupEnabled(deltaBackupEnabled));
+        }
+
         /**
          * Sets the flow table anti-entropy period.
          *
@@ -729,7 +870,10 @@ public class ECFlowRuleStore
                 new InternalLifecycleManager(deviceId),
                 backupSenderExecutor,
                 backupPeriod,
-                antiEntropyPeriod));
+                antiEntropyPeriod,
+                statsBackupPeriod,
+                compactFlowStorageEnabled,
+                deltaFlowBackupEnabled));
         }
 
         /**
@@ -742,6 +886,61 @@ public class ECFlowRuleStore
             return getFlowTable(deviceId).count();
         }
 
+        /**
+         * Returns the number of serialized bytes held by the device tables stored in compact form.
+         *
+         * @return the number of serialized flow entry bytes
+         */
+        long compactBytes() {
+            return flowTables.values().stream()
+                .mapToLong(DeviceFlowTable::compactBytes)
+                .sum();
+        }
+
+        /**
+         * Returns the average number of serialized bytes per flow held by the device tables stored in compact form.
+         *
+         * @return the average number of serialized bytes per flow; 0 if no flows are stored in compact form
+         */
+        long compactBytesPerFlow() {
+            long bytes = 0;
+            long flows = 0;
+            for (DeviceFlowTable table : flowTables.values()) {
+                long tableBytes = table.compactBytes();
+                if (tableBytes > 0) {
+                    bytes += tableBytes;
+                    flows += table.count();
+                }
+            }
+            return flows > 0 ? bytes / flows : 0;
+        }
+
+        /**
+         * Summarizes the bucket occupancy of each device flow table.
+         *
+         * @param summary the function summarizing the number of flows in each materialized bucket of a table
+         * @return the summary of each device flow table, keyed by device identifier
+         */
+        Map<String, Integer> getBucketOccupancy(Function<Map<Integer, Integer>, Integer> summary) {
+            Map<String, Integer> occupancy = new TreeMap<>();
+            flowTables.forEach((deviceId, flowTable) ->
+                occupancy.put(deviceId.toString(), summary.apply(flowTable.getBucketOccupancy())));
+            return occupancy;
+        }
+
+        /**
+         * Returns the given replication statistic of each device flow table.
+         *
+         * @param statistic the function returning the statistic of a table
+         * @return the statistic of each device flow table, keyed by device identifier
+         */
+        Map<String, Long> getBackupStatistics(ToLongFunction<DeviceFlowTable> statistic) {
+            Map<String, Long> statistics = new TreeMap<>();
+            flowTables.forEach((deviceId, flowTable) ->
+                statistics.put(deviceId.toString(), statistic.applyAsLong(flowTable)));
+            return statistics;
+        }
+
         /**
          * Returns the flow entry for the given rule.
          *
@@ -762,6 +961,17 @@ public class ECFlowRuleStore
             return getFlowTable(deviceId).getFlowEntries();
         }
 
+        /**
+         * Reconciles the flow entries reported by the given device with the flow table.
+         *
+         * @param deviceId        the device for which to reconcile flow entries
+         * @param reportedEntries the flow entries reported by the device
+         * @return the reconciliation result
+         */
+        public FlowEntryReconciliation reconcile(DeviceId deviceId, Iterable<FlowEntry> reportedEntries) {
+            return getFlowTable(deviceId).reconcile(reportedEntries);
+        }
+
         /**
          * Adds the given flow rule.
          *
@@ -802,6 +1012,20 @@ public class ECFlowRuleStore
                 null);
         }
 
+        /**
+         * Applies the given statistics update function to the rule.
+         *
+         * @param function the update function to apply
+         * @return a future to be completed with the update event or {@code null} if the rule was not updated
+         */
+        public <T> T updateStatistics(FlowRule rule, Function<StoredFlowEntry, T> function) {
+            return Tools.futureGetOrElse(
+                getFlowTable(rule.deviceId()).updateStatistics(rule, function),
+                FLOW_RULE_STORE_TIMEOUT_MILLIS,
+                TimeUnit.MILLISECONDS,
+                null);
+        }
+
         /**
          * Removes the given flow rule.
          *
@@ -15,12 +15,17 @@
  */
 package org.onosproject.store.flow.impl;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.onosproject.net.flow.DefaultFlowEntry;
 import org.onosproject.net.flow.FlowEntry;
 import org.onosproject.net.flow.FlowId;
@@ -35,27 +40,52 @@ import org.slf4j.LoggerFactory;
  * <p>
  * The bucket is mutable. When changes are made to the bucket, the term and timestamp in which the change
  * occurred is recorded for ordering changes.
+ * <p>
+ * The bucket also maintains an order-independent content hash that is updated incrementally as entries are added,
+ * updated and removed. The hash covers the identity and state of each entry but not its statistics, allowing peers
+ * to cheaply determine whether the contents of two buckets have diverged. The hash is not part of the serialized
+ * form of the bucket, which is unchanged for peers that do not support the hash tree protocol: buckets received from
+ * peers must be {@link #rehash() rehashed}.
+ * <p>
+ * Statistics-only updates made via {@link #updateStatistics(FlowRule, Function, long, LogicalClock)} do not advance
+ * the bucket timestamp. Instead, the bucket records the flows holding unreplicated statistics, which are published
+ * by {@link #flushStatistics(long, LogicalClock)} at a coarser interval.
  */
 public class FlowBucket {
     private static final Logger LOGGER = LoggerFactory.getLogger(FlowBucket.class);
     private final BucketId bucketId;
     private volatile long term;
     private volatile LogicalTimestamp timestamp;
+    private transient volatile long hash;
     private final Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> flowBucket;
+    private final transient boolean compact;
+    private transient Set<FlowId> statisticsChanges;
 
     FlowBucket(BucketId bucketId) {
-        this(bucketId, 0, new LogicalTimestamp(0), Maps.newConcurrentMap());
+        this(bucketId, false);
+    }
+
+    FlowBucket(BucketId bucketId, boolean compact) {
+        this(bucketId, 0, new LogicalTimestamp(0), compact);
+    }
+
+    FlowBucket(BucketId bucketId, long term, LogicalTimestamp timestamp, boolean compact) {
+        this(bucketId, term, timestamp, 0, Maps.newConcurrentMap(), compact);
     }
 
     private FlowBucket(
         BucketId bucketId,
         long term,
         LogicalTimestamp timestamp,
-        Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> flowBucket) {
+        long hash,
+        Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> flowBucket,
+        boolean compact) {
         this.bucketId = bucketId;
         this.term = term;
         this.timestamp = timestamp;
+        this.hash = hash;
         this.flowBucket = flowBucket;
+        this.compact = compact;
     }
 
     /**
@@ -85,6 +115,15 @@ public class FlowBucket {
         return timestamp;
     }
 
+    /**
+     * Returns the flow bucket content hash.
+     *
+     * @return the flow bucket content hash
+     */
+    public long hash() {
+        return hash;
+    }
+
     /**
      * Returns the digest for the bucket.
      *
@@ -94,8 +133,155 @@ public class FlowBucket {
         return new FlowBucketDigest(bucketId().bucket(), term(), timestamp());
     }
 
+    /**
+     * Returns the digest for the bucket including its content hash.
+     *
+     * @return the hash digest for the bucket
+     */
+    public FlowBucketHashDigest getHashDigest() {
+        return new FlowBucketHashDigest(bucketId().bucket(), term(), timestamp(), hash());
+    }
+
+    /**
+     * Returns the per-flow content digest for the bucket.
+     *
+     * @return the content hash of each flow identifier in the bucket
+     */
+    public FlowBucketContentDigest getContentDigest() {
+        Map<FlowId, Long> hashes = Maps.newHashMap();
+        flowBucket.forEach((flowId, flowEntries) -> {
+            if (!flowEntries.isEmpty()) {
+                hashes.put(flowId, hash(flowEntries.values()));
+            }
+        });
+        return new FlowBucketContentDigest(bucketId().bucket(), hashes);
+    }
+
+    /**
+     * Computes the changes required to bring a peer's bucket with the given content digest up to date.
+     *
+     * @param digest the peer's content digest for the bucket
+     * @return a patch containing the entries for flows that differ and the flows missing from this bucket
+     */
+    public FlowBucketPatch diff(FlowBucketContentDigest digest) {
+        return diff(digest, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Computes the changes required to bring a peer's bucket with the given content digest up to date, carrying
+     * the entries of at most the given number of flows.
+     *
+     * @param digest   the peer's content digest for the bucket
+     * @param maxFlows the maximum number of flows for which to carry entries
+     * @return a patch containing the entries for flows that differ and the flows missing from this bucket; the patch
+     * is partial if more flows differ
+     */
+    public FlowBucketPatch diff(FlowBucketContentDigest digest, int maxFlows) {
+        Map<FlowId, Long> remoteHashes = digest.hashes();
+        Map<FlowId, Collection<StoredFlowEntry>> updates = Maps.newHashMap();
+        Set<FlowId> removals = Sets.newHashSet(remoteHashes.keySet());
+        boolean partial = false;
+        for (Map.Entry<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> flowEntries : flowBucket.entrySet()) {
+            FlowId flowId = flowEntries.getKey();
+            Collection<StoredFlowEntry> entries = Lists.newArrayList(flowEntries.getValue().values());
+            if (!entries.isEmpty()) {
+                removals.remove(flowId);
+                Long remoteHash = remoteHashes.get(flowId);
+                if (remoteHash == null || remoteHash != hash(entries)) {
+                    if (updates.size() < maxFlows) {
+                        updates.put(flowId, entries);
+                    } else {
+                        partial = true;
+                    }
+                }
+            }
+        }
+        return new FlowBucketPatch(getHashDigest(), updates, removals, partial);
+    }
+
+    /**
+     * Returns the changes required to bring a peer's bucket up to date for the given flows.
+     *
+     * @param flowIds the identifiers of the flows that have changed
+     * @return a patch containing the current entries for the given flows and the given flows no longer in the bucket
+     */
+    public FlowBucketPatch changes(Set<FlowId> flowIds) {
+        Map<FlowId, Collection<StoredFlowEntry>> updates = Maps.newHashMap();
+        Set<FlowId> removals = Sets.newHashSet();
+        for (FlowId flowId : flowIds) {
+            Map<StoredFlowEntry, StoredFlowEntry> flowEntries = flowBucket.get(flowId);
+            Collection<StoredFlowEntry> entries = flowEntries != null
+                ? Lists.newArrayList(flowEntries.values())
+                : Collections.emptyList();
+            if (entries.isEmpty()) {
+                removals.add(flowId);
+            } else {
+                updates.put(flowId, entries);
+            }
+        }
+        return new FlowBucketPatch(getHashDigest(), updates, removals);
+    }
+
+    /**
+     * Applies the given patch to the bucket.
+     * <p>
+     * The bucket adopts the term and timestamp of the patch only if its content matches the patch source's bucket
+     * once patched. Otherwise the bucket keeps its older timestamp so that it is still replaced by the next complete
+     * backup or repaired by the next anti-entropy round.
+     *
+     * @param patch the patch to apply
+     * @return indicates whether the bucket content matches the patch source's bucket
+     */
+    boolean apply(FlowBucketPatch patch) {
+        patch.removals().forEach(flowId -> {
+            Map<StoredFlowEntry, StoredFlowEntry> flowEntries = flowBucket.remove(flowId);
+            if (flowEntries != null) {
+                updateHash(hash(flowEntries.values()));
+            }
+        });
+        patch.updates().forEach((flowId, entries) -> {
+            Map<StoredFlowEntry, StoredFlowEntry> flowEntries = newFlowEntries();
+            entries.forEach(entry -> flowEntries.put(entry, entry));
+            Map<StoredFlowEntry, StoredFlowEntry> oldEntries = flowBucket.put(flowId, flowEntries);
+            updateHash(hash(entries) ^ (oldEntries != null ? hash(oldEntries.values()) : 0));
+        });
+        if (hash != patch.digest().hash()) {
+            LOGGER.debug("Content of bucket {} does not match {} after patch", bucketId, patch.digest());
+            return false;
+        }
+        recordUpdate(patch.digest().term(), patch.digest().timestamp());
+        return true;
+    }
+
+    /**
+     * Returns a boolean indicating whether the bucket stores flow entries in compact form.
+     *
+     * @return indicates whether flow entries are stored in compact form
+     */
+    public boolean isCompact() {
+        return compact;
+    }
+
+    /**
+     * Returns the number of serialized bytes held by the bucket in compact form.
+     *
+     * @return the number of serialized flow entry bytes; 0 if the bucket does not store entries in compact form
+     */
+    public long compactBytes() {
+        if (!compact) {
+            return 0;
+        }
+        return flowBucket.values()
+            .stream()
+            .mapToLong(entries -> ((CompactFlowEntries) entries).bytes())
+            .sum();
+    }
+
     /**
      * Returns the flow entries in the bucket.
+     * <p>
+     * If the bucket stores entries in compact form, the entries read from the returned maps are deserialized
+     * copies: changes made to them are lost unless they are written back to the map.
      *
      * @return the flow entries in the bucket
      */
@@ -105,29 +291,45 @@ public class FlowBucket {
 
     /**
      * Returns the flow entries for the given flow.
+     * <p>
+     * If the bucket stores entries in compact form, the entries read from the returned map are deserialized
+     * copies: changes made to them are lost unless they are written back to the map.
      *
      * @param flowId the flow identifier
      * @return the flows for the given flow ID
      */
     public Map<StoredFlowEntry, StoredFlowEntry> getFlowEntries(FlowId flowId) {
         Map<StoredFlowEntry, StoredFlowEntry> flowEntries = flowBucket.get(flowId);
-        return flowEntries != null ? flowEntries : flowBucket.computeIfAbsent(flowId, id -> Maps.newConcurrentMap());
+        return flowEntries != null ? flowEntries : flowBucket.computeIfAbsent(flowId, id -> newFlowEntries());
     }
 
     /**
      * Counts the flows in the bucket.
+     * <p>
+     * Compact entries are counted without being deserialized.
      *
      * @return the number of flows in the bucket
      */
     public int count() {
         return flowBucket.values()
             .stream()
-            .mapToInt(entry -> entry.values().size())
+            .mapToInt(Map::size)
             .sum();
     }
 
+    /**
+     * Returns a new container for the flow entries of a single flow identifier.
+     *
+     * @return a new flow entries container using the bucket's storage mode
+     */
+    private Map<StoredFlowEntry, StoredFlowEntry> newFlowEntries() {
+        return compact ? new CompactFlowEntries() : Maps.newConcurrentMap();
+    }
+
     /**
      * Returns a new copy of the flow bucket.
+     * <p>
+     * The copy always materializes flow entries so that it can be safely serialized for replication.
      *
      * @return a new copy of the flow bucket
      */
@@ -136,10 +338,33 @@ public class FlowBucket {
             bucketId,
             term,
             timestamp,
+            hash,
             flowBucket.entrySet()
                 .stream()
                 .map(e -> Maps.immutableEntry(e.getKey(), Maps.newHashMap(e.getValue())))
-                .collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue())));
+                .collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue())),
+            false);
+    }
+
+    /**
+     * Returns a copy of the flow bucket using the given storage mode.
+     * <p>
+     * If the bucket already uses the requested storage mode, the bucket itself is returned.
+     *
+     * @param compact whether the returned bucket should store flow entries in compact form
+     * @return a flow bucket using the given storage mode
+     */
+    FlowBucket withStorage(boolean compact) {
+        if (this.compact == compact) {
+            return this;
+        }
+        FlowBucket bucket = new FlowBucket(bucketId, term, timestamp, hash, Maps.newConcurrentMap(), compact);
+        flowBucket.forEach((flowId, flowEntries) -> {
+            Map<StoredFlowEntry, StoredFlowEntry> entries = bucket.newFlowEntries();
+            flowEntries.values().forEach(entry -> entries.put(entry, entry));
+            bucket.flowBucket.put(flowId, entries);
+        });
+        return bucket;
     }
 
     /**
@@ -150,6 +375,74 @@ public class FlowBucket {
         this.timestamp = timestamp;
     }
 
+    /**
+     * Recomputes the content hash of the bucket from its entries.
+     * <p>
+     * The content hash is not serialized, so it must be recomputed for buckets received from peers.
+     *
+     * @return the bucket
+     */
+    synchronized FlowBucket rehash() {
+        long hash = 0;
+        for (Map<StoredFlowEntry, StoredFlowEntry> flowEntries : flowBucket.values()) {
+            hash ^= hash(flowEntries.values());
+        }
+        this.hash = hash;
+        return this;
+    }
+
+    /**
+     * Folds the given hash delta into the bucket content hash.
+     *
+     * @param delta the hash delta to fold into the bucket hash
+     */
+    private synchronized void updateHash(long delta) {
+        hash ^= delta;
+    }
+
+    /**
+     * Returns the combined content hash of the given flow entries.
+     *
+     * @param entries the entries to hash
+     * @return the combined content hash
+     */
+    static long hash(Collection<? extends FlowEntry> entries) {
+        long hash = 0;
+        for (FlowEntry entry : entries) {
+            hash ^= hash(entry);
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the content hash of the given flow entry.
+     * <p>
+     * The hash is computed only from values that are stable across nodes: the flow identifier, priority, table,
+     * creation time and state of the entry. Flow statistics are deliberately excluded.
+     *
+     * @param entry the entry to hash
+     * @return the content hash of the entry
+     */
+    static long hash(FlowEntry entry) {
+        if (entry == null) {
+            return 0;
+        }
+        long hash = entry.id().value();
+        hash = hash * 31 + entry.priority();
+        hash = hash * 31 + entry.tableId();
+        hash = hash * 31 + entry.state().ordinal();
+        if (entry instanceof DefaultFlowEntry) {
+            hash = hash * 31 + ((DefaultFlowEntry) entry).created();
+        }
+        // Apply the MurmurHash3 finalizer to spread bits before entries are combined with XOR.
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
     /**
      * Adds the given flow rule to the bucket.
      *
@@ -160,9 +453,10 @@ public class FlowBucket {
     public void add(FlowEntry rule, long term, LogicalClock clock) {
         Map<StoredFlowEntry, StoredFlowEntry> flowEntries = flowBucket.get(rule.id());
         if (flowEntries == null) {
-            flowEntries = flowBucket.computeIfAbsent(rule.id(), id -> Maps.newConcurrentMap());
+            flowEntries = flowBucket.computeIfAbsent(rule.id(), id -> newFlowEntries());
         }
-        flowEntries.put((StoredFlowEntry) rule, (StoredFlowEntry) rule);
+        StoredFlowEntry previous = flowEntries.put((StoredFlowEntry) rule, (StoredFlowEntry) rule);
+        updateHash(hash(previous) ^ hash(rule));
         recordUpdate(term, clock.getTimestamp());
     }
 
@@ -176,7 +470,7 @@ public class FlowBucket {
     public void update(FlowEntry rule, long term, LogicalClock clock) {
         Map<StoredFlowEntry, StoredFlowEntry> flowEntries = flowBucket.get(rule.id());
         if (flowEntries == null) {
-            flowEntries = flowBucket.computeIfAbsent(rule.id(), id -> Maps.newConcurrentMap());
+            flowEntries = flowBucket.computeIfAbsent(rule.id(), id -> newFlowEntries());
         }
         flowEntries.computeIfPresent((StoredFlowEntry) rule, (k, stored) -> {
             if (rule instanceof DefaultFlowEntry) {
@@ -184,6 +478,7 @@ public class FlowBucket {
                 if (stored instanceof DefaultFlowEntry) {
                     DefaultFlowEntry storedEntry = (DefaultFlowEntry) stored;
                     if (updated.created() >= storedEntry.created()) {
+                        updateHash(hash(stored) ^ hash(updated));
                         recordUpdate(term, clock.getTimestamp());
                         return updated;
                     } else {
@@ -209,13 +504,15 @@ public class FlowBucket {
     public <T> T update(FlowRule rule, Function<StoredFlowEntry, T> function, long term, LogicalClock clock) {
         Map<StoredFlowEntry, StoredFlowEntry> flowEntries = flowBucket.get(rule.id());
         if (flowEntries == null) {
-            flowEntries = flowBucket.computeIfAbsent(rule.id(), id -> Maps.newConcurrentMap());
+            flowEntries = flowBucket.computeIfAbsent(rule.id(), id -> newFlowEntries());
         }
 
         AtomicReference<T> resultRef = new AtomicReference<>();
         flowEntries.computeIfPresent(new DefaultFlowEntry(rule), (k, stored) -> {
             if (stored != null) {
+                long previousHash = hash(stored);
                 T result = function.apply(stored);
+                updateHash(previousHash ^ hash(stored));
                 if (result != null) {
                     recordUpdate(term, clock.getTimestamp());
                     resultRef.set(result);
@@ -226,6 +523,90 @@ public class FlowBucket {
         return resultRef.get();
     }
 
+    /**
+     * Applies the given statistics update function to the rule.
+     * <p>
+     * The bucket timestamp is only advanced if the function changes the content of the entry, e.g. its state.
+     * Changes only to the statistics of the entry are recorded as unreplicated statistics instead.
+     *
+     * @param rule     the rule to update
+     * @param function the update function to apply
+     * @param term     the term in which the change occurred
+     * @param clock    the logical clock
+     * @param <T>      the result type
+     * @return the update result or {@code null} if the rule was not updated
+     */
+    public <T> T updateStatistics(
+        FlowRule rule, Function<StoredFlowEntry, T> function, long term, LogicalClock clock) {
+        Map<StoredFlowEntry, StoredFlowEntry> flowEntries = flowBucket.get(rule.id());
+        if (flowEntries == null) {
+            return null;
+        }
+
+        AtomicReference<T> resultRef = new AtomicReference<>();
+        flowEntries.computeIfPresent(new DefaultFlowEntry(rule), (k, stored) -> {
+            long previousHash = hash(stored);
+            T result = function.apply(stored);
+            long delta = previousHash ^ hash(stored);
+            if (delta != 0) {
+                updateHash(delta);
+                recordUpdate(term, clock.getTimestamp());
+            } else if (result != null) {
+                recordStatisticsChange(rule.id());
+            }
+            resultRef.set(result);
+            return stored;
+        });
+        return resultRef.get();
+    }
+
+    /**
+     * Returns a boolean indicating whether the bucket holds statistics that have not been published for replication.
+     *
+     * @return indicates whether the bucket holds unreplicated statistics
+     */
+    public synchronized boolean hasUnreplicatedStatistics() {
+        return statisticsChanges != null;
+    }
+
+    /**
+     * Records that the statistics of the given flow have not been published for replication.
+     *
+     * @param flowId the identifier of the flow
+     */
+    private synchronized void recordStatisticsChange(FlowId flowId) {
+        // The set is not serialized, so it is created on demand rather than on construction.
+        if (statisticsChanges == null) {
+            statisticsChanges = Sets.newHashSet();
+        }
+        statisticsChanges.add(flowId);
+    }
+
+    /**
+     * Publishes unreplicated statistics by advancing the bucket timestamp.
+     *
+     * @param term  the term in which the change occurred
+     * @param clock the logical clock
+     * @return the identifiers of the flows whose statistics were published; empty if the bucket held no
+     * unreplicated statistics
+     */
+    public synchronized Set<FlowId> flushStatistics(long term, LogicalClock clock) {
+        Set<FlowId> flowIds = statisticsChanges;
+        if (flowIds == null) {
+            return Collections.emptySet();
+        }
+        statisticsChanges = null;
+        recordUpdate(term, clock.getTimestamp());
+        return flowIds;
+    }
+
+    /**
+     * Discards unreplicated statistics.
+     */
+    private synchronized void clearStatisticsChanges() {
+        statisticsChanges = null;
+    }
+
     /**
      * Removes the given flow rule from the bucket.
      *
@@ -250,6 +631,7 @@ public class FlowBucket {
                     }
                 }
                 removedRule.set(stored);
+                updateHash(hash(stored));
                 return null;
             });
             return flowEntries.isEmpty() ? null : flowEntries;
@@ -268,6 +650,8 @@ public class FlowBucket {
      */
     public void purge() {
         flowBucket.clear();
+        hash = 0;
+        clearStatisticsChanges();
     }
 
     /**
@@ -277,5 +661,7 @@ public class FlowBucket {
         term = 0;
         timestamp = new LogicalTimestamp(0);
         flowBucket.clear();
+        hash = 0;
+        clearStatisticsChanges();
     }
 }
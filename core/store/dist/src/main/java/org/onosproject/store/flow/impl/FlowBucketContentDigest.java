@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import java.util.Map;
+
+import org.onosproject.net.flow.FlowId;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Per-flow content digest for a single flow bucket.
+ * <p>
+ * The digest maps each flow identifier in the bucket to the combined content hash of its entries and is used to
+ * determine which flows differ between two replicas of the same bucket.
+ */
+public class FlowBucketContentDigest {
+    private final int bucket;
+    private final Map<FlowId, Long> hashes;
+
+    FlowBucketContentDigest(int bucket, Map<FlowId, Long> hashes) {
+        this.bucket = bucket;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Returns the bucket identifier.
+     *
+     * @return the bucket identifier
+     */
+    public int bucket() {
+        return bucket;
+    }
+
+    /**
+     * Returns the content hash of each flow identifier in the bucket.
+     *
+     * @return the content hash of each flow identifier in the bucket
+     */
+    public Map<FlowId, Long> hashes() {
+        return hashes;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+            .add("bucket", bucket)
+            .add("flows", hashes.size())
+            .toString();
+    }
+}
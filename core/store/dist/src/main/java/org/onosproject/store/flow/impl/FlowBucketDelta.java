@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import org.onosproject.store.LogicalTimestamp;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Incremental backup of a single flow bucket.
+ * <p>
+ * A delta carries the current entries of the flows changed since the base time last acknowledged by the backup.
+ * The delta may only be applied to a replica of the bucket that is at least as new as the base time; otherwise
+ * changes are missing from the replica and the bucket must be backed up in full.
+ */
+public class FlowBucketDelta {
+    private final LogicalTimestamp base;
+    private final FlowBucketPatch patch;
+
+    FlowBucketDelta(LogicalTimestamp base, FlowBucketPatch patch) {
+        this.base = base;
+        this.patch = patch;
+    }
+
+    /**
+     * Returns the logical time of the bucket replica to which the delta applies.
+     *
+     * @return the base logical time of the delta
+     */
+    public LogicalTimestamp base() {
+        return base;
+    }
+
+    /**
+     * Returns the changes carried by the delta.
+     *
+     * @return the changes carried by the delta
+     */
+    public FlowBucketPatch patch() {
+        return patch;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+            .add("base", base)
+            .add("patch", patch)
+            .toString();
+    }
+}
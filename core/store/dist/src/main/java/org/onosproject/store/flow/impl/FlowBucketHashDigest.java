@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import java.util.Objects;
+
+import org.onosproject.store.LogicalTimestamp;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Flow bucket digest carrying the content hash of the bucket.
+ * <p>
+ * Hash digests are only exchanged by the hash tree protocol. The {@link FlowBucketDigest} exchanged with peers
+ * that do not support the hash tree protocol is unchanged.
+ */
+public class FlowBucketHashDigest {
+    private final int bucket;
+    private final long term;
+    private final LogicalTimestamp timestamp;
+    private final long hash;
+
+    FlowBucketHashDigest(int bucket, long term, LogicalTimestamp timestamp, long hash) {
+        this.bucket = bucket;
+        this.term = term;
+        this.timestamp = timestamp;
+        this.hash = hash;
+    }
+
+    /**
+     * Returns the bucket identifier.
+     *
+     * @return the bucket identifier
+     */
+    public int bucket() {
+        return bucket;
+    }
+
+    /**
+     * Returns the bucket term.
+     *
+     * @return the bucket term
+     */
+    public long term() {
+        return term;
+    }
+
+    /**
+     * Returns the bucket timestamp.
+     *
+     * @return the bucket timestamp
+     */
+    public LogicalTimestamp timestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the bucket content hash.
+     *
+     * @return the bucket content hash
+     */
+    public long hash() {
+        return hash;
+    }
+
+    /**
+     * Returns a boolean indicating whether the bucket content described by this digest matches the given digest.
+     *
+     * @param digest the digest to check
+     * @return indicates whether the bucket contents are the same
+     */
+    public boolean hasSameContent(FlowBucketHashDigest digest) {
+        return digest != null && hash() == digest.hash();
+    }
+
+    /**
+     * Returns a boolean indicating whether this digest is newer than the given digest.
+     *
+     * @param digest the digest to check
+     * @return indicates whether this digest is newer than the given digest
+     */
+    public boolean isNewerThan(FlowBucketHashDigest digest) {
+        return digest == null || term() > digest.term() || timestamp().isNewerThan(digest.timestamp());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bucket);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        return object instanceof FlowBucketHashDigest
+            && ((FlowBucketHashDigest) object).bucket == bucket;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+            .add("bucket", bucket)
+            .add("term", term)
+            .add("timestamp", timestamp)
+            .add("hash", hash)
+            .toString();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import org.onosproject.net.flow.FlowId;
+import org.onosproject.net.flow.StoredFlowEntry;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Set of changes required to bring a replica of a flow bucket up to date.
+ * <p>
+ * The patch carries the complete set of entries for each flow identifier that differs between the replicas and the
+ * flow identifiers that must be removed, along with the digest of the source bucket. A partial patch carries only
+ * some of the flows that differ, bounding the size of a patch for large buckets; the replica is brought up to date
+ * by successive patches.
+ */
+public class FlowBucketPatch {
+    private final FlowBucketHashDigest digest;
+    private final Map<FlowId, Collection<StoredFlowEntry>> updates;
+    private final Set<FlowId> removals;
+    private final boolean partial;
+
+    FlowBucketPatch(
+        FlowBucketHashDigest digest,
+        Map<FlowId, Collection<StoredFlowEntry>> updates,
+        Set<FlowId> removals) {
+        this(digest, updates, removals, false);
+    }
+
+    FlowBucketPatch(
+        FlowBucketHashDigest digest,
+        Map<FlowId, Collection<StoredFlowEntry>> updates,
+        Set<FlowId> removals,
+        boolean partial) {
+        this.digest = digest;
+        this.updates = updates;
+        this.removals = removals;
+        this.partial = partial;
+    }
+
+    /**
+     * Returns the digest of the bucket from which the patch was computed.
+     *
+     * @return the source bucket digest
+     */
+    public FlowBucketHashDigest digest() {
+        return digest;
+    }
+
+    /**
+     * Returns the entries for each flow identifier to be replaced.
+     *
+     * @return the entries for each flow identifier to be replaced
+     */
+    public Map<FlowId, Collection<StoredFlowEntry>> updates() {
+        return updates;
+    }
+
+    /**
+     * Returns the flow identifiers to be removed.
+     *
+     * @return the flow identifiers to be removed
+     */
+    public Set<FlowId> removals() {
+        return removals;
+    }
+
+    /**
+     * Returns a boolean indicating whether the patch carries only some of the flows that differ.
+     *
+     * @return indicates whether the patch is partial
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+
+    /**
+     * Returns a boolean indicating whether the patch carries no flow changes.
+     *
+     * @return indicates whether the patch is empty
+     */
+    public boolean isEmpty() {
+        return updates.isEmpty() && removals.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+            .add("bucket", digest.bucket())
+            .add("updates", updates.size())
+            .add("removals", removals.size())
+            .add("partial", partial)
+            .toString();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Sets;
+import org.onosproject.net.flow.FlowId;
+import org.onosproject.store.LogicalTimestamp;
+
+/**
+ * Log of the flows changed in a single flow bucket.
+ * <p>
+ * The log records the logical time at which each flow identifier was last changed, ordered by that time. Changes to
+ * the same flow identifier are coalesced into a single record. The log is complete for all changes newer than its
+ * floor: when the log is trimmed or overflows, the floor is advanced past the discarded records.
+ */
+final class FlowChangeLog {
+    private final int maxSize;
+    private final Map<FlowId, Change> changes = new LinkedHashMap<>();
+    private long floor;
+
+    /**
+     * Creates a new change log.
+     *
+     * @param floor   the logical time of the bucket before the first recorded change
+     * @param maxSize the maximum number of records to retain
+     */
+    FlowChangeLog(LogicalTimestamp floor, int maxSize) {
+        this.floor = floor.value();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Records a change to the given flow.
+     *
+     * @param flowId    the identifier of the changed flow
+     * @param timestamp the bucket timestamp after the change
+     */
+    synchronized void record(FlowId flowId, LogicalTimestamp timestamp) {
+        changes.remove(flowId);
+        changes.put(flowId, new Change(timestamp.value(), System.currentTimeMillis()));
+        if (changes.size() > maxSize) {
+            Iterator<Change> iterator = changes.values().iterator();
+            floor = iterator.next().timestamp;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Returns a boolean indicating whether the log holds every change made after the given time.
+     *
+     * @param timestamp the logical time to check
+     * @return indicates whether the log can produce all changes made after the given time
+     */
+    synchronized boolean covers(LogicalTimestamp timestamp) {
+        return timestamp != null && timestamp.value() >= floor;
+    }
+
+    /**
+     * Returns the identifiers of the flows changed after the given time.
+     *
+     * @param timestamp the logical time after which to return changes
+     * @return the identifiers of the flows changed after the given time
+     */
+    synchronized Set<FlowId> changedSince(LogicalTimestamp timestamp) {
+        Set<FlowId> flowIds = Sets.newHashSet();
+        changes.forEach((flowId, change) -> {
+            if (change.timestamp > timestamp.value()) {
+                flowIds.add(flowId);
+            }
+        });
+        return flowIds;
+    }
+
+    /**
+     * Returns the wall clock time of the oldest change made after the given time.
+     *
+     * @param timestamp the logical time after which to search for changes
+     * @return the wall clock time of the oldest change or {@code 0} if no changes were made after the given time
+     */
+    synchronized long oldestChangeSince(LogicalTimestamp timestamp) {
+        for (Change change : changes.values()) {
+            if (change.timestamp > timestamp.value()) {
+                return change.time;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Discards changes at or before the given time.
+     *
+     * @param timestamp the logical time up to which changes have been replicated
+     */
+    synchronized void trim(LogicalTimestamp timestamp) {
+        Iterator<Change> iterator = changes.values().iterator();
+        while (iterator.hasNext() && iterator.next().timestamp <= timestamp.value()) {
+            iterator.remove();
+        }
+        floor = Math.max(floor, timestamp.value());
+    }
+
+    /**
+     * Returns the number of records in the log.
+     *
+     * @return the number of records in the log
+     */
+    synchronized int size() {
+        return changes.size();
+    }
+
+    /**
+     * Change record.
+     */
+    private static final class Change {
+        private final long timestamp;
+        private final long time;
+
+        private Change(long timestamp, long time) {
+            this.timestamp = timestamp;
+            this.time = time;
+        }
+    }
+}
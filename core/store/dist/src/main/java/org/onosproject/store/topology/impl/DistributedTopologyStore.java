@@ -71,9 +71,17 @@ import java.util.stream.Stream;
 import static com.google.common.base.Preconditions.checkArgument;
 import static org.onlab.util.Tools.get;
 import static org.onlab.util.Tools.isNullOrEmpty;
+import static org.onlab.util.Tools.isPropertyEnabled;
+import static org.onosproject.common.DefaultTopology.MAX_ALL_PAIRS_PATHS_DEVICES;
 import static org.onosproject.net.topology.TopologyEvent.Type.TOPOLOGY_CHANGED;
+import static org.onosproject.store.OsgiPropertyConstants.ALL_PAIRS_PATHS_MAX_DEVICES;
+import static org.onosproject.store.OsgiPropertyConstants.ALL_PAIRS_PATHS_MAX_DEVICES_DEFAULT;
+import static org.onosproject.store.OsgiPropertyConstants.COMPACT_GRAPH_SEARCH;
+import static org.onosproject.store.OsgiPropertyConstants.COMPACT_GRAPH_SEARCH_DEFAULT;
 import static org.onosproject.store.OsgiPropertyConstants.LINK_WEIGHT_FUNCTION;
 import static org.onosproject.store.OsgiPropertyConstants.LINK_WEIGHT_FUNCTION_DEFAULT;
+import static org.onosproject.store.OsgiPropertyConstants.PATH_CACHE_SIZE;
+import static org.onosproject.store.OsgiPropertyConstants.PATH_CACHE_SIZE_DEFAULT;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -89,7 +97,10 @@ import static org.slf4j.LoggerFactory.getLogger;
                 TopologyStore.class, PathAdminService.class
         },
         property = {
-                LINK_WEIGHT_FUNCTION + "=" + LINK_WEIGHT_FUNCTION_DEFAULT
+                LINK_WEIGHT_FUNCTION + "=" + LINK_WEIGHT_FUNCTION_DEFAULT,
+                PATH_CACHE_SIZE + ":Integer=" + PATH_CACHE_SIZE_DEFAULT,
+                ALL_PAIRS_PATHS_MAX_DEVICES + ":Integer=" + ALL_PAIRS_PATHS_MAX_DEVICES_DEFAULT,
+                COMPACT_GRAPH_SEARCH + ":Boolean=" + COMPACT_GRAPH_SEARCH_DEFAULT
         }
 )
 public class DistributedTopologyStore
@@ -98,7 +109,9 @@ public class DistributedTopologyStore
 
     private final Logger log = getLogger(getClass());
 
-    private static final String FORMAT = "Settings: linkWeightFunction={}";
+    private static final String FORMAT =
+            "Settings: linkWeightFunction={}, pathCacheSize={}, allPairsPathsMaxDevices={}, " +
+                    "compactGraphSearch={}";
 
     private volatile DefaultTopology current =
             new DefaultTopology(ProviderId.NONE,
@@ -128,6 +141,15 @@ public class DistributedTopologyStore
     /** Default link-weight function: hopCount, linkMetric, geoDistance. */
     private String linkWeightFunction = LINK_WEIGHT_FUNCTION_DEFAULT;
 
+    /** Maximum number of shortest path sets cached per topology; 0 disables caching. */
+    private int pathCacheSize = PATH_CACHE_SIZE_DEFAULT;
+
+    /** Maximum number of devices up to which all-pairs hop-count paths are precomputed (at most 10000); 0 disables. */
+    private int allPairsPathsMaxDevices = ALL_PAIRS_PATHS_MAX_DEVICES_DEFAULT;
+
+    /** Whether paths are searched over the compact int-indexed topology graph; false searches the graph objects. */
+    private boolean compactGraphSearch = COMPACT_GRAPH_SEARCH_DEFAULT;
+
     // Cluster root to broadcast points bindings to allow convergence to
     // a shared broadcast tree; node that is the master of the cluster root
     // is the primary.
@@ -174,7 +196,38 @@ public class DistributedTopologyStore
                             new GeoDistanceLinkWeight(deviceService) : null;
             setDefaultLinkWeigher(weight);
         }
-        log.info(FORMAT, linkWeightFunction);
+
+        Boolean newCompactGraphSearch = isPropertyEnabled(properties, COMPACT_GRAPH_SEARCH);
+        if (newCompactGraphSearch != null && newCompactGraphSearch != compactGraphSearch) {
+            compactGraphSearch = newCompactGraphSearch;
+            DefaultTopology.setCompactGraphSearch(compactGraphSearch);
+        }
+
+        String s = get(properties, PATH_CACHE_SIZE);
+        try {
+            int newPathCacheSize = isNullOrEmpty(s) ? PATH_CACHE_SIZE_DEFAULT : Integer.parseInt(s.trim());
+            if (newPathCacheSize >= 0 && newPathCacheSize != pathCacheSize) {
+                pathCacheSize = newPathCacheSize;
+                DefaultTopology.setPathCacheSize(pathCacheSize);
+            }
+
+            s = get(properties, ALL_PAIRS_PATHS_MAX_DEVICES);
+            int newMaxDevices = isNullOrEmpty(s) ? ALL_PAIRS_PATHS_MAX_DEVICES_DEFAULT : Integer.parseInt(s.trim());
+            if (newMaxDevices > MAX_ALL_PAIRS_PATHS_DEVICES) {
+                log.warn("{} must not exceed {}; ignoring {}", ALL_PAIRS_PATHS_MAX_DEVICES,
+                         MAX_ALL_PAIRS_PATHS_DEVICES, newMaxDevices);
+            } else if (newMaxDevices >= 0 && newMaxDevices != allPairsPathsMaxDevices) {
+                allPairsPathsMaxDevices = newMaxDevices;
+                DefaultTopology.setAllPairsPathsMaxDevices(allPairsPathsMaxDevices);
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Malformed configuration detected; using defaults", e);
+            pathCacheSize = PATH_CACHE_SIZE_DEFAULT;
+            allPairsPathsMaxDevices = ALL_PAIRS_PATHS_MAX_DEVICES_DEFAULT;
+            DefaultTopology.setPathCacheSize(pathCacheSize);
+            DefaultTopology.setAllPairsPathsMaxDevices(allPairsPathsMaxDevices);
+        }
+        log.info(FORMAT, linkWeightFunction, pathCacheSize, allPairsPathsMaxDevices, compactGraphSearch);
     }
 
     @Override
@@ -295,9 +348,10 @@ public class DistributedTopologyStore
     public TopologyEvent updateTopology(ProviderId providerId,
                                         GraphDescription graphDescription,
                                         List<Event> reasons) {
-        // Have the default topology construct self from the description data.
+        // Have the default topology construct self from the description data,
+        // recomputing only what changed since the current topology.
         DefaultTopology newTopology =
-                new DefaultTopology(providerId, graphDescription, this::isBroadcastPoint);
+                new DefaultTopology(providerId, graphDescription, this::isBroadcastPoint, current);
         updateBroadcastPoints(newTopology);
 
         // Promote the new topology to current and return a ready-to-send event.
@@ -16,12 +16,15 @@
 package org.onosproject.store.flow.impl;
 
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Multimap;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.codahale.metrics.Gauge;
+import org.onlab.metrics.MetricsManager;
 import org.onlab.packet.IpAddress;
 import org.onosproject.cfg.ComponentConfigAdapter;
 import org.onosproject.cluster.NodeId;
@@ -38,6 +41,7 @@ import org.onosproject.net.flow.FlowRule;
 import org.onosproject.net.flow.oldbatch.FlowRuleBatchEntry;
 import org.onosproject.net.flow.DefaultFlowEntry;
 import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowEntryReconciliation;
 import org.onosproject.net.flow.DefaultFlowRule;
 import org.onosproject.net.flow.oldbatch.FlowRuleBatchOperation;
 import org.onosproject.net.intent.IntentTestsMocks;
@@ -51,6 +55,7 @@ import org.onosproject.store.service.TestStorageService;
 
 import org.onlab.packet.Ip4Address;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
 
 import org.osgi.service.component.ComponentContext;
@@ -61,6 +66,7 @@ import static org.easymock.EasyMock.replay;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.emptyIterable;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertEquals;
 import static org.onosproject.net.NetTestTools.APP_ID;
@@ -73,6 +79,7 @@ public class ECFlowRuleStoreTest {
 
     ECFlowRuleStore flowStoreImpl;
     ComponentContext context = null;
+    private final MetricsManager metricsService = new MetricsManager();
     private ClusterService mockClusterService;
     private ControllerNode mockControllerNode;
 
@@ -197,6 +204,7 @@ public class ECFlowRuleStoreTest {
         flowStoreImpl.coreService = new CoreServiceAdapter();
         flowStoreImpl.configService = new ComponentConfigAdapter();
         flowStoreImpl.persistenceService = new PersistenceServiceAdapter();
+        flowStoreImpl.metricsService = metricsService;
         flowStoreImpl.activate(context);
     }
 
@@ -310,4 +318,56 @@ public class ECFlowRuleStoreTest {
         }
         assertThat(sum3, is(0));
     }
+
+    @SuppressWarnings("unchecked")
+    private <T> Map<String, T> gauge(String name) {
+        Gauge<?> gauge = metricsService.getGauges((n, m) -> n.equals("FlowRuleStore.flowTable." + name))
+                .values().iterator().next();
+        return (Map<String, T>) gauge.getValue();
+    }
+
+    /**
+     * Tests that buckets are only materialized for flows in the table.
+     */
+    @Test
+    public void testBucketOccupancy() {
+        assertThat(this.<Integer>gauge("materializedBuckets").getOrDefault(deviceId.toString(), 0), is(0));
+
+        flowStoreImpl.addOrUpdateFlowRule(new DefaultFlowEntry(flowRule));
+        flowStoreImpl.addOrUpdateFlowRule(new DefaultFlowEntry(flowRule1));
+
+        int buckets = this.<Integer>gauge("materializedBuckets").get(deviceId.toString());
+        int maxFlows = this.<Integer>gauge("maxBucketFlows").get(deviceId.toString());
+        assertThat(buckets, lessThanOrEqualTo(2));
+        assertThat(buckets * maxFlows, is(2));
+    }
+
+    /**
+     * Tests reconciling reported flow entries with the flow table in bulk.
+     */
+    @Test
+    public void testReconcileFlowEntries() {
+        flowStoreImpl.addOrUpdateFlowRule(new DefaultFlowEntry(flowRule));
+        flowStoreImpl.addOrUpdateFlowRule(new DefaultFlowEntry(flowRule1));
+
+        FlowRule extraneousRule = DefaultFlowRule.builder()
+                .forDevice(deviceId)
+                .withSelector(SELECTOR)
+                .withTreatment(TREATMENT)
+                .withPriority(55)
+                .makeTemporary(44)
+                .fromApp(APP_ID)
+                .build();
+        FlowEntry reportedEntry = new DefaultFlowEntry(flowRule);
+        FlowEntryReconciliation reconciliation = flowStoreImpl.reconcileFlowEntries(
+                deviceId, ImmutableList.of(reportedEntry, new DefaultFlowEntry(extraneousRule)));
+
+        assertThat(reconciliation.matched().size(), is(1));
+        assertThat(reconciliation.matched().get(reportedEntry), is(flowStoreImpl.getFlowEntry(flowRule)));
+        assertThat(reconciliation.mismatched().isEmpty(), is(true));
+        assertThat(reconciliation.extraneous().size(), is(1));
+        assertThat(reconciliation.extraneous().get(0).priority(), is(55));
+        assertThat(reconciliation.missing().size(), is(1));
+        assertThat(reconciliation.missing().get(0).priority(), is(33));
+    }
 }
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import com.google.common.collect.Sets;
+import org.junit.Test;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.store.LogicalTimestamp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Flow bucket test.
+ */
+public class FlowBucketTest {
+    private static final DeviceId DEVICE_ID = DeviceId.deviceId("of:1");
+    private static final ApplicationId APP_ID = new DefaultApplicationId(1, "test");
+
+    private final LogicalClock clock = new LogicalClock();
+
+    private static FlowRule rule(int port) {
+        return DefaultFlowRule.builder()
+            .forDevice(DEVICE_ID)
+            .withSelector(DefaultTrafficSelector.builder()
+                .matchInPort(PortNumber.portNumber(port))
+                .build())
+            .withTreatment(DefaultTrafficTreatment.builder()
+                .setOutput(PortNumber.portNumber(port + 1))
+                .build())
+            .withPriority(10)
+            .makePermanent()
+            .fromApp(APP_ID)
+            .build();
+    }
+
+    private void testAddUpdateRemove(FlowBucket bucket) {
+        FlowRule rule = rule(1);
+        bucket.add(new DefaultFlowEntry(rule), 1, clock);
+        assertEquals(1, bucket.count());
+        assertNotNull(bucket.getFlowEntries(rule.id()).get(rule));
+        long hash = bucket.hash();
+        assertNotEquals(0, hash);
+
+        Long bytes = bucket.update(rule, stored -> {
+            stored.setBytes(100);
+            return stored.bytes();
+        }, 1, clock);
+        assertEquals(Long.valueOf(100), bytes);
+        assertEquals(100, bucket.getFlowEntries(rule.id()).get(rule).bytes());
+        assertEquals("statistics must not affect the content hash", hash, bucket.hash());
+
+        bucket.update(rule, stored -> {
+            stored.setState(FlowEntry.FlowEntryState.ADDED);
+            return stored.state();
+        }, 1, clock);
+        assertNotEquals(hash, bucket.hash());
+
+        FlowEntry removed = bucket.remove(new DefaultFlowEntry(rule), 1, clock);
+        assertNotNull(removed);
+        assertEquals(0, bucket.count());
+        assertEquals(0, bucket.hash());
+        assertNull(bucket.getFlowEntries(rule.id()).get(rule));
+    }
+
+    @Test
+    public void testDefaultStorage() {
+        FlowBucket bucket = new FlowBucket(new BucketId(DEVICE_ID, 0));
+        assertFalse(bucket.isCompact());
+        testAddUpdateRemove(bucket);
+    }
+
+    @Test
+    public void testCompactStorage() {
+        FlowBucket bucket = new FlowBucket(new BucketId(DEVICE_ID, 0), true);
+        assertTrue(bucket.isCompact());
+        testAddUpdateRemove(bucket);
+    }
+
+    @Test
+    public void testCompactCopies() {
+        FlowBucket bucket = new FlowBucket(new BucketId(DEVICE_ID, 0), true);
+        FlowRule rule = rule(1);
+        bucket.add(new DefaultFlowEntry(rule), 1, clock);
+
+        bucket.getFlowEntries(rule.id()).get(rule).setBytes(100);
+        assertEquals("entries read from compact storage are copies",
+                     0, bucket.getFlowEntries(rule.id()).get(rule).bytes());
+    }
+
+    @Test
+    public void testStorageConversion() {
+        FlowBucket bucket = new FlowBucket(new BucketId(DEVICE_ID, 0), true);
+        for (int i = 1; i <= 10; i++) {
+            bucket.add(new DefaultFlowEntry(rule(i)), 1, clock);
+        }
+
+        assertTrue(bucket.compactBytes() > 0);
+
+        FlowBucket copy = bucket.copy();
+        assertFalse(copy.isCompact());
+        assertEquals(0, copy.compactBytes());
+        assertEquals(10, copy.count());
+        assertEquals(bucket.getDigest().timestamp(), copy.getDigest().timestamp());
+
+        FlowBucket compact = copy.withStorage(true);
+        assertTrue(compact.isCompact());
+        assertEquals(10, compact.count());
+        for (int i = 1; i <= 10; i++) {
+            FlowRule rule = rule(i);
+            assertNotNull(compact.getFlowEntries(rule.id()).get(rule));
+        }
+    }
+
+    @Test
+    public void testRehash() {
+        FlowBucket bucket = new FlowBucket(new BucketId(DEVICE_ID, 0));
+        FlowBucket received = new FlowBucket(new BucketId(DEVICE_ID, 0));
+        for (int i = 1; i <= 5; i++) {
+            DefaultFlowEntry entry = new DefaultFlowEntry(rule(i));
+            bucket.add(entry, 1, clock);
+            received.getFlowEntries(entry.id()).put(entry, entry);
+        }
+        // The hash is not serialized, so the entries of a received bucket are only hashed once it is rehashed.
+        assertEquals(0, received.hash());
+        assertEquals(bucket.hash(), received.rehash().hash());
+    }
+
+    @Test
+    public void testDiffAndApply() {
+        FlowBucket source = new FlowBucket(new BucketId(DEVICE_ID, 0));
+        FlowBucket target = new FlowBucket(new BucketId(DEVICE_ID, 0), true);
+        for (int i = 1; i <= 10; i++) {
+            DefaultFlowEntry entry = new DefaultFlowEntry(rule(i));
+            source.add(entry, 1, clock);
+            if (i <= 5) {
+                target.add(entry, 1, clock);
+            }
+        }
+        target.add(new DefaultFlowEntry(rule(11)), 1, clock);
+        assertNotEquals(source.hash(), target.hash());
+
+        FlowBucketPatch patch = source.diff(target.getContentDigest());
+        assertEquals(5, patch.updates().size());
+        assertEquals(1, patch.removals().size());
+
+        assertTrue(target.apply(patch));
+        assertEquals(10, target.count());
+        assertEquals(source.hash(), target.hash());
+        assertTrue(target.getHashDigest().hasSameContent(source.getHashDigest()));
+        assertEquals(source.timestamp(), target.timestamp());
+        assertTrue(source.diff(target.getContentDigest()).isEmpty());
+    }
+
+    @Test
+    public void testPartialPatches() {
+        FlowBucket source = new FlowBucket(new BucketId(DEVICE_ID, 0));
+        FlowBucket target = new FlowBucket(new BucketId(DEVICE_ID, 0));
+        for (int i = 1; i <= 25; i++) {
+            source.add(new DefaultFlowEntry(rule(i)), 1, clock);
+        }
+
+        int patches = 0;
+        FlowBucketPatch patch;
+        do {
+            patch = source.diff(target.getContentDigest(), 10);
+            assertTrue(patch.updates().size() <= 10);
+            assertEquals(patch.isPartial(), !target.apply(patch));
+            patches++;
+        } while (patch.isPartial());
+
+        assertEquals(3, patches);
+        assertEquals(25, target.count());
+        assertEquals(source.hash(), target.hash());
+        assertEquals(source.timestamp(), target.timestamp());
+    }
+
+    @Test
+    public void testMismatchingPatch() {
+        FlowBucket source = new FlowBucket(new BucketId(DEVICE_ID, 0));
+        FlowBucket target = new FlowBucket(new BucketId(DEVICE_ID, 0));
+        for (int i = 1; i <= 5; i++) {
+            DefaultFlowEntry entry = new DefaultFlowEntry(rule(i));
+            source.add(entry, 1, clock);
+            target.add(entry, 1, clock);
+        }
+        // The target diverges on a flow the patch does not cover.
+        target.remove(new DefaultFlowEntry(rule(1)), 1, clock);
+        source.add(new DefaultFlowEntry(rule(6)), 1, clock);
+        LogicalTimestamp timestamp = target.timestamp();
+
+        assertFalse(target.apply(source.changes(Sets.newHashSet(rule(6).id()))));
+        assertEquals("a mismatching patch must not advance the timestamp", timestamp, target.timestamp());
+        assertFalse(target.getHashDigest().hasSameContent(source.getHashDigest()));
+        assertTrue(source.getDigest().isNewerThan(target.getDigest()));
+
+        // The next anti-entropy round is still able to repair the bucket.
+        assertTrue(target.apply(source.diff(target.getContentDigest())));
+        assertEquals(source.hash(), target.hash());
+        assertEquals(source.timestamp(), target.timestamp());
+        assertFalse(source.getDigest().isNewerThan(target.getDigest()));
+    }
+
+    @Test
+    public void testRejectedDelta() {
+        FlowBucket master = new FlowBucket(new BucketId(DEVICE_ID, 0));
+        FlowBucket backup = new FlowBucket(new BucketId(DEVICE_ID, 0));
+        for (int i = 1; i <= 5; i++) {
+            DefaultFlowEntry entry = new DefaultFlowEntry(rule(i));
+            master.add(entry, 1, clock);
+            backup.add(entry, 1, clock);
+        }
+        // The backup holds an extra flow the delta does not account for.
+        backup.add(new DefaultFlowEntry(rule(7)), 1, clock);
+        master.add(new DefaultFlowEntry(rule(6)), 1, clock);
+        LogicalTimestamp timestamp = backup.timestamp();
+
+        FlowBucketDelta delta = new FlowBucketDelta(timestamp, master.changes(Sets.newHashSet(rule(6).id())));
+        assertFalse(backup.apply(delta.patch()));
+        assertEquals("a rejected delta must not advance the timestamp", timestamp, backup.timestamp());
+
+        // The full backup sent after the rejection is still newer, so the backup accepts it.
+        assertTrue(master.copy().getDigest().isNewerThan(backup.getDigest()));
+    }
+
+    @Test
+    public void testChanges() {
+        FlowBucket source = new FlowBucket(new BucketId(DEVICE_ID, 0));
+        FlowBucket target = new FlowBucket(new BucketId(DEVICE_ID, 0), true);
+        for (int i = 1; i <= 5; i++) {
+            DefaultFlowEntry entry = new DefaultFlowEntry(rule(i));
+            source.add(entry, 1, clock);
+            target.add(entry, 1, clock);
+        }
+        target.apply(source.changes(Sets.newHashSet()));
+        assertEquals(source.hash(), target.hash());
+
+        source.remove(new DefaultFlowEntry(rule(1)), 1, clock);
+        source.add(new DefaultFlowEntry(rule(6)), 1, clock);
+
+        FlowBucketPatch patch = source.changes(Sets.newHashSet(rule(1).id(), rule(6).id()));
+        assertEquals(1, patch.updates().size());
+        assertEquals(Sets.newHashSet(rule(1).id()), patch.removals());
+
+        assertTrue(target.apply(patch));
+        assertEquals(5, target.count());
+        assertEquals(source.hash(), target.hash());
+        assertEquals(source.timestamp(), target.timestamp());
+    }
+
+    @Test
+    public void testStatisticsUpdates() {
+        FlowBucket bucket = new FlowBucket(new BucketId(DEVICE_ID, 0));
+        FlowRule rule = rule(1);
+        bucket.add(new DefaultFlowEntry(rule), 1, clock);
+        LogicalTimestamp timestamp = bucket.timestamp();
+        long hash = bucket.hash();
+
+        Long bytes = bucket.updateStatistics(rule, stored -> {
+            stored.setBytes(100);
+            return stored.bytes();
+        }, 1, clock);
+        assertEquals(Long.valueOf(100), bytes);
+        assertEquals(100, bucket.getFlowEntries(rule.id()).get(rule).bytes());
+        assertEquals(timestamp, bucket.timestamp());
+        assertEquals(hash, bucket.hash());
+        assertTrue(bucket.hasUnreplicatedStatistics());
+
+        assertEquals(Sets.newHashSet(rule.id()), bucket.flushStatistics(1, clock));
+        assertFalse(bucket.hasUnreplicatedStatistics());
+        assertTrue(bucket.timestamp().isNewerThan(timestamp));
+        assertTrue(bucket.flushStatistics(1, clock).isEmpty());
+
+        timestamp = bucket.timestamp();
+        bucket.updateStatistics(rule, stored -> {
+            stored.setState(FlowEntry.FlowEntryState.ADDED);
+            return stored.state();
+        }, 1, clock);
+        assertTrue(bucket.timestamp().isNewerThan(timestamp));
+        assertNotEquals(hash, bucket.hash());
+        assertFalse(bucket.hasUnreplicatedStatistics());
+
+        assertNull(bucket.updateStatistics(rule(2), stored -> stored, 1, clock));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import com.google.common.collect.Sets;
+import org.junit.Test;
+import org.onosproject.net.flow.FlowId;
+import org.onosproject.store.LogicalTimestamp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Flow change log test.
+ */
+public class FlowChangeLogTest {
+
+    private static LogicalTimestamp timestamp(long value) {
+        return new LogicalTimestamp(value);
+    }
+
+    @Test
+    public void testRecordAndTrim() {
+        FlowChangeLog changeLog = new FlowChangeLog(timestamp(10), 8);
+        changeLog.record(FlowId.valueOf(1), timestamp(11));
+        changeLog.record(FlowId.valueOf(2), timestamp(12));
+        changeLog.record(FlowId.valueOf(1), timestamp(13));
+        assertEquals(2, changeLog.size());
+
+        assertTrue(changeLog.covers(timestamp(10)));
+        assertFalse(changeLog.covers(timestamp(9)));
+        assertFalse(changeLog.covers(null));
+        assertEquals(Sets.newHashSet(FlowId.valueOf(1), FlowId.valueOf(2)), changeLog.changedSince(timestamp(10)));
+        assertEquals(Sets.newHashSet(FlowId.valueOf(1)), changeLog.changedSince(timestamp(12)));
+
+        changeLog.trim(timestamp(12));
+        assertEquals(1, changeLog.size());
+        assertFalse(changeLog.covers(timestamp(11)));
+        assertTrue(changeLog.covers(timestamp(12)));
+        assertEquals(Sets.newHashSet(FlowId.valueOf(1)), changeLog.changedSince(timestamp(12)));
+    }
+
+    @Test
+    public void testOverflow() {
+        FlowChangeLog changeLog = new FlowChangeLog(timestamp(0), 2);
+        changeLog.record(FlowId.valueOf(1), timestamp(1));
+        changeLog.record(FlowId.valueOf(2), timestamp(2));
+        changeLog.record(FlowId.valueOf(3), timestamp(3));
+        assertEquals(2, changeLog.size());
+        assertFalse(changeLog.covers(timestamp(0)));
+        assertTrue(changeLog.covers(timestamp(1)));
+        assertEquals(Sets.newHashSet(FlowId.valueOf(2), FlowId.valueOf(3)), changeLog.changedSince(timestamp(1)));
+    }
+}
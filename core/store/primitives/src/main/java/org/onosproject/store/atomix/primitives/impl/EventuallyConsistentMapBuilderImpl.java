@@ -59,6 +59,7 @@ public class EventuallyConsistentMapBuilderImpl<K, V>
     private final PersistenceService persistenceService;
     private Supplier<List<NodeId>> peersSupplier;
     private Supplier<List<NodeId>> bootstrapPeersSupplier;
+    private final EventuallyConsistentMapReplicator replicator;
 
     /**
      * Creates a new eventually consistent map builder.
@@ -74,12 +75,34 @@ public class EventuallyConsistentMapBuilderImpl<K, V>
             PersistenceService persistenceService,
             Supplier<List<NodeId>> peersSupplier,
             Supplier<List<NodeId>> bootstrapPeersSupplier
+    ) {
+        this(localNodeId, clusterCommunicator, persistenceService, peersSupplier, bootstrapPeersSupplier, null);
+    }
+
+    /**
+     * Creates a new eventually consistent map builder, whose maps may send
+     * their updates over the given shared replication channel.
+     * @param localNodeId               local node id
+     * @param clusterCommunicator       cluster communication service
+     * @param persistenceService        persistence service
+     * @param peersSupplier             supplier for peers
+     * @param bootstrapPeersSupplier    supplier for peers for bootstrap
+     * @param replicator                shared replication channel
+     */
+    EventuallyConsistentMapBuilderImpl(
+            NodeId localNodeId,
+            ClusterCommunicationService clusterCommunicator,
+            PersistenceService persistenceService,
+            Supplier<List<NodeId>> peersSupplier,
+            Supplier<List<NodeId>> bootstrapPeersSupplier,
+            EventuallyConsistentMapReplicator replicator
     ) {
         this.localNodeId = localNodeId;
         this.persistenceService = persistenceService;
         this.clusterCommunicator = checkNotNull(clusterCommunicator);
         this.peersSupplier = peersSupplier;
         this.bootstrapPeersSupplier = bootstrapPeersSupplier;
+        this.replicator = replicator;
     }
 
     @Override
@@ -188,7 +211,8 @@ public class EventuallyConsistentMapBuilderImpl<K, V>
                 persistent,
                 persistenceService,
                 peersSupplier,
-                bootstrapPeersSupplier
+                bootstrapPeersSupplier,
+                replicator
         );
     }
 }
@@ -98,6 +98,7 @@ public class EventuallyConsistentMapImpl<K, V>
     private final MessageSubject bootstrapMessageSubject;
     private final MessageSubject initializeMessageSubject;
     private final MessageSubject updateMessageSubject;
+    private final EventuallyConsistentMapReplicator replicator;
     private final MessageSubject antiEntropyAdvertisementSubject;
     private final MessageSubject updateRequestSubject;
     private final Set<EventuallyConsistentMapListener<K, V>> listeners
@@ -146,6 +147,8 @@ public class EventuallyConsistentMapImpl<K, V>
      * @param persistenceService     persistence service
      * @param peersSupplier          supplier for peers
      * @param bootstrapPeersSupplier supplier for bootstrap peers
+     * @param replicator             shared replication channel; null if updates are always
+     *                               sent on the channel of the map
      */
     //CHECKSTYLE:OFF
     EventuallyConsistentMapImpl(
@@ -165,7 +168,8 @@ public class EventuallyConsistentMapImpl<K, V>
             boolean persistent,
             PersistenceService persistenceService,
             Supplier<List<NodeId>> peersSupplier,
-            Supplier<List<NodeId>> bootstrapPeersSupplier
+            Supplier<List<NodeId>> bootstrapPeersSupplier,
+            EventuallyConsistentMapReplicator replicator
     ) {
         //CHECKSTYLE:ON
         this.localNodeId = localNodeId;
@@ -186,6 +190,7 @@ public class EventuallyConsistentMapImpl<K, V>
         destroyedMessage = mapName + ERROR_DESTROYED;
 
         this.clusterCommunicator = clusterCommunicator;
+        this.replicator = replicator;
 
         this.timestampProvider = timestampProvider;
 
@@ -263,6 +268,11 @@ public class EventuallyConsistentMapImpl<K, V>
                 this::processUpdates,
                 this.executor
         );
+        if (replicator != null) {
+            replicator.register(mapName,
+                                bytes -> processUpdates(serializer.decode(bytes)),
+                                this.executor);
+        }
 
         antiEntropyAdvertisementSubject = new MessageSubject("ecm-" + mapName + "-anti-entropy");
         clusterCommunicator.addSubscriber(
@@ -567,6 +577,9 @@ public class EventuallyConsistentMapImpl<K, V>
         clusterCommunicator.removeSubscriber(bootstrapMessageSubject);
         clusterCommunicator.removeSubscriber(initializeMessageSubject);
         clusterCommunicator.removeSubscriber(updateMessageSubject);
+        if (replicator != null) {
+            replicator.unregister(mapName);
+        }
         clusterCommunicator.removeSubscriber(updateRequestSubject);
         clusterCommunicator.removeSubscriber(antiEntropyAdvertisementSubject);
         return CompletableFuture.completedFuture(null);
@@ -910,6 +923,19 @@ public class EventuallyConsistentMapImpl<K, V>
             Map<K, UpdateEntry<K, V>> map = Maps.newHashMap();
             items.forEach(item -> map.compute(item.key(), (key, existing) ->
                     item.isNewerThan(existing) ? item : existing));
+            if (replicator != null && replicator.isEnabled()) {
+                // The replicator coalesces the batches of all maps bound to
+                // the same peer into a single message.
+                List<UpdateEntry<K, V>> updates = ImmutableList.copyOf(map.values());
+                communicationExecutor.execute(() -> {
+                    try {
+                        replicator.send(peer, mapName, serializer.encode(updates), updates.size());
+                    } catch (Exception e) {
+                        log.warn("Failed to send to {}", peer, e);
+                    }
+                });
+                return;
+            }
             communicationExecutor.execute(() -> {
                 try {
                     clusterCommunicator.unicast(ImmutableList.copyOf(map.values()),
@@ -0,0 +1,409 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.atomix.primitives.impl;
+
+import com.codahale.metrics.Gauge;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
+import org.onlab.util.AbstractAccumulator;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.store.cluster.messaging.ClusterCommunicationService;
+import org.onosproject.store.cluster.messaging.MessageSubject;
+import org.slf4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.onlab.util.Tools.groupedThreads;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Replication channel shared by the eventually consistent maps, carrying the
+ * updates of all maps to a peer in a single message.
+ * <p>
+ * The updates each map sends to a peer, already serialized by the map, are
+ * accumulated per peer for up to the configured latency budget and sent as
+ * one frame, optionally compressed. On receipt, the frame is split back into
+ * the updates of each map, which are handed to the map registered under the
+ * same name.
+ * <p>
+ * The number of messages, entries and bytes each map sends over the channel
+ * are counted and published through the metrics service, if available.
+ */
+final class EventuallyConsistentMapReplicator {
+
+    private static final Logger log = getLogger(EventuallyConsistentMapReplicator.class);
+
+    private static final MessageSubject REPLICATION_SUBJECT = new MessageSubject("ecm-replication");
+
+    private static final byte RAW = 0;
+    private static final byte COMPRESSED = 1;
+
+    private static final int MAX_UPDATES = 1000;
+
+    private static final String METRICS_COMPONENT = "EventuallyConsistentMapReplication";
+    private static final String MESSAGES = "messages";
+    private static final String ENTRIES = "entries";
+    private static final String BYTES = "bytes";
+
+    private final ClusterCommunicationService clusterCommunicator;
+    private final Timer timer = new Timer("onos-ecm-replication");
+    private final ExecutorService communicationExecutor =
+            newSingleThreadExecutor(groupedThreads("onos/ecm", "replication", log));
+
+    private final Map<String, Receiver> receivers = Maps.newConcurrentMap();
+    private final Map<NodeId, PeerAccumulator> senders = Maps.newConcurrentMap();
+    private final Map<String, MapStatistics> statistics = Maps.newConcurrentMap();
+
+    private volatile boolean enabled;
+    private volatile int batchMillis;
+    private volatile boolean compressionEnabled;
+    private MetricsService metricsService;
+
+    /**
+     * Creates a new replication channel, receiving the frames of the peers.
+     *
+     * @param clusterCommunicator cluster communication service
+     * @param enabled             whether the maps send their updates over the channel
+     * @param batchMillis         maximum number of millis updates are held before being sent
+     * @param compressionEnabled  whether frames are compressed
+     */
+    EventuallyConsistentMapReplicator(ClusterCommunicationService clusterCommunicator,
+                                      boolean enabled, int batchMillis, boolean compressionEnabled) {
+        this.clusterCommunicator = clusterCommunicator;
+        configure(enabled, batchMillis, compressionEnabled);
+        clusterCommunicator.addSubscriber(REPLICATION_SUBJECT, Function.identity(),
+                                          this::receive, communicationExecutor);
+    }
+
+    /**
+     * Changes the configuration of the channel. Frames being accumulated when
+     * the batch millis change are still sent once their own batch expires;
+     * the next updates are accumulated into new frames.
+     *
+     * @param enabled            whether the maps send their updates over the channel
+     * @param batchMillis        maximum number of millis updates are held before being sent
+     * @param compressionEnabled whether frames are compressed
+     */
+    void configure(boolean enabled, int batchMillis, boolean compressionEnabled) {
+        checkArgument(batchMillis > 0, "Batch millis must be positive");
+        this.batchMillis = batchMillis;
+        this.compressionEnabled = compressionEnabled;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Stops the channel. Updates not yet sent are dropped; the peers recover
+     * them through anti-entropy.
+     */
+    void close() {
+        enabled = false;
+        clusterCommunicator.removeSubscriber(REPLICATION_SUBJECT);
+        timer.cancel();
+        senders.clear();
+        communicationExecutor.shutdown();
+        setMetricsService(null);
+    }
+
+    /**
+     * Changes the metrics service through which the statistics of the maps
+     * are published.
+     *
+     * @param service metrics service; null to stop publishing the statistics
+     */
+    synchronized void setMetricsService(MetricsService service) {
+        if (metricsService != null) {
+            statistics.keySet().forEach(this::unregisterMetrics);
+        }
+        metricsService = service;
+        statistics.forEach(this::registerMetrics);
+    }
+
+    /**
+     * Indicates whether the maps should send their updates over the channel.
+     *
+     * @return true if the channel is enabled
+     */
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registers the handler of the updates received for the given map.
+     *
+     * @param mapName  map name
+     * @param handler  handler of the serialized updates
+     * @param executor executor the handler is run on
+     */
+    void register(String mapName, Consumer<byte[]> handler, Executor executor) {
+        receivers.put(mapName, new Receiver(handler, executor));
+    }
+
+    /**
+     * Unregisters the handler of the updates received for the given map.
+     *
+     * @param mapName map name
+     */
+    void unregister(String mapName) {
+        receivers.remove(mapName);
+        if (statistics.remove(mapName) != null) {
+            unregisterMetrics(mapName);
+        }
+    }
+
+    /**
+     * Queues updates of the given map to be sent to the given peer.
+     *
+     * @param peer    peer to send the updates to
+     * @param mapName map name
+     * @param updates serialized updates
+     * @param entries number of entries in the updates
+     */
+    void send(NodeId peer, String mapName, byte[] updates, int entries) {
+        mapStatistics(mapName).record(entries, updates.length);
+        int millis = batchMillis;
+        PeerAccumulator sender = senders.get(peer);
+        if (sender == null || sender.maxBatchMillis() != millis) {
+            // The replaced accumulator keeps its pending updates until its batch expires.
+            sender = senders.compute(peer, (p, existing) -> existing == null || existing.maxBatchMillis() != millis
+                    ? new PeerAccumulator(p, millis) : existing);
+        }
+        sender.add(new Update(mapName, updates));
+    }
+
+    /**
+     * Returns the replication statistics of the given map.
+     *
+     * @param mapName map name
+     * @return statistics of the updates sent; null if none were sent
+     */
+    MapStatistics statistics(String mapName) {
+        return statistics.get(mapName);
+    }
+
+    private MapStatistics mapStatistics(String mapName) {
+        MapStatistics mapStatistics = statistics.get(mapName);
+        if (mapStatistics == null) {
+            MapStatistics created = new MapStatistics();
+            mapStatistics = statistics.putIfAbsent(mapName, created);
+            if (mapStatistics == null) {
+                registerMetrics(mapName, created);
+                mapStatistics = created;
+            }
+        }
+        return mapStatistics;
+    }
+
+    private synchronized void registerMetrics(String mapName, MapStatistics mapStatistics) {
+        if (metricsService == null) {
+            return;
+        }
+        MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+        MetricsFeature feature = component.registerFeature(mapName);
+        metricsService.registerMetric(component, feature, MESSAGES, (Gauge<Long>) mapStatistics::messages);
+        metricsService.registerMetric(component, feature, ENTRIES, (Gauge<Long>) mapStatistics::entries);
+        metricsService.registerMetric(component, feature, BYTES, (Gauge<Long>) mapStatistics::bytes);
+    }
+
+    private synchronized void unregisterMetrics(String mapName) {
+        if (metricsService == null) {
+            return;
+        }
+        MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+        MetricsFeature feature = component.registerFeature(mapName);
+        for (String name : new String[]{MESSAGES, ENTRIES, BYTES}) {
+            metricsService.removeMetric(component, feature, name);
+        }
+    }
+
+    private void receive(byte[] frame) {
+        try (DataInputStream in = new DataInputStream(open(frame))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String mapName = in.readUTF();
+                byte[] updates = new byte[in.readInt()];
+                in.readFully(updates);
+                Receiver receiver = receivers.get(mapName);
+                if (receiver != null) {
+                    receiver.executor.execute(() -> receiver.handler.accept(updates));
+                } else {
+                    log.debug("Dropping updates for unknown map {}", mapName);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to decode replication frame", e);
+        }
+    }
+
+    private static InputStream open(byte[] frame) {
+        InputStream in = new ByteArrayInputStream(frame, 1, frame.length - 1);
+        return frame[0] == COMPRESSED ? new InflaterInputStream(in) : in;
+    }
+
+    /**
+     * Encodes the given updates into a frame.
+     *
+     * @param updates  updates of the maps
+     * @param compress whether to compress the frame
+     * @return frame bytes
+     */
+    static byte[] encode(List<Update> updates, boolean compress) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(compress ? COMPRESSED : RAW);
+        Deflater deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+        try (DataOutputStream out = new DataOutputStream(
+                compress ? new DeflaterOutputStream(bytes, deflater) : bytes)) {
+            out.writeInt(updates.size());
+            for (Update update : updates) {
+                out.writeUTF(update.mapName);
+                out.writeInt(update.bytes.length);
+                out.write(update.bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Serialized updates of a map.
+     */
+    static final class Update {
+        private final String mapName;
+        private final byte[] bytes;
+
+        Update(String mapName, byte[] bytes) {
+            this.mapName = mapName;
+            this.bytes = bytes;
+        }
+    }
+
+    private static final class Receiver {
+        private final Consumer<byte[]> handler;
+        private final Executor executor;
+
+        private Receiver(Consumer<byte[]> handler, Executor executor) {
+            this.handler = handler;
+            this.executor = executor;
+        }
+    }
+
+    /**
+     * Counts of the updates of a map sent over the channel.
+     */
+    static final class MapStatistics {
+        private final LongAdder messages = new LongAdder();
+        private final LongAdder entries = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        private void record(int entries, int bytes) {
+            this.messages.increment();
+            this.entries.add(entries);
+            this.bytes.add(bytes);
+        }
+
+        /**
+         * Returns the number of batches of updates sent.
+         *
+         * @return number of batches
+         */
+        long messages() {
+            return messages.sum();
+        }
+
+        /**
+         * Returns the number of entries sent.
+         *
+         * @return number of entries
+         */
+        long entries() {
+            return entries.sum();
+        }
+
+        /**
+         * Returns the number of serialized bytes sent, before compression.
+         *
+         * @return number of bytes
+         */
+        long bytes() {
+            return bytes.sum();
+        }
+
+        @Override
+        public String toString() {
+            return toStringHelper(this)
+                    .add("messages", messages())
+                    .add("entries", entries())
+                    .add("bytes", bytes())
+                    .toString();
+        }
+    }
+
+    private final class PeerAccumulator extends AbstractAccumulator<Update> {
+
+        private final NodeId peer;
+
+        private PeerAccumulator(NodeId peer, int batchMillis) {
+            super(timer, MAX_UPDATES, batchMillis, batchMillis);
+            this.peer = peer;
+        }
+
+        @Override
+        public void processItems(List<Update> items) {
+            List<Update> updates = ImmutableList.copyOf(items);
+            boolean compress = compressionEnabled;
+            communicationExecutor.execute(() -> {
+                try {
+                    clusterCommunicator.unicast(encode(updates, compress), REPLICATION_SUBJECT,
+                                                Function.identity(), peer)
+                            .whenComplete((result, error) -> {
+                                if (error != null) {
+                                    log.debug("Failed to send to {}", peer, error);
+                                }
+                            });
+                } catch (Exception e) {
+                    log.warn("Failed to send to {}", peer, e);
+                }
+            });
+        }
+    }
+}
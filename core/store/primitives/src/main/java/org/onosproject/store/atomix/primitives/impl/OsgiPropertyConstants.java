@@ -0,0 +1,34 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.store.atomix.primitives.impl;
+
+/**
+ * Name/Value constants for properties.
+ */
+public final class OsgiPropertyConstants {
+    private OsgiPropertyConstants() {
+    }
+
+    public static final String ECM_SHARED_REPLICATION = "ecmSharedReplication";
+    public static final boolean ECM_SHARED_REPLICATION_DEFAULT = false;
+
+    public static final String ECM_REPLICATION_BATCH_MILLIS = "ecmReplicationBatchMillis";
+    public static final int ECM_REPLICATION_BATCH_MILLIS_DEFAULT = 10;
+
+    public static final String ECM_REPLICATION_COMPRESSION = "ecmReplicationCompression";
+    public static final boolean ECM_REPLICATION_COMPRESSION_DEFAULT = false;
+}
@@ -23,6 +23,8 @@ import io.atomix.core.map.AtomicMapType;
 import io.atomix.core.workqueue.WorkQueueType;
 import io.atomix.primitive.partition.PartitionGroup;
 import io.atomix.protocols.raft.MultiRaftProtocol;
+import org.onlab.metrics.MetricsService;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.ControllerNode;
 import org.onosproject.cluster.Member;
@@ -60,27 +62,47 @@ import org.onosproject.store.service.TransactionContextBuilder;
 import org.onosproject.store.service.WorkQueue;
 import org.onosproject.store.service.WorkQueueBuilder;
 import org.onosproject.store.service.WorkQueueStats;
+import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 
 import java.util.Collection;
+import java.util.Dictionary;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static org.onlab.util.Tools.get;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.STORAGE_WRITE;
+import static org.onosproject.store.atomix.primitives.impl.OsgiPropertyConstants.ECM_REPLICATION_BATCH_MILLIS;
+import static org.onosproject.store.atomix.primitives.impl.OsgiPropertyConstants.ECM_REPLICATION_BATCH_MILLIS_DEFAULT;
+import static org.onosproject.store.atomix.primitives.impl.OsgiPropertyConstants.ECM_REPLICATION_COMPRESSION;
+import static org.onosproject.store.atomix.primitives.impl.OsgiPropertyConstants.ECM_REPLICATION_COMPRESSION_DEFAULT;
+import static org.onosproject.store.atomix.primitives.impl.OsgiPropertyConstants.ECM_SHARED_REPLICATION;
+import static org.onosproject.store.atomix.primitives.impl.OsgiPropertyConstants.ECM_SHARED_REPLICATION_DEFAULT;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Implementation for {@code StorageService} and {@code StorageAdminService}.
  */
-@Component(immediate = true, service = { StorageService.class, StorageAdminService.class })
+@Component(
+    immediate = true,
+    service = { StorageService.class, StorageAdminService.class },
+    property = {
+        ECM_SHARED_REPLICATION + ":Boolean=" + ECM_SHARED_REPLICATION_DEFAULT,
+        ECM_REPLICATION_BATCH_MILLIS + ":Integer=" + ECM_REPLICATION_BATCH_MILLIS_DEFAULT,
+        ECM_REPLICATION_COMPRESSION + ":Boolean=" + ECM_REPLICATION_COMPRESSION_DEFAULT
+    }
+)
 public class StorageManager implements StorageService, StorageAdminService {
 
     private final Logger log = getLogger(getClass());
@@ -103,21 +125,145 @@ public class StorageManager implements StorageService, StorageAdminService {
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected AtomixManager atomixManager;
 
+    // The component configuration service depends on the storage service
+    // through its store, hence is bound once available rather than required.
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL,
+            bind = "bindConfigService",
+            unbind = "unbindConfigService",
+            policy = ReferencePolicy.DYNAMIC)
+    protected volatile ComponentConfigService configService;
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL,
+            bind = "bindMetricsService",
+            unbind = "unbindMetricsService",
+            policy = ReferencePolicy.DYNAMIC)
+    protected volatile MetricsService metricsService;
+
+    /** Send the updates of all eventually consistent maps to a peer over a shared channel. */
+    private boolean ecmSharedReplication = ECM_SHARED_REPLICATION_DEFAULT;
+
+    /** Maximum number of millis updates are held for the shared replication channel. */
+    private int ecmReplicationBatchMillis = ECM_REPLICATION_BATCH_MILLIS_DEFAULT;
+
+    /** Compress the messages of the shared replication channel. */
+    private boolean ecmReplicationCompression = ECM_REPLICATION_COMPRESSION_DEFAULT;
+
     private Atomix atomix;
     private PartitionGroup group;
+    private EventuallyConsistentMapReplicator replicator;
 
     @Activate
-    public void activate() {
+    public void activate(ComponentContext context) {
         atomix = atomixManager.getAtomix();
         group = atomix.getPartitionService().getPartitionGroup(MultiRaftProtocol.TYPE);
+        replicator = new EventuallyConsistentMapReplicator(clusterCommunicator, ecmSharedReplication,
+                                                           ecmReplicationBatchMillis, ecmReplicationCompression);
+        replicator.setMetricsService(metricsService);
+        modified(context);
         log.info("Started");
     }
 
+    /**
+     * Hook for wiring up the optional reference to the component
+     * configuration service, registering the properties of this component.
+     *
+     * @param service service being announced
+     */
+    protected void bindConfigService(ComponentConfigService service) {
+        if (configService == null) {
+            configService = service;
+            service.registerProperties(getClass());
+        }
+    }
+
+    /**
+     * Hook for unwiring the optional reference to the component
+     * configuration service.
+     *
+     * @param service service being withdrawn
+     */
+    protected void unbindConfigService(ComponentConfigService service) {
+        if (configService == service) {
+            configService = null;
+            service.unregisterProperties(getClass(), false);
+        }
+    }
+
+    /**
+     * Hook for wiring up the optional reference to the metrics service,
+     * publishing the replication statistics of the maps.
+     *
+     * @param service service being announced
+     */
+    protected synchronized void bindMetricsService(MetricsService service) {
+        if (metricsService == null) {
+            metricsService = service;
+            if (replicator != null) {
+                replicator.setMetricsService(service);
+            }
+        }
+    }
+
+    /**
+     * Hook for unwiring the optional reference to the metrics service.
+     *
+     * @param service service being withdrawn
+     */
+    protected synchronized void unbindMetricsService(MetricsService service) {
+        if (metricsService == service) {
+            metricsService = null;
+            if (replicator != null) {
+                replicator.setMetricsService(null);
+            }
+        }
+    }
+
     @Deactivate
     public void deactivate() {
+        replicator.close();
         log.info("Stopped");
     }
 
+    @Modified
+    public void modified(ComponentContext context) {
+        if (context == null) {
+            return;
+        }
+
+        Dictionary<?, ?> properties = context.getProperties();
+        boolean newSharedReplication;
+        int newBatchMillis;
+        boolean newCompression;
+        try {
+            String s = get(properties, ECM_SHARED_REPLICATION);
+            newSharedReplication = isNullOrEmpty(s) ? ecmSharedReplication : Boolean.parseBoolean(s.trim());
+
+            s = get(properties, ECM_REPLICATION_BATCH_MILLIS);
+            newBatchMillis = isNullOrEmpty(s) ? ecmReplicationBatchMillis : Integer.parseInt(s.trim());
+
+            s = get(properties, ECM_REPLICATION_COMPRESSION);
+            newCompression = isNullOrEmpty(s) ? ecmReplicationCompression : Boolean.parseBoolean(s.trim());
+        } catch (NumberFormatException | ClassCastException e) {
+            newSharedReplication = ECM_SHARED_REPLICATION_DEFAULT;
+            newBatchMillis = ECM_REPLICATION_BATCH_MILLIS_DEFAULT;
+            newCompression = ECM_REPLICATION_COMPRESSION_DEFAULT;
+        }
+        if (newBatchMillis <= 0) {
+            log.warn("Invalid {} {}; using {}", ECM_REPLICATION_BATCH_MILLIS, newBatchMillis,
+                     ecmReplicationBatchMillis);
+            newBatchMillis = ecmReplicationBatchMillis;
+        }
+
+        ecmSharedReplication = newSharedReplication;
+        ecmReplicationBatchMillis = newBatchMillis;
+        ecmReplicationCompression = newCompression;
+        replicator.configure(ecmSharedReplication, ecmReplicationBatchMillis, ecmReplicationCompression);
+        log.info("Settings: {}={}, {}={}, {}={}",
+                 ECM_SHARED_REPLICATION, ecmSharedReplication,
+                 ECM_REPLICATION_BATCH_MILLIS, ecmReplicationBatchMillis,
+                 ECM_REPLICATION_COMPRESSION, ecmReplicationCompression);
+    }
+
     @Override
     public <K, V> EventuallyConsistentMapBuilder<K, V> eventuallyConsistentMapBuilder() {
         checkPermission(STORAGE_WRITE);
@@ -161,7 +307,8 @@ public class StorageManager implements StorageService, StorageAdminService {
             clusterCommunicator,
             persistenceService,
             peersSupplier,
-            bootstrapPeersSupplier
+            bootstrapPeersSupplier,
+            replicator
         );
     }
 
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.atomix.primitives.impl;
+
+import com.codahale.metrics.Gauge;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.metrics.MetricsManager;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.store.cluster.messaging.ClusterCommunicationServiceAdapter;
+import org.onosproject.store.cluster.messaging.MessageSubject;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the shared replication channel of the eventually consistent maps.
+ */
+public class EventuallyConsistentMapReplicatorTest {
+
+    private static final NodeId PEER = new NodeId("peer");
+    private static final long TIMEOUT_MS = 2000;
+
+    private LoopbackCommunicator communicator;
+    private EventuallyConsistentMapReplicator replicator;
+
+    private final BlockingQueue<byte[]> first = new LinkedBlockingQueue<>();
+    private final BlockingQueue<byte[]> second = new LinkedBlockingQueue<>();
+
+    @Before
+    public void setUp() {
+        communicator = new LoopbackCommunicator();
+        replicator = new EventuallyConsistentMapReplicator(communicator, true, 50, false);
+        replicator.register("first", first::add, MoreExecutors.directExecutor());
+        replicator.register("second", second::add, MoreExecutors.directExecutor());
+    }
+
+    @After
+    public void tearDown() {
+        replicator.close();
+    }
+
+    /**
+     * Tests that the updates of several maps are sent to a peer in one frame
+     * and handed back to their own map, and that the statistics of the maps
+     * account for them.
+     */
+    @Test
+    public void testSharedFrame() throws InterruptedException {
+        checkDelivery();
+        EventuallyConsistentMapReplicator.MapStatistics stats = replicator.statistics("first");
+        assertNotNull(stats);
+        assertEquals(2, stats.messages());
+        assertEquals(4, stats.entries());
+        assertEquals(4, stats.bytes());
+        assertNull(replicator.statistics("unknown"));
+    }
+
+    /**
+     * Tests that the updates are delivered intact when frames are compressed.
+     */
+    @Test
+    public void testCompressedFrame() throws InterruptedException {
+        replicator.configure(true, 50, true);
+        checkDelivery();
+    }
+
+    /**
+     * Tests that compression enabled after frames to a peer were sent applies
+     * to the next frames to that peer.
+     */
+    @Test
+    public void testCompressionToggled() throws InterruptedException {
+        checkDelivery();
+        replicator.configure(true, 50, true);
+        communicator.frames.clear();
+        checkDelivery();
+        assertEquals(1, communicator.frames.get(0)[0]);
+    }
+
+    /**
+     * Tests that the updates pending when the batch millis change are still sent.
+     */
+    @Test
+    public void testBatchMillisChanged() throws InterruptedException {
+        replicator.send(PEER, "first", new byte[] {1}, 1);
+        replicator.configure(true, 20, false);
+        replicator.send(PEER, "first", new byte[] {2}, 1);
+
+        List<byte[]> received = Arrays.asList(first.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS),
+                                              first.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertTrue(received.stream().anyMatch(bytes -> Arrays.equals(new byte[] {1}, bytes)));
+        assertTrue(received.stream().anyMatch(bytes -> Arrays.equals(new byte[] {2}, bytes)));
+        assertEquals(2, communicator.frames.size());
+    }
+
+    /**
+     * Tests that the statistics of the maps are published through the metrics
+     * service, including those of the maps which sent updates before.
+     */
+    @Test
+    public void testMetrics() {
+        MetricsManager metrics = new MetricsManager();
+        replicator.send(PEER, "first", new byte[] {1, 2}, 2);
+        replicator.setMetricsService(metrics);
+        replicator.send(PEER, "second", new byte[] {3}, 1);
+
+        Map<String, Gauge> gauges = metrics.getGauges((name, metric) -> true);
+        assertEquals(6, gauges.size());
+        assertEquals(2L, gauges.get("EventuallyConsistentMapReplication.first.entries").getValue());
+        assertEquals(1L, gauges.get("EventuallyConsistentMapReplication.second.bytes").getValue());
+
+        replicator.unregister("first");
+        assertEquals(3, metrics.getGauges((name, metric) -> true).size());
+        replicator.setMetricsService(null);
+        assertTrue(metrics.getGauges((name, metric) -> true).isEmpty());
+    }
+
+    /**
+     * Tests that the updates of a map which is not registered are dropped.
+     */
+    @Test
+    public void testUnknownMap() throws InterruptedException {
+        replicator.unregister("second");
+        replicator.send(PEER, "second", new byte[] {1}, 1);
+        replicator.send(PEER, "first", new byte[] {2}, 1);
+
+        assertArrayEquals(new byte[] {2}, first.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertTrue(second.isEmpty());
+    }
+
+    /**
+     * Tests that compression shrinks frames of redundant updates.
+     */
+    @Test
+    public void testEncoding() {
+        byte[] updates = new byte[512];
+        Arrays.fill(updates, (byte) 3);
+        List<EventuallyConsistentMapReplicator.Update> frame =
+                Arrays.asList(new EventuallyConsistentMapReplicator.Update("first", updates));
+
+        byte[] raw = EventuallyConsistentMapReplicator.encode(frame, false);
+        byte[] compressed = EventuallyConsistentMapReplicator.encode(frame, true);
+        assertTrue(compressed.length < raw.length);
+    }
+
+    private void checkDelivery() throws InterruptedException {
+        byte[] one = {1, 2, 3};
+        byte[] two = {4, 5};
+        byte[] three = {6};
+        replicator.send(PEER, "first", one, 3);
+        replicator.send(PEER, "second", two, 2);
+        replicator.send(PEER, "first", three, 1);
+
+        assertArrayEquals(one, first.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertArrayEquals(three, first.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertArrayEquals(two, second.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(1, communicator.frames.size());
+    }
+
+    /**
+     * Communicator handing the messages sent to any peer back to the local
+     * subscriber of the subject.
+     */
+    private static final class LoopbackCommunicator extends ClusterCommunicationServiceAdapter {
+        private final List<byte[]> frames = new CopyOnWriteArrayList<>();
+        private Consumer<byte[]> subscriber;
+
+        @Override
+        public <M> void addSubscriber(MessageSubject subject, Function<byte[], M> decoder,
+                                      Consumer<M> handler, Executor executor) {
+            subscriber = bytes -> executor.execute(() -> handler.accept(decoder.apply(bytes)));
+        }
+
+        @Override
+        public <M> CompletableFuture<Void> unicast(M message, MessageSubject subject,
+                                                   Function<M, byte[]> encoder, NodeId toNodeId) {
+            byte[] bytes = encoder.apply(message);
+            frames.add(bytes);
+            subscriber.accept(bytes);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
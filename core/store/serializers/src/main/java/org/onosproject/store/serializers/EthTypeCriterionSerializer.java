@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.serializers;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.onosproject.net.flow.criteria.Criteria;
+import org.onosproject.net.flow.criteria.EthTypeCriterion;
+
+/**
+ * Kryo Serializer for {@link EthTypeCriterion}.
+ * <p>
+ * The ether type is written as its 16 bit value.
+ */
+public final class EthTypeCriterionSerializer extends VersionedSerializer<EthTypeCriterion> {
+
+    private static final byte VERSION = 1;
+
+    /**
+     * Creates {@link EthTypeCriterion} serializer instance.
+     */
+    public EthTypeCriterionSerializer() {
+        super(VERSION);
+    }
+
+    @Override
+    protected void writeFields(Kryo kryo, Output output, EthTypeCriterion object) {
+        output.writeShort(object.ethType().toShort());
+    }
+
+    @Override
+    protected EthTypeCriterion readFields(Kryo kryo, Input input, Class<EthTypeCriterion> type, byte version) {
+        return (EthTypeCriterion) Criteria.matchEthType(input.readShort() & 0xffff);
+    }
+}
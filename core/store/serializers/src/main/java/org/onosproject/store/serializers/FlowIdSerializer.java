@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.serializers;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.onosproject.net.flow.FlowId;
+
+/**
+ * Kryo Serializer for {@link FlowId}.
+ * <p>
+ * Flow identifiers carry the application identifier in their upper bits,
+ * hence are written with a fixed length rather than a variable one.
+ */
+public final class FlowIdSerializer extends VersionedSerializer<FlowId> {
+
+    private static final byte VERSION = 1;
+
+    /**
+     * Creates {@link FlowId} serializer instance.
+     */
+    public FlowIdSerializer() {
+        super(VERSION);
+    }
+
+    @Override
+    protected void writeFields(Kryo kryo, Output output, FlowId object) {
+        output.writeLong(object.value());
+    }
+
+    @Override
+    protected FlowId readFields(Kryo kryo, Input input, Class<FlowId> type, byte version) {
+        return FlowId.valueOf(input.readLong());
+    }
+}
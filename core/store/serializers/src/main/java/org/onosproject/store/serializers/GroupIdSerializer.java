@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.serializers;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.onosproject.core.GroupId;
+
+/**
+ * Kryo Serializer for {@link GroupId}.
+ * <p>
+ * Group identifiers are mostly small, so are written with a variable
+ * length.
+ */
+public final class GroupIdSerializer extends VersionedSerializer<GroupId> {
+
+    private static final byte VERSION = 1;
+
+    /**
+     * Creates {@link GroupId} serializer instance.
+     */
+    public GroupIdSerializer() {
+        super(VERSION);
+    }
+
+    @Override
+    protected void writeFields(Kryo kryo, Output output, GroupId object) {
+        output.writeVarInt(object.id(), true);
+    }
+
+    @Override
+    protected GroupId readFields(Kryo kryo, Input input, Class<GroupId> type, byte version) {
+        return new GroupId(input.readVarInt(true));
+    }
+}
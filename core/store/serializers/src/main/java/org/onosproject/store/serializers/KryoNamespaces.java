@@ -409,6 +409,10 @@ public final class KryoNamespaces {
      * calling {@link KryoNamespace.Builder#nextId(int)}.
      * If existing types need to be removed, use {@link KryoNamespace.Builder#nextId(int)} to preserve a consistent
      * ordering of type IDs.
+     *
+     * The flow and group identifiers, port, ether type and VLAN criteria and output instructions are written by
+     * versioned serializers; their format is not compatible with the field serializers of older releases, so these
+     * types cannot be exchanged with nodes running them.
      */
     public static final KryoNamespace API = KryoNamespace.newBuilder()
             .nextId(KryoNamespace.INITIAL_ID)
@@ -457,21 +461,27 @@ public final class KryoNamespaces {
                     DefaultFlowEntry.class,
                     StoredFlowEntry.class,
                     DefaultFlowRule.class,
-                    TableId.class,
-                    IndexTableId.class,
+                    TableId.class
+            )
+            .register(new IndexTableIdSerializer(), IndexTableId.class)
+            .register(
                     FlowRule.FlowRemoveReason.class,
                     DefaultPacketRequest.class,
                     PacketPriority.class,
                     FlowEntry.FlowEntryState.class,
-                    FlowEntry.FlowLiveType.class,
-                    FlowId.class,
-                    DefaultTrafficSelector.class,
-                    PortCriterion.class,
+                    FlowEntry.FlowLiveType.class
+            )
+            .register(new FlowIdSerializer(), FlowId.class)
+            .register(DefaultTrafficSelector.class)
+            .register(new PortCriterionSerializer(), PortCriterion.class)
+            .register(
                     MetadataCriterion.class,
                     EthCriterion.class,
-                    EthType.class,
-                    EthTypeCriterion.class,
-                    VlanIdCriterion.class,
+                    EthType.class
+            )
+            .register(new EthTypeCriterionSerializer(), EthTypeCriterion.class)
+            .register(new VlanIdCriterionSerializer(), VlanIdCriterion.class)
+            .register(
                     VlanPcpCriterion.class,
                     IPDscpCriterion.class,
                     IPEcnCriterion.class,
@@ -503,8 +513,10 @@ public final class KryoNamespaces {
                     Criterion.class,
                     Criterion.Type.class,
                     DefaultTrafficTreatment.class,
-                    Instructions.NoActionInstruction.class,
-                    Instructions.OutputInstruction.class,
+                    Instructions.NoActionInstruction.class
+            )
+            .register(new OutputInstructionSerializer(), Instructions.OutputInstruction.class)
+            .register(
                     Instructions.GroupInstruction.class,
                     Instructions.SetQueueInstruction.class,
                     Instructions.TableTypeTransition.class,
@@ -637,7 +649,7 @@ public final class KryoNamespaces {
             .register(MultimapEvent.Type.class)
             .register(SetEvent.class)
             .register(SetEvent.Type.class)
-            .register(GroupId.class)
+            .register(new GroupIdSerializer(), GroupId.class)
             .register(Annotations.class)
             .register(OduSignalType.class)
             .register(OchSignalType.class)
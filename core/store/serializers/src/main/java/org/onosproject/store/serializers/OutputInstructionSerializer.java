@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.serializers;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.instructions.Instructions;
+import org.onosproject.net.flow.instructions.Instructions.OutputInstruction;
+
+/**
+ * Kryo Serializer for {@link OutputInstruction}.
+ * <p>
+ * Only the output port is written.
+ */
+public final class OutputInstructionSerializer extends VersionedSerializer<OutputInstruction> {
+
+    private static final byte VERSION = 1;
+
+    /**
+     * Creates {@link OutputInstruction} serializer instance.
+     */
+    public OutputInstructionSerializer() {
+        super(VERSION);
+    }
+
+    @Override
+    protected void writeFields(Kryo kryo, Output output, OutputInstruction object) {
+        kryo.writeObject(output, object.port());
+    }
+
+    @Override
+    protected OutputInstruction readFields(Kryo kryo, Input input, Class<OutputInstruction> type, byte version) {
+        return Instructions.createOutput(kryo.readObject(input, PortNumber.class));
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.serializers;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.criteria.Criteria;
+import org.onosproject.net.flow.criteria.Criterion;
+import org.onosproject.net.flow.criteria.PortCriterion;
+
+/**
+ * Kryo Serializer for {@link PortCriterion}.
+ * <p>
+ * The criterion type, either input port or physical input port, is written
+ * as a flag ahead of the port.
+ */
+public final class PortCriterionSerializer extends VersionedSerializer<PortCriterion> {
+
+    private static final byte VERSION = 1;
+
+    /**
+     * Creates {@link PortCriterion} serializer instance.
+     */
+    public PortCriterionSerializer() {
+        super(VERSION);
+    }
+
+    @Override
+    protected void writeFields(Kryo kryo, Output output, PortCriterion object) {
+        output.writeBoolean(object.type() == Criterion.Type.IN_PHY_PORT);
+        kryo.writeObject(output, object.port());
+    }
+
+    @Override
+    protected PortCriterion readFields(Kryo kryo, Input input, Class<PortCriterion> type, byte version) {
+        boolean physical = input.readBoolean();
+        PortNumber port = kryo.readObject(input, PortNumber.class);
+        return (PortCriterion) (physical ? Criteria.matchInPhyPort(port) : Criteria.matchInPort(port));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.serializers;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * Kryo Serializer writing a one byte format version ahead of the fields of
+ * the object.
+ * <p>
+ * A serializer changing its format bumps its version and may keep reading
+ * the objects written in the previous versions; objects written in versions
+ * it does not know are rejected. The objects written by these serializers
+ * cannot be read by nodes of releases which serialized their types with the
+ * field serializer, nor the other way round.
+ *
+ * @param <T> type of the serialized objects
+ */
+abstract class VersionedSerializer<T> extends Serializer<T> {
+
+    private final byte version;
+
+    /**
+     * Creates a serializer of non-null, immutable objects writing the given
+     * format version.
+     *
+     * @param version current format version; positive
+     */
+    protected VersionedSerializer(byte version) {
+        super(false, true);
+        this.version = version;
+    }
+
+    @Override
+    public final void write(Kryo kryo, Output output, T object) {
+        output.writeByte(version);
+        writeFields(kryo, output, object);
+    }
+
+    @Override
+    public final T read(Kryo kryo, Input input, Class<T> type) {
+        byte objectVersion = input.readByte();
+        if (objectVersion < 1 || objectVersion > version) {
+            throw new KryoException("Unsupported " + type.getSimpleName() +
+                                            " format version " + objectVersion);
+        }
+        return readFields(kryo, input, type, objectVersion);
+    }
+
+    /**
+     * Writes the fields of the given object in the current format version.
+     *
+     * @param kryo   Kryo instance
+     * @param output output to write to
+     * @param object object to write
+     */
+    protected abstract void writeFields(Kryo kryo, Output output, T object);
+
+    /**
+     * Reads the fields of an object written in the given format version.
+     *
+     * @param kryo    Kryo instance
+     * @param input   input to read from
+     * @param type    type of the object
+     * @param version format version the object was written in
+     * @return object read
+     */
+    protected abstract T readFields(Kryo kryo, Input input, Class<T> type, byte version);
+}
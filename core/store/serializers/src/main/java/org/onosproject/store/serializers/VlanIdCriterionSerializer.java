@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.serializers;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.onlab.packet.VlanId;
+import org.onosproject.net.flow.criteria.Criteria;
+import org.onosproject.net.flow.criteria.Criterion;
+import org.onosproject.net.flow.criteria.VlanIdCriterion;
+
+/**
+ * Kryo Serializer for {@link VlanIdCriterion}.
+ * <p>
+ * The criterion type, either outer or inner VLAN identifier, is written as
+ * a flag ahead of the 16 bit VLAN identifier.
+ */
+public final class VlanIdCriterionSerializer extends VersionedSerializer<VlanIdCriterion> {
+
+    private static final byte VERSION = 1;
+
+    /**
+     * Creates {@link VlanIdCriterion} serializer instance.
+     */
+    public VlanIdCriterionSerializer() {
+        super(VERSION);
+    }
+
+    @Override
+    protected void writeFields(Kryo kryo, Output output, VlanIdCriterion object) {
+        output.writeBoolean(object.type() == Criterion.Type.INNER_VLAN_VID);
+        output.writeShort(object.vlanId().toShort());
+    }
+
+    @Override
+    protected VlanIdCriterion readFields(Kryo kryo, Input input, Class<VlanIdCriterion> type, byte version) {
+        boolean inner = input.readBoolean();
+        VlanId vlanId = VlanId.vlanId(input.readShort());
+        return (VlanIdCriterion) (inner ? Criteria.matchInnerVlanId(vlanId) : Criteria.matchVlanId(vlanId));
+    }
+}
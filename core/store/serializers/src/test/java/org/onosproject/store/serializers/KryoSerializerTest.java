@@ -15,6 +15,10 @@
  */
 package org.onosproject.store.serializers;
 
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -54,6 +58,9 @@ import org.onosproject.net.flow.DefaultTrafficSelector;
 import org.onosproject.net.flow.DefaultTrafficTreatment;
 import org.onosproject.net.flow.FlowId;
 import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.IndexTableId;
+import org.onosproject.net.flow.criteria.Criteria;
+import org.onosproject.net.flow.instructions.Instructions;
 import org.onosproject.net.flow.oldbatch.FlowRuleBatchEntry;
 import org.onosproject.net.intent.IntentId;
 import org.onosproject.net.resource.ResourceAllocation;
@@ -377,6 +384,42 @@ public class KryoSerializerTest {
     @Test
     public void testFlowId() {
         testSerializedEquals(FlowId.valueOf(0x12345678L));
+        testSerializedEquals(FlowId.valueOf(0xabcd000012345678L));
+        // class ID, format version and fixed length value
+        assertTrue(serialize(FlowId.valueOf(0xabcd000012345678L)).length <= 11);
+    }
+
+    @Test
+    public void testIndexTableId() {
+        testSerializedEquals(IndexTableId.of(0));
+        testSerializedEquals(IndexTableId.of(200));
+        assertTrue(serialize(IndexTableId.of(2)).length <= 4);
+    }
+
+    @Test(expected = KryoException.class)
+    public void testUnknownFormatVersion() {
+        Output output = new Output(16);
+        output.writeByte(2);
+        output.writeLong(0x12345678L);
+        new FlowIdSerializer().read(new Kryo(), new Input(output.toBytes()), FlowId.class);
+    }
+
+    @Test
+    public void testCriteria() {
+        testSerializedEquals(Criteria.matchInPort(P1));
+        testSerializedEquals(Criteria.matchInPhyPort(P1));
+        testSerializedEquals(Criteria.matchEthType(0x88cc));
+        testSerializedEquals(Criteria.matchVlanId(VLAN1));
+        testSerializedEquals(Criteria.matchVlanId(VlanId.NONE));
+        testSerializedEquals(Criteria.matchInnerVlanId(VLAN1));
+        assertTrue(serialize(Criteria.matchEthType(0x88cc)).length <= 5);
+        assertTrue(serialize(Criteria.matchVlanId(VLAN1)).length <= 6);
+    }
+
+    @Test
+    public void testOutputInstruction() {
+        testSerializedEquals(Instructions.createOutput(P1));
+        testSerializedEquals(Instructions.createOutput(PortNumber.CONTROLLER));
     }
 
     @Test
@@ -458,6 +501,8 @@ public class KryoSerializerTest {
     @Test
     public void testGroupId() {
         testSerializedEquals(new GroupId(99));
+        testSerializedEquals(new GroupId(0x80000001));
+        assertTrue(serialize(new GroupId(0)).length <= 4);
     }
 
     @Test
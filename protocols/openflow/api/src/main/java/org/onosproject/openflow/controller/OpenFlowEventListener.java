@@ -17,6 +17,7 @@ package org.onosproject.openflow.controller;
 
 import org.projectfloodlight.openflow.protocol.OFMessage;
 
+import java.util.List;
 
 /**
  * Notifies providers about openflow msg events.
@@ -30,4 +31,15 @@ public interface OpenFlowEventListener {
      * @param msg the message
      */
     void handleMessage(Dpid dpid, OFMessage msg);
+
+    /**
+     * Handles a batch of message events from the same switch, e.g. the flow
+     * removed messages or statistics replies received in a burst.
+     *
+     * @param dpid switch data path identifier
+     * @param msgs the messages, in the order they were received
+     */
+    default void handleMessages(Dpid dpid, List<OFMessage> msgs) {
+        msgs.forEach(msg -> handleMessage(dpid, msg));
+    }
 }
@@ -57,6 +57,16 @@ public interface OpenFlowSwitch {
      */
     void handleMessage(OFMessage fromSwitch);
 
+    /**
+     * Handle a burst of messages from the switch, in the order they were
+     * received.
+     *
+     * @param fromSwitch the messages to handle
+     */
+    default void handleMessages(List<OFMessage> fromSwitch) {
+        fromSwitch.forEach(this::handleMessage);
+    }
+
     /**
      * Sets the role for this switch.
      * @param role the role to set.
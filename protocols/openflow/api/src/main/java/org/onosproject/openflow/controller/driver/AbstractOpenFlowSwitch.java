@@ -48,6 +48,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -277,14 +278,7 @@ public abstract class AbstractOpenFlowSwitch extends AbstractHandlerBehaviour
             try {
                 // TODO revisit states other than ports should
                 // also ignore role state.
-                if (m.getType() == OFType.PORT_STATUS) {
-                    OFPortStatus portStatus = (OFPortStatus) m;
-                    if (portStatus.getReason() == OFPortReason.DELETE) {
-                        portDescs.remove(portStatus.getDesc().getPortNo());
-                    } else {
-                        portDescs.put(portStatus.getDesc().getPortNo(), portStatus.getDesc());
-                    }
-                }
+                updatePortDescs(m);
                 this.agent.processMessage(dpid, m);
             } catch (Exception e) {
                 log.warn("Unhandled exception processing {}@{}", m, dpid, e);
@@ -294,6 +288,44 @@ public abstract class AbstractOpenFlowSwitch extends AbstractHandlerBehaviour
         }
     }
 
+    /**
+     * Handle a burst of messages coming from the dataplane, which are handed
+     * to the agent as a whole.
+     *
+     * @param ms the actual messages
+     */
+    @Override
+    public final void handleMessages(List<OFMessage> ms) {
+        List<OFMessage> accepted = new ArrayList<>(ms.size());
+        for (OFMessage m : ms) {
+            if (this.role == RoleState.MASTER || m instanceof OFPortStatus) {
+                updatePortDescs(m);
+                accepted.add(m);
+            } else {
+                log.trace("Dropping received message {}, was not MASTER", m);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        try {
+            this.agent.processMessages(dpid, accepted);
+        } catch (Exception e) {
+            log.warn("Unhandled exception processing {} messages@{}", accepted.size(), dpid, e);
+        }
+    }
+
+    private void updatePortDescs(OFMessage m) {
+        if (m.getType() == OFType.PORT_STATUS) {
+            OFPortStatus portStatus = (OFPortStatus) m;
+            if (portStatus.getReason() == OFPortReason.DELETE) {
+                portDescs.remove(portStatus.getDesc().getPortNo());
+            } else {
+                portDescs.put(portStatus.getDesc().getPortNo(), portStatus.getDesc());
+            }
+        }
+    }
+
     @Override
     public RoleState getRole() {
         return role;
@@ -101,6 +101,17 @@ public interface OpenFlowAgent {
      */
     void processMessage(Dpid dpid, OFMessage m);
 
+    /**
+     * Process a burst of messages coming from a switch, in the order they
+     * were received.
+     *
+     * @param dpid the dpid the messages came on.
+     * @param ms the messages to process
+     */
+    default void processMessages(Dpid dpid, List<OFMessage> ms) {
+        ms.forEach(m -> processMessage(dpid, m));
+    }
+
     /**
      * Notifies the controller that role assertion has failed.
      *
@@ -103,6 +103,11 @@ public class Controller {
     // Configuration options
     protected List<Integer> openFlowPorts = ImmutableList.of(6633, 6653);
     protected int workerThreads = 0;
+    protected volatile int writeFlushDelayMicros = 0;
+    protected volatile int writeBatchSize = 1000;
+
+    // Statistics of the writes to all switches
+    protected final WriteStatistics writeStatistics = new WriteStatistics();
 
     // Start time of the controller
     protected long systemStartTime;
@@ -225,6 +230,7 @@ public class Controller {
         boolean restartRequired = setOpenFlowPorts(properties);
         restartRequired |= setWorkerThreads(properties);
         restartRequired |= setTlsParameters(properties);
+        setWriteCoalescing(properties);
         if (restartRequired) {
             restart();
         }
@@ -276,6 +282,28 @@ public class Controller {
         return oldValue != this.workerThreads; // restart if number of threads has changed
     }
 
+    /**
+     * Gets the write coalescing parameters from property dict.
+     *
+     * @param properties dictionary
+     */
+    private void setWriteCoalescing(Dictionary<?, ?> properties) {
+        try {
+            String delay = get(properties, "writeFlushDelayMicros");
+            if (!Strings.isNullOrEmpty(delay)) {
+                this.writeFlushDelayMicros = Math.max(Integer.parseInt(delay.trim()), 0);
+            }
+            String batchSize = get(properties, "writeBatchSize");
+            if (!Strings.isNullOrEmpty(batchSize)) {
+                this.writeBatchSize = Math.max(Integer.parseInt(batchSize.trim()), 1);
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Invalid write coalescing parameters", e);
+        }
+        log.debug("Write flush delay set to {}us, batch size to {}",
+                  this.writeFlushDelayMicros, this.writeBatchSize);
+    }
+
     static class TlsParams {
         final TlsMode mode;
         final String ksLocation;
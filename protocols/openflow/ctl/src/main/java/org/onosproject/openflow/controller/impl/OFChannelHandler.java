@@ -37,7 +37,10 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import com.google.common.collect.Iterables;
 import org.onlab.packet.IpAddress;
 import org.onosproject.openflow.controller.Dpid;
 import org.onosproject.openflow.controller.OpenFlowSession;
@@ -157,10 +160,29 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
     private static final int MSG_READ_BUFFER = 5000;
 
     /**
-     * OFMessage dispatch queue.
+     * Maximum number of messages handed to the dispatcher at once.
      */
-    private final BlockingQueue<OFMessage> dispatchQueue =
-            new LinkedBlockingQueue<>(MSG_READ_BUFFER);
+    private static final int MSG_BATCH_SIZE = 500;
+
+    /**
+     * OFMessage dispatch queue, holding the messages read from the channel
+     * in batches.
+     */
+    private final BlockingQueue<List<OFMessage>> dispatchQueue =
+            new LinkedBlockingQueue<>();
+
+    /**
+     * Number of messages in the dispatch queue, up to MSG_READ_BUFFER.
+     */
+    private final AtomicInteger dispatchQueueSize = new AtomicInteger();
+
+    /**
+     * Messages read from the channel since the last batch was handed to
+     * the dispatcher.
+     * <p>
+     * Should only be touched from the Channel I/O thread
+     */
+    private List<OFMessage> dispatchBatch = new ArrayList<>();
 
     /**
      * Single thread executor for OFMessage dispatching.
@@ -181,7 +203,25 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
      * <p>
      * Should only be touched from the Channel I/O thread
      */
-    private final Deque<OFMessage> dispatchBacklog = new ArrayDeque<>();
+    private final Deque<List<OFMessage>> dispatchBacklog = new ArrayDeque<>();
+
+    /**
+     * Messages sent to the switch and not yet flushed to the channel, when
+     * writes are coalesced, along with the sum of the times they were sent.
+     * <p>
+     * Guards itself, pendingSendNanos and flushScheduled
+     */
+    private final List<OFMessage> pendingWrites = new ArrayList<>();
+    private long pendingSendNanos;
+    private boolean flushScheduled;
+
+    /**
+     * Indicates whether messages are pending; lets sends bypass the
+     * pendingWrites lock when writes are not coalesced.
+     */
+    private volatile boolean writesPending;
+
+    private final WriteStatistics writeStatistics = new WriteStatistics();
 
     /**
      * Create a new unconnected OFChannelHandler.
@@ -1277,6 +1317,12 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
             dispatcher.shutdownNow();
             dispatcher = null;
         }
+        synchronized (pendingWrites) {
+            flushPendingWrites();
+        }
+        log.debug("Flushed {} messages to sw:{} in {} flushes, {} messages per flush",
+                  writeStatistics.messages(), getSwitchInfoString(), writeStatistics.flushes(),
+                  String.format("%.1f", writeStatistics.messagesPerFlush()));
 
          if (thisdpid != 0) {
              if (!duplicateDpidFound) {
@@ -1407,6 +1453,13 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
         }
     }
 
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+        // hand the messages of the burst just read to the dispatcher
+        flushDispatchBatch();
+        super.channelReadComplete(ctx);
+    }
+
 
 
 
@@ -1423,54 +1476,50 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
     }
 
     private void dispatchMessage(OFMessage m) {
+        dispatchBatch.add(m);
+        if (dispatchBatch.size() >= MSG_BATCH_SIZE) {
+            flushDispatchBatch();
+        }
+    }
 
-        if (dispatchBacklog.isEmpty()) {
-            if (!dispatchQueue.offer(m)) {
-                // queue full
-                channel.config().setAutoRead(false);
-                // put it on the head of backlog
-                dispatchBacklog.addFirst(m);
-                return;
-            }
-        } else {
-            dispatchBacklog.addLast(m);
+    private void flushDispatchBatch() {
+        if (dispatchBatch.isEmpty()) {
+            return;
         }
+        dispatchBacklog.addLast(dispatchBatch);
+        dispatchBatch = new ArrayList<>();
 
         while (!dispatchBacklog.isEmpty()) {
-            OFMessage msg = dispatchBacklog.pop();
-
-            if (!dispatchQueue.offer(msg)) {
-                // queue full
+            List<OFMessage> msgs = dispatchBacklog.peekFirst();
+            int queued = dispatchQueueSize.get();
+            if (queued > 0 && queued + msgs.size() > MSG_READ_BUFFER) {
+                // queue full, leave the rest on the backlog
                 channel.config().setAutoRead(false);
-                // put it back to the head of backlog
-                dispatchBacklog.addFirst(msg);
-                return;
+                break;
             }
+            dispatchQueueSize.addAndGet(msgs.size());
+            dispatchQueue.add(dispatchBacklog.removeFirst());
         }
 
-
-        if (dispatcherHandle.isDone()) {
+        if (dispatcherHandle.isDone() && dispatcher != null) {
             // dispatcher terminated for some reason, restart
 
             dispatcherHandle = dispatcher.submit((Runnable) () -> {
                 try {
-                    List<OFMessage> msgs = new ArrayList<>();
+                    List<List<OFMessage>> batches = new ArrayList<>();
                     for (;;) {
-                        // wait for new message
-                        OFMessage msg = dispatchQueue.take();
-                        sw.handleMessage(msg);
-
-                        while (dispatchQueue.drainTo(msgs, MSG_READ_BUFFER) > 0) {
-                            if (!channel.config().isAutoRead()) {
-                                channel.config().setAutoRead(true);
-                            }
-                            msgs.forEach(sw::handleMessage);
-                            msgs.clear();
+                        // wait for new messages
+                        batches.add(dispatchQueue.take());
+                        dispatchQueue.drainTo(batches);
+                        for (List<OFMessage> msgs : batches) {
+                            dispatchQueueSize.addAndGet(-msgs.size());
                         }
 
                         if (!channel.config().isAutoRead()) {
                             channel.config().setAutoRead(true);
                         }
+                        batches.forEach(sw::handleMessages);
+                        batches.clear();
                     }
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
@@ -1678,7 +1727,26 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
             if (log.isTraceEnabled()) {
                 log.trace("Sending messages for switch {} via openflow channel: {}", getSwitchInfoString(), msgs);
             }
-            channel.writeAndFlush(msgs, channel.voidPromise());
+            long flushDelay = controller.writeFlushDelayMicros;
+            if (flushDelay <= 0 && !writesPending) {
+                channel.writeAndFlush(msgs, channel.voidPromise());
+                recordFlush(Iterables.size(msgs), 0);
+                return true;
+            }
+            synchronized (pendingWrites) {
+                // Messages wait in order behind those already pending, so
+                // that e.g. barriers still follow the flow mods before them.
+                int pending = pendingWrites.size();
+                msgs.forEach(pendingWrites::add);
+                pendingSendNanos += System.nanoTime() * (pendingWrites.size() - pending);
+                writesPending = true;
+                if (flushDelay <= 0 || pendingWrites.size() >= controller.writeBatchSize) {
+                    flushPendingWrites();
+                } else if (!flushScheduled) {
+                    flushScheduled = true;
+                    channel.eventLoop().schedule(this::flushScheduledWrites, flushDelay, TimeUnit.MICROSECONDS);
+                }
+            }
             return true;
         } else {
             log.warn("Dropping messages for switch {} because channel is not connected: {}",
@@ -1687,6 +1755,39 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
         }
     }
 
+    private void flushScheduledWrites() {
+        synchronized (pendingWrites) {
+            flushScheduled = false;
+            flushPendingWrites();
+        }
+    }
+
+    // Writes the pending messages to the channel in a single flush, or drops
+    // them if the channel is no longer connected; must be called holding the
+    // pendingWrites lock.
+    private void flushPendingWrites() {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+        List<OFMessage> msgs = new ArrayList<>(pendingWrites);
+        long delayNanos = System.nanoTime() * msgs.size() - pendingSendNanos;
+        pendingWrites.clear();
+        pendingSendNanos = 0;
+        writesPending = false;
+        if (!channel.isActive()) {
+            log.warn("Dropping messages for switch {} because channel is not connected: {}",
+                     getSwitchInfoString(), msgs);
+            return;
+        }
+        channel.writeAndFlush(msgs, channel.voidPromise());
+        recordFlush(msgs.size(), delayNanos);
+    }
+
+    private void recordFlush(int count, long delayNanos) {
+        writeStatistics.record(count, delayNanos);
+        controller.writeStatistics.record(count, delayNanos);
+    }
+
     @Override
     public CharSequence sessionInfo() {
         return channelId;
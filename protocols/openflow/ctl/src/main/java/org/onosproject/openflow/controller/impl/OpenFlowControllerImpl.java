@@ -15,9 +15,13 @@
  */
 package org.onosproject.openflow.controller.impl;
 
+import com.codahale.metrics.Gauge;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.core.CoreService;
 import org.onosproject.net.DeviceId;
@@ -104,12 +108,21 @@ import static org.onosproject.openflow.controller.impl.OsgiPropertyConstants.*;
                 KEY_STORE_PASSWORD + "=" + KEY_STORE_PASSWORD_DEFAULT,
                 TRUST_STORE + "=" + TRUST_STORE_DEFAULT,
                 TRUST_STORE_PASSWORD + "=" + TRUST_STORE_PASSWORD_DEFAULT,
+                WRITE_FLUSH_DELAY + ":Integer=" + WRITE_FLUSH_DELAY_DEFAULT,
+                WRITE_BATCH_SIZE + ":Integer=" + WRITE_BATCH_SIZE_DEFAULT,
         }
 )
 public class OpenFlowControllerImpl implements OpenFlowController {
     private static final String APP_ID = "org.onosproject.openflow-base";
     protected static final String SCHEME = "of";
 
+    private static final String METRICS_COMPONENT = "OpenFlowController";
+    private static final String METRICS_FEATURE = "writes";
+    private static final String FLUSHES = "flushes";
+    private static final String FLUSHED_MESSAGES = "flushedMessages";
+    private static final String MESSAGES_PER_FLUSH = "messagesPerFlush";
+    private static final String FLUSH_DELAY = "flushDelayMicros";
+
     private static final Logger log =
             LoggerFactory.getLogger(OpenFlowControllerImpl.class);
 
@@ -125,6 +138,12 @@ public class OpenFlowControllerImpl implements OpenFlowController {
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected NetworkConfigRegistry netCfgService;
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL)
+    protected MetricsService metricsService;
+
+    private MetricsComponent metricsComponent;
+    private MetricsFeature metricsFeature;
+
     /** Port numbers (comma separated) used by OpenFlow protocol; default is 6633,6653. */
     private String openflowPortsValue = OFPORTS_DEFAULT;
 
@@ -146,6 +165,12 @@ public class OpenFlowControllerImpl implements OpenFlowController {
     /** Trust store password. */
     private String trustStorePassword;
 
+    /** Microseconds messages sent to a switch may wait to be flushed with later ones; 0 to flush each send. */
+    private int writeFlushDelayMicros = WRITE_FLUSH_DELAY_DEFAULT;
+
+    /** Number of pending messages which causes an immediate flush when coalescing writes. */
+    private int writeBatchSize = WRITE_BATCH_SIZE_DEFAULT;
+
     protected ExecutorService executorMsgs =
         Executors.newFixedThreadPool(32, groupedThreads("onos/of", "event-stats-%d", log));
 
@@ -266,6 +291,35 @@ public class OpenFlowControllerImpl implements OpenFlowController {
         netCfgService.addListener(netCfgListener);
         ctrl.setConfigParams(context.getProperties());
         ctrl.start(agent, driverService, netCfgService);
+        registerMetrics();
+    }
+
+    // Publishes the write statistics of the switch channels through the
+    // metrics service.
+    private void registerMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        WriteStatistics statistics = ctrl.writeStatistics;
+        metricsComponent = metricsService.registerComponent(METRICS_COMPONENT);
+        metricsFeature = metricsComponent.registerFeature(METRICS_FEATURE);
+        metricsService.registerMetric(metricsComponent, metricsFeature, FLUSHES,
+                                      (Gauge<Long>) statistics::flushes);
+        metricsService.registerMetric(metricsComponent, metricsFeature, FLUSHED_MESSAGES,
+                                      (Gauge<Long>) statistics::messages);
+        metricsService.registerMetric(metricsComponent, metricsFeature, MESSAGES_PER_FLUSH,
+                                      (Gauge<Double>) statistics::messagesPerFlush);
+        metricsService.registerMetric(metricsComponent, metricsFeature, FLUSH_DELAY,
+                                      (Gauge<Double>) statistics::flushDelayMicros);
+    }
+
+    private void unregisterMetrics() {
+        if (metricsService == null || metricsComponent == null) {
+            return;
+        }
+        for (String name : new String[]{FLUSHES, FLUSHED_MESSAGES, MESSAGES_PER_FLUSH, FLUSH_DELAY}) {
+            metricsService.removeMetric(metricsComponent, metricsFeature, name);
+        }
     }
 
     private void cleanup() {
@@ -280,6 +334,7 @@ public class OpenFlowControllerImpl implements OpenFlowController {
 
     @Deactivate
     public void deactivate() {
+        unregisterMetrics();
         cleanup();
         cfgService.unregisterProperties(getClass(), false);
         netCfgService.removeListener(netCfgListener);
@@ -383,6 +438,19 @@ public class OpenFlowControllerImpl implements OpenFlowController {
 
     @Override
     public void processPacket(Dpid dpid, OFMessage msg) {
+        processPacket(dpid, msg, null);
+    }
+
+    /**
+     * Processes a message from the given switch. The messages meant for the
+     * event listeners are added to the given batch, if any, instead of being
+     * handed to the listeners right away.
+     *
+     * @param dpid   switch data path identifier
+     * @param msg    message to process
+     * @param events batch of messages for the event listeners; null if none
+     */
+    private void processPacket(Dpid dpid, OFMessage msg, List<OFMessage> events) {
         OpenFlowSwitch sw = this.getSwitch(dpid);
         if (log.isTraceEnabled()) {
             log.trace("Processing message from switch {} via openflow: {}", dpid, msg);
@@ -422,7 +490,7 @@ public class OpenFlowControllerImpl implements OpenFlowController {
         // TODO: Consider using separate threadpool for sensitive messages.
         //    ie. Back to back error could cause us to starve.
         case FLOW_REMOVED:
-            executorMsgs.execute(new OFMessageHandler(dpid, msg));
+            dispatchEvent(dpid, msg, events);
             break;
         case ERROR:
             log.debug("Received error message from {}: {}", dpid, msg);
@@ -430,7 +498,7 @@ public class OpenFlowControllerImpl implements OpenFlowController {
             executorErrorMsgs.execute(new OFMessageHandler(dpid, msg));
             break;
         case STATS_REPLY:
-            processStatsReply(dpid, (OFStatsReply) msg);
+            processStatsReply(dpid, (OFStatsReply) msg, events);
             break;
         case BARRIER_REPLY:
             if (errorMsgs.containsKey(msg.getXid())) {
@@ -473,7 +541,7 @@ public class OpenFlowControllerImpl implements OpenFlowController {
         }
     }
 
-    private void processStatsReply(Dpid dpid, OFStatsReply reply) {
+    private void processStatsReply(Dpid dpid, OFStatsReply reply, List<OFMessage> events) {
         switch (reply.getStatsType()) {
             case QUEUE:
                 Collection<OFQueueStatsEntry> queueStatsEntries = publishQueueStats(dpid, (OFQueueStatsReply) reply);
@@ -482,7 +550,7 @@ public class OpenFlowControllerImpl implements OpenFlowController {
                             OFFactories.getFactory(reply.getVersion()).buildQueueStatsReply();
                     rep.setEntries(ImmutableList.copyOf(queueStatsEntries));
                     rep.setXid(reply.getXid());
-                    executorMsgs.execute(new OFMessageHandler(dpid, rep.build()));
+                    dispatchEvent(dpid, rep.build(), events);
                 }
                 break;
 
@@ -499,7 +567,7 @@ public class OpenFlowControllerImpl implements OpenFlowController {
                             OFFactories.getFactory(reply.getVersion()).buildFlowStatsReply();
                     rep.setEntries(ImmutableList.copyOf(flowStats));
                     rep.setXid(reply.getXid());
-                    executorMsgs.execute(new OFMessageHandler(dpid, rep.build()));
+                    dispatchEvent(dpid, rep.build(), events);
                 }
                 break;
             case FLOW_LIGHTWEIGHT:
@@ -510,7 +578,7 @@ public class OpenFlowControllerImpl implements OpenFlowController {
                             OFFactories.getFactory(reply.getVersion()).buildFlowLightweightStatsReply();
                     rep.setEntries(ImmutableList.copyOf(flowLightweightStats));
                     rep.setXid(reply.getXid());
-                    executorMsgs.execute(new OFMessageHandler(dpid, rep.build()));
+                    dispatchEvent(dpid, rep.build(), events);
                 }
                 break;
             case TABLE:
@@ -519,7 +587,7 @@ public class OpenFlowControllerImpl implements OpenFlowController {
                     OFTableStatsReply.Builder rep =
                             OFFactories.getFactory(reply.getVersion()).buildTableStatsReply();
                     rep.setEntries(ImmutableList.copyOf(tableStats));
-                    executorMsgs.execute(new OFMessageHandler(dpid, rep.build()));
+                    dispatchEvent(dpid, rep.build(), events);
                 }
                 break;
 
@@ -530,7 +598,7 @@ public class OpenFlowControllerImpl implements OpenFlowController {
                             OFFactories.getFactory(reply.getVersion()).buildGroupStatsReply();
                     rep.setEntries(ImmutableList.copyOf(groupStats));
                     rep.setXid(reply.getXid());
-                    executorMsgs.execute(new OFMessageHandler(dpid, rep.build()));
+                    dispatchEvent(dpid, rep.build(), events);
                 }
                 break;
 
@@ -542,16 +610,16 @@ public class OpenFlowControllerImpl implements OpenFlowController {
                             OFFactories.getFactory(reply.getVersion()).buildGroupDescStatsReply();
                     rep.setEntries(ImmutableList.copyOf(groupDescStats));
                     rep.setXid(reply.getXid());
-                    executorMsgs.execute(new OFMessageHandler(dpid, rep.build()));
+                    dispatchEvent(dpid, rep.build(), events);
                 }
                 break;
 
             case PORT:
-                executorMsgs.execute(new OFMessageHandler(dpid, reply));
+                dispatchEvent(dpid, reply, events);
                 break;
 
             case METER:
-                executorMsgs.execute(new OFMessageHandler(dpid, reply));
+                dispatchEvent(dpid, reply, events);
                 break;
 
             case EXPERIMENTER:
@@ -597,10 +665,10 @@ public class OpenFlowControllerImpl implements OpenFlowController {
                         OFFlowStatsReply.Builder rep =
                                 sw.factory().buildFlowStatsReply();
                         rep.setEntries(ImmutableList.copyOf(flowStats));
-                        executorMsgs.execute(new OFMessageHandler(dpid, rep.build()));
+                        dispatchEvent(dpid, rep.build(), events);
                     }
                 } else {
-                    executorMsgs.execute(new OFMessageHandler(dpid, reply));
+                    dispatchEvent(dpid, reply, events);
                 }
                 break;
             default:
@@ -609,6 +677,16 @@ public class OpenFlowControllerImpl implements OpenFlowController {
         }
     }
 
+    // Hands the given message to the event listeners, or adds it to the
+    // batch being collected for them.
+    private void dispatchEvent(Dpid dpid, OFMessage msg, List<OFMessage> events) {
+        if (events != null) {
+            events.add(msg);
+        } else {
+            executorMsgs.execute(new OFMessageHandler(dpid, msg));
+        }
+    }
+
     private synchronized Collection<OFFlowStatsEntry> publishFlowStats(Dpid dpid,
                                                                        OFFlowStatsReply reply) {
         //TODO: Get rid of synchronized
@@ -834,6 +912,31 @@ public class OpenFlowControllerImpl implements OpenFlowController {
             }
         }
 
+        @Override
+        public void processMessages(Dpid dpid, List<OFMessage> ms) {
+            // Flow removed messages and statistics replies of the burst are
+            // handed to the event listeners in a single batch.
+            List<OFMessage> events = new ArrayList<>();
+            for (OFMessage m : ms) {
+                try {
+                    processPacket(dpid, m, events);
+                } catch (Exception e) {
+                    log.warn("Unhandled exception processing {}@{}", m, dpid, e);
+                }
+
+                try {
+                    for (OpenFlowMessageListener listener : ofMessageListener) {
+                        listener.handleIncomingMessage(dpid, m);
+                    }
+                } catch (Exception e) {
+                    log.warn("Unhandled exception notifying listeners of {}@{}", m, dpid, e);
+                }
+            }
+            if (!events.isEmpty()) {
+                executorMsgs.execute(new OFMessageHandler(dpid, events));
+            }
+        }
+
         @Override
         public void returnRoleReply(Dpid dpid, RoleState requested, RoleState response) {
             for (OpenFlowSwitchListener l : ofSwitchListener) {
@@ -847,18 +950,26 @@ public class OpenFlowControllerImpl implements OpenFlowController {
      */
     protected final class OFMessageHandler implements Runnable {
 
-        final OFMessage msg;
+        final List<OFMessage> msgs;
         final Dpid dpid;
 
         public OFMessageHandler(Dpid dpid, OFMessage msg) {
-            this.msg = msg;
+            this(dpid, ImmutableList.of(msg));
+        }
+
+        public OFMessageHandler(Dpid dpid, List<OFMessage> msgs) {
+            this.msgs = msgs;
             this.dpid = dpid;
         }
 
         @Override
         public void run() {
             for (OpenFlowEventListener listener : ofEventListener) {
-                listener.handleMessage(dpid, msg);
+                if (msgs.size() == 1) {
+                    listener.handleMessage(dpid, msgs.get(0));
+                } else {
+                    listener.handleMessages(dpid, msgs);
+                }
             }
         }
     }
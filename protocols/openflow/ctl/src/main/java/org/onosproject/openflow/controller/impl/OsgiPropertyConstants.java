@@ -46,4 +46,10 @@ public final class OsgiPropertyConstants {
     public static final String TRUST_STORE_PASSWORD = "trustStorePassword";
     public static final String TRUST_STORE_PASSWORD_DEFAULT = "";
 
+    public static final String WRITE_FLUSH_DELAY = "writeFlushDelayMicros";
+    public static final int WRITE_FLUSH_DELAY_DEFAULT = 0;
+
+    public static final String WRITE_BATCH_SIZE = "writeBatchSize";
+    public static final int WRITE_BATCH_SIZE_DEFAULT = 1000;
+
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.openflow.controller.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts of the flushes of the messages sent to the switches, along with
+ * the time the messages waited to be flushed when writes are coalesced.
+ */
+final class WriteStatistics {
+
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder delayNanos = new LongAdder();
+
+    /**
+     * Records a flush of the given number of messages.
+     *
+     * @param count      number of flushed messages
+     * @param delayNanos total number of nanos the messages waited to be flushed
+     */
+    void record(int count, long delayNanos) {
+        flushes.increment();
+        messages.add(count);
+        if (delayNanos > 0) {
+            this.delayNanos.add(delayNanos);
+        }
+    }
+
+    /**
+     * Returns the number of flushes.
+     *
+     * @return number of flushes
+     */
+    long flushes() {
+        return flushes.sum();
+    }
+
+    /**
+     * Returns the number of flushed messages.
+     *
+     * @return number of messages
+     */
+    long messages() {
+        return messages.sum();
+    }
+
+    /**
+     * Returns the average number of messages written per flush.
+     *
+     * @return messages per flush
+     */
+    double messagesPerFlush() {
+        long count = flushes.sum();
+        return count == 0 ? 0 : (double) messages.sum() / count;
+    }
+
+    /**
+     * Returns the average number of micros a message waited after being sent
+     * until it was flushed to the switch; this is the latency which write
+     * coalescing adds to flow installation.
+     *
+     * @return average flush delay in micros
+     */
+    double flushDelayMicros() {
+        long count = messages.sum();
+        return count == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMicros(delayNanos.sum()) / count;
+    }
+}
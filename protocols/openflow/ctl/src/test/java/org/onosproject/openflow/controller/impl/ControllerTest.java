@@ -178,11 +178,15 @@ public class ControllerTest {
         Dictionary<String, String> properties = new Hashtable<>();
         properties.put("openflowPorts", "1,2,3,4,5");
         properties.put("workerThreads", "5");
+        properties.put("writeFlushDelayMicros", "100");
+        properties.put("writeBatchSize", "64");
 
         controller.setConfigParams(properties);
         IntStream.rangeClosed(1, 5)
                 .forEach(i -> assertThat(controller.openFlowPorts, hasItem(i)));
         assertThat(controller.workerThreads, is(5));
+        assertThat(controller.writeFlushDelayMicros, is(100));
+        assertThat(controller.writeBatchSize, is(64));
     }
 
     /**
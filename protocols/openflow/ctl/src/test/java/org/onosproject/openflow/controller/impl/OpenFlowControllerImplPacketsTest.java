@@ -15,6 +15,7 @@
  */
 package org.onosproject.openflow.controller.impl;
 
+import com.google.common.collect.ImmutableList;
 import org.junit.Before;
 import org.junit.Test;
 import org.onosproject.openflow.ExecutorServiceAdapter;
@@ -24,6 +25,7 @@ import org.onosproject.openflow.OfMessageAdapter;
 import org.onosproject.openflow.OpenFlowSwitchListenerAdapter;
 import org.onosproject.openflow.OpenflowSwitchDriverAdapter;
 import org.onosproject.openflow.controller.Dpid;
+import org.onosproject.openflow.controller.OpenFlowMessageListener;
 import org.onosproject.openflow.controller.OpenFlowPacketContext;
 import org.onosproject.openflow.controller.OpenFlowSwitch;
 import org.onosproject.openflow.controller.PacketListener;
@@ -37,6 +39,7 @@ import java.util.List;
 
 import static junit.framework.TestCase.fail;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -74,16 +77,22 @@ public class OpenFlowControllerImplPacketsTest {
      */
     static class TestExecutorService extends ExecutorServiceAdapter {
         private List<OFMessage> submittedMessages = new ArrayList<>();
+        private int submittedTasks;
 
         List<OFMessage> submittedMessages() {
             return submittedMessages;
         }
 
+        int submittedTasks() {
+            return submittedTasks;
+        }
+
         @Override
         public void execute(Runnable task) {
             OpenFlowControllerImpl.OFMessageHandler handler =
                     (OpenFlowControllerImpl.OFMessageHandler) task;
-            submittedMessages.add(handler.msg);
+            submittedMessages.addAll(handler.msgs);
+            submittedTasks++;
         }
     }
 
@@ -152,4 +161,48 @@ public class OpenFlowControllerImplPacketsTest {
         assertThat(errorMsgExecutorService.submittedMessages(), hasSize(1));
         assertThat(errorMsgExecutorService.submittedMessages().get(0), is(errorPacket));
     }
+
+    /**
+     * Tests that the flow removed messages of a burst are handed to the
+     * event listeners in a single batch.
+     */
+    @Test
+    public void testFlowRemovedBatch() {
+        agent.addConnectedSwitch(dpid1, switch1);
+        OFMessage flowRemoved1 = new OfMessageAdapter(OFType.FLOW_REMOVED);
+        OFMessage flowRemoved2 = new OfMessageAdapter(OFType.FLOW_REMOVED);
+        OFMessage portStatus = new MockOfPortStatus();
+        agent.processMessages(dpid1, ImmutableList.of(flowRemoved1, portStatus, flowRemoved2));
+
+        assertThat(statsExecutorService.submittedTasks(), is(1));
+        assertThat(statsExecutorService.submittedMessages(), contains(flowRemoved1, flowRemoved2));
+        assertThat(switchListener.portChangedDpids().get(dpid1), equalTo(portStatus));
+    }
+
+    /**
+     * Tests that a failing message listener does not abort the processing
+     * of the rest of the burst.
+     */
+    @Test
+    public void testFailingMessageListener() {
+        agent.addConnectedSwitch(dpid1, switch1);
+        List<OFMessage> received = new ArrayList<>();
+        controller.addMessageListener(new OpenFlowMessageListener() {
+            @Override
+            public void handleIncomingMessage(Dpid dpid, OFMessage msg) {
+                received.add(msg);
+                throw new IllegalStateException("BOOM!");
+            }
+
+            @Override
+            public void handleOutgoingMessage(Dpid dpid, List<OFMessage> msgs) {
+            }
+        });
+        OFMessage flowRemoved1 = new OfMessageAdapter(OFType.FLOW_REMOVED);
+        OFMessage flowRemoved2 = new OfMessageAdapter(OFType.FLOW_REMOVED);
+        agent.processMessages(dpid1, ImmutableList.of(flowRemoved1, flowRemoved2));
+
+        assertThat(received, contains(flowRemoved1, flowRemoved2));
+        assertThat(statsExecutorService.submittedMessages(), contains(flowRemoved1, flowRemoved2));
+    }
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.openflow.controller.impl;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Tests of the write statistics of the switch channels.
+ */
+public class WriteStatisticsTest {
+
+    @Test
+    public void testRecord() {
+        WriteStatistics statistics = new WriteStatistics();
+        assertThat(statistics.messagesPerFlush(), closeTo(0, 0.001));
+        assertThat(statistics.flushDelayMicros(), closeTo(0, 0.001));
+
+        statistics.record(1, 0);
+        statistics.record(3, TimeUnit.MICROSECONDS.toNanos(300));
+        assertThat(statistics.flushes(), is(2L));
+        assertThat(statistics.messages(), is(4L));
+        assertThat(statistics.messagesPerFlush(), closeTo(2, 0.001));
+        assertThat(statistics.flushDelayMicros(), closeTo(75, 0.001));
+    }
+}
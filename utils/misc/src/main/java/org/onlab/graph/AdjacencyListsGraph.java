@@ -39,6 +39,8 @@ public class AdjacencyListsGraph<V extends Vertex, E extends Edge<V>>
     private final ImmutableSetMultimap<V, E> sources;
     private final ImmutableSetMultimap<V, E> destinations;
 
+    private volatile CompactGraph<V, E> compact;
+
     /**
      * Creates a graph comprising of the specified vertexes and edges.
      *
@@ -93,6 +95,26 @@ public class AdjacencyListsGraph<V extends Vertex, E extends Edge<V>>
         return destinations.get(dst);
     }
 
+    /**
+     * Returns the compact, int-indexed snapshot of this graph; the snapshot
+     * is compiled on first use and shared by all subsequent searches.
+     *
+     * @return compact graph snapshot
+     */
+    public CompactGraph<V, E> compact() {
+        CompactGraph<V, E> snapshot = compact;
+        if (snapshot == null) {
+            synchronized (this) {
+                snapshot = compact;
+                if (snapshot == null) {
+                    snapshot = new CompactGraph<>(this);
+                    compact = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) {
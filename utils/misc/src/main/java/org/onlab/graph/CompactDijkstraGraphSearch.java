@@ -0,0 +1,283 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import com.google.common.math.DoubleMath;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra shortest-path graph search algorithm running over the compact,
+ * int-indexed snapshot of an {@link AdjacencyListsGraph}.
+ * <p>
+ * Costs, parent edges and the priority queue are kept in primitive arrays
+ * indexed by vertex, so the search itself does not allocate per vertex or
+ * per edge; objects are only created for the vertexes reported in the result.
+ * When a destination is given, the result reports the costs and parent edges
+ * of the vertexes lying along the shortest paths to the destination only.
+ * <p>
+ * Searches over other graph implementations, or using weighers that do not
+ * produce plain {@link ScalarWeight} weights, are delegated to the default
+ * {@link DijkstraGraphSearch}.
+ */
+public class CompactDijkstraGraphSearch<V extends Vertex, E extends Edge<V>>
+        extends DijkstraGraphSearch<V, E> {
+
+    @Override
+    protected Result<V, E> internalSearch(Graph<V, E> graph, V src, V dst,
+                                          EdgeWeigher<V, E> weigher, int maxPaths) {
+        Weight initial = weigher.getInitialWeight();
+        if (graph instanceof AdjacencyListsGraph && isScalar(initial)) {
+            Result<V, E> result = compactSearch(((AdjacencyListsGraph<V, E>) graph).compact(),
+                                                src, dst, weigher, (ScalarWeight) initial, maxPaths);
+            if (result != null) {
+                return result;
+            }
+        }
+        return super.internalSearch(graph, src, dst, weigher, maxPaths);
+    }
+
+    // Indicates whether the weight is a plain scalar weight.
+    static boolean isScalar(Weight weight) {
+        return weight != null && weight.getClass() == ScalarWeight.class;
+    }
+
+    // Runs the search over the compact graph; returns null if the weigher
+    // produced a weight which is not a plain scalar weight.
+    private Result<V, E> compactSearch(CompactGraph<V, E> graph, V src, V dst,
+                                       EdgeWeigher<V, E> weigher, ScalarWeight initial,
+                                       int maxPaths) {
+        int n = graph.vertexCount();
+        int source = graph.index(src);
+        int target = dst != null ? graph.index(dst) : -1;
+        double threshold = ScalarWeight.samenessThreshold();
+
+        double[] costs = new double[n];
+        Arrays.fill(costs, Double.NaN);
+        boolean[] settled = new boolean[n];
+        ParentEdges parents = new ParentEdges(n);
+        MinQueue queue = new MinQueue(costs);
+
+        costs[source] = initial.value();
+        queue.offer(source);
+        while (!queue.isEmpty()) {
+            int nearest = queue.poll();
+            settled[nearest] = true;
+            if (nearest == target) {
+                break;
+            }
+
+            double cost = costs[nearest];
+            for (int p = graph.outStart(nearest), end = graph.outStart(nearest + 1); p < end; p++) {
+                int edge = graph.outEdge(p);
+                Weight hopCost = weigher.weight(graph.edge(edge));
+                if (!isScalar(hopCost)) {
+                    return null;
+                }
+                if (!hopCost.isViable() || hopCost.isNegative()) {
+                    continue;
+                }
+
+                int next = graph.dst(edge);
+                double newCost = cost + ((ScalarWeight) hopCost).value();
+                int compareResult = Double.isNaN(costs[next]) ? -1 :
+                        DoubleMath.fuzzyCompare(newCost, costs[next], threshold);
+                if (compareResult <= 0) {
+                    costs[next] = newCost;
+                    parents.add(next, edge, compareResult < 0, maxPaths);
+                    if (!settled[next]) {
+                        queue.offer(next);
+                    }
+                }
+            }
+        }
+        return buildResult(graph, src, dst, source, target, initial, costs, parents, maxPaths);
+    }
+
+    // Reports the costs and parent edges of the reached vertexes, or of the
+    // vertexes along the paths to the destination, and builds the paths.
+    private Result<V, E> buildResult(CompactGraph<V, E> graph, V src, V dst,
+                                     int source, int target, ScalarWeight initial,
+                                     double[] costs, ParentEdges parents, int maxPaths) {
+        DefaultResult result = new DefaultResult(src, dst, maxPaths);
+        int n = graph.vertexCount();
+        if (target < 0) {
+            for (int v = 0; v < n; v++) {
+                if (!Double.isNaN(costs[v])) {
+                    report(result, graph, v, v == source ? initial : new ScalarWeight(costs[v]), parents);
+                }
+            }
+        } else {
+            result.updateVertex(src, null, initial, false);
+            if (!Double.isNaN(costs[target])) {
+                boolean[] visited = new boolean[n];
+                int[] stack = new int[n];
+                int top = 0;
+                stack[top++] = target;
+                visited[target] = true;
+                while (top > 0) {
+                    int v = stack[--top];
+                    report(result, graph, v, v == source ? initial : new ScalarWeight(costs[v]), parents);
+                    for (int k = parents.first(v); k >= 0; k = parents.next(k)) {
+                        int prev = graph.src(parents.edge(k));
+                        if (!visited[prev]) {
+                            visited[prev] = true;
+                            stack[top++] = prev;
+                        }
+                    }
+                }
+            }
+        }
+        result.buildPaths();
+        return result;
+    }
+
+    private void report(DefaultResult result, CompactGraph<V, E> graph, int v,
+                        Weight cost, ParentEdges parents) {
+        V vertex = graph.vertex(v);
+        if (parents.first(v) < 0) {
+            result.updateVertex(vertex, null, cost, false);
+        }
+        for (int k = parents.first(v); k >= 0; k = parents.next(k)) {
+            result.updateVertex(vertex, graph.edge(parents.edge(k)), cost, false);
+        }
+    }
+
+    // Lists of parent edges per vertex, linked through primitive arrays.
+    private static final class ParentEdges {
+        private final int[] heads;
+        private final int[] counts;
+        private int[] edges = new int[16];
+        private int[] nexts = new int[16];
+        private int size;
+
+        private ParentEdges(int vertexCount) {
+            heads = new int[vertexCount];
+            counts = new int[vertexCount];
+            Arrays.fill(heads, -1);
+        }
+
+        private void add(int vertex, int edge, boolean replace, int maxPaths) {
+            if (replace) {
+                heads[vertex] = -1;
+                counts[vertex] = 0;
+            }
+            if (maxPaths != ALL_PATHS && counts[vertex] >= maxPaths) {
+                return;
+            }
+            if (size == edges.length) {
+                edges = Arrays.copyOf(edges, size * 2);
+                nexts = Arrays.copyOf(nexts, size * 2);
+            }
+            edges[size] = edge;
+            nexts[size] = heads[vertex];
+            heads[vertex] = size++;
+            counts[vertex]++;
+        }
+
+        private int first(int vertex) {
+            return heads[vertex];
+        }
+
+        private int next(int entry) {
+            return nexts[entry];
+        }
+
+        private int edge(int entry) {
+            return edges[entry];
+        }
+    }
+
+    // Binary min-heap of vertex indexes ordered by their current cost and
+    // supporting in-place decrease of a queued vertex's cost.
+    private static final class MinQueue {
+        private final double[] costs;
+        private final int[] heap;
+        private final int[] positions;
+        private int size;
+
+        private MinQueue(double[] costs) {
+            this.costs = costs;
+            this.heap = new int[costs.length];
+            this.positions = new int[costs.length];
+            Arrays.fill(positions, -1);
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        // Adds the vertex or restores its position after its cost decreased.
+        private void offer(int vertex) {
+            int position = positions[vertex];
+            if (position < 0) {
+                position = size++;
+                heap[position] = vertex;
+                positions[vertex] = position;
+            }
+            siftUp(position);
+        }
+
+        private int poll() {
+            int nearest = heap[0];
+            positions[nearest] = -1;
+            size--;
+            if (size > 0) {
+                heap[0] = heap[size];
+                positions[heap[0]] = 0;
+                siftDown(0);
+            }
+            return nearest;
+        }
+
+        private void siftUp(int position) {
+            int vertex = heap[position];
+            while (position > 0) {
+                int parent = (position - 1) / 2;
+                if (costs[heap[parent]] <= costs[vertex]) {
+                    break;
+                }
+                move(heap[parent], position);
+                position = parent;
+            }
+            move(vertex, position);
+        }
+
+        private void siftDown(int position) {
+            int vertex = heap[position];
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && costs[heap[child + 1]] < costs[heap[child]]) {
+                    child++;
+                }
+                if (costs[vertex] <= costs[heap[child]]) {
+                    break;
+                }
+                move(heap[child], position);
+                position = child;
+            }
+            move(vertex, position);
+        }
+
+        private void move(int vertex, int position) {
+            heap[position] = vertex;
+            positions[vertex] = position;
+        }
+    }
+}
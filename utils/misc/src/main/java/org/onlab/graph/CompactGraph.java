@@ -0,0 +1,204 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Immutable, int-indexed snapshot of a graph in compressed sparse row form.
+ * <p>
+ * Vertexes and edges are mapped to dense indexes; the egress and ingress
+ * edges of each vertex are kept as contiguous runs of edge indexes, allowing
+ * searches to traverse the graph over primitive arrays.
+ *
+ * @param <V> vertex type
+ * @param <E> edge type
+ */
+public final class CompactGraph<V extends Vertex, E extends Edge<V>> {
+
+    private final Object[] vertexes;
+    private final Object[] edges;
+    private final Map<V, Integer> indexes;
+    private final int[] edgeSrcs;
+    private final int[] edgeDsts;
+    private final int[] outOffsets;
+    private final int[] outEdges;
+    private final int[] inOffsets;
+    private final int[] inEdges;
+
+    /**
+     * Creates a compact snapshot of the specified graph.
+     *
+     * @param graph graph to compile
+     */
+    public CompactGraph(Graph<V, E> graph) {
+        checkNotNull(graph, "Graph cannot be null");
+        int n = graph.getVertexes().size();
+        int m = graph.getEdges().size();
+        vertexes = new Object[n];
+        indexes = new HashMap<>(n * 2);
+        for (V vertex : graph.getVertexes()) {
+            vertexes[indexes.size()] = vertex;
+            indexes.put(vertex, indexes.size());
+        }
+
+        edges = new Object[m];
+        edgeSrcs = new int[m];
+        edgeDsts = new int[m];
+        outOffsets = new int[n + 1];
+        inOffsets = new int[n + 1];
+        int e = 0;
+        for (E edge : graph.getEdges()) {
+            edges[e] = edge;
+            edgeSrcs[e] = indexes.get(edge.src());
+            edgeDsts[e] = indexes.get(edge.dst());
+            outOffsets[edgeSrcs[e] + 1]++;
+            inOffsets[edgeDsts[e] + 1]++;
+            e++;
+        }
+        for (int v = 0; v < n; v++) {
+            outOffsets[v + 1] += outOffsets[v];
+            inOffsets[v + 1] += inOffsets[v];
+        }
+
+        outEdges = new int[m];
+        inEdges = new int[m];
+        int[] outFill = new int[n];
+        int[] inFill = new int[n];
+        for (e = 0; e < m; e++) {
+            outEdges[outOffsets[edgeSrcs[e]] + outFill[edgeSrcs[e]]++] = e;
+            inEdges[inOffsets[edgeDsts[e]] + inFill[edgeDsts[e]]++] = e;
+        }
+    }
+
+    /**
+     * Returns the number of vertexes.
+     *
+     * @return number of vertexes
+     */
+    public int vertexCount() {
+        return vertexes.length;
+    }
+
+    /**
+     * Returns the number of edges.
+     *
+     * @return number of edges
+     */
+    public int edgeCount() {
+        return edges.length;
+    }
+
+    /**
+     * Returns the index of the specified vertex.
+     *
+     * @param vertex vertex
+     * @return vertex index or -1 if the vertex is not in the graph
+     */
+    public int index(V vertex) {
+        Integer index = indexes.get(vertex);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Returns the vertex with the specified index.
+     *
+     * @param index vertex index
+     * @return vertex
+     */
+    @SuppressWarnings("unchecked")
+    public V vertex(int index) {
+        return (V) vertexes[index];
+    }
+
+    /**
+     * Returns the edge with the specified index.
+     *
+     * @param index edge index
+     * @return edge
+     */
+    @SuppressWarnings("unchecked")
+    public E edge(int index) {
+        return (E) edges[index];
+    }
+
+    /**
+     * Returns the index of the source vertex of the specified edge.
+     *
+     * @param edge edge index
+     * @return source vertex index
+     */
+    public int src(int edge) {
+        return edgeSrcs[edge];
+    }
+
+    /**
+     * Returns the index of the destination vertex of the specified edge.
+     *
+     * @param edge edge index
+     * @return destination vertex index
+     */
+    public int dst(int edge) {
+        return edgeDsts[edge];
+    }
+
+    /**
+     * Returns the position in {@link #outEdge(int)} of the first egress edge
+     * of the specified vertex; the egress edges of vertex {@code v} span from
+     * {@code outStart(v)} inclusive to {@code outStart(v + 1)} exclusive.
+     *
+     * @param vertex vertex index, or the vertex count
+     * @return position of the first egress edge
+     */
+    public int outStart(int vertex) {
+        return outOffsets[vertex];
+    }
+
+    /**
+     * Returns the egress edge at the specified position.
+     *
+     * @param position egress edge position
+     * @return edge index
+     */
+    public int outEdge(int position) {
+        return outEdges[position];
+    }
+
+    /**
+     * Returns the position in {@link #inEdge(int)} of the first ingress edge
+     * of the specified vertex; the ingress edges of vertex {@code v} span from
+     * {@code inStart(v)} inclusive to {@code inStart(v + 1)} exclusive.
+     *
+     * @param vertex vertex index, or the vertex count
+     * @return position of the first ingress edge
+     */
+    public int inStart(int vertex) {
+        return inOffsets[vertex];
+    }
+
+    /**
+     * Returns the ingress edge at the specified position.
+     *
+     * @param position ingress edge position
+     * @return edge index
+     */
+    public int inEdge(int position) {
+        return inEdges[position];
+    }
+}
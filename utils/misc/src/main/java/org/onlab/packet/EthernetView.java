@@ -0,0 +1,310 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.packet;
+
+import java.nio.ByteBuffer;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Read-only view of the headers of a raw Ethernet frame.
+ * <p>
+ * Unlike {@link Ethernet#deserializer()}, the view does not copy the frame
+ * or build the packet object tree; header fields are read straight from the
+ * underlying buffer when asked for. Fields which are absent from the frame,
+ * e.g. because it is truncated or of another protocol, are reported as such
+ * rather than raising an error.
+ * <p>
+ * IPv6 extension headers are not traversed; the transport header is located
+ * only if it immediately follows the fixed IPv6 header.
+ */
+public final class EthernetView {
+
+    private static final int MAC_ADDRESS_LENGTH = 6;
+    private static final int ETHER_TYPE_OFFSET = 12;
+    private static final int VLAN_HEADER_LENGTH = 4;
+
+    private static final int IPV4_MIN_HEADER_LENGTH = 20;
+    private static final int IPV4_FRAGMENT_OFFSET = 6;
+    private static final int IPV4_PROTOCOL_OFFSET = 9;
+    private static final int IPV4_SOURCE_OFFSET = 12;
+    private static final int IPV4_DESTINATION_OFFSET = 16;
+
+    private static final int IPV6_HEADER_LENGTH = 40;
+    private static final int IPV6_NEXT_HEADER_OFFSET = 6;
+    private static final int IPV6_SOURCE_OFFSET = 8;
+    private static final int IPV6_DESTINATION_OFFSET = 24;
+
+    private static final int TCP_FLAGS_OFFSET = 12;
+    private static final int TCP_FLAGS_MASK = 0x01ff;
+    private static final byte PROTOCOL_SCTP = (byte) 0x84;
+
+    private static final int ABSENT = -1;
+
+    private final ByteBuffer data;
+    private final short vlanId;
+    private final short qinqVlanId;
+    private final short etherType;
+    private final int l3Offset;
+    private final int ipProtocol;
+    private final int l4Offset;
+
+    private EthernetView(ByteBuffer data) {
+        this.data = data;
+
+        // Walk past the VLAN tags, the outer one being the QinQ tag.
+        short outerVid = VlanId.UNTAGGED;
+        short innerVid = VlanId.UNTAGGED;
+        int offset = ETHER_TYPE_OFFSET;
+        short type = readShort(offset);
+        while ((type == Ethernet.TYPE_VLAN || type == Ethernet.TYPE_QINQ) && innerVid == VlanId.UNTAGGED) {
+            short vid = (short) (readShort(offset + 2) & 0x0fff);
+            if (outerVid == VlanId.UNTAGGED && (type == Ethernet.TYPE_QINQ ||
+                    readShort(offset + VLAN_HEADER_LENGTH) == Ethernet.TYPE_VLAN)) {
+                outerVid = vid;
+            } else {
+                innerVid = vid;
+            }
+            offset += VLAN_HEADER_LENGTH;
+            type = readShort(offset);
+        }
+        vlanId = innerVid;
+        qinqVlanId = outerVid;
+        etherType = type;
+        l3Offset = offset + 2;
+
+        int protocol = ABSENT;
+        int transport = ABSENT;
+        if (etherType == Ethernet.TYPE_IPV4 && available(l3Offset, IPV4_MIN_HEADER_LENGTH)) {
+            protocol = data.get(l3Offset + IPV4_PROTOCOL_OFFSET) & 0xff;
+            int headerLength = (data.get(l3Offset) & 0x0f) * 4;
+            boolean firstFragment = (readShort(l3Offset + IPV4_FRAGMENT_OFFSET) & 0x1fff) == 0;
+            if (firstFragment && headerLength >= IPV4_MIN_HEADER_LENGTH) {
+                transport = l3Offset + headerLength;
+            }
+        } else if (etherType == Ethernet.TYPE_IPV6 && available(l3Offset, IPV6_HEADER_LENGTH)) {
+            protocol = data.get(l3Offset + IPV6_NEXT_HEADER_OFFSET) & 0xff;
+            transport = l3Offset + IPV6_HEADER_LENGTH;
+        }
+        ipProtocol = protocol;
+        l4Offset = transport;
+    }
+
+    /**
+     * Returns a view of the Ethernet frame held in the remaining bytes of
+     * the given buffer. The position of the buffer is not modified.
+     *
+     * @param data buffer holding the frame
+     * @return Ethernet frame view
+     */
+    public static EthernetView of(ByteBuffer data) {
+        return new EthernetView(checkNotNull(data, "Data cannot be null").slice());
+    }
+
+    /**
+     * Returns a view of the Ethernet frame held in the given bytes.
+     *
+     * @param data bytes of the frame
+     * @return Ethernet frame view
+     */
+    public static EthernetView of(byte[] data) {
+        return new EthernetView(ByteBuffer.wrap(checkNotNull(data, "Data cannot be null")));
+    }
+
+    /**
+     * Returns the destination MAC address.
+     *
+     * @return destination MAC; null if the frame is truncated
+     */
+    public MacAddress destinationMac() {
+        return mac(0);
+    }
+
+    /**
+     * Returns the source MAC address.
+     *
+     * @return source MAC; null if the frame is truncated
+     */
+    public MacAddress sourceMac() {
+        return mac(MAC_ADDRESS_LENGTH);
+    }
+
+    /**
+     * Returns the VLAN identifier of the frame, i.e. that of the inner tag
+     * of double tagged frames.
+     *
+     * @return VLAN identifier; {@link VlanId#NONE} if untagged
+     */
+    public VlanId vlanId() {
+        return VlanId.vlanId(vlanId);
+    }
+
+    /**
+     * Returns the VLAN identifier of the outer tag of double tagged frames.
+     *
+     * @return QinQ VLAN identifier; {@link VlanId#NONE} if not double tagged
+     */
+    public VlanId qinqVlanId() {
+        return VlanId.vlanId(qinqVlanId);
+    }
+
+    /**
+     * Returns the ether type of the frame payload, past any VLAN tags.
+     *
+     * @return ether type; 0 if the frame is truncated
+     */
+    public short etherType() {
+        return etherType;
+    }
+
+    /**
+     * Indicates whether the frame holds an IPv4 packet.
+     *
+     * @return true if IPv4
+     */
+    public boolean isIpv4() {
+        return etherType == Ethernet.TYPE_IPV4 && ipProtocol != ABSENT;
+    }
+
+    /**
+     * Indicates whether the frame holds an IPv6 packet.
+     *
+     * @return true if IPv6
+     */
+    public boolean isIpv6() {
+        return etherType == Ethernet.TYPE_IPV6 && ipProtocol != ABSENT;
+    }
+
+    /**
+     * Returns the IP protocol, i.e. the next header for IPv6.
+     *
+     * @return IP protocol; -1 if the frame holds no IP packet
+     */
+    public int ipProtocol() {
+        return ipProtocol;
+    }
+
+    /**
+     * Returns the source IP address.
+     *
+     * @return source IP address; null if the frame holds no IP packet
+     */
+    public IpAddress sourceIp() {
+        return ip(IPV4_SOURCE_OFFSET, IPV6_SOURCE_OFFSET);
+    }
+
+    /**
+     * Returns the destination IP address.
+     *
+     * @return destination IP address; null if the frame holds no IP packet
+     */
+    public IpAddress destinationIp() {
+        return ip(IPV4_DESTINATION_OFFSET, IPV6_DESTINATION_OFFSET);
+    }
+
+    /**
+     * Returns the TCP, UDP or SCTP source port.
+     *
+     * @return source port; -1 if the frame holds no such transport header
+     */
+    public int sourcePort() {
+        return hasPorts() ? readShort(l4Offset) & 0xffff : ABSENT;
+    }
+
+    /**
+     * Returns the TCP, UDP or SCTP destination port.
+     *
+     * @return destination port; -1 if the frame holds no such transport header
+     */
+    public int destinationPort() {
+        return hasPorts() ? readShort(l4Offset + 2) & 0xffff : ABSENT;
+    }
+
+    /**
+     * Returns the TCP flags, as defined by {@link TCP#getFlags()}.
+     *
+     * @return TCP flags; -1 if the frame holds no TCP header
+     */
+    public int tcpFlags() {
+        if (ipProtocol != (IPv4.PROTOCOL_TCP & 0xff) || !available(l4Offset, TCP_FLAGS_OFFSET + 2)) {
+            return ABSENT;
+        }
+        return readShort(l4Offset + TCP_FLAGS_OFFSET) & TCP_FLAGS_MASK;
+    }
+
+    /**
+     * Returns the offset of the network header in the frame.
+     *
+     * @return network header offset
+     */
+    public int networkHeaderOffset() {
+        return l3Offset;
+    }
+
+    private boolean hasPorts() {
+        return (ipProtocol == (IPv4.PROTOCOL_TCP & 0xff) || ipProtocol == (IPv4.PROTOCOL_UDP & 0xff) ||
+                ipProtocol == (PROTOCOL_SCTP & 0xff)) && available(l4Offset, 4);
+    }
+
+    private MacAddress mac(int offset) {
+        if (!available(offset, MAC_ADDRESS_LENGTH)) {
+            return null;
+        }
+        long mac = 0;
+        for (int i = offset; i < offset + MAC_ADDRESS_LENGTH; i++) {
+            mac = (mac << 8) | (data.get(i) & 0xff);
+        }
+        return MacAddress.valueOf(mac);
+    }
+
+    private IpAddress ip(int ipv4Offset, int ipv6Offset) {
+        if (isIpv4()) {
+            return IpAddress.valueOf(data.getInt(l3Offset + ipv4Offset));
+        } else if (isIpv6()) {
+            byte[] address = new byte[IpAddress.INET6_BYTE_LENGTH];
+            for (int i = 0; i < address.length; i++) {
+                address[i] = data.get(l3Offset + ipv6Offset + i);
+            }
+            return IpAddress.valueOf(IpAddress.Version.INET6, address);
+        }
+        return null;
+    }
+
+    private short readShort(int offset) {
+        return available(offset, 2) ? data.getShort(offset) : 0;
+    }
+
+    private boolean available(int offset, int length) {
+        return offset >= 0 && offset + length <= data.limit();
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("src", sourceMac())
+                .add("dst", destinationMac())
+                .add("vlan", vlanId())
+                .add("etherType", String.format("0x%04x", etherType & 0xffff))
+                .add("ipProtocol", ipProtocol)
+                .add("srcIp", sourceIp())
+                .add("dstIp", destinationIp())
+                .add("srcPort", sourcePort())
+                .add("dstPort", destinationPort())
+                .omitNullValues()
+                .toString();
+    }
+}
@@ -29,12 +29,11 @@ import com.esotericsoftware.kryo.serializers.CompatibleFieldSerializer;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
 import org.apache.commons.lang3.tuple.Pair;
 import org.objenesis.strategy.StdInstantiatorStrategy;
 import org.slf4j.Logger;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
@@ -60,6 +59,12 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
     public static final int DEFAULT_BUFFER_SIZE = 4096;
     public static final int MAX_BUFFER_SIZE = 100 * 1000 * 1000;
 
+    /**
+     * Largest serialization buffer kept for reuse by a thread; buffers grown
+     * beyond it are dropped once the serialization completes.
+     */
+    public static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+
     /**
      * ID to use if this KryoNamespace does not define registration id.
      */
@@ -74,6 +79,11 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
 
     private static final Logger log = getLogger(KryoNamespace.class);
 
+    // Serialization buffer of each thread, reused across the calls of the
+    // thread to any namespace; null while in use, so that nested calls get
+    // their own.
+    private static final ThreadLocal<Output> OUTPUTS = new ThreadLocal<>();
+
     private final KryoPool pool = new KryoPool.Builder(this)
                                         .softReferences()
                                         .build();
@@ -305,13 +315,65 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
      * @return serialized bytes
      */
     public byte[] serialize(final Object obj, final int bufferSize) {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bufferSize);
-        Output out = new Output(outputStream);
-        return pool.run(kryo -> {
+        Output out = borrowOutput(bufferSize);
+        try {
+            return pool.run(kryo -> {
+                kryo.writeClassAndObject(out, obj);
+                return out.toBytes();
+            });
+        } finally {
+            releaseOutput(out);
+        }
+    }
+
+    /**
+     * Returns the serialization buffer of the current thread, or a new one if
+     * the thread's buffer is already in use.
+     *
+     * @param bufferSize initial size of a new buffer
+     * @return serialization buffer
+     */
+    private Output borrowOutput(int bufferSize) {
+        Output out = OUTPUTS.get();
+        if (out == null) {
+            return new Output(bufferSize, -1);
+        }
+        OUTPUTS.set(null);
+        return out;
+    }
+
+    /**
+     * Returns the given serialization buffer to the current thread for reuse,
+     * unless it has grown too large to be kept.
+     *
+     * @param out serialization buffer
+     */
+    private void releaseOutput(Output out) {
+        if (out.getBuffer().length <= MAX_POOLED_BUFFER_SIZE && OUTPUTS.get() == null) {
+            out.clear();
+            OUTPUTS.set(out);
+        }
+    }
+
+    /**
+     * Returns the number of bytes the given object serializes to, without
+     * retaining the serialized bytes; e.g. to size a buffer before serializing
+     * into it. The object is serialized in full, into a small buffer which is
+     * discarded as it fills up.
+     *
+     * @param obj Object to measure
+     * @return serialized size in bytes
+     */
+    public int serializedSize(final Object obj) {
+        Output out = new Output(ByteStreams.nullOutputStream(), DEFAULT_BUFFER_SIZE);
+        Kryo kryo = borrow();
+        try {
             kryo.writeClassAndObject(out, obj);
             out.flush();
-            return outputStream.toByteArray();
-        });
+            return Math.toIntExact(out.total());
+        } finally {
+            release(kryo);
+        }
     }
 
     /**
@@ -367,7 +429,7 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
      * @return deserialized Object
      */
     public <T> T deserialize(final byte[] bytes) {
-        Input in = new Input(new ByteArrayInputStream(bytes));
+        Input in = new Input(bytes);
         Kryo kryo = borrow();
         try {
             @SuppressWarnings("unchecked")
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test of the Dijkstra algorithm running over the compact graph.
+ */
+public class CompactDijkstraGraphSearchTest extends DijkstraGraphSearchTest {
+
+    private static final EdgeWeigher<TestVertex, TestEdge> SCALAR_WEIGHER =
+            new EdgeWeigher<TestVertex, TestEdge>() {
+                @Override
+                public Weight weight(TestEdge edge) {
+                    return edge.weight();
+                }
+
+                @Override
+                public Weight getInitialWeight() {
+                    return ScalarWeight.toWeight(0);
+                }
+
+                @Override
+                public Weight getNonViableWeight() {
+                    return ScalarWeight.NON_VIABLE_WEIGHT;
+                }
+            };
+
+    @Override
+    protected AbstractGraphPathSearch<TestVertex, TestEdge> graphSearch() {
+        return new CompactDijkstraGraphSearch<>();
+    }
+
+    @Test
+    public void compactSnapshot() {
+        AdjacencyListsGraph<TestVertex, TestEdge> graph =
+                new AdjacencyListsGraph<>(vertexes(), edges());
+        CompactGraph<TestVertex, TestEdge> compact = graph.compact();
+        assertSame("snapshot should be shared", compact, graph.compact());
+        assertEquals("incorrect vertex count", vertexes().size(), compact.vertexCount());
+        assertEquals("incorrect edge count", edges().size(), compact.edgeCount());
+
+        for (TestVertex vertex : vertexes()) {
+            int v = compact.index(vertex);
+            assertSame("incorrect vertex", vertex, compact.vertex(v));
+            Set<TestEdge> egress = new HashSet<>();
+            for (int p = compact.outStart(v); p < compact.outStart(v + 1); p++) {
+                egress.add(compact.edge(compact.outEdge(p)));
+            }
+            assertEquals("incorrect egress edges", graph.getEdgesFrom(vertex), egress);
+            Set<TestEdge> ingress = new HashSet<>();
+            for (int p = compact.inStart(v); p < compact.inStart(v + 1); p++) {
+                ingress.add(compact.edge(compact.inEdge(p)));
+            }
+            assertEquals("incorrect ingress edges", graph.getEdgesTo(vertex), ingress);
+        }
+        assertEquals("absent vertex should have no index", -1, compact.index(Z));
+    }
+
+    @Test
+    public void equivalentToDijkstra() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            Graph<TestVertex, TestEdge> graph = randomGraph(random, 30, 90);
+            GraphPathSearch<TestVertex, TestEdge> expected = new DijkstraGraphSearch<>();
+            GraphPathSearch<TestVertex, TestEdge> actual = graphSearch();
+            for (TestVertex src : graph.getVertexes()) {
+                GraphPathSearch.Result<TestVertex, TestEdge> all =
+                        expected.search(graph, src, null, SCALAR_WEIGHER, GraphPathSearch.ALL_PATHS);
+                GraphPathSearch.Result<TestVertex, TestEdge> compactAll =
+                        actual.search(graph, src, null, SCALAR_WEIGHER, GraphPathSearch.ALL_PATHS);
+                assertEquals("incorrect costs", all.costs(), compactAll.costs());
+                assertEquals("incorrect paths", all.paths(), compactAll.paths());
+
+                for (TestVertex dst : graph.getVertexes()) {
+                    assertEquals("incorrect paths",
+                                 expected.search(graph, src, dst, SCALAR_WEIGHER,
+                                                 GraphPathSearch.ALL_PATHS).paths(),
+                                 actual.search(graph, src, dst, SCALAR_WEIGHER,
+                                               GraphPathSearch.ALL_PATHS).paths());
+
+                    Set<Path<TestVertex, TestEdge>> one =
+                            expected.search(graph, src, dst, SCALAR_WEIGHER, 1).paths();
+                    Set<Path<TestVertex, TestEdge>> compactOne =
+                            actual.search(graph, src, dst, SCALAR_WEIGHER, 1).paths();
+                    assertEquals("incorrect paths count", one.size(), compactOne.size());
+                    if (!one.isEmpty()) {
+                        assertEquals("incorrect path cost", one.iterator().next().cost(),
+                                     compactOne.iterator().next().cost());
+                    }
+                }
+            }
+        }
+    }
+
+    // Creates a random graph with small integral weights, yielding many
+    // equal-cost paths, and a few non-viable edges.
+    private Graph<TestVertex, TestEdge> randomGraph(Random random, int vertexCount, int edgeCount) {
+        List<TestVertex> vertexes = new ArrayList<>();
+        for (int i = 0; i < vertexCount; i++) {
+            vertexes.add(new TestVertex("V" + i));
+        }
+        Set<TestEdge> edges = new HashSet<>();
+        while (edges.size() < edgeCount) {
+            TestVertex src = vertexes.get(random.nextInt(vertexCount));
+            TestVertex dst = vertexes.get(random.nextInt(vertexCount));
+            if (!src.equals(dst)) {
+                Weight weight = random.nextInt(10) == 0 ? ScalarWeight.NON_VIABLE_WEIGHT :
+                        ScalarWeight.toWeight(1 + random.nextInt(3));
+                edges.add(new TestEdge(src, dst, weight));
+            }
+        }
+        return new AdjacencyListsGraph<>(new HashSet<>(vertexes), edges);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.packet;
+
+import com.google.common.io.Resources;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the EthernetView class.
+ */
+public class EthernetViewTest {
+
+    private static final MacAddress SRC_MAC = MacAddress.valueOf("00:00:00:00:00:01");
+    private static final MacAddress DST_MAC = MacAddress.valueOf("00:00:00:00:00:02");
+    private static final Ip4Address SRC_IP = Ip4Address.valueOf("10.0.0.1");
+    private static final Ip4Address DST_IP = Ip4Address.valueOf("10.0.0.2");
+    private static final short TCP_SYN = 0x02;
+
+    /**
+     * Tests the view of an ARP request.
+     */
+    @Test
+    public void arp() {
+        Ethernet eth = ARP.buildArpRequest(SRC_MAC.toBytes(), SRC_IP.toOctets(),
+                                           DST_IP.toOctets(), (short) 10);
+        EthernetView view = EthernetView.of(eth.serialize());
+
+        assertEquals(MacAddress.BROADCAST, view.destinationMac());
+        assertEquals(SRC_MAC, view.sourceMac());
+        assertEquals(VlanId.vlanId((short) 10), view.vlanId());
+        assertEquals(VlanId.NONE, view.qinqVlanId());
+        assertEquals(Ethernet.TYPE_ARP, view.etherType());
+        assertFalse(view.isIpv4());
+        assertEquals(-1, view.ipProtocol());
+        assertNull(view.sourceIp());
+        assertEquals(-1, view.sourcePort());
+    }
+
+    /**
+     * Tests the view of a DHCP discover captured off the wire.
+     */
+    @Test
+    public void dhcp() throws Exception {
+        byte[] data = Resources.toByteArray(EthernetViewTest.class.getResource("dhcp/dhcp_discover.bin"));
+        Ethernet eth = Ethernet.deserializer().deserialize(data, 0, data.length);
+        IPv4 ip = (IPv4) eth.getPayload();
+        UDP udp = (UDP) ip.getPayload();
+        EthernetView view = EthernetView.of(data);
+
+        assertEquals(eth.getSourceMAC(), view.sourceMac());
+        assertEquals(eth.getDestinationMAC(), view.destinationMac());
+        assertEquals(eth.getEtherType(), view.etherType());
+        assertTrue(view.isIpv4());
+        assertEquals(IPv4.PROTOCOL_UDP, view.ipProtocol());
+        assertEquals(IpAddress.valueOf(ip.getSourceAddress()), view.sourceIp());
+        assertEquals(IpAddress.valueOf(ip.getDestinationAddress()), view.destinationIp());
+        assertEquals(udp.getSourcePort(), view.sourcePort());
+        assertEquals(udp.getDestinationPort(), view.destinationPort());
+        assertEquals(UDP.DHCP_SERVER_PORT, view.destinationPort());
+        assertEquals(-1, view.tcpFlags());
+    }
+
+    /**
+     * Tests the view of a TCP SYN in a double tagged frame.
+     */
+    @Test
+    public void tcpSyn() {
+        Ethernet eth = tcpSyn(SRC_IP, DST_IP);
+        eth.setVlanID((short) 20).setQinQVID((short) 30);
+        EthernetView view = EthernetView.of(eth.serialize());
+
+        assertEquals(VlanId.vlanId((short) 20), view.vlanId());
+        assertEquals(VlanId.vlanId((short) 30), view.qinqVlanId());
+        assertEquals(Ethernet.TYPE_IPV4, view.etherType());
+        assertEquals(IPv4.PROTOCOL_TCP, view.ipProtocol());
+        assertEquals(SRC_IP, view.sourceIp());
+        assertEquals(DST_IP, view.destinationIp());
+        assertEquals(40000, view.sourcePort());
+        assertEquals(80, view.destinationPort());
+        assertEquals(TCP_SYN, view.tcpFlags());
+    }
+
+    /**
+     * Tests the view of an IPv6 UDP packet.
+     */
+    @Test
+    public void ipv6() {
+        Ip6Address src = Ip6Address.valueOf("2001::1");
+        Ip6Address dst = Ip6Address.valueOf("2001::2");
+        IPv6 ip = new IPv6();
+        ip.setSourceAddress(src.toOctets());
+        ip.setDestinationAddress(dst.toOctets());
+        ip.setNextHeader(IPv6.PROTOCOL_UDP);
+        ip.setPayload(new UDP().setSourcePort(546).setDestinationPort(547));
+        Ethernet eth = new Ethernet().setSourceMACAddress(SRC_MAC).setDestinationMACAddress(DST_MAC)
+                .setEtherType(Ethernet.TYPE_IPV6);
+        eth.setPayload(ip);
+        EthernetView view = EthernetView.of(eth.serialize());
+
+        assertTrue(view.isIpv6());
+        assertEquals(VlanId.NONE, view.vlanId());
+        assertEquals(IPv6.PROTOCOL_UDP, view.ipProtocol());
+        assertEquals(src, view.sourceIp());
+        assertEquals(dst, view.destinationIp());
+        assertEquals(546, view.sourcePort());
+        assertEquals(547, view.destinationPort());
+    }
+
+    /**
+     * Tests that the view reads the remaining bytes of a buffer without
+     * moving its position.
+     */
+    @Test
+    public void buffer() {
+        byte[] frame = tcpSyn(SRC_IP, DST_IP).serialize();
+        ByteBuffer data = ByteBuffer.allocate(frame.length + 4);
+        data.putInt(0).put(frame).position(4);
+        EthernetView view = EthernetView.of(data);
+
+        assertEquals(4, data.position());
+        assertEquals(SRC_IP, view.sourceIp());
+        assertEquals(80, view.destinationPort());
+    }
+
+    /**
+     * Tests that fields absent from a truncated frame are reported as such.
+     */
+    @Test
+    public void truncated() {
+        byte[] frame = tcpSyn(SRC_IP, DST_IP).serialize();
+        EthernetView view = EthernetView.of(Arrays.copyOf(frame, Ethernet.ETHERNET_HEADER_LENGTH + 10));
+        assertEquals(SRC_MAC, view.sourceMac());
+        assertEquals(Ethernet.TYPE_IPV4, view.etherType());
+        assertFalse(view.isIpv4());
+        assertNull(view.sourceIp());
+        assertEquals(-1, view.sourcePort());
+
+        view = EthernetView.of(Arrays.copyOf(frame, 8));
+        assertNull(view.sourceMac());
+        assertEquals(0, view.etherType());
+    }
+
+    private static Ethernet tcpSyn(Ip4Address src, Ip4Address dst) {
+        TCP tcp = new TCP().setSourcePort(40000).setDestinationPort(80).setFlags(TCP_SYN);
+        IPv4 ip = new IPv4().setSourceAddress(src.toInt()).setDestinationAddress(dst.toInt())
+                .setProtocol(IPv4.PROTOCOL_TCP);
+        ip.setPayload(tcp);
+        Ethernet eth = new Ethernet().setSourceMACAddress(SRC_MAC).setDestinationMACAddress(DST_MAC)
+                .setEtherType(Ethernet.TYPE_IPV4);
+        eth.setPayload(ip);
+        return eth;
+    }
+}
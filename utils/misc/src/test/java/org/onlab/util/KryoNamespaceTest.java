@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.util;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+/**
+ * Unit tests for the KryoNamespace class.
+ */
+public class KryoNamespaceTest {
+
+    /**
+     * Holder of a string serialized as a nested byte array, using the same
+     * namespace as the holder itself.
+     */
+    private static final class Nested {
+        private final String value;
+
+        Nested(String value) {
+            this.value = value;
+        }
+    }
+
+    private final class NestedSerializer extends Serializer<Nested> {
+        @Override
+        public void write(Kryo kryo, Output output, Nested object) {
+            byte[] bytes = namespace.serialize(object.value);
+            output.writeInt(bytes.length);
+            output.writeBytes(bytes);
+        }
+
+        @Override
+        public Nested read(Kryo kryo, Input input, Class<Nested> type) {
+            byte[] bytes = input.readBytes(input.readInt());
+            return new Nested(namespace.deserialize(bytes));
+        }
+    }
+
+    private final KryoNamespace namespace = KryoNamespace.newBuilder()
+            .register(byte[].class, String.class)
+            .register(new NestedSerializer(), Nested.class)
+            .build("test");
+
+    /**
+     * Tests that successive serializations, which reuse the buffer of the
+     * thread, yield distinct and correct bytes.
+     */
+    @Test
+    public void testBufferReuse() {
+        byte[] first = namespace.serialize("first");
+        byte[] second = namespace.serialize("second value");
+        byte[] again = namespace.serialize("first");
+
+        assertNotSame(first, again);
+        assertArrayEquals(first, again);
+        assertEquals("first", namespace.deserialize(first));
+        assertEquals("second value", namespace.deserialize(second));
+    }
+
+    /**
+     * Tests serialization from within a serializer of the same namespace.
+     */
+    @Test
+    public void testNestedSerialization() {
+        byte[] bytes = namespace.serialize(new Nested("inner"));
+        Nested nested = namespace.deserialize(bytes);
+        assertEquals("inner", nested.value);
+    }
+
+    /**
+     * Tests serialization of objects larger than the pooled buffers.
+     */
+    @Test
+    public void testLargeObject() {
+        byte[] large = new byte[KryoNamespace.MAX_POOLED_BUFFER_SIZE * 2];
+        Arrays.fill(large, (byte) 7);
+
+        assertArrayEquals(large, namespace.deserialize(namespace.serialize(large)));
+        assertEquals("small", namespace.deserialize(namespace.serialize("small")));
+    }
+
+    /**
+     * Tests measuring the serialized size of objects.
+     */
+    @Test
+    public void testSerializedSize() {
+        byte[] large = new byte[KryoNamespace.DEFAULT_BUFFER_SIZE * 3];
+        for (Object obj : new Object[]{"small", new Nested("inner"), large}) {
+            assertEquals(namespace.serialize(obj).length, namespace.serializedSize(obj));
+        }
+    }
+}
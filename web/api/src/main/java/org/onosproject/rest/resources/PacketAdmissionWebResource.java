@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.rest.resources;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.onosproject.net.packet.PacketAdmissionStatistics;
+import org.onosproject.net.packet.PacketService;
+import org.onosproject.rest.AbstractWebResource;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * Query packet-in admission statistics.
+ */
+@Path("packet/admission")
+public class PacketAdmissionWebResource extends AbstractWebResource {
+
+    /**
+     * Gets packet admission statistics. Returns the number of packets
+     * admitted for processing and dropped by the packet-in rate limits,
+     * per device.
+     *
+     * @onos.rsModel PacketAdmissionGet
+     * @return 200 OK with array of packet admission statistics
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getPacketAdmission() {
+        ObjectNode root = mapper().createObjectNode();
+        ArrayNode statistics = root.putArray("packet-admission");
+        for (PacketAdmissionStatistics s : get(PacketService.class).getAdmissionStatistics()) {
+            statistics.add(mapper().createObjectNode()
+                    .put("deviceId", s.deviceId().toString())
+                    .put("admitted", s.admitted())
+                    .put("droppedByDevice", s.droppedByDevice())
+                    .put("droppedByPort", s.droppedByPort())
+                    .put("droppedByEtherType", s.droppedByEtherType()));
+        }
+        return ok(root).build();
+    }
+}